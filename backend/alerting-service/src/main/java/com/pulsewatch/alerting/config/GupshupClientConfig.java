@@ -0,0 +1,39 @@
+package com.pulsewatch.alerting.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class GupshupClientConfig {
+
+    @Value("${alerting.gupshup.connect-timeout-ms:3000}")
+    private int connectTimeoutMs;
+
+    @Value("${alerting.gupshup.worker-threads:4}")
+    private int workerThreads;
+
+    /**
+     * Non-blocking client for the Gupshup API. HTTP/1.1 connections are kept alive and reused,
+     * so the pool holds at most one connection per request in flight. The executor only runs
+     * completion callbacks; socket I/O happens on the client's own selector thread.
+     */
+    @Bean
+    public HttpClient gupshupHttpClient() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(Executors.newFixedThreadPool(workerThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "alert-whatsapp-io-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+}
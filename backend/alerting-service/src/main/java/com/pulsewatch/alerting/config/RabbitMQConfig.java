@@ -1,14 +1,20 @@
 package com.pulsewatch.alerting.config;
 
+import com.pulsewatch.alerting.dto.AlertSeverity;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -21,9 +27,65 @@ public class RabbitMQConfig {
     @Value("${alerting.rabbitmq.routing-key:alerts.routing.key}")
     private String routingKey;
 
+    @Value("${alerting.rabbitmq.dead-letter.exchange:alerts.dlx}")
+    private String deadLetterExchangeName;
+
+    @Value("${alerting.rabbitmq.dead-letter.queue:alerts.queue.dlq}")
+    private String deadLetterQueueName;
+
+    @Value("${alerting.rabbitmq.listener.batch-size:50}")
+    private int batchSize;
+
+    @Value("${alerting.rabbitmq.listener.receive-timeout-ms:200}")
+    private long receiveTimeoutMs;
+
+    /**
+     * Name of a severity lane's queue. The plain queue name is left to the queue of earlier
+     * versions, which was declared without dead-letter arguments and cannot be redeclared with
+     * them; {@link com.pulsewatch.alerting.queue.LegacyQueueDrainer} moves what is left in it.
+     */
+    public static String laneQueueName(String queueName, AlertSeverity severity) {
+        return queueName + "." + severity.getKey();
+    }
+
+    /**
+     * One queue per severity lane, bound to the alerts exchange with
+     * {@code <routing-key>.<severity>}. The {@code WARNING} lane is also bound to the plain
+     * routing key for publishers that do not route by severity. Messages that can never be
+     * processed are rejected without requeue and dead-lettered.
+     */
+    @Bean
+    public Declarables alertLanes(TopicExchange alertsExchange) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (AlertSeverity severity : AlertSeverity.values()) {
+            Queue queue = QueueBuilder.durable(laneQueueName(queueName, severity))
+                    .deadLetterExchange(deadLetterExchangeName)
+                    .deadLetterRoutingKey(deadLetterQueueName)
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(alertsExchange).with(routingKey + "." + severity.getKey()));
+            if (severity == AlertSeverity.WARNING) {
+                declarables.add(BindingBuilder.bind(queue).to(alertsExchange).with(routingKey));
+            }
+        }
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    public DirectExchange alertsDeadLetterExchange() {
+        return new DirectExchange(deadLetterExchangeName);
+    }
+
+    @Bean
+    public Queue alertsDeadLetterQueue() {
+        return QueueBuilder.durable(deadLetterQueueName).build();
+    }
+
     @Bean
-    public Queue alertsQueue() {
-        return new Queue(queueName, true);
+    public Binding deadLetterBinding(Queue alertsDeadLetterQueue, DirectExchange alertsDeadLetterExchange) {
+        return BindingBuilder.bind(alertsDeadLetterQueue)
+                .to(alertsDeadLetterExchange)
+                .with(deadLetterQueueName);
     }
 
     @Bean
@@ -31,11 +93,22 @@ public class RabbitMQConfig {
         return new TopicExchange(exchangeName);
     }
 
+    /**
+     * Container for the alert lanes. Each consumer takes up to {@code batch-size} messages, or
+     * whatever arrived within {@code receive-timeout-ms}, and hands them to the listener as one
+     * list. Acknowledge mode and prefetch come from {@code spring.rabbitmq.listener.simple}; the
+     * number of consumers is set per lane on the listener.
+     */
     @Bean
-    public Binding binding(Queue alertsQueue, TopicExchange alertsExchange) {
-        return BindingBuilder.bind(alertsQueue)
-                .to(alertsExchange)
-                .with(routingKey);
+    public SimpleRabbitListenerContainerFactory alertBatchContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        return factory;
     }
 
     @Bean
@@ -1,7 +1,10 @@
 package com.pulsewatch.alerting.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewatch.alerting.dto.CursorPage;
 import com.pulsewatch.alerting.dto.SendAlertRequest;
 import com.pulsewatch.alerting.model.Alert;
+import com.pulsewatch.alerting.repository.AlertField;
 import com.pulsewatch.alerting.service.AlertService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -9,11 +12,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/alerts")
@@ -22,8 +31,11 @@ import java.util.List;
 public class AlertController {
 
     private static final Logger log = LoggerFactory.getLogger(AlertController.class);
+
+    private static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
     
     private final AlertService alertService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/send")
     public ResponseEntity<Alert> sendAlert(@Valid @RequestBody SendAlertRequest request) {
@@ -31,48 +43,98 @@ public class AlertController {
         
         try {
             Alert alert = alertService.sendAlertDirectly(request);
+            if (alert.isRetryScheduled()) {
+                log.info("Alert {} could not be delivered yet, retry scheduled", alert.getId());
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(alert);
+            }
             log.info("Alert sent successfully with ID: {}", alert.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(alert);
+        } catch (RejectedExecutionException e) {
+            log.warn("Alert channel {} is saturated, rejecting request", request.getType());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             log.error("Failed to send alert: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Newest alerts matching the filters, at most {@code limit} of them. The token for the next
+     * page is returned in the {@code X-Next-Page-Token} header; {@code /history/page} returns
+     * the same pages with the token in the body.
+     */
     @GetMapping("/history")
     public ResponseEntity<List<Alert>> getAlertHistory(
             @RequestParam(required = false) String type,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startTime,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endTime,
-            @RequestParam(required = false) String recipient) {
+            @RequestParam(required = false) String recipient,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "100") int limit) {
         
         log.info("Retrieving alert history: type={}, startTime={}, endTime={}, recipient={}", 
                 type, startTime, endTime, recipient);
         
         try {
-            List<Alert> alerts;
+            CursorPage<Alert> page = alertService.getAlertHistoryPage(type, startTime, endTime, recipient,
+                    pageToken, limit);
             
-            if (recipient != null) {
-                alerts = alertService.getAlertsByRecipient(recipient);
-            } else if (type != null && startTime != null && endTime != null) {
-                alerts = alertService.getAlertsByTypeAndTimeRange(type, startTime, endTime);
-            } else if (type != null) {
-                alerts = alertService.getAlertsByType(type);
-            } else if (startTime != null && endTime != null) {
-                alerts = alertService.getAlertsByTimeRange(startTime, endTime);
-            } else {
-                alerts = alertService.getAllAlerts();
+            log.info("Retrieved {} alerts", page.getItems().size());
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextPageToken() != null) {
+                response.header(NEXT_PAGE_TOKEN_HEADER, page.getNextPageToken());
             }
+            return response.body(page.getItems());
             
-            log.info("Retrieved {} alerts", alerts.size());
-            return ResponseEntity.ok(alerts);
-            
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid page token: {}", pageToken);
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Failed to retrieve alert history: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping(value = "/history/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAlertHistory(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endTime,
+            @RequestParam(required = false) String recipient) {
+        
+        log.info("Streaming alert history: type={}, startTime={}, endTime={}, recipient={}", 
+                type, startTime, endTime, recipient);
+        
+        StreamingResponseBody body = out -> alertService.streamAlertHistory(type, startTime, endTime, recipient,
+                alert -> writeLine(out, alert));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/history/page")
+    public ResponseEntity<CursorPage<?>> getAlertHistoryPage(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant startTime,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant endTime,
+            @RequestParam(required = false) String recipient,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) String fields) {
+        
+        try {
+            CursorPage<?> page = fields != null
+                    ? alertService.getAlertHistoryPage(type, startTime, endTime, recipient, pageToken, limit,
+                            AlertField.parse(fields))
+                    : alertService.getAlertHistoryPage(type, startTime, endTime, recipient, pageToken, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid page request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Failed to retrieve alert history page: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/history/{alertId}")
     public ResponseEntity<Alert> getAlertById(@PathVariable String alertId) {
         log.info("Retrieving alert by ID: {}", alertId);
@@ -101,4 +163,13 @@ public class AlertController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-} 
\ No newline at end of file
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.pulsewatch.alerting.dispatch;
+
+import java.util.Locale;
+
+/**
+ * Delivery channels, one per supported {@code SendAlertRequest} type.
+ */
+public enum AlertChannel {
+    EMAIL,
+    WHATSAPP,
+    IN_APP;
+
+    /**
+     * @return the channel for an alert type, case-insensitive, or {@code null} when unsupported
+     */
+    public static AlertChannel fromType(String type) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Key of the channel's settings under {@code alerting.dispatch}.
+     */
+    public String getKey() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
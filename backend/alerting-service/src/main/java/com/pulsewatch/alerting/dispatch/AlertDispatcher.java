@@ -0,0 +1,144 @@
+package com.pulsewatch.alerting.dispatch;
+
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs alert deliveries on a separate bounded pool per channel, so a slow SMTP server cannot
+ * hold up WhatsApp or in-app alerts, and each provider is called no faster than its quota.
+ * Channels are configured under {@code alerting.dispatch.<channel>}:
+ * {@code concurrency}, {@code queue-size}, {@code critical-reserve} (queue slots only critical
+ * alerts may take), {@code rate-per-second} ({@code 0} for no limit) and {@code burst}. Each
+ * channel also has a {@link CircuitBreaker}, configured under
+ * {@code alerting.dispatch.<channel>.circuit-breaker}, that {@link #deliver} and
+ * {@link #deliverAsync} consult before calling the provider.
+ */
+@Component
+public class AlertDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertDispatcher.class);
+
+    private static final String PREFIX = "alerting.dispatch.";
+
+    private final Map<AlertChannel, ChannelDispatcher> channels = new EnumMap<>(AlertChannel.class);
+    private final Map<AlertChannel, CircuitBreaker> circuitBreakers = new EnumMap<>(AlertChannel.class);
+    private final long shutdownTimeoutMs;
+
+    public AlertDispatcher(Environment environment, MeterRegistry meterRegistry) {
+        for (AlertChannel channel : AlertChannel.values()) {
+            String prefix = PREFIX + channel.getKey() + ".";
+            int concurrency = environment.getProperty(prefix + "concurrency", Integer.class, 4);
+            int queueSize = environment.getProperty(prefix + "queue-size", Integer.class, 100);
+            double ratePerSecond = environment.getProperty(prefix + "rate-per-second", Double.class, 0.0);
+            int burst = environment.getProperty(prefix + "burst", Integer.class, concurrency);
+            int criticalReserve = environment.getProperty(prefix + "critical-reserve", Integer.class, queueSize / 4);
+            channels.put(channel, new ChannelDispatcher(channel, concurrency, queueSize, criticalReserve,
+                    ratePerSecond, burst, meterRegistry));
+            log.info("Alert channel {}: concurrency={}, queueSize={}, criticalReserve={}, ratePerSecond={}, burst={}",
+                    channel, concurrency, queueSize, criticalReserve, ratePerSecond > 0 ? ratePerSecond : "unlimited", burst);
+
+            CircuitBreaker circuitBreaker = new CircuitBreaker(
+                    environment.getProperty(prefix + "circuit-breaker.window-size", Integer.class, 20),
+                    environment.getProperty(prefix + "circuit-breaker.minimum-calls", Integer.class, 10),
+                    environment.getProperty(prefix + "circuit-breaker.failure-rate-threshold", Double.class, 0.5),
+                    environment.getProperty(prefix + "circuit-breaker.open-ms", Long.class, 30000L));
+            circuitBreakers.put(channel, circuitBreaker);
+            Gauge.builder("alerting.dispatch.circuit.open", circuitBreaker,
+                            breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                    .tag("channel", channel.getKey())
+                    .register(meterRegistry);
+        }
+        this.shutdownTimeoutMs = environment.getProperty(PREFIX + "shutdown-timeout-ms", Long.class, 10000L);
+    }
+
+    /**
+     * Queues a delivery on the channel's pool, ahead of any waiting deliveries of lower severity.
+     * The future completes with the delivery's result, or fails with
+     * {@link RejectedExecutionException} when the channel is saturated.
+     */
+    public <T> CompletableFuture<T> submit(AlertChannel channel, AlertSeverity severity, Supplier<T> delivery) {
+        return channels.get(channel).submit(severity, delivery);
+    }
+
+    /**
+     * Queues a call to the channel's provider, guarded by the channel's circuit breaker. While
+     * the breaker is open the future fails with {@link CircuitOpenException} without taking a
+     * slot in the pool or the rate limit; otherwise the call's outcome is reported to the
+     * breaker and the future completes, or fails with the call's exception, once it returns.
+     */
+    public CompletableFuture<Void> deliver(AlertChannel channel, AlertSeverity severity, Runnable call) {
+        return deliverAsync(channel, severity, () -> {
+            call.run();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    /**
+     * Like {@link #deliver}, for a provider client that does not block: the pool's worker only
+     * starts the call, and the outcome is reported once the call's future completes. A call the
+     * provider throttled ({@link ChannelThrottledException}) or its client had no room for
+     * ({@link RejectedExecutionException}) counts neither for nor against the breaker.
+     */
+    public CompletableFuture<Void> deliverAsync(AlertChannel channel, AlertSeverity severity,
+                                                Supplier<CompletableFuture<Void>> call) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(channel);
+        if (!circuitBreaker.isCallPermitted()) {
+            return CompletableFuture.failedFuture(new CircuitOpenException(channel, circuitBreaker.getRetryAt()));
+        }
+        return channels.get(channel).submitAsync(severity, () -> {
+            if (!circuitBreaker.tryAcquire()) {
+                throw new CircuitOpenException(channel, circuitBreaker.getRetryAt());
+            }
+            CompletableFuture<Void> started;
+            try {
+                started = call.get();
+            } catch (RuntimeException e) {
+                circuitBreaker.onFailure();
+                throw e;
+            }
+            return started.whenComplete((ignored, error) -> report(circuitBreaker, error));
+        });
+    }
+
+    private static void report(CircuitBreaker circuitBreaker, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            circuitBreaker.onSuccess();
+        } else if (cause instanceof ChannelThrottledException || cause instanceof RejectedExecutionException) {
+            circuitBreaker.release();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    public CircuitBreaker getCircuitBreaker(AlertChannel channel) {
+        return circuitBreakers.get(channel);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Give queued deliveries a chance to finish; unacknowledged messages are redelivered anyway
+        for (Map.Entry<AlertChannel, ChannelDispatcher> entry : channels.entrySet()) {
+            try {
+                entry.getValue().shutdown(shutdownTimeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while draining alert channel {}", entry.getKey());
+                return;
+            }
+        }
+    }
+}
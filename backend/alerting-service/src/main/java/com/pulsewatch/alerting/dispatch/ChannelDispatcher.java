@@ -0,0 +1,162 @@
+package com.pulsewatch.alerting.dispatch;
+
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded worker pool of one channel. At most {@code concurrency} deliveries run at once, up to
+ * {@code queueSize} more wait, and each delivery takes a token from the channel's rate limit
+ * before it starts. Waiting deliveries start in severity order, oldest first within a severity,
+ * and the last {@code criticalReserve} queue slots are kept for critical alerts, so a backlog of
+ * less severe alerts neither delays nor crowds out a critical one. Submissions beyond the queue
+ * are rejected rather than blocking the caller. An asynchronous delivery only holds its worker
+ * until its call has been started, so {@code concurrency} does not bound how many of those are
+ * outstanding; their client does.
+ */
+final class ChannelDispatcher {
+
+    private final AlertChannel channel;
+    private final ThreadPoolExecutor executor;
+    private final TokenBucket rateLimit;
+    private final int queueSize;
+    private final int criticalReserve;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter rejected;
+    private final Timer throttled;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param ratePerSecond deliveries allowed per second, or {@code 0} for no limit
+     */
+    ChannelDispatcher(AlertChannel channel, int concurrency, int queueSize, int criticalReserve,
+                      double ratePerSecond, int burst, MeterRegistry meterRegistry) {
+        this.channel = channel;
+        this.meterRegistry = meterRegistry;
+        this.queueSize = queueSize;
+        this.criticalReserve = Math.min(criticalReserve, queueSize);
+        AtomicInteger threadCount = new AtomicInteger();
+        // Unbounded by itself; submit() enforces queueSize before a delivery is queued
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+            Thread thread = new Thread(runnable, "alert-" + channel.getKey() + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.rateLimit = ratePerSecond > 0 ? new TokenBucket(ratePerSecond, burst) : null;
+
+        String tag = channel.getKey();
+        this.rejected = meterRegistry.counter("alerting.dispatch.rejected", "channel", tag);
+        this.throttled = meterRegistry.timer("alerting.dispatch.throttled", "channel", tag);
+        Gauge.builder("alerting.dispatch.queued", executor, pool -> pool.getQueue().size())
+                .tag("channel", tag)
+                .register(meterRegistry);
+        Gauge.builder("alerting.dispatch.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("channel", tag)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code delivery} on the channel's pool, ahead of waiting deliveries of lower
+     * severity. The returned future fails with {@link RejectedExecutionException} when the
+     * queue has no room for the severity.
+     */
+    <T> CompletableFuture<T> submit(AlertSeverity severity, Supplier<T> delivery) {
+        return submitAsync(severity, () -> CompletableFuture.completedFuture(delivery.get()));
+    }
+
+    /**
+     * Like {@link #submit}, for a delivery that returns as soon as its call is started. The
+     * returned future completes with the call's future.
+     */
+    <T> CompletableFuture<T> submitAsync(AlertSeverity severity, Supplier<CompletableFuture<T>> delivery) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        int limit = severity == AlertSeverity.CRITICAL ? queueSize : queueSize - criticalReserve;
+        if (queued.incrementAndGet() > limit) {
+            queued.decrementAndGet();
+            rejected.increment();
+            result.completeExceptionally(new RejectedExecutionException(
+                    "Alert channel " + channel.getKey() + " has no room for " + severity + " alerts"));
+            return result;
+        }
+
+        long submittedAt = System.nanoTime();
+        Timer wait = meterRegistry.timer("alerting.dispatch.wait", "channel", channel.getKey(),
+                "severity", severity.getKey());
+        try {
+            executor.execute(new QueuedDelivery(severity.ordinal(), sequence.getAndIncrement(), () -> {
+                queued.decrementAndGet();
+                wait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                run(delivery, result);
+            }));
+        } catch (RejectedExecutionException e) {
+            // Only after shutdown
+            queued.decrementAndGet();
+            rejected.increment();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private <T> void run(Supplier<CompletableFuture<T>> delivery, CompletableFuture<T> result) {
+        long start = System.nanoTime();
+        CompletableFuture<T> call;
+        try {
+            if (rateLimit != null) {
+                throttled.record(rateLimit.acquire(), TimeUnit.NANOSECONDS);
+            }
+            call = delivery.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            call = CompletableFuture.failedFuture(e);
+        } catch (Throwable e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((value, error) -> {
+            meterRegistry.timer("alerting.dispatch.duration", "channel", channel.getKey(),
+                            "result", error == null ? "success" : "failure")
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (error == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            }
+        });
+    }
+
+    void shutdown(long timeoutMs) throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private record QueuedDelivery(int priority, long sequence, Runnable task)
+            implements Runnable, Comparable<QueuedDelivery> {
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(QueuedDelivery other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.pulsewatch.alerting.dispatch;
+
+import java.time.Instant;
+
+/**
+ * The channel's provider asked for deliveries to slow down, and the delivery was not made.
+ */
+public class ChannelThrottledException extends RuntimeException {
+
+    private final transient Instant retryAt;
+
+    public ChannelThrottledException(AlertChannel channel, Instant retryAt) {
+        super("Provider for channel " + channel.getKey() + " is throttling deliveries until " + retryAt);
+        this.retryAt = retryAt;
+    }
+
+    public Instant getRetryAt() {
+        return retryAt;
+    }
+}
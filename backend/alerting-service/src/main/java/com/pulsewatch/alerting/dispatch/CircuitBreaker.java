@@ -0,0 +1,145 @@
+package com.pulsewatch.alerting.dispatch;
+
+import java.time.Instant;
+
+/**
+ * Count-based circuit breaker for one channel. It opens when at least
+ * {@code failure-rate-threshold} of the last {@code window-size} deliveries failed (once
+ * {@code minimum-calls} have been seen), rejects deliveries for {@code open-ms}, then lets a
+ * single trial delivery through: success closes it again, failure reopens it.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openUntil;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, long openMs) {
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMs = openMs;
+    }
+
+    /**
+     * @return whether a delivery may be attempted now; every permitted attempt must be
+     *         followed by {@link #onSuccess()}, {@link #onFailure()} or {@link #release()}
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() < openUntil) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    /**
+     * Whether {@link #tryAcquire()} would currently let a delivery through, without taking the
+     * half-open trial. Lets callers skip work for a channel that is known to be failing.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> System.currentTimeMillis() >= openUntil;
+            case HALF_OPEN -> !trialInFlight;
+        };
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Hands back a permitted attempt that ended without telling anything about the provider's
+     * health, such as one the provider throttled. A half-open breaker lets the next trial through.
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * Earliest time the breaker lets a delivery through again.
+     */
+    public synchronized Instant getRetryAt() {
+        return state == State.CLOSED ? Instant.now() : Instant.ofEpochMilli(Math.max(openUntil, System.currentTimeMillis()));
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (state != State.CLOSED) {
+            return;
+        }
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntil = System.currentTimeMillis() + openMs;
+        trialInFlight = false;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        trialInFlight = false;
+    }
+}
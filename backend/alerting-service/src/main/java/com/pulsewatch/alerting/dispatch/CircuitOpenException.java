@@ -0,0 +1,20 @@
+package com.pulsewatch.alerting.dispatch;
+
+import java.time.Instant;
+
+/**
+ * Delivery was not attempted because the channel's circuit breaker is open.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private final transient Instant retryAt;
+
+    public CircuitOpenException(AlertChannel channel, Instant retryAt) {
+        super("Circuit breaker for channel " + channel.getKey() + " is open until " + retryAt);
+        this.retryAt = retryAt;
+    }
+
+    public Instant getRetryAt() {
+        return retryAt;
+    }
+}
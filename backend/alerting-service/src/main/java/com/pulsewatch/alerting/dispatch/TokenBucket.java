@@ -0,0 +1,44 @@
+package com.pulsewatch.alerting.dispatch;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket that refills at a fixed rate up to {@code burst} tokens. Callers reserve a token
+ * up front and sleep until it is due, so waiting callers are served in arrival order and the
+ * long-run rate never exceeds the configured one.
+ */
+final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.tokens = capacity;
+    }
+
+    /**
+     * Takes one token, waiting for it if the bucket is empty.
+     *
+     * @return how long the caller waited, in nanoseconds
+     */
+    long acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return waitNanos;
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        // A negative balance is the queue of callers already waiting for a token
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+}
@@ -0,0 +1,31 @@
+package com.pulsewatch.alerting.dto;
+
+import java.util.Locale;
+
+/**
+ * How urgent an alert is, most urgent first. Each severity has its own queue lane, and
+ * deliveries of a more severe alert are started ahead of queued less severe ones.
+ */
+public enum AlertSeverity {
+    CRITICAL,
+    WARNING,
+    INFO;
+
+    /**
+     * Severity of a request. Alerts published without one are {@code INFO} when they are
+     * in-app notifications and {@code WARNING} otherwise.
+     */
+    public static AlertSeverity of(SendAlertRequest request) {
+        if (request.getSeverity() != null) {
+            return request.getSeverity();
+        }
+        return "IN_APP".equalsIgnoreCase(request.getType()) ? INFO : WARNING;
+    }
+
+    /**
+     * Key of the severity's lane settings under {@code alerting.rabbitmq.lanes}.
+     */
+    public String getKey() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
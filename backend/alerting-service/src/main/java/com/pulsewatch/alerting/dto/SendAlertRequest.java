@@ -1,5 +1,6 @@
 package com.pulsewatch.alerting.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
@@ -14,4 +15,7 @@ public class SendAlertRequest {
     
     @NotBlank(message = "Recipient is required")
     private String recipient; // Email or phone number
+    
+    @JsonFormat(with = JsonFormat.Feature.ACCEPT_CASE_INSENSITIVE_VALUES)
+    private AlertSeverity severity; // Optional, see AlertSeverity.of
 } 
\ No newline at end of file
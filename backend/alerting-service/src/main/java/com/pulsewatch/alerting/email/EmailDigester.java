@@ -0,0 +1,190 @@
+package com.pulsewatch.alerting.email;
+
+import com.pulsewatch.alerting.dispatch.AlertChannel;
+import com.pulsewatch.alerting.dispatch.AlertDispatcher;
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import com.pulsewatch.alerting.dto.SendAlertRequest;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email channel. Alerts to the same recipient arriving within {@code window-ms} of the first
+ * one are sent as a single digest, of at most {@code max-alerts} alerts, through the email
+ * dispatch pool and the {@link SmtpTransportPool}. A critical alert sends its recipient's
+ * digest right away instead of waiting out the window, and a window of {@code 0} sends every
+ * alert on its own.
+ */
+@Component
+public class EmailDigester {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailDigester.class);
+
+    private static final String SUBJECT = "PulseWatch Alert";
+
+    private final SmtpTransportPool transportPool;
+    private final AlertDispatcher alertDispatcher;
+    private final long windowMs;
+    private final int maxAlerts;
+    private final String from;
+    private final DistributionSummary digestSize;
+
+    private final Map<String, Digest> pending = new HashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "alert-email-digest");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EmailDigester(SmtpTransportPool transportPool,
+                         AlertDispatcher alertDispatcher,
+                         MeterRegistry meterRegistry,
+                         @Value("${alerting.email.digest.window-ms:2000}") long windowMs,
+                         @Value("${alerting.email.digest.max-alerts:50}") int maxAlerts,
+                         @Value("${alerting.email.from:${spring.mail.username:}}") String from) {
+        this.transportPool = transportPool;
+        this.alertDispatcher = alertDispatcher;
+        this.windowMs = windowMs;
+        this.maxAlerts = Math.max(1, maxAlerts);
+        this.from = from;
+        this.digestSize = DistributionSummary.builder("alerting.email.digest.size")
+                .description("Alerts per email sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds an email alert to its recipient's digest. The future completes once the digest
+     * has been sent, and fails like {@link AlertDispatcher#deliver} does when it could not be.
+     */
+    public CompletableFuture<Void> send(SendAlertRequest request) {
+        PendingAlert alert = new PendingAlert(request, AlertSeverity.of(request), new CompletableFuture<>());
+        String recipient = request.getRecipient();
+        Digest ready = null;
+        synchronized (pending) {
+            Digest digest = pending.get(recipient);
+            if (digest == null) {
+                digest = new Digest();
+                pending.put(recipient, digest);
+                if (windowMs > 0) {
+                    Digest opened = digest;
+                    digest.flush = scheduler.schedule(() -> flush(recipient, opened), windowMs, TimeUnit.MILLISECONDS);
+                }
+            }
+            digest.alerts.add(alert);
+            if (windowMs <= 0 || alert.severity() == AlertSeverity.CRITICAL || digest.alerts.size() >= maxAlerts) {
+                pending.remove(recipient);
+                if (digest.flush != null) {
+                    digest.flush.cancel(false);
+                }
+                ready = digest;
+            }
+        }
+        if (ready != null) {
+            dispatch(recipient, ready.alerts);
+        }
+        return alert.sent();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        Map<String, Digest> remaining;
+        synchronized (pending) {
+            remaining = new HashMap<>(pending);
+            pending.clear();
+        }
+        // Still accepted by the dispatcher, which shuts down after this
+        remaining.forEach((recipient, digest) -> dispatch(recipient, digest.alerts));
+    }
+
+    private void flush(String recipient, Digest digest) {
+        synchronized (pending) {
+            if (!pending.remove(recipient, digest)) {
+                return;
+            }
+        }
+        dispatch(recipient, digest.alerts);
+    }
+
+    private void dispatch(String recipient, List<PendingAlert> alerts) {
+        AlertSeverity severity = AlertSeverity.INFO;
+        for (PendingAlert alert : alerts) {
+            if (alert.severity().compareTo(severity) < 0) {
+                severity = alert.severity();
+            }
+        }
+
+        CompletableFuture<Void> sent;
+        try {
+            MimeMessage message = compose(recipient, alerts);
+            sent = alertDispatcher.deliver(AlertChannel.EMAIL, severity, () -> transportPool.send(message));
+        } catch (MessagingException e) {
+            sent = CompletableFuture.failedFuture(new MailPreparationException("Failed to build email: " + e.getMessage(), e));
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        digestSize.record(alerts.size());
+        sent.whenComplete((ignored, error) -> {
+            if (error == null) {
+                log.debug("Email with {} alerts sent to {}", alerts.size(), recipient);
+            }
+            for (PendingAlert alert : alerts) {
+                if (error != null) {
+                    alert.sent().completeExceptionally(error);
+                } else {
+                    alert.sent().complete(null);
+                }
+            }
+        });
+    }
+
+    private MimeMessage compose(String recipient, List<PendingAlert> alerts) throws MessagingException {
+        MimeMessage message = transportPool.createMessage();
+        if (StringUtils.hasText(from)) {
+            message.setFrom(from);
+        }
+        message.setRecipients(MimeMessage.RecipientType.TO, recipient);
+        if (alerts.size() == 1) {
+            message.setSubject(SUBJECT);
+            message.setText(alerts.get(0).request().getMessage());
+            return message;
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (PendingAlert alert : alerts) {
+            if (!text.isEmpty()) {
+                text.append("\n\n");
+            }
+            text.append('[').append(alert.severity()).append("] ").append(alert.request().getMessage());
+        }
+        message.setSubject(SUBJECT + " (" + alerts.size() + " alerts)");
+        message.setText(text.toString());
+        return message;
+    }
+
+    private record PendingAlert(SendAlertRequest request, AlertSeverity severity, CompletableFuture<Void> sent) {
+    }
+
+    private static final class Digest {
+        private final List<PendingAlert> alerts = new ArrayList<>();
+        private ScheduledFuture<?> flush;
+    }
+}
@@ -0,0 +1,243 @@
+package com.pulsewatch.alerting.email;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps up to {@code size} authenticated SMTP connections open and sends every message over
+ * one of them, so the TCP, STARTTLS and AUTH handshakes are paid once per connection instead
+ * of once per email as with {@code JavaMailSender.send}. Connections are taken newest first,
+ * checked with a NOOP when idle for more than {@code validate-after-idle-ms}, closed after
+ * {@code max-messages-per-connection} messages to stay under server limits, and closed when
+ * idle for {@code idle-timeout-ms}. A send gives up after waiting {@code acquire-timeout-ms}
+ * for a connection. The session, host and credentials come from the {@code spring.mail}
+ * settings.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMs;
+    private final long validateAfterIdleMs;
+
+    private final Deque<PooledTransport> idle = new ArrayDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             MeterRegistry meterRegistry,
+                             @Value("${alerting.email.pool.size:4}") int size,
+                             @Value("${alerting.email.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${alerting.email.pool.idle-timeout-ms:60000}") long idleTimeoutMs,
+                             @Value("${alerting.email.pool.validate-after-idle-ms:5000}") long validateAfterIdleMs,
+                             @Value("${alerting.email.pool.acquire-timeout-ms:10000}") long acquireTimeoutMs) {
+        this.mailSender = mailSender;
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(Math.max(1, size), true);
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+
+        Gauge.builder("alerting.email.connections", open, AtomicInteger::get)
+                .description("Open SMTP connections")
+                .tag("state", "open")
+                .register(meterRegistry);
+        Gauge.builder("alerting.email.connections", this, SmtpTransportPool::idleCount)
+                .description("SMTP connections waiting for a message")
+                .tag("state", "idle")
+                .register(meterRegistry);
+    }
+
+    public MimeMessage createMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Sends a message over a pooled connection, waiting up to {@code acquire-timeout-ms} for
+     * one if all are busy. A reused connection that turns out to be broken is replaced and the
+     * message sent once more.
+     *
+     * @throws MailSendException when the message could not be sent, or no connection was free in time
+     */
+    public void send(MimeMessage message) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP connection free after " + acquireTimeoutMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            message.saveChanges();
+            PooledTransport transport = borrow();
+            while (true) {
+                try {
+                    sendOver(transport, message);
+                    release(transport);
+                    return;
+                } catch (SendFailedException e) {
+                    // Rejected recipients; the connection itself is fine
+                    release(transport);
+                    throw e;
+                } catch (MessagingException e) {
+                    close(transport, "error");
+                    if (!transport.reused) {
+                        throw e;
+                    }
+                    log.debug("Pooled SMTP connection failed, retrying on a new one: {}", e.getMessage());
+                    transport = connect();
+                }
+            }
+        } catch (MessagingException e) {
+            throw new MailSendException("Failed to send email: " + e.getMessage(), e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${alerting.email.pool.evict-interval-ms:30000}")
+    public void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMs;
+        List<PooledTransport> expired = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<PooledTransport> iterator = idle.iterator();
+            while (iterator.hasNext()) {
+                PooledTransport transport = iterator.next();
+                if (transport.lastUsedAt < idleSince) {
+                    iterator.remove();
+                    expired.add(transport);
+                }
+            }
+        }
+        expired.forEach(transport -> close(transport, "idle"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (idle) {
+            idle.forEach(transport -> close(transport, "shutdown"));
+            idle.clear();
+        }
+    }
+
+    private void sendOver(PooledTransport transport, MimeMessage message) throws MessagingException {
+        long start = System.nanoTime();
+        String result = "success";
+        try {
+            transport.transport.sendMessage(message, message.getAllRecipients());
+            transport.sent++;
+        } catch (MessagingException e) {
+            result = "failure";
+            throw e;
+        } finally {
+            meterRegistry.timer("alerting.email.send", "result", result)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        while (true) {
+            PooledTransport transport;
+            synchronized (idle) {
+                transport = idle.pollFirst();
+            }
+            if (transport == null) {
+                return connect();
+            }
+            // isConnected() sends a NOOP, so only ask connections that sat idle for a while
+            if (System.currentTimeMillis() - transport.lastUsedAt < validateAfterIdleMs
+                    || transport.transport.isConnected()) {
+                transport.reused = true;
+                return transport;
+            }
+            close(transport, "stale");
+        }
+    }
+
+    private void release(PooledTransport transport) {
+        if (transport.sent >= maxMessagesPerConnection) {
+            close(transport, "max-messages");
+            return;
+        }
+        transport.lastUsedAt = System.currentTimeMillis();
+        synchronized (idle) {
+            idle.addFirst(transport);
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        long start = System.nanoTime();
+        String result = "success";
+        try {
+            Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol());
+            String username = StringUtils.hasLength(mailSender.getUsername()) ? mailSender.getUsername() : null;
+            transport.connect(mailSender.getHost(), mailSender.getPort(), username, mailSender.getPassword());
+            open.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (MessagingException e) {
+            result = "failure";
+            log.warn("Failed to connect to SMTP server {}: {}", mailSender.getHost(), e.getMessage());
+            throw e;
+        } finally {
+            meterRegistry.timer("alerting.email.connect", "result", result)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void close(PooledTransport transport, String reason) {
+        open.decrementAndGet();
+        meterRegistry.counter("alerting.email.connections.closed", "reason", reason).increment();
+        try {
+            transport.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    private int idleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private boolean reused;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
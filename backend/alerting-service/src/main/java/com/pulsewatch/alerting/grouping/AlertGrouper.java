@@ -0,0 +1,245 @@
+package com.pulsewatch.alerting.grouping;
+
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import com.pulsewatch.alerting.dto.SendAlertRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Collapses near-identical alerts into grouped notifications. Alerts are grouped by recipient,
+ * type, severity and a fingerprint of the message with numbers masked, so "CPU at 91% on web-3" and
+ * "CPU at 97% on web-12" fall in the same group.
+ *
+ * <p>The first alert of a group is sent after {@code group-wait-ms}, together with a count of
+ * the duplicates that arrived meanwhile. Later duplicates are only counted, and go out as one
+ * notification at most every {@code repeat-interval-ms}. A group is forgotten once a whole
+ * repeat interval passes without duplicates. Suppressed alerts are not stored individually;
+ * the notification that covers them records how many alerts it stands for.
+ */
+@Component
+public class AlertGrouper {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertGrouper.class);
+
+    private static final Pattern NUMBERS = Pattern.compile("\\d+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Length of alerts.message
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final long groupWaitMs;
+    private final long repeatIntervalMs;
+    private final int maxGroups;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<GroupKey, AlertGroup> groups = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "alert-grouper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AlertGrouper(@Value("${alerting.grouping.group-wait-ms:0}") long groupWaitMs,
+                        @Value("${alerting.grouping.repeat-interval-ms:300000}") long repeatIntervalMs,
+                        @Value("${alerting.grouping.max-groups:10000}") int maxGroups,
+                        MeterRegistry meterRegistry) {
+        this.groupWaitMs = groupWaitMs;
+        this.repeatIntervalMs = repeatIntervalMs;
+        this.maxGroups = maxGroups;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("alerting.grouping.groups", groups, Map::size).register(meterRegistry);
+        scheduler.scheduleWithFixedDelay(this::expire, repeatIntervalMs, repeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds an alert to its group. {@code sender} is called with the alert to deliver and the
+     * number of alerts it covers whenever a group is due.
+     *
+     * <p>The future of the alert that opens a group completes after that group's first
+     * notification has been handed to {@code sender} and finished, so callers feel dispatch
+     * backpressure. If that notification could not be handed off, the future fails with the
+     * sender's error and the group is dropped, so the alert can be submitted again. Duplicates
+     * complete right away.
+     */
+    public CompletableFuture<Void> submit(SendAlertRequest request,
+                                          BiFunction<SendAlertRequest, Integer, CompletableFuture<?>> sender) {
+        GroupKey key = new GroupKey(request.getRecipient(), request.getType().toUpperCase(Locale.ROOT),
+                AlertSeverity.of(request), fingerprint(request.getMessage()));
+
+        AlertGroup existing = groups.get(key);
+        if (existing == null && groups.size() >= maxGroups) {
+            // Index is full; deliver ungrouped rather than growing without bound
+            log.warn("Alert group limit of {} reached, sending ungrouped alert to {}", maxGroups, request.getRecipient());
+            return sender.apply(request, 1).thenApply(alert -> null);
+        }
+
+        CompletableFuture<Void> opened = new CompletableFuture<>();
+        AlertGroup group = groups.compute(key, (k, current) -> {
+            if (current != null && current.add()) {
+                return current;
+            }
+            return new AlertGroup(k, request, sender, opened);
+        });
+        if (group.opener != opened) {
+            meterRegistry.counter("alerting.grouping.suppressed", "type", key.type()).increment();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        if (groupWaitMs > 0) {
+            group.scheduleFlush(groupWaitMs);
+        } else {
+            flush(group);
+        }
+        return opened;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        long unsent = groups.values().stream().mapToLong(AlertGroup::pendingCount).sum();
+        if (unsent > 0) {
+            log.warn("Discarding {} grouped alerts that were not yet summarized", unsent);
+        }
+    }
+
+    private void flush(AlertGroup group) {
+        SendAlertRequest notification;
+        int count;
+        synchronized (group) {
+            group.scheduled = null;
+            count = group.pending;
+            if (count == 0) {
+                return;
+            }
+            group.pending = 0;
+            group.lastSentAt = System.currentTimeMillis();
+            notification = group.notification(count);
+        }
+
+        meterRegistry.counter("alerting.grouping.notifications", "type", group.key.type()).increment();
+        CompletableFuture<?> sent;
+        try {
+            sent = group.sender.apply(notification, count);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        sent.whenComplete((alert, error) -> {
+            if (error == null) {
+                group.opener.complete(null);
+                return;
+            }
+            if (!group.opener.isDone()) {
+                // Nothing was delivered or stored for the opening alert, so its message must not be
+                // acked; the redelivered message opens the group again
+                groups.remove(group.key, group);
+                log.warn("First alert of group to {} not sent, returning it to the queue: {}",
+                        group.key.recipient(), error.getMessage());
+                group.opener.completeExceptionally(error);
+                return;
+            }
+            // Keep the count so the alerts are reported with the group's next notification
+            log.warn("Grouped alert to {} not sent, retrying with the next notification: {}",
+                    group.key.recipient(), error.getMessage());
+            synchronized (group) {
+                group.pending += count;
+                group.scheduleFlush(Math.max(groupWaitMs, 1000));
+            }
+        });
+    }
+
+    void expire() {
+        long expiredBefore = System.currentTimeMillis() - repeatIntervalMs;
+        for (GroupKey key : groups.keySet()) {
+            // Checked inside compute so a duplicate cannot join a group while it is being dropped
+            groups.computeIfPresent(key, (k, group) -> group.isExpired(expiredBefore) ? null : group);
+        }
+    }
+
+    static String fingerprint(String message) {
+        String masked = NUMBERS.matcher(message.toLowerCase(Locale.ROOT)).replaceAll("#");
+        return WHITESPACE.matcher(masked).replaceAll(" ").trim();
+    }
+
+    private record GroupKey(String recipient, String type, AlertSeverity severity, String fingerprint) {
+    }
+
+    private final class AlertGroup {
+        private final GroupKey key;
+        private final SendAlertRequest first;
+        private final BiFunction<SendAlertRequest, Integer, CompletableFuture<?>> sender;
+        private final CompletableFuture<Void> opener;
+        private final long openedAt = System.currentTimeMillis();
+        private int pending = 1;
+        private long lastSentAt;
+        private ScheduledFuture<?> scheduled;
+
+        private AlertGroup(GroupKey key, SendAlertRequest first,
+                           BiFunction<SendAlertRequest, Integer, CompletableFuture<?>> sender,
+                           CompletableFuture<Void> opener) {
+            this.key = key;
+            this.first = first;
+            this.sender = sender;
+            this.opener = opener;
+        }
+
+        /**
+         * Counts a duplicate and makes sure a notification is due for it.
+         *
+         * @return {@code false} when the group has expired and a new one must be opened
+         */
+        synchronized boolean add() {
+            if (pending == 0 && scheduled == null && lastSentAt < System.currentTimeMillis() - repeatIntervalMs) {
+                return false;
+            }
+            pending++;
+            if (scheduled == null) {
+                long dueIn = lastSentAt == 0 ? groupWaitMs : lastSentAt + repeatIntervalMs - System.currentTimeMillis();
+                scheduleFlush(Math.max(0, dueIn));
+            }
+            return true;
+        }
+
+        synchronized void scheduleFlush(long delayMs) {
+            if (scheduled == null) {
+                scheduled = scheduler.schedule(() -> flush(this), delayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        synchronized long pendingCount() {
+            return pending;
+        }
+
+        synchronized boolean isExpired(long expiredBefore) {
+            return pending == 0 && scheduled == null && Math.max(lastSentAt, openedAt) < expiredBefore;
+        }
+
+        SendAlertRequest notification(int count) {
+            if (count == 1) {
+                return first;
+            }
+            String message = "[" + count + " similar alerts] " + first.getMessage();
+            SendAlertRequest notification = new SendAlertRequest();
+            notification.setType(first.getType());
+            notification.setRecipient(first.getRecipient());
+            notification.setSeverity(key.severity());
+            notification.setMessage(message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message);
+            return notification;
+        }
+    }
+}
@@ -9,7 +9,14 @@ import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "alerts")
+// History is always read newest first, so every index ends in (sent_at, id) to serve the
+// time range, the keyset position and the ordering of each filter combination
+@Table(name = "alerts", indexes = {
+        @Index(name = "idx_alerts_sent_at_id", columnList = "sent_at, id"),
+        @Index(name = "idx_alerts_type_sent_at_id", columnList = "type, sent_at, id"),
+        @Index(name = "idx_alerts_recipient_sent_at_id", columnList = "recipient, sent_at, id"),
+        @Index(name = "idx_alerts_recipient_type_sent_at_id", columnList = "recipient, type, sent_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,6 +47,14 @@ public class Alert {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
     
+    // Number of alerts this notification stands for when duplicates were grouped into it
+    @Column(name = "group_size")
+    private Integer groupSize;
+    
+    // Set on the response to a send whose delivery failed and was queued for retry; never stored
+    @Transient
+    private boolean retryScheduled;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
@@ -0,0 +1,42 @@
+package com.pulsewatch.alerting.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Checkpoint of one minute of alert statistics recorded by one running instance: counts by
+ * type, success and recipient, and delivery latency histograms by channel, in the binary
+ * encoding of {@code MinuteBucket}. A minute's statistics are the sum of its rows.
+ */
+@Entity
+@Table(name = "alert_stat_minute_shards")
+@IdClass(AlertStatMinute.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertStatMinute {
+
+    @Id
+    @Column(name = "minute")
+    private Instant minute;
+
+    @Id
+    @Column(name = "instance_id", length = 36)
+    private String instanceId;
+
+    @Column(nullable = false, length = 1048576)
+    private byte[] payload;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Instant minute;
+        private String instanceId;
+    }
+}
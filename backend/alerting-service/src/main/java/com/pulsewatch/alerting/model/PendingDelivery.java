@@ -0,0 +1,56 @@
+package com.pulsewatch.alerting.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Alert whose delivery failed, or was held back by an open circuit breaker, waiting in the
+ * outbox for {@code AlertRetryScheduler}. The id becomes the id of the alert record once the
+ * delivery succeeds or is given up.
+ */
+@Entity
+@Table(name = "alert_outbox", indexes = {
+        @Index(name = "idx_alert_outbox_next_attempt_at", columnList = "next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingDelivery {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    // Name of the alert's AlertSeverity, so a retry keeps its dispatch priority
+    @Column(length = 16)
+    private String severity;
+
+    @Column(name = "group_size")
+    private Integer groupSize;
+
+    // Failed delivery attempts so far; deferrals by an open breaker do not count
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
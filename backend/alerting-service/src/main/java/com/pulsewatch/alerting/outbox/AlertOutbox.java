@@ -0,0 +1,97 @@
+package com.pulsewatch.alerting.outbox;
+
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import com.pulsewatch.alerting.dto.SendAlertRequest;
+import com.pulsewatch.alerting.model.PendingDelivery;
+import com.pulsewatch.alerting.repository.AlertOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable queue of deliveries to retry. A delivery that fails, or that its channel's circuit
+ * breaker holds back, is written to {@code alert_outbox} before the caller is answered or its
+ * queue message acknowledged, so a provider outage delays alerts instead of losing them.
+ *
+ * <p>Failed attempts back off exponentially from {@code base-backoff-ms}, capped at
+ * {@code max-backoff-ms}, with equal jitter: half of the delay is fixed and the other half
+ * random, so deliveries that failed together do not retry together. A delivery is given up
+ * and recorded as failed after {@code max-attempts} failed attempts.
+ */
+@Component
+public class AlertOutbox {
+
+    private final AlertOutboxRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public AlertOutbox(AlertOutboxRepository repository,
+                       MeterRegistry meterRegistry,
+                       @Value("${alerting.retry.enabled:true}") boolean enabled,
+                       @Value("${alerting.retry.max-attempts:8}") int maxAttempts,
+                       @Value("${alerting.retry.base-backoff-ms:30000}") long baseBackoffMs,
+                       @Value("${alerting.retry.max-backoff-ms:3600000}") long maxBackoffMs) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMs = Math.max(1, baseBackoffMs);
+        this.maxBackoffMs = Math.max(this.baseBackoffMs, maxBackoffMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Stores a delivery to retry at {@code nextAttemptAt}.
+     *
+     * @param attempts failed attempts so far, {@code 0} when none was made
+     */
+    public PendingDelivery add(SendAlertRequest request, int groupSize, int attempts, String errorMessage,
+                               Instant nextAttemptAt) {
+        PendingDelivery delivery = new PendingDelivery(UUID.randomUUID(), request.getType(), request.getMessage(),
+                request.getRecipient(), AlertSeverity.of(request).name(), groupSize, attempts, nextAttemptAt,
+                truncate(errorMessage), Instant.now());
+        repository.insert(delivery);
+        meterRegistry.counter("alerting.retry.scheduled", "type", delivery.getType()).increment();
+        return delivery;
+    }
+
+    /**
+     * When to retry after {@code attempts} failed attempts.
+     */
+    public Instant nextAttemptAt(int attempts) {
+        int exponent = Math.min(Math.max(attempts, 1) - 1, 30);
+        long delayMs = Math.min(maxBackoffMs, baseBackoffMs << exponent);
+        long fixedMs = delayMs / 2;
+        return Instant.now().plusMillis(fixedMs + ThreadLocalRandom.current().nextLong(delayMs - fixedMs + 1));
+    }
+
+    /**
+     * When to retry a delivery that was not attempted, for instance because a breaker is open
+     * until {@code notBefore}. Spread over one base backoff so held back deliveries do not all
+     * hit the provider the moment it is let through again.
+     */
+    public Instant deferredAttemptAt(Instant notBefore) {
+        Instant now = Instant.now();
+        Instant earliest = notBefore.isAfter(now) ? notBefore : now;
+        return earliest.plusMillis(ThreadLocalRandom.current().nextLong(baseBackoffMs));
+    }
+
+    // Fits alerts.error_message, where the last error ends up if the delivery is given up
+    static String truncate(String errorMessage) {
+        return errorMessage != null && errorMessage.length() > 255 ? errorMessage.substring(0, 255) : errorMessage;
+    }
+}
@@ -0,0 +1,181 @@
+package com.pulsewatch.alerting.outbox;
+
+import com.pulsewatch.alerting.dispatch.ChannelThrottledException;
+import com.pulsewatch.alerting.dispatch.CircuitOpenException;
+import com.pulsewatch.alerting.model.PendingDelivery;
+import com.pulsewatch.alerting.repository.AlertOutboxRepository;
+import com.pulsewatch.alerting.service.AlertService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the {@link AlertOutbox}. Every {@code poll-interval-ms} it claims up to
+ * {@code batch-size} due deliveries with a lease of {@code lease-ms}, hands them to their
+ * channels' dispatch pools, and once the whole batch has finished deletes the delivered rows
+ * and reschedules the rest in one batch each. A full batch is followed by the next one right
+ * away; otherwise draining resumes at the next poll.
+ *
+ * <p>Retries go through the same pools, rate limits and circuit breakers as live alerts, so
+ * they cannot push a provider past its quota. A delivery held back by an open breaker, a
+ * throttling provider or a saturated pool is pushed back without counting as an attempt.
+ */
+@Component
+public class AlertRetryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertRetryScheduler.class);
+
+    private final AlertOutbox outbox;
+    private final AlertOutboxRepository repository;
+    private final AlertService alertService;
+    private final int batchSize;
+    private final long leaseMs;
+
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter deferredCounter;
+    private final Counter abandonedCounter;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public AlertRetryScheduler(AlertOutbox outbox,
+                               AlertOutboxRepository repository,
+                               AlertService alertService,
+                               MeterRegistry meterRegistry,
+                               @Value("${alerting.retry.batch-size:100}") int batchSize,
+                               @Value("${alerting.retry.lease-ms:300000}") long leaseMs) {
+        this.outbox = outbox;
+        this.repository = repository;
+        this.alertService = alertService;
+        this.batchSize = Math.max(1, batchSize);
+        this.leaseMs = leaseMs;
+
+        this.deliveredCounter = meterRegistry.counter("alerting.retry.attempts", "result", "delivered");
+        this.failedCounter = meterRegistry.counter("alerting.retry.attempts", "result", "failed");
+        this.deferredCounter = meterRegistry.counter("alerting.retry.attempts", "result", "deferred");
+        this.abandonedCounter = meterRegistry.counter("alerting.retry.attempts", "result", "abandoned");
+    }
+
+    @Scheduled(fixedDelayString = "${alerting.retry.poll-interval-ms:5000}")
+    public void poll() {
+        if (outbox.isEnabled() && draining.compareAndSet(false, true)) {
+            drainBatch();
+        }
+    }
+
+    private void drainBatch() {
+        List<PendingDelivery> claimed;
+        try {
+            Instant now = Instant.now();
+            claimed = repository.claim(repository.findDue(now, batchSize), now.plusMillis(leaseMs));
+        } catch (Exception e) {
+            log.error("Failed to claim alert retries: {}", e.getMessage());
+            draining.set(false);
+            return;
+        }
+        if (claimed.isEmpty()) {
+            draining.set(false);
+            return;
+        }
+
+        log.debug("Retrying {} alert deliveries", claimed.size());
+        List<CompletableFuture<Outcome>> attempts = new ArrayList<>(claimed.size());
+        for (PendingDelivery delivery : claimed) {
+            attempts.add(attempt(delivery));
+        }
+        CompletableFuture.allOf(attempts.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> {
+            boolean attempted = false;
+            try {
+                List<PendingDelivery> done = new ArrayList<>();
+                List<PendingDelivery> pending = new ArrayList<>();
+                for (CompletableFuture<Outcome> attempt : attempts) {
+                    Outcome outcome = attempt.join();
+                    (outcome.done() ? done : pending).add(outcome.delivery());
+                    attempted |= outcome.attempted();
+                }
+                repository.deleteAll(done);
+                repository.rescheduleAll(pending);
+            } catch (Exception e) {
+                // Rows keep their lease and are picked up again once it runs out
+                log.error("Failed to update {} alert retries: {}", attempts.size(), e.getMessage());
+                attempted = false;
+            }
+            // Stop early when nothing was attempted, such as when every breaker is open
+            if (attempted && claimed.size() == batchSize) {
+                drainBatch();
+            } else {
+                draining.set(false);
+            }
+        });
+    }
+
+    private CompletableFuture<Outcome> attempt(PendingDelivery delivery) {
+        CompletableFuture<?> delivered;
+        try {
+            delivered = alertService.redeliver(delivery);
+        } catch (RuntimeException e) {
+            delivered = CompletableFuture.failedFuture(e);
+        }
+        return delivered.handle((alert, error) -> outcome(delivery, error));
+    }
+
+    private Outcome outcome(PendingDelivery delivery, Throwable error) {
+        if (error == null) {
+            deliveredCounter.increment();
+            return new Outcome(delivery, true, true);
+        }
+
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CircuitOpenException open) {
+            deferredCounter.increment();
+            delivery.setNextAttemptAt(outbox.deferredAttemptAt(open.getRetryAt()));
+            return new Outcome(delivery, false, false);
+        }
+        if (cause instanceof ChannelThrottledException throttled) {
+            deferredCounter.increment();
+            delivery.setNextAttemptAt(outbox.deferredAttemptAt(throttled.getRetryAt()));
+            return new Outcome(delivery, false, false);
+        }
+        if (cause instanceof RejectedExecutionException) {
+            deferredCounter.increment();
+            delivery.setNextAttemptAt(outbox.deferredAttemptAt(Instant.now()));
+            return new Outcome(delivery, false, false);
+        }
+
+        int attempts = delivery.getAttempts() + 1;
+        delivery.setAttempts(attempts);
+        delivery.setLastError(AlertOutbox.truncate("Failed to send alert: " + cause.getMessage()));
+        if (attempts >= outbox.getMaxAttempts()) {
+            abandonedCounter.increment();
+            log.error("Giving up on alert {} to {} after {} attempts: {}",
+                    delivery.getId(), delivery.getRecipient(), attempts, cause.getMessage());
+            try {
+                alertService.recordUndeliverable(delivery);
+            } catch (RuntimeException e) {
+                log.error("Failed to record undeliverable alert {}: {}", delivery.getId(), e.getMessage());
+            }
+            return new Outcome(delivery, true, true);
+        }
+
+        failedCounter.increment();
+        delivery.setNextAttemptAt(outbox.nextAttemptAt(attempts));
+        log.warn("Retry {} of alert {} to {} failed, next attempt at {}: {}",
+                attempts, delivery.getId(), delivery.getRecipient(), delivery.getNextAttemptAt(), cause.getMessage());
+        return new Outcome(delivery, false, true);
+    }
+
+    private record Outcome(PendingDelivery delivery, boolean done, boolean attempted) {
+    }
+}
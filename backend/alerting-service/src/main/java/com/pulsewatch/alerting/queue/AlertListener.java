@@ -1,37 +1,197 @@
 package com.pulsewatch.alerting.queue;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.pulsewatch.alerting.config.RabbitMQConfig;
+import com.pulsewatch.alerting.dto.AlertSeverity;
 import com.pulsewatch.alerting.dto.SendAlertRequest;
 import com.pulsewatch.alerting.service.AlertService;
-import lombok.RequiredArgsConstructor;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 @Component
-@RequiredArgsConstructor
 public class AlertListener {
 
     private static final Logger log = LoggerFactory.getLogger(AlertListener.class);
-    
+
     private final AlertService alertService;
-    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final MeterRegistry meterRegistry;
+
+    public AlertListener(AlertService alertService,
+                         ObjectMapper objectMapper,
+                         Validator validator,
+                         AmqpAdmin amqpAdmin,
+                         MeterRegistry meterRegistry,
+                         @Value("${alerting.rabbitmq.queue.name:alerts.queue}") String queueName) {
+        this.alertService = alertService;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(SendAlertRequest.class);
+        this.meterRegistry = meterRegistry;
+
+        for (AlertSeverity lane : AlertSeverity.values()) {
+            String laneQueue = RabbitMQConfig.laneQueueName(queueName, lane);
+            Gauge.builder("alerting.lane.queue.depth", amqpAdmin, admin -> queueDepth(admin, laneQueue))
+                    .description("Messages waiting in the lane's queue")
+                    .tag("lane", lane.getKey())
+                    .register(meterRegistry);
+        }
+    }
 
-    @Value("${alerting.rabbitmq.queue.name:alerts.queue}")
-    private String queueName;
+    // Lanes get consumers in order of severity, so a backlog on a lower lane never takes
+    // consumers from a higher one
+
+    @RabbitListener(queues = "${alerting.rabbitmq.queue.name:alerts.queue}.critical",
+            containerFactory = "alertBatchContainerFactory",
+            concurrency = "${alerting.rabbitmq.lanes.critical.consumers:2-4}")
+    public void receiveCriticalAlerts(List<Message> messages, Channel channel) throws IOException {
+        receiveAlerts(AlertSeverity.CRITICAL, messages, channel);
+    }
+
+    @RabbitListener(queues = "${alerting.rabbitmq.queue.name:alerts.queue}.warning",
+            containerFactory = "alertBatchContainerFactory",
+            concurrency = "${alerting.rabbitmq.lanes.warning.consumers:2-3}")
+    public void receiveWarningAlerts(List<Message> messages, Channel channel) throws IOException {
+        receiveAlerts(AlertSeverity.WARNING, messages, channel);
+    }
+
+    @RabbitListener(queues = "${alerting.rabbitmq.queue.name:alerts.queue}.info",
+            containerFactory = "alertBatchContainerFactory",
+            concurrency = "${alerting.rabbitmq.lanes.info.consumers:1}")
+    public void receiveInfoAlerts(List<Message> messages, Channel channel) throws IOException {
+        receiveAlerts(AlertSeverity.INFO, messages, channel);
+    }
+
+    /**
+     * Takes a batch of queued alerts from one lane, hands them to grouping and dispatch
+     * together and waits until every one of them no longer needs its message, then settles
+     * the batch. Alerts without a severity take the lane's, except on the {@code WARNING} lane,
+     * which also carries alerts from publishers that do not set one. Messages that cannot be
+     * read as a valid {@link SendAlertRequest} are rejected without requeue and go to the
+     * dead-letter queue. An alert rejected by a saturated channel, or that could not be stored
+     * for retry, is nacked and requeued. The rest are acked with a single acknowledgement
+     * covering the whole batch.
+     */
+    private void receiveAlerts(AlertSeverity lane, List<Message> messages, Channel channel) throws IOException {
+        long receivedAt = System.currentTimeMillis();
+        List<SendAlertRequest> requests = new ArrayList<>(messages.size());
+        List<Message> accepted = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            SendAlertRequest request = read(message);
+            if (request == null) {
+                channel.basicNack(message.getMessageProperties().getDeliveryTag(), false, false);
+                continue;
+            }
+            if (request.getSeverity() == null && lane != AlertSeverity.WARNING) {
+                request.setSeverity(lane);
+            }
+            requests.add(request);
+            accepted.add(message);
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        List<CompletableFuture<Void>> submitted = alertService.submitAlerts(requests);
+        CompletableFuture.allOf(submitted.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .join();
+
+        Timer latency = meterRegistry.timer("alerting.lane.latency", "lane", lane.getKey());
+        long settledAt = System.currentTimeMillis();
+        long lastAcked = -1;
+        int requeued = 0;
+        for (int i = 0; i < submitted.size(); i++) {
+            CompletableFuture<Void> future = submitted.get(i);
+            MessageProperties properties = accepted.get(i).getMessageProperties();
+            if (!future.isCompletedExceptionally()) {
+                // From publishing when the publisher stamps the message, otherwise from receipt
+                Date timestamp = properties.getTimestamp();
+                long since = timestamp != null ? Math.min(timestamp.getTime(), receivedAt) : receivedAt;
+                latency.record(settledAt - since, TimeUnit.MILLISECONDS);
+                lastAcked = properties.getDeliveryTag();
+                continue;
+            }
+            Throwable error = cause(future);
+            if (error instanceof RejectedExecutionException) {
+                log.debug("Alert of type {} was not dispatched, channel saturated", requests.get(i).getType());
+            } else {
+                log.warn("Alert of type {} was not dispatched: {}", requests.get(i).getType(), error.getMessage());
+            }
+            channel.basicNack(properties.getDeliveryTag(), false, true);
+            requeued++;
+        }
+        // Earlier batches on this channel are already settled, so this covers exactly the
+        // messages of this batch that were not nacked above
+        if (lastAcked >= 0) {
+            channel.basicAck(lastAcked, true);
+        }
+        log.info("Processed batch of {} {} alerts ({} rejected, {} requeued)",
+                messages.size(), lane.getKey(), messages.size() - requests.size(), requeued);
+    }
+
+    private SendAlertRequest read(Message message) {
+        SendAlertRequest request;
+        try {
+            request = requestReader.readValue(message.getBody());
+        } catch (JsonProcessingException e) {
+            // The original message leaves out the location, which quotes the payload
+            log.error("Dead-lettering unreadable alert message ({} bytes): {}",
+                    message.getBody().length, e.getOriginalMessage());
+            return null;
+        } catch (IOException e) {
+            log.error("Dead-lettering unreadable alert message ({} bytes): {}",
+                    message.getBody().length, e.getMessage());
+            return null;
+        }
+        if (request == null || !validator.validate(request).isEmpty()) {
+            log.error("Dead-lettering invalid alert message ({} bytes)", message.getBody().length);
+            return null;
+        }
+        return request;
+    }
+
+    private static double queueDepth(AmqpAdmin admin, String queue) {
+        try {
+            QueueInformation info = admin.getQueueInfo(queue);
+            return info != null ? info.getMessageCount() : Double.NaN;
+        } catch (AmqpException e) {
+            return Double.NaN;
+        }
+    }
 
-    @RabbitListener(queues = "${alerting.rabbitmq.queue.name:alerts.queue}")
-    public void receiveAlert(String message) {
-        log.info("Received alert message from queue: {}", message);
-        
+    private static Throwable cause(CompletableFuture<Void> future) {
         try {
-            SendAlertRequest request = objectMapper.readValue(message, SendAlertRequest.class);
-            alertService.sendAlert(request);
-            log.info("Alert processed successfully for type: {}", request.getType());
-        } catch (Exception e) {
-            log.error("Failed to process alert message: {}", message, e);
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            return e.getCause() != null ? e.getCause() : e;
+        } catch (RuntimeException e) {
+            return e;
         }
     }
-} 
\ No newline at end of file
+}
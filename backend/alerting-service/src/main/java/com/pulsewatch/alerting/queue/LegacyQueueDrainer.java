@@ -0,0 +1,84 @@
+package com.pulsewatch.alerting.queue;
+
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import com.rabbitmq.client.GetResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retires the single alerts queue of versions before severity lanes. That queue was declared
+ * without dead-letter arguments, so it is never redeclared; if it still exists at startup its
+ * bindings are removed, the messages left in it are republished with the plain routing key,
+ * which now reaches the {@code WARNING} lane, and it is deleted once unused and empty.
+ */
+@Component
+public class LegacyQueueDrainer {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyQueueDrainer.class);
+
+    private final AmqpAdmin amqpAdmin;
+    private final RabbitTemplate rabbitTemplate;
+    private final String queueName;
+    private final String exchangeName;
+    private final String routingKey;
+
+    public LegacyQueueDrainer(AmqpAdmin amqpAdmin,
+                              RabbitTemplate rabbitTemplate,
+                              @Value("${alerting.rabbitmq.queue.name:alerts.queue}") String queueName,
+                              @Value("${alerting.rabbitmq.exchange:alerts.exchange}") String exchangeName,
+                              @Value("${alerting.rabbitmq.routing-key:alerts.routing.key}") String routingKey) {
+        this.amqpAdmin = amqpAdmin;
+        this.rabbitTemplate = rabbitTemplate;
+        this.queueName = queueName;
+        this.exchangeName = exchangeName;
+        this.routingKey = routingKey;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void drain() {
+        try {
+            if (amqpAdmin.getQueueInfo(queueName) == null) {
+                return;
+            }
+            // Nothing new lands in the old queue; the WARNING lane has both of these bindings
+            amqpAdmin.removeBinding(binding(routingKey));
+            amqpAdmin.removeBinding(binding(routingKey + "." + AlertSeverity.WARNING.getKey()));
+
+            // Each message is acked only after it was republished, so a crash can repeat one but not lose it
+            Integer moved = rabbitTemplate.execute(channel -> {
+                int count = 0;
+                GetResponse response;
+                while ((response = channel.basicGet(queueName, false)) != null) {
+                    channel.basicPublish(exchangeName, routingKey, response.getProps(), response.getBody());
+                    channel.basicAck(response.getEnvelope().getDeliveryTag(), false);
+                    count++;
+                }
+                return count;
+            });
+            log.info("Moved {} alerts from legacy queue {} to the severity lanes", moved, queueName);
+        } catch (AmqpException e) {
+            log.warn("Could not drain legacy queue {}: {}", queueName, e.getMessage());
+            return;
+        }
+
+        try {
+            amqpAdmin.deleteQueue(queueName, true, true);
+            log.info("Deleted legacy queue {}", queueName);
+        } catch (AmqpException e) {
+            // Still consumed by an instance of an earlier version; retried on the next start
+            log.info("Legacy queue {} kept, still in use: {}", queueName, e.getMessage());
+        }
+    }
+
+    private Binding binding(String key) {
+        return new Binding(queueName, Binding.DestinationType.QUEUE, exchangeName, key, null);
+    }
+}
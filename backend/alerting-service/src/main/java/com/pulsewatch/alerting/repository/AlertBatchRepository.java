@@ -0,0 +1,46 @@
+package com.pulsewatch.alerting.repository;
+
+import com.pulsewatch.alerting.model.Alert;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC inserts of alert records. Records carry their own id and timestamps, so a batch
+ * is one round trip with no identity lookups, unlike {@code save} on an entity with an
+ * assigned id, which selects it first.
+ */
+@Repository
+public class AlertBatchRepository {
+
+    private static final String INSERT =
+            "INSERT INTO alerts (id, type, message, recipient, sent_at, success, error_message, created_at, group_size) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AlertBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<Alert> alerts) {
+        jdbcTemplate.batchUpdate(INSERT, alerts, alerts.size(), (ps, alert) -> {
+            ps.setObject(1, alert.getId());
+            ps.setString(2, alert.getType());
+            ps.setString(3, alert.getMessage());
+            ps.setString(4, alert.getRecipient());
+            ps.setTimestamp(5, Timestamp.from(alert.getSentAt()));
+            ps.setBoolean(6, alert.isSuccess());
+            ps.setString(7, alert.getErrorMessage());
+            ps.setTimestamp(8, Timestamp.from(alert.getCreatedAt()));
+            if (alert.getGroupSize() != null) {
+                ps.setInt(9, alert.getGroupSize());
+            } else {
+                ps.setNull(9, Types.INTEGER);
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package com.pulsewatch.alerting.repository;
+
+import com.pulsewatch.alerting.model.Alert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in alert history, ordered by sentAt and then id, both descending.
+ * Serialized as an opaque page token.
+ */
+public record AlertCursor(Instant sentAt, UUID id) {
+
+    public static AlertCursor of(Alert alert) {
+        return new AlertCursor(alert.getSentAt(), alert.getId());
+    }
+
+    public String encode() {
+        String raw = sentAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static AlertCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new AlertCursor(Instant.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.pulsewatch.alerting.repository;
+
+import com.pulsewatch.alerting.model.Alert;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Forward-only reads of alert history for large results. Streaming runs in a read-only
+ * transaction so the PostgreSQL driver uses a server-side cursor and only holds
+ * {@code fetch-size} rows at a time; pages use keyset predicates instead of OFFSET.
+ * Every filter is optional. Each combination of type and recipient filters has a composite
+ * index ending in {@code (sent_at, id)} (see {@link Alert}), so the time range, the keyset
+ * position and the ordering are all served by one index range scan.
+ */
+@Repository
+public class AlertCursorRepository {
+
+    private static final String COLUMNS =
+            "SELECT id, type, message, recipient, sent_at, success, error_message, created_at, group_size FROM alerts";
+
+    private static final String ORDER = " ORDER BY sent_at DESC, id DESC";
+
+    private static final RowMapper<Alert> ROW_MAPPER = (rs, rowNum) -> new Alert(
+            rs.getObject("id", UUID.class),
+            rs.getString("type"),
+            rs.getString("message"),
+            rs.getString("recipient"),
+            rs.getTimestamp("sent_at").toInstant(),
+            rs.getBoolean("success"),
+            rs.getString("error_message"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getObject("group_size", Integer.class),
+            false);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AlertCursorRepository(DataSource dataSource,
+                                 @Value("${alerting.history.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public void forEach(String type, Instant startTime, Instant endTime, String recipient, Consumer<Alert> consumer) {
+        List<Object> args = new ArrayList<>();
+        String sql = COLUMNS + where(type, startTime, endTime, recipient, null, args) + ORDER;
+        RowCallbackHandler handler = rs -> consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow()));
+        jdbcTemplate.query(sql, handler, args.toArray());
+    }
+
+    public List<Alert> findPage(String type, Instant startTime, Instant endTime, String recipient,
+                                AlertCursor after, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = COLUMNS + where(type, startTime, endTime, recipient, after, args) + ORDER + " LIMIT ?";
+        args.add(limit);
+        return jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Same as {@link #findPage} but reads only the given columns, returned as maps keyed by
+     * property name in {@link AlertField} order.
+     */
+    public List<Map<String, Object>> findProjectedPage(String type, Instant startTime, Instant endTime, String recipient,
+                                                       AlertCursor after, int limit, Set<AlertField> fields) {
+        List<Object> args = new ArrayList<>();
+        String columns = fields.stream().map(AlertField::getColumn).collect(Collectors.joining(", "));
+        String sql = "SELECT " + columns + " FROM alerts" + where(type, startTime, endTime, recipient, after, args)
+                + ORDER + " LIMIT ?";
+        args.add(limit);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (AlertField field : fields) {
+                row.put(field.getProperty(), field.read(rs));
+            }
+            return row;
+        }, args.toArray());
+    }
+
+    private String where(String type, Instant startTime, Instant endTime, String recipient,
+                         AlertCursor after, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        if (type != null) {
+            conditions.add("type = ?");
+            args.add(type);
+        }
+        if (recipient != null) {
+            conditions.add("recipient = ?");
+            args.add(recipient);
+        }
+        if (startTime != null) {
+            conditions.add("sent_at >= ?");
+            args.add(Timestamp.from(startTime));
+        }
+        if (endTime != null) {
+            conditions.add("sent_at <= ?");
+            args.add(Timestamp.from(endTime));
+        }
+        if (after != null) {
+            // Row comparison, so the position is a single bound on the (..., sent_at, id) indexes
+            conditions.add("(sent_at, id) < (?, ?)");
+            args.add(Timestamp.from(after.sentAt()));
+            args.add(after.id());
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
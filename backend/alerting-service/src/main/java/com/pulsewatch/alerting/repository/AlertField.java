@@ -0,0 +1,80 @@
+package com.pulsewatch.alerting.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Alert columns that history reads can be projected to, named as in the JSON of an alert.
+ */
+public enum AlertField {
+    ID("id", "id"),
+    TYPE("type", "type"),
+    MESSAGE("message", "message"),
+    RECIPIENT("recipient", "recipient"),
+    SENT_AT("sentAt", "sent_at"),
+    SUCCESS("success", "success"),
+    ERROR_MESSAGE("errorMessage", "error_message"),
+    CREATED_AT("createdAt", "created_at"),
+    GROUP_SIZE("groupSize", "group_size");
+
+    private final String property;
+    private final String column;
+
+    AlertField(String property, String column) {
+        this.property = property;
+        this.column = column;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    String getColumn() {
+        return column;
+    }
+
+    Object read(ResultSet rs) throws SQLException {
+        return switch (this) {
+            case ID -> rs.getObject(column, UUID.class);
+            case SENT_AT, CREATED_AT -> {
+                Timestamp timestamp = rs.getTimestamp(column);
+                yield timestamp != null ? timestamp.toInstant() : null;
+            }
+            case SUCCESS -> rs.getBoolean(column);
+            case GROUP_SIZE -> rs.getObject(column, Integer.class);
+            default -> rs.getString(column);
+        };
+    }
+
+    /**
+     * Parses a comma-separated list of property names. {@code id} and {@code sentAt} are always
+     * included, since page tokens are built from them.
+     *
+     * @throws IllegalArgumentException for an unknown property
+     */
+    public static Set<AlertField> parse(String fields) {
+        Set<AlertField> parsed = EnumSet.of(ID, SENT_AT);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            parsed.add(fromProperty(property));
+        }
+        return parsed;
+    }
+
+    private static AlertField fromProperty(String property) {
+        for (AlertField field : values()) {
+            if (field.property.toLowerCase(Locale.ROOT).equals(property.toLowerCase(Locale.ROOT))) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown alert field: " + property);
+    }
+}
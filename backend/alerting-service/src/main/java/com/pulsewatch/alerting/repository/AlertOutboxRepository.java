@@ -0,0 +1,135 @@
+package com.pulsewatch.alerting.repository;
+
+import com.pulsewatch.alerting.model.PendingDelivery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to {@code alert_outbox}. Rows are claimed by moving their
+ * {@code next_attempt_at} forward with a conditional update, so several instances can drain
+ * the same outbox without delivering a row twice while its lease is held.
+ */
+@Repository
+public class AlertOutboxRepository {
+
+    private static final String INSERT =
+            "INSERT INTO alert_outbox (id, type, message, recipient, severity, group_size, attempts, next_attempt_at, "
+                    + "last_error, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FIND_DUE =
+            "SELECT id, type, message, recipient, severity, group_size, attempts, next_attempt_at, last_error, created_at "
+                    + "FROM alert_outbox WHERE next_attempt_at <= ? ORDER BY next_attempt_at LIMIT ?";
+
+    private static final String CLAIM =
+            "UPDATE alert_outbox SET next_attempt_at = ? WHERE id = ? AND next_attempt_at = ?";
+
+    private static final String RESCHEDULE =
+            "UPDATE alert_outbox SET attempts = ?, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private static final String DELETE = "DELETE FROM alert_outbox WHERE id = ?";
+
+    private static final RowMapper<PendingDelivery> ROW_MAPPER = (rs, rowNum) -> new PendingDelivery(
+            rs.getObject("id", UUID.class),
+            rs.getString("type"),
+            rs.getString("message"),
+            rs.getString("recipient"),
+            rs.getString("severity"),
+            rs.getObject("group_size", Integer.class),
+            rs.getInt("attempts"),
+            rs.getTimestamp("next_attempt_at").toInstant(),
+            rs.getString("last_error"),
+            rs.getTimestamp("created_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AlertOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(PendingDelivery delivery) {
+        jdbcTemplate.update(INSERT, ps -> {
+            ps.setObject(1, delivery.getId());
+            ps.setString(2, delivery.getType());
+            ps.setString(3, delivery.getMessage());
+            ps.setString(4, delivery.getRecipient());
+            ps.setString(5, delivery.getSeverity());
+            if (delivery.getGroupSize() != null) {
+                ps.setInt(6, delivery.getGroupSize());
+            } else {
+                ps.setNull(6, Types.INTEGER);
+            }
+            ps.setInt(7, delivery.getAttempts());
+            ps.setTimestamp(8, Timestamp.from(delivery.getNextAttemptAt()));
+            ps.setString(9, delivery.getLastError());
+            ps.setTimestamp(10, Timestamp.from(delivery.getCreatedAt()));
+        });
+    }
+
+    /**
+     * Up to {@code limit} rows due at {@code now}, earliest first.
+     */
+    public List<PendingDelivery> findDue(Instant now, int limit) {
+        return jdbcTemplate.query(FIND_DUE, ROW_MAPPER, Timestamp.from(now), limit);
+    }
+
+    /**
+     * Leases the given rows until {@code leaseUntil} in one batch. Rows another instance has
+     * claimed or rescheduled since they were read are left out of the result.
+     */
+    public List<PendingDelivery> claim(List<PendingDelivery> deliveries, Instant leaseUntil) {
+        if (deliveries.isEmpty()) {
+            return deliveries;
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(CLAIM, deliveries, deliveries.size(), (ps, delivery) -> {
+            ps.setTimestamp(1, Timestamp.from(leaseUntil));
+            ps.setObject(2, delivery.getId());
+            ps.setTimestamp(3, Timestamp.from(delivery.getNextAttemptAt()));
+        });
+
+        List<PendingDelivery> claimed = new ArrayList<>(deliveries.size());
+        for (int i = 0; i < deliveries.size(); i++) {
+            // SUCCESS_NO_INFO (-2) means the driver did not report a count; trust the update
+            int count = counts[0][i];
+            if (count == 1 || count == Statement.SUCCESS_NO_INFO) {
+                PendingDelivery delivery = deliveries.get(i);
+                delivery.setNextAttemptAt(leaseUntil);
+                claimed.add(delivery);
+            }
+        }
+        return claimed;
+    }
+
+    public void rescheduleAll(List<PendingDelivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RESCHEDULE, deliveries, deliveries.size(), (ps, delivery) -> {
+            ps.setInt(1, delivery.getAttempts());
+            ps.setTimestamp(2, Timestamp.from(delivery.getNextAttemptAt()));
+            ps.setString(3, delivery.getLastError());
+            ps.setObject(4, delivery.getId());
+        });
+    }
+
+    public void deleteAll(List<PendingDelivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE, deliveries, deliveries.size(),
+                (ps, delivery) -> ps.setObject(1, delivery.getId()));
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM alert_outbox", Long.class);
+        return count != null ? count : 0;
+    }
+}
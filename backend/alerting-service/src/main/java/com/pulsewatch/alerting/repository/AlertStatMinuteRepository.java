@@ -0,0 +1,23 @@
+package com.pulsewatch.alerting.repository;
+
+import com.pulsewatch.alerting.model.AlertStatMinute;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface AlertStatMinuteRepository extends JpaRepository<AlertStatMinute, AlertStatMinute.Key> {
+
+    List<AlertStatMinute> findByMinuteBetween(Instant from, Instant to);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AlertStatMinute m WHERE m.minute > :after AND m.minute < :before")
+    int deleteBetween(@Param("after") Instant after, @Param("before") Instant before);
+}
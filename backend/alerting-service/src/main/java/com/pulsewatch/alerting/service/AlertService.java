@@ -1,26 +1,43 @@
 package com.pulsewatch.alerting.service;
 
+import com.pulsewatch.alerting.dispatch.AlertChannel;
+import com.pulsewatch.alerting.dispatch.AlertDispatcher;
+import com.pulsewatch.alerting.dispatch.ChannelThrottledException;
+import com.pulsewatch.alerting.dispatch.CircuitOpenException;
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import com.pulsewatch.alerting.dto.CursorPage;
 import com.pulsewatch.alerting.dto.SendAlertRequest;
+import com.pulsewatch.alerting.email.EmailDigester;
+import com.pulsewatch.alerting.grouping.AlertGrouper;
 import com.pulsewatch.alerting.model.Alert;
+import com.pulsewatch.alerting.model.PendingDelivery;
+import com.pulsewatch.alerting.outbox.AlertOutbox;
+import com.pulsewatch.alerting.repository.AlertCursor;
+import com.pulsewatch.alerting.repository.AlertCursorRepository;
+import com.pulsewatch.alerting.repository.AlertField;
 import com.pulsewatch.alerting.repository.AlertRepository;
+import com.pulsewatch.alerting.stats.AlertStatistics;
+import com.pulsewatch.alerting.whatsapp.GupshupClient;
+import com.pulsewatch.alerting.writer.AlertRecordWriter;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
-import org.springframework.web.client.RestTemplate;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,130 +45,264 @@ public class AlertService {
 
     private static final Logger log = LoggerFactory.getLogger(AlertService.class);
     
-    private final JavaMailSender mailSender;
-    private final RestTemplate restTemplate;
     private final AlertRepository alertRepository;
+    private final AlertCursorRepository alertCursorRepository;
+    private final AlertDispatcher alertDispatcher;
+    private final AlertGrouper alertGrouper;
+    private final AlertRecordWriter alertRecordWriter;
+    private final AlertStatistics alertStatistics;
+    private final AlertOutbox alertOutbox;
+    private final EmailDigester emailDigester;
+    private final GupshupClient gupshupClient;
 
-    @Value("${alerting.gupshup.api-key}")
-    private String gupshupApiKey;
+    @Value("${alerting.grouping.enabled:true}")
+    private boolean groupingEnabled;
 
-    @Value("${alerting.gupshup.api-url}")
-    private String gupshupApiUrl;
+    @Value("${alerting.history.max-page-size:1000}")
+    private int maxPageSize;
 
-    @Value("${alerting.gupshup.source-number}")
-    private String gupshupSourceNumber;
+    /**
+     * Delivers the alert on its channel's dispatch pool and records the outcome. The returned
+     * future completes with the record once delivery has finished, and fails with
+     * {@link RejectedExecutionException} when the channel is saturated, in which case nothing is
+     * recorded and the caller should retry later. A delivery that fails, or that the channel's
+     * circuit breaker holds back, is stored in the {@link AlertOutbox} before the future
+     * completes, and the returned alert is marked {@link Alert#isRetryScheduled()}; so is one the
+     * channel's provider is throttling.
+     */
+    public CompletableFuture<Alert> sendAlert(SendAlertRequest request) {
+        return sendAlert(request, 1);
+    }
 
-    @Value("${alerting.gupshup.app-name}")
-    private String gupshupAppName;
+    /**
+     * Passes a queued alert through {@link AlertGrouper} before delivery, so duplicates are
+     * counted instead of sent. The future completes when the alert no longer needs its queue
+     * message: right away for duplicates, after delivery for the first alert of a group.
+     */
+    public CompletableFuture<Void> submitAlert(SendAlertRequest request) {
+        if (!groupingEnabled || AlertChannel.fromType(request.getType()) == null) {
+            return sendAlert(request).thenApply(alert -> null);
+        }
+        return alertGrouper.submit(request, this::sendAlert);
+    }
 
-    public void sendAlert(SendAlertRequest request) {
-        log.info("Sending alert: type={}, recipient={}", request.getType(), request.getRecipient());
-        
-        boolean success = false;
-        String errorMessage = null;
+    /**
+     * Submits a batch of queued alerts, as {@link #submitAlert} does one. Returns one future
+     * per request, in request order; a request that cannot be submitted gets a failed future
+     * instead of failing the batch.
+     */
+    public List<CompletableFuture<Void>> submitAlerts(List<SendAlertRequest> requests) {
+        if (log.isDebugEnabled()) {
+            log.debug("Submitting batch of {} alerts: {}", requests.size(), requests.stream()
+                    .collect(Collectors.groupingBy(SendAlertRequest::getType, TreeMap::new, Collectors.counting())));
+        }
+        List<CompletableFuture<Void>> submitted = new ArrayList<>(requests.size());
+        for (SendAlertRequest request : requests) {
+            try {
+                submitted.add(submitAlert(request));
+            } catch (RuntimeException e) {
+                submitted.add(CompletableFuture.failedFuture(e));
+            }
+        }
+        return submitted;
+    }
 
-        try {
-            switch (request.getType().toUpperCase()) {
-                case "EMAIL" -> {
-                    sendEmail(request.getRecipient(), "PulseWatch Alert", request.getMessage());
-                    success = true;
-                    log.info("Email alert sent successfully to: {}", request.getRecipient());
-                }
-                case "WHATSAPP" -> {
-                    sendWhatsApp(request.getRecipient(), request.getMessage());
-                    success = true;
-                    log.info("WhatsApp alert sent successfully to: {}", request.getRecipient());
-                }
-                case "IN_APP" -> {
-                    log.info("In-app alert: {}", request.getMessage());
-                    success = true;
-                }
-                default -> {
-                    errorMessage = "Unsupported alert type: " + request.getType();
-                    log.error(errorMessage);
-                }
+    private CompletableFuture<Alert> sendAlert(SendAlertRequest request, int groupSize) {
+        log.debug("Sending alert: type={}, recipient={}, groupSize={}", request.getType(), request.getRecipient(), groupSize);
+
+        AlertChannel channel = AlertChannel.fromType(request.getType());
+        if (channel == null) {
+            String errorMessage = "Unsupported alert type: " + request.getType();
+            log.error(errorMessage);
+            return CompletableFuture.completedFuture(record(UUID.randomUUID(), request, groupSize, false, errorMessage, null));
+        }
+
+        long start = System.nanoTime();
+        return deliver(channel, request).handle((ignored, error) -> {
+            if (error == null) {
+                return record(UUID.randomUUID(), request, groupSize, true, null, elapsedMs(start));
             }
-        } catch (Exception e) {
-            errorMessage = "Failed to send alert: " + e.getMessage();
-            log.error(errorMessage, e);
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof RejectedExecutionException rejected) {
+                throw rejected;
+            }
+            if (cause instanceof CircuitOpenException open) {
+                return holdBack(request, groupSize, open.getMessage(), open.getRetryAt());
+            }
+            if (cause instanceof ChannelThrottledException throttled) {
+                return holdBack(request, groupSize, throttled.getMessage(), throttled.getRetryAt());
+            }
+            String errorMessage = "Failed to send alert: " + cause.getMessage();
+            log.error(errorMessage, cause);
+            if (alertOutbox.isEnabled()) {
+                return scheduleRetry(request, groupSize, 1, errorMessage, alertOutbox.nextAttemptAt(1));
+            }
+            return record(UUID.randomUUID(), request, groupSize, false, errorMessage, elapsedMs(start));
+        });
+    }
+
+    /**
+     * Makes one attempt at a delivery from the outbox. The future completes with the alert
+     * record when the delivery succeeds, and otherwise fails with {@link CircuitOpenException}
+     * when the channel's breaker is open, {@link ChannelThrottledException} when its provider is
+     * throttling deliveries, {@link RejectedExecutionException} when the channel
+     * is saturated, or the delivery error. Only success is recorded; the caller decides when a
+     * failing delivery is given up.
+     */
+    public CompletableFuture<Alert> redeliver(PendingDelivery delivery) {
+        AlertChannel channel = AlertChannel.fromType(delivery.getType());
+        SendAlertRequest request = toRequest(delivery);
+        long start = System.nanoTime();
+        return deliver(channel, request)
+                .thenApply(ignored -> record(delivery.getId(), request, groupSize(delivery), true, null, elapsedMs(start)));
+    }
+
+    /**
+     * Hands the alert to its channel. Email goes through {@link EmailDigester}, which may send
+     * it together with other alerts to the same recipient; the other channels call their
+     * provider once per alert, WhatsApp without holding a dispatch worker while Gupshup responds.
+     */
+    private CompletableFuture<Void> deliver(AlertChannel channel, SendAlertRequest request) {
+        AlertSeverity severity = AlertSeverity.of(request);
+        return switch (channel) {
+            case EMAIL -> emailDigester.send(request);
+            case WHATSAPP -> alertDispatcher.deliverAsync(channel, severity,
+                    () -> gupshupClient.send(severity, request.getRecipient(), request.getMessage())
+                            .thenRun(() -> log.debug("WhatsApp alert sent successfully to: {}", request.getRecipient())));
+            case IN_APP -> alertDispatcher.deliver(channel, severity,
+                    () -> log.info("In-app alert: {}", request.getMessage()));
+        };
+    }
+
+    /**
+     * Records an outbox delivery that is given up as failed, with its last error.
+     */
+    public Alert recordUndeliverable(PendingDelivery delivery) {
+        return record(delivery.getId(), toRequest(delivery), groupSize(delivery), false, delivery.getLastError(), null);
+    }
+
+    private Alert holdBack(SendAlertRequest request, int groupSize, String errorMessage, Instant retryAt) {
+        log.warn("Holding back alert to {} until {}: {}", request.getRecipient(), retryAt, errorMessage);
+        if (alertOutbox.isEnabled()) {
+            return scheduleRetry(request, groupSize, 0, errorMessage, alertOutbox.deferredAttemptAt(retryAt));
         }
+        return record(UUID.randomUUID(), request, groupSize, false, errorMessage, null);
+    }
+
+    private Alert scheduleRetry(SendAlertRequest request, int groupSize, int attempts, String errorMessage,
+                                Instant nextAttemptAt) {
+        PendingDelivery delivery = alertOutbox.add(request, groupSize, attempts, errorMessage, nextAttemptAt);
+        log.info("Alert {} to {} scheduled for retry at {}", delivery.getId(), request.getRecipient(), nextAttemptAt);
 
-        // Save alert record
+        // Not a record yet; it becomes one under the same id once the retry settles
         Alert alert = new Alert();
-        alert.setId(UUID.randomUUID());
+        alert.setId(delivery.getId());
         alert.setType(request.getType());
         alert.setMessage(request.getMessage());
         alert.setRecipient(request.getRecipient());
-        alert.setSentAt(Instant.now());
+        alert.setSuccess(false);
+        alert.setErrorMessage(delivery.getLastError());
+        alert.setCreatedAt(delivery.getCreatedAt());
+        alert.setGroupSize(groupSize);
+        alert.setRetryScheduled(true);
+        return alert;
+    }
+
+    private static SendAlertRequest toRequest(PendingDelivery delivery) {
+        SendAlertRequest request = new SendAlertRequest();
+        request.setType(delivery.getType());
+        request.setMessage(delivery.getMessage());
+        request.setRecipient(delivery.getRecipient());
+        if (delivery.getSeverity() != null) {
+            request.setSeverity(AlertSeverity.valueOf(delivery.getSeverity()));
+        }
+        return request;
+    }
+
+    private static int groupSize(PendingDelivery delivery) {
+        return delivery.getGroupSize() != null ? delivery.getGroupSize() : 1;
+    }
+
+    private Alert record(UUID id, SendAlertRequest request, int groupSize, boolean success, String errorMessage,
+                         Long latencyMs) {
+        Instant now = Instant.now();
+        Alert alert = new Alert();
+        alert.setId(id);
+        alert.setType(request.getType());
+        alert.setMessage(request.getMessage());
+        alert.setRecipient(request.getRecipient());
+        alert.setSentAt(now);
         alert.setSuccess(success);
         alert.setErrorMessage(errorMessage);
+        alert.setCreatedAt(now);
+        alert.setGroupSize(groupSize);
 
-        alertRepository.save(alert);
-        log.info("Alert record saved with ID: {}", alert.getId());
+        alertRecordWriter.write(alert);
+        alertStatistics.record(alert, latencyMs);
+        log.info("Alert record queued with ID: {}", alert.getId());
+        return alert;
     }
 
-    private void sendEmail(String to, String subject, String message) {
-        SimpleMailMessage mail = new SimpleMailMessage();
-        mail.setTo(to);
-        mail.setSubject(subject);
-        mail.setText(message);
-        mailSender.send(mail);
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
     }
 
-    private void sendWhatsApp(String phoneNumber, String message) {
+    /**
+     * Sends an alert and waits for the delivery to finish.
+     *
+     * @throws RejectedExecutionException when the alert's channel is saturated
+     */
+    public Alert sendAlertDirectly(SendAlertRequest request) {
         try {
-            // Prepare headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-            headers.set("apikey", gupshupApiKey);
-
-            // Prepare form data
-            MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
-            formData.add("channel", "whatsapp");
-            formData.add("source", gupshupSourceNumber);
-            formData.add("destination", phoneNumber);
-            formData.add("message", message);
-            formData.add("src.name", gupshupAppName);
-
-            // Create HTTP entity
-            HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(formData, headers);
-
-            // Send request
-            restTemplate.postForEntity(gupshupApiUrl, entity, String.class);
-            
-        } catch (Exception e) {
-            log.error("Failed to send WhatsApp message to {}: {}", phoneNumber, e.getMessage());
-            throw new RuntimeException("WhatsApp sending failed", e);
+            return sendAlert(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
 
-    public Alert sendAlertDirectly(SendAlertRequest request) {
-        sendAlert(request);
-        return alertRepository.findByRecipientOrderBySentAtDesc(request.getRecipient())
-                .stream()
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Alert not found after sending"));
+    public void streamAlertHistory(String type, Instant startTime, Instant endTime, String recipient,
+                                   Consumer<Alert> consumer) {
+        alertCursorRepository.forEach(type, startTime, endTime, recipient, consumer);
     }
 
-    // Repository query methods
-    public List<Alert> getAllAlerts() {
-        return alertRepository.findAll();
-    }
+    public CursorPage<Alert> getAlertHistoryPage(String type, Instant startTime, Instant endTime, String recipient,
+                                                 String pageToken, int limit) {
+        AlertCursor after = pageToken != null ? AlertCursor.decode(pageToken) : null;
+        int pageSize = pageSize(limit);
 
-    public List<Alert> getAlertsByType(String type) {
-        return alertRepository.findByTypeOrderBySentAtDesc(type);
+        List<Alert> alerts = alertCursorRepository.findPage(type, startTime, endTime, recipient, after, pageSize);
+        String nextPageToken = alerts.size() == pageSize
+                ? AlertCursor.of(alerts.get(alerts.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(alerts, nextPageToken);
     }
 
-    public List<Alert> getAlertsByTimeRange(Instant startTime, Instant endTime) {
-        return alertRepository.findBySentAtBetweenOrderBySentAtDesc(startTime, endTime);
-    }
+    /**
+     * Page of history reduced to the given fields. Page tokens are interchangeable with
+     * {@link #getAlertHistoryPage}.
+     */
+    public CursorPage<Map<String, Object>> getAlertHistoryPage(String type, Instant startTime, Instant endTime,
+                                                               String recipient, String pageToken, int limit,
+                                                               Set<AlertField> fields) {
+        AlertCursor after = pageToken != null ? AlertCursor.decode(pageToken) : null;
+        int pageSize = pageSize(limit);
 
-    public List<Alert> getAlertsByTypeAndTimeRange(String type, Instant startTime, Instant endTime) {
-        return alertRepository.findByTypeAndSentAtBetweenOrderBySentAtDesc(type, startTime, endTime);
+        List<Map<String, Object>> rows = alertCursorRepository.findProjectedPage(type, startTime, endTime, recipient,
+                after, pageSize, fields);
+        String nextPageToken = null;
+        if (rows.size() == pageSize) {
+            Map<String, Object> last = rows.get(rows.size() - 1);
+            nextPageToken = new AlertCursor((Instant) last.get(AlertField.SENT_AT.getProperty()),
+                    (UUID) last.get(AlertField.ID.getProperty())).encode();
+        }
+        return new CursorPage<>(rows, nextPageToken);
     }
 
-    public List<Alert> getAlertsByRecipient(String recipient) {
-        return alertRepository.findByRecipientOrderBySentAtDesc(recipient);
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, maxPageSize));
     }
 
     public Alert getAlertById(String alertId) {
@@ -166,19 +317,6 @@ public class AlertService {
         if (endTime == null) {
             endTime = Instant.now();
         }
-
-        long totalAlerts = alertRepository.countBySentAtBetween(startTime, endTime);
-        long successfulEmails = alertRepository.countByTypeAndSuccess("EMAIL", true);
-        long successfulWhatsApps = alertRepository.countByTypeAndSuccess("WHATSAPP", true);
-        long successfulInApps = alertRepository.countByTypeAndSuccess("IN_APP", true);
-
-        return Map.of(
-            "totalAlerts", totalAlerts,
-            "successfulEmails", successfulEmails,
-            "successfulWhatsApps", successfulWhatsApps,
-            "successfulInApps", successfulInApps,
-            "startTime", startTime,
-            "endTime", endTime
-        );
+        return alertStatistics.getStats(startTime, endTime);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,227 @@
+package com.pulsewatch.alerting.stats;
+
+import com.pulsewatch.alerting.model.Alert;
+import com.pulsewatch.alerting.model.AlertStatMinute;
+import com.pulsewatch.alerting.repository.AlertCursorRepository;
+import com.pulsewatch.alerting.repository.AlertRepository;
+import com.pulsewatch.alerting.repository.AlertStatMinuteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Alert statistics kept as per-minute counters instead of count queries over {@code alerts}.
+ * Every recorded alert updates its minute's bucket in memory; buckets are checkpointed to
+ * {@code alert_stat_minute_shards} every {@code checkpoint-interval-ms} and kept in memory for
+ * {@code memory-retention-minutes}. A stats request sums the buckets in its range, so its
+ * cost depends on the length of the range rather than on the number of alerts. Ranges are
+ * resolved to whole minutes.
+ *
+ * <p>Each running instance checkpoints under its own id, picked at startup, so instances
+ * sharing the database never overwrite each other's counts. A stats request sums the
+ * checkpoints of every instance, taking this instance's own recent minutes from memory
+ * instead, since they may not be checkpointed yet.
+ *
+ * <p>On first start, when no checkpoint exists yet, the existing alert history is aggregated
+ * once before live recording begins. Latencies are not known for those alerts.
+ */
+@Component
+public class AlertStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertStatistics.class);
+
+    // Row marking that the one-off aggregation of existing alerts has completed
+    private static final Instant BACKFILL_MARKER = Instant.EPOCH;
+    // Instance id of the aggregated history; instances starting together write the same rows
+    private static final String BACKFILL_INSTANCE = "backfill";
+
+    private final AlertStatMinuteRepository repository;
+    private final AlertRepository alertRepository;
+    private final AlertCursorRepository alertCursorRepository;
+    private final long memoryRetentionMinutes;
+    private final long retentionDays;
+    private final int topRecipients;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final NavigableMap<Long, MinuteBucket> buckets = new ConcurrentSkipListMap<>();
+    // First minute of this instance held in memory; earlier minutes are read from the checkpoint table
+    private volatile long memoryStart;
+
+    public AlertStatistics(AlertStatMinuteRepository repository,
+                           AlertRepository alertRepository,
+                           AlertCursorRepository alertCursorRepository,
+                           @Value("${alerting.stats.memory-retention-minutes:10080}") long memoryRetentionMinutes,
+                           @Value("${alerting.stats.retention-days:400}") long retentionDays,
+                           @Value("${alerting.stats.top-recipients:10}") int topRecipients) {
+        this.repository = repository;
+        this.alertRepository = alertRepository;
+        this.alertCursorRepository = alertCursorRepository;
+        this.memoryRetentionMinutes = memoryRetentionMinutes;
+        this.retentionDays = retentionDays;
+        this.topRecipients = topRecipients;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!repository.existsById(new AlertStatMinute.Key(BACKFILL_MARKER, BACKFILL_INSTANCE))) {
+            backfill(Instant.now());
+        }
+        // Counts from earlier runs stay in their own checkpoint rows and are summed on read
+        memoryStart = minuteOf(Instant.now());
+        log.info("Alert statistics started as instance {}", instanceId);
+    }
+
+    /**
+     * Counts a recorded alert in the minute it was sent.
+     *
+     * @param latencyMs time the delivery took, or {@code null} when nothing was delivered
+     */
+    public void record(Alert alert, Long latencyMs) {
+        long minute = minuteOf(alert.getSentAt());
+        int groupSize = alert.getGroupSize() != null ? alert.getGroupSize() : 1;
+        buckets.computeIfAbsent(minute, MinuteBucket::new)
+                .record(normalizeType(alert.getType()), alert.isSuccess(), alert.getRecipient(), groupSize, latencyMs);
+    }
+
+    public Map<String, Object> getStats(Instant startTime, Instant endTime) {
+        long from = minuteOf(startTime);
+        long to = minuteOf(endTime);
+        StatsAccumulator accumulator = new StatsAccumulator();
+
+        long localStart = memoryStart;
+        for (AlertStatMinute row : repository.findByMinuteBetween(toInstant(from), toInstant(to))) {
+            if (instanceId.equals(row.getInstanceId()) && minuteOf(row.getMinute()) >= localStart) {
+                // Held in memory, possibly with counts not checkpointed yet
+                continue;
+            }
+            MinuteBucket bucket = decode(row);
+            if (bucket != null) {
+                bucket.addTo(accumulator);
+            }
+        }
+        long inMemoryFrom = Math.max(from, localStart);
+        if (inMemoryFrom <= to) {
+            buckets.subMap(inMemoryFrom, true, to, true).values().forEach(bucket -> bucket.addTo(accumulator));
+        }
+        return accumulator.toMap(startTime, endTime, topRecipients);
+    }
+
+    @Scheduled(fixedDelayString = "${alerting.stats.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        List<MinuteBucket> written = new ArrayList<>();
+        List<AlertStatMinute> rows = new ArrayList<>();
+        for (MinuteBucket bucket : buckets.values()) {
+            if (!bucket.isDirty()) {
+                continue;
+            }
+            try {
+                rows.add(new AlertStatMinute(toInstant(bucket.getMinute()), instanceId, bucket.checkpoint()));
+                written.add(bucket);
+            } catch (IOException e) {
+                log.error("Failed to encode alert statistics for minute {}: {}", toInstant(bucket.getMinute()), e.getMessage());
+            }
+        }
+        if (!rows.isEmpty()) {
+            try {
+                repository.saveAll(rows);
+                log.debug("Checkpointed {} minutes of alert statistics", rows.size());
+            } catch (Exception e) {
+                log.error("Failed to checkpoint {} minutes of alert statistics: {}", rows.size(), e.getMessage());
+                written.forEach(MinuteBucket::markDirty);
+                return;
+            }
+        }
+
+        long now = minuteOf(Instant.now());
+        long evictBefore = now - memoryRetentionMinutes;
+        if (evictBefore > memoryStart) {
+            // Readers switch to the checkpoint table before the buckets are dropped
+            memoryStart = evictBefore;
+            buckets.headMap(evictBefore).values().removeIf(bucket -> !bucket.isDirty());
+            repository.deleteBetween(BACKFILL_MARKER, toInstant(now - TimeUnit.DAYS.toMinutes(retentionDays)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private void backfill(Instant until) {
+        Instant earliest = alertRepository.findEarliestSentAt();
+        if (earliest != null) {
+            log.info("Aggregating alert history since {} into per-minute statistics", earliest);
+            long alerts = 0;
+            // One day per read so each day's buckets can be saved and dropped before the next
+            for (Instant day = earliest.truncatedTo(ChronoUnit.DAYS); day.isBefore(until); day = day.plus(1, ChronoUnit.DAYS)) {
+                Instant dayEnd = day.plus(1, ChronoUnit.DAYS).minusNanos(1);
+                Map<Long, MinuteBucket> dayBuckets = new HashMap<>();
+                long[] count = {0};
+                alertCursorRepository.forEach(null, day, dayEnd.isBefore(until) ? dayEnd : until, null, alert -> {
+                    int groupSize = alert.getGroupSize() != null ? alert.getGroupSize() : 1;
+                    dayBuckets.computeIfAbsent(minuteOf(alert.getSentAt()), MinuteBucket::new)
+                            .record(normalizeType(alert.getType()), alert.isSuccess(), alert.getRecipient(), groupSize, null);
+                    count[0]++;
+                });
+                saveAll(dayBuckets.values());
+                alerts += count[0];
+            }
+            log.info("Aggregated {} existing alerts into per-minute statistics", alerts);
+        }
+        repository.save(new AlertStatMinute(BACKFILL_MARKER, BACKFILL_INSTANCE, new byte[0]));
+    }
+
+    private void saveAll(Collection<MinuteBucket> minuteBuckets) {
+        List<AlertStatMinute> rows = new ArrayList<>(minuteBuckets.size());
+        for (MinuteBucket bucket : minuteBuckets) {
+            try {
+                rows.add(new AlertStatMinute(toInstant(bucket.getMinute()), BACKFILL_INSTANCE, bucket.checkpoint()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to encode alert statistics", e);
+            }
+        }
+        repository.saveAll(rows);
+    }
+
+    private MinuteBucket decode(AlertStatMinute row) {
+        if (row.getMinute().equals(BACKFILL_MARKER)) {
+            return null;
+        }
+        try {
+            return MinuteBucket.restore(minuteOf(row.getMinute()), row.getPayload());
+        } catch (IOException e) {
+            log.warn("Skipping unreadable alert statistics for minute {}: {}", row.getMinute(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static String normalizeType(String type) {
+        return type != null ? type.toUpperCase(Locale.ROOT) : "UNKNOWN";
+    }
+
+    private static long minuteOf(Instant instant) {
+        return instant.getEpochSecond() / 60;
+    }
+
+    private static Instant toInstant(long minute) {
+        return Instant.ofEpochSecond(minute * 60).truncatedTo(ChronoUnit.MINUTES);
+    }
+}
@@ -0,0 +1,117 @@
+package com.pulsewatch.alerting.stats;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram. Values below 64 ms get their own
+ * bucket; above that every power of two is split into 32 sub-buckets, so any recorded value is
+ * reported within about 3% of its true value. Covers 0 to {@link Integer#MAX_VALUE} ms in
+ * 864 buckets.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    static final int BUCKET_COUNT = LINEAR_LIMIT + (Integer.SIZE - 2 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long maxValue;
+
+    void record(long valueMs) {
+        long value = Math.max(0, Math.min(valueMs, Integer.MAX_VALUE));
+        counts[indexOf(value)]++;
+        totalCount++;
+        maxValue = Math.max(maxValue, value);
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        maxValue = Math.max(maxValue, other.maxValue);
+    }
+
+    long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Smallest bucket upper bound that at least {@code percentile}% of the recorded values
+     * fall at or below, or {@code null} when nothing was recorded.
+     */
+    Long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return null;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + (subBucket - SUB_BUCKETS);
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return (subBucket << shift) + (1L << shift) - 1;
+    }
+
+    /**
+     * Sparse encoding: max value, number of non-empty buckets, then (index, count) pairs.
+     */
+    int encodedSize() {
+        int nonEmpty = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                nonEmpty++;
+            }
+        }
+        return Integer.BYTES + Short.BYTES + nonEmpty * (Short.BYTES + Integer.BYTES);
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt((int) maxValue);
+        int countPosition = buffer.position();
+        buffer.putShort((short) 0);
+        short nonEmpty = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] != 0) {
+                buffer.putShort((short) i).putInt((int) counts[i]);
+                nonEmpty++;
+            }
+        }
+        buffer.putShort(countPosition, nonEmpty);
+    }
+
+    static LatencyHistogram readFrom(ByteBuffer buffer) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.maxValue = buffer.getInt();
+        int nonEmpty = buffer.getShort();
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = buffer.getShort();
+            int count = buffer.getInt();
+            histogram.counts[index] = count;
+            histogram.totalCount += count;
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,103 @@
+package com.pulsewatch.alerting.stats;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Alert counts and delivery latencies of one minute. Counts are kept per type, success and
+ * recipient, as the number of records and the number of alerts they cover, which differ when
+ * duplicates were grouped into one notification.
+ */
+final class MinuteBucket {
+
+    private final long minute;
+    private final Map<CountKey, long[]> counts = new HashMap<>();
+    private final Map<String, LatencyHistogram> latencies = new HashMap<>();
+    private boolean dirty;
+
+    MinuteBucket(long minute) {
+        this.minute = minute;
+    }
+
+    long getMinute() {
+        return minute;
+    }
+
+    synchronized void record(String type, boolean success, String recipient, int groupSize, Long latencyMs) {
+        long[] count = counts.computeIfAbsent(new CountKey(type, success, recipient), key -> new long[2]);
+        count[0]++;
+        count[1] += groupSize;
+        if (latencyMs != null) {
+            latencies.computeIfAbsent(type, key -> new LatencyHistogram()).record(latencyMs);
+        }
+        dirty = true;
+    }
+
+    synchronized void addTo(StatsAccumulator accumulator) {
+        counts.forEach((key, count) -> accumulator.addCount(key.type(), key.success(), key.recipient(), count[0], count[1]));
+        latencies.forEach(accumulator::addLatency);
+    }
+
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    synchronized void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Encodes the bucket and clears its dirty flag.
+     */
+    synchronized byte[] checkpoint() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(counts.size());
+            for (Map.Entry<CountKey, long[]> entry : counts.entrySet()) {
+                out.writeUTF(entry.getKey().type());
+                out.writeBoolean(entry.getKey().success());
+                out.writeUTF(entry.getKey().recipient());
+                out.writeLong(entry.getValue()[0]);
+                out.writeLong(entry.getValue()[1]);
+            }
+            out.writeInt(latencies.size());
+            for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+                ByteBuffer histogram = ByteBuffer.allocate(entry.getValue().encodedSize());
+                entry.getValue().writeTo(histogram);
+                out.writeUTF(entry.getKey());
+                out.writeInt(histogram.capacity());
+                out.write(histogram.array());
+            }
+        }
+        dirty = false;
+        return bytes.toByteArray();
+    }
+
+    static MinuteBucket restore(long minute, byte[] payload) throws IOException {
+        MinuteBucket bucket = new MinuteBucket(minute);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int countEntries = in.readInt();
+            for (int i = 0; i < countEntries; i++) {
+                CountKey key = new CountKey(in.readUTF(), in.readBoolean(), in.readUTF());
+                bucket.counts.put(key, new long[]{in.readLong(), in.readLong()});
+            }
+            int latencyEntries = in.readInt();
+            for (int i = 0; i < latencyEntries; i++) {
+                String type = in.readUTF();
+                byte[] histogram = new byte[in.readInt()];
+                in.readFully(histogram);
+                bucket.latencies.put(type, LatencyHistogram.readFrom(ByteBuffer.wrap(histogram)));
+            }
+        }
+        return bucket;
+    }
+
+    private record CountKey(String type, boolean success, String recipient) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.pulsewatch.alerting.stats;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sums minute buckets into the {@code /alerts/stats} response.
+ */
+final class StatsAccumulator {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99};
+
+    private final Map<String, long[]> byType = new TreeMap<>();
+    private final Map<String, Long> byRecipient = new HashMap<>();
+    private final Map<String, LatencyHistogram> latencies = new TreeMap<>();
+    private long totalAlerts;
+    private long groupedAlerts;
+
+    void addCount(String type, boolean success, String recipient, long records, long alerts) {
+        long[] typeCounts = byType.computeIfAbsent(type, key -> new long[2]);
+        typeCounts[success ? 0 : 1] += records;
+        byRecipient.merge(recipient, records, Long::sum);
+        totalAlerts += records;
+        groupedAlerts += alerts - records;
+    }
+
+    void addLatency(String type, LatencyHistogram histogram) {
+        latencies.computeIfAbsent(type, key -> new LatencyHistogram()).add(histogram);
+    }
+
+    Map<String, Object> toMap(Instant startTime, Instant endTime, int topRecipients) {
+        Map<String, Object> types = new LinkedHashMap<>();
+        byType.forEach((type, counts) -> types.put(type, Map.of("successful", counts[0], "failed", counts[1])));
+
+        List<Map<String, Object>> recipients = byRecipient.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(topRecipients)
+                .map(entry -> Map.<String, Object>of("recipient", entry.getKey(), "alerts", entry.getValue()))
+                .toList();
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latencies.forEach((type, histogram) -> {
+            Map<String, Object> percentiles = new LinkedHashMap<>();
+            percentiles.put("count", histogram.getTotalCount());
+            for (double percentile : PERCENTILES) {
+                percentiles.put("p" + (int) percentile, histogram.getValueAtPercentile(percentile));
+            }
+            percentiles.put("max", histogram.getValueAtPercentile(100));
+            latency.put(type, percentiles);
+        });
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalAlerts", totalAlerts);
+        stats.put("successfulEmails", successful("EMAIL"));
+        stats.put("successfulWhatsApps", successful("WHATSAPP"));
+        stats.put("successfulInApps", successful("IN_APP"));
+        stats.put("groupedAlerts", groupedAlerts);
+        stats.put("byType", types);
+        stats.put("topRecipients", recipients);
+        stats.put("deliveryLatencyMs", latency);
+        stats.put("startTime", startTime);
+        stats.put("endTime", endTime);
+        return stats;
+    }
+
+    private long successful(String type) {
+        long[] counts = byType.get(type);
+        return counts != null ? counts[0] : 0;
+    }
+}
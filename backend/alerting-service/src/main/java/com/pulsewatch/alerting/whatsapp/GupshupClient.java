@@ -0,0 +1,326 @@
+package com.pulsewatch.alerting.whatsapp;
+
+import com.pulsewatch.alerting.dispatch.AlertChannel;
+import com.pulsewatch.alerting.dispatch.ChannelThrottledException;
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends WhatsApp messages through the Gupshup API on a shared non-blocking {@link HttpClient}.
+ * At most {@code max-in-flight} requests are outstanding; up to {@code max-waiting} more wait
+ * in severity order, and sends beyond that fail right away with
+ * {@link RejectedExecutionException}. No thread is held while a request waits for Gupshup.
+ *
+ * <p>The number of requests allowed in flight adapts to the provider: a {@code 429} response
+ * halves it and pauses all sends until its {@code Retry-After}, and each successful response
+ * grows it again by a fraction of a slot. A throttled message is sent again once the pause is
+ * over, up to {@code throttle.max-retries} times and only if the pause is no longer than
+ * {@code throttle.max-wait-ms}; otherwise it fails with {@link ChannelThrottledException}, as
+ * does any send made while such a longer pause is in effect.
+ */
+@Component
+public class GupshupClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GupshupClient.class);
+
+    private static final String PREFIX = "alerting.gupshup.";
+
+    private static final Comparator<PendingMessage> SEND_ORDER = Comparator
+            .comparingInt((PendingMessage pending) -> pending.priority)
+            .thenComparingLong(pending -> pending.sequence);
+
+    private final HttpClient httpClient;
+    private final MeterRegistry meterRegistry;
+    private final URI apiUri;
+    private final String apiKey;
+    private final String formPrefix;
+    private final long readTimeoutMs;
+    private final int maxInFlight;
+    private final int maxWaiting;
+    private final int maxThrottleRetries;
+    private final long maxThrottleWaitMs;
+    private final long defaultRetryAfterMs;
+    private final long maxPauseMs;
+    private final Counter rejected;
+
+    private final PriorityQueue<PendingMessage> waiting = new PriorityQueue<>(SEND_ORDER);
+    private int active;
+    private double limit;
+    private long sequence;
+    private long pausedUntil;
+    private long lastDecreaseAt = System.nanoTime();
+    private boolean resumeScheduled;
+
+    public GupshupClient(HttpClient gupshupHttpClient, Environment environment, MeterRegistry meterRegistry) {
+        this.httpClient = gupshupHttpClient;
+        this.meterRegistry = meterRegistry;
+        this.apiUri = URI.create(environment.getRequiredProperty(PREFIX + "api-url"));
+        this.apiKey = environment.getRequiredProperty(PREFIX + "api-key");
+        this.formPrefix = "channel=whatsapp"
+                + "&source=" + encode(environment.getRequiredProperty(PREFIX + "source-number"))
+                + "&src.name=" + encode(environment.getRequiredProperty(PREFIX + "app-name"));
+        this.readTimeoutMs = environment.getProperty(PREFIX + "read-timeout-ms", Long.class, 10000L);
+        this.maxInFlight = Math.max(1, environment.getProperty(PREFIX + "max-in-flight", Integer.class, 16));
+        this.maxWaiting = environment.getProperty(PREFIX + "max-waiting", Integer.class, 200);
+        this.maxThrottleRetries = environment.getProperty(PREFIX + "throttle.max-retries", Integer.class, 2);
+        this.maxThrottleWaitMs = environment.getProperty(PREFIX + "throttle.max-wait-ms", Long.class, 10000L);
+        this.defaultRetryAfterMs = environment.getProperty(PREFIX + "throttle.default-retry-after-ms", Long.class, 1000L);
+        this.maxPauseMs = environment.getProperty(PREFIX + "throttle.max-pause-ms", Long.class, 300000L);
+        this.limit = maxInFlight;
+
+        this.rejected = meterRegistry.counter("alerting.whatsapp.rejected");
+        Gauge.builder("alerting.whatsapp.active", this, GupshupClient::getActiveCount)
+                .description("Gupshup requests in flight")
+                .register(meterRegistry);
+        Gauge.builder("alerting.whatsapp.waiting", this, GupshupClient::getWaitingCount)
+                .description("Messages waiting for a free request slot")
+                .register(meterRegistry);
+        Gauge.builder("alerting.whatsapp.limit", this, GupshupClient::getConcurrencyLimit)
+                .description("Requests currently allowed in flight")
+                .register(meterRegistry);
+        log.info("Gupshup client: maxInFlight={}, maxWaiting={}, readTimeoutMs={}", maxInFlight, maxWaiting, readTimeoutMs);
+    }
+
+    /**
+     * Queues a message to {@code destination}. The future completes once Gupshup has accepted
+     * it, and fails with {@link RejectedExecutionException} when too many messages are waiting,
+     * {@link ChannelThrottledException} when Gupshup keeps throttling, or a
+     * {@link RuntimeException} for any other failed or timed out request.
+     */
+    public CompletableFuture<Void> send(AlertSeverity severity, String destination, String message) {
+        HttpRequest request = HttpRequest.newBuilder(apiUri)
+                .timeout(Duration.ofMillis(readTimeoutMs))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("apikey", apiKey)
+                .POST(HttpRequest.BodyPublishers.ofString(formPrefix
+                        + "&destination=" + encode(destination)
+                        + "&message=" + encode(message)))
+                .build();
+
+        PendingMessage pending;
+        List<PendingMessage> toStart;
+        synchronized (this) {
+            if (pausedUntil - System.currentTimeMillis() > maxThrottleWaitMs) {
+                return CompletableFuture.failedFuture(
+                        new ChannelThrottledException(AlertChannel.WHATSAPP, Instant.ofEpochMilli(pausedUntil)));
+            }
+            if (waiting.size() >= maxWaiting) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        "Gupshup client already has " + waiting.size() + " messages waiting"));
+            }
+            pending = new PendingMessage(severity.ordinal(), sequence++, request);
+            waiting.add(pending);
+            toStart = admit();
+        }
+        toStart.forEach(this::post);
+        return pending.result;
+    }
+
+    public synchronized int getActiveCount() {
+        return active;
+    }
+
+    public synchronized int getWaitingCount() {
+        return waiting.size();
+    }
+
+    public synchronized int getConcurrencyLimit() {
+        return (int) limit;
+    }
+
+    private void post(PendingMessage pending) {
+        pending.sentAt = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = httpClient.sendAsync(pending.request, HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        // Backstop in case the connect and response timeouts do not cover a stalled exchange
+        response.orTimeout(readTimeoutMs * 2, TimeUnit.MILLISECONDS)
+                .whenComplete((resp, error) -> settle(pending, resp, error));
+    }
+
+    private void settle(PendingMessage pending, HttpResponse<String> response, Throwable error) {
+        long elapsedNanos = System.nanoTime() - pending.sentAt;
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+                finish(pending, "timeout", elapsedNanos, new RuntimeException("WhatsApp sending failed: timed out", cause));
+            } else {
+                finish(pending, "error", elapsedNanos, new RuntimeException("WhatsApp sending failed: " + cause, cause));
+            }
+            return;
+        }
+
+        int status = response.statusCode();
+        if (status == 429) {
+            throttled(pending, response, elapsedNanos);
+        } else if (status >= 200 && status < 300) {
+            finish(pending, "success", elapsedNanos, null);
+        } else {
+            // The body may quote the message, so it is only logged at debug level
+            log.debug("Gupshup responded with HTTP {}: {}", status, response.body());
+            finish(pending, "error", elapsedNanos, new RuntimeException("WhatsApp sending failed: HTTP " + status));
+        }
+    }
+
+    private void finish(PendingMessage pending, String outcome, long elapsedNanos, RuntimeException failure) {
+        meterRegistry.timer("alerting.whatsapp.requests", "result", outcome).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        List<PendingMessage> toStart;
+        synchronized (this) {
+            active--;
+            if (failure == null && limit < maxInFlight) {
+                // About one more slot for every limit's worth of accepted messages
+                limit = Math.min(maxInFlight, limit + 1 / limit);
+            }
+            toStart = admit();
+        }
+        toStart.forEach(this::post);
+
+        if (failure == null) {
+            pending.result.complete(null);
+        } else {
+            pending.result.completeExceptionally(failure);
+        }
+    }
+
+    private void throttled(PendingMessage pending, HttpResponse<String> response, long elapsedNanos) {
+        meterRegistry.timer("alerting.whatsapp.requests", "result", "throttled").record(elapsedNanos, TimeUnit.NANOSECONDS);
+        long now = System.currentTimeMillis();
+        long pauseMs = Math.min(maxPauseMs, retryAfterMs(response.headers().firstValue("Retry-After").orElse(null), now));
+
+        boolean retry;
+        long resumeAt;
+        List<PendingMessage> toStart;
+        synchronized (this) {
+            active--;
+            // Requests sent before the last decrease were already throttled at the old limit;
+            // halving again for each of them would collapse the limit on a single burst
+            if (pending.sentAt - lastDecreaseAt > 0) {
+                limit = Math.max(1, limit / 2);
+                lastDecreaseAt = System.nanoTime();
+                log.warn("Gupshup is throttling WhatsApp messages, pausing for {}ms with at most {} in flight",
+                        pauseMs, (int) limit);
+            }
+            pausedUntil = Math.max(pausedUntil, now + pauseMs);
+            resumeAt = pausedUntil;
+            retry = pending.throttled < maxThrottleRetries && resumeAt - now <= maxThrottleWaitMs;
+            if (retry) {
+                // Keeps its place ahead of messages queued after it
+                pending.throttled++;
+                waiting.add(pending);
+            }
+            toStart = admit();
+        }
+        toStart.forEach(this::post);
+
+        if (!retry) {
+            pending.result.completeExceptionally(
+                    new ChannelThrottledException(AlertChannel.WHATSAPP, Instant.ofEpochMilli(resumeAt)));
+        }
+    }
+
+    /**
+     * Picks waiting messages to send until the limit is reached, unless sends are paused, in
+     * which case a resume is scheduled for when the pause ends. Caller holds the lock.
+     */
+    private List<PendingMessage> admit() {
+        long delayMs = pausedUntil - System.currentTimeMillis();
+        if (delayMs > 0) {
+            if (!resumeScheduled && !waiting.isEmpty()) {
+                resumeScheduled = true;
+                CompletableFuture.runAsync(this::resume, CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS));
+            }
+            return List.of();
+        }
+
+        List<PendingMessage> toStart = new ArrayList<>();
+        PendingMessage next;
+        while (active < (int) limit && (next = waiting.poll()) != null) {
+            active++;
+            toStart.add(next);
+        }
+        return toStart;
+    }
+
+    private void resume() {
+        List<PendingMessage> toStart;
+        synchronized (this) {
+            resumeScheduled = false;
+            toStart = admit();
+        }
+        toStart.forEach(this::post);
+    }
+
+    /**
+     * Delay asked for by a {@code Retry-After} header, given either in seconds or as an HTTP
+     * date, or {@code throttle.default-retry-after-ms} when it is missing or unreadable.
+     */
+    long retryAfterMs(String retryAfter, long now) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return defaultRetryAfterMs;
+        }
+        String value = retryAfter.trim();
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, try an HTTP date
+        }
+        try {
+            return Math.max(0, ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() - now);
+        } catch (DateTimeParseException e) {
+            log.debug("Ignoring unreadable Retry-After header: {}", value);
+            return defaultRetryAfterMs;
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value != null ? value : "", StandardCharsets.UTF_8);
+    }
+
+    private static final class PendingMessage {
+        private final int priority;
+        private final long sequence;
+        private final HttpRequest request;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private volatile long sentAt;
+        private int throttled;
+
+        private PendingMessage(int priority, long sequence, HttpRequest request) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.request = request;
+        }
+    }
+}
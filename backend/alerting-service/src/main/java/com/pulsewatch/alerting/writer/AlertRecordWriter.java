@@ -0,0 +1,190 @@
+package com.pulsewatch.alerting.writer;
+
+import com.pulsewatch.alerting.model.Alert;
+import com.pulsewatch.alerting.repository.AlertBatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes alert records off the delivery threads. Records are buffered in memory and a single
+ * writer thread inserts them in JDBC batches of up to {@code batch-size}, flushing partial
+ * batches after {@code flush-interval-ms}. When the buffer is full the caller inserts its own
+ * record, so a slow database slows delivery down instead of dropping records. A failed batch is
+ * retried up to {@code max-attempts} times with doubling backoff, then written one record at a
+ * time so a record the database rejects only loses itself.
+ */
+@Component
+public class AlertRecordWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AlertRecordWriter.class);
+
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+
+    private final AlertBatchRepository batchRepository;
+    private final BlockingQueue<Alert> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final Counter writtenCounter;
+    private final Counter retriedCounter;
+    private final Counter inlineCounter;
+    private final Counter failedCounter;
+
+    private ExecutorService writer;
+    private volatile boolean running;
+
+    public AlertRecordWriter(AlertBatchRepository batchRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${alerting.records.buffer-capacity:10000}") int bufferCapacity,
+                             @Value("${alerting.records.batch-size:200}") int batchSize,
+                             @Value("${alerting.records.flush-interval-ms:500}") long flushIntervalMs,
+                             @Value("${alerting.records.max-attempts:5}") int maxAttempts,
+                             @Value("${alerting.records.retry-backoff-ms:500}") long retryBackoffMs) {
+        this.batchRepository = batchRepository;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+
+        Gauge.builder("alerting.records.buffer.size", buffer, BlockingQueue::size)
+                .description("Alert records waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("alerting.records", "result", "written");
+        this.retriedCounter = meterRegistry.counter("alerting.records", "result", "retried");
+        this.inlineCounter = meterRegistry.counter("alerting.records", "result", "inline");
+        this.failedCounter = meterRegistry.counter("alerting.records", "result", "failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-record-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.submit(this::drainLoop);
+        log.info("Alert record writer started: capacity={}, batchSize={}, flushIntervalMs={}, maxAttempts={}",
+                buffer.remainingCapacity(), batchSize, flushIntervalMs, maxAttempts);
+    }
+
+    /**
+     * Queues a record for the next batch. The record must carry its id and timestamps.
+     */
+    public void write(Alert alert) {
+        if (running && buffer.offer(alert)) {
+            return;
+        }
+        inlineCounter.increment();
+        if (!insert(List.of(alert))) {
+            failedCounter.increment();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(flushIntervalMs * 2 + 10_000, TimeUnit.MILLISECONDS)) {
+                log.warn("Alert record writer did not finish in time, {} records left unwritten", buffer.size());
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Alert record writer stopped");
+    }
+
+    private void drainLoop() {
+        List<Alert> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Alert first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty() && !insert(batch)) {
+                    failedCounter.increment(batch.size());
+                }
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<Alert> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize || !running) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Alert next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeBatch(List<Alert> batch) throws InterruptedException {
+        long backoffMs = retryBackoffMs;
+        for (int attempt = 1; !insert(batch); attempt++) {
+            if (attempt >= maxAttempts) {
+                log.warn("Writing {} alert records one at a time after {} failed batch attempts", batch.size(), attempt);
+                for (Alert alert : batch) {
+                    if (!insert(List.of(alert))) {
+                        failedCounter.increment();
+                        log.error("Dropped alert record {}", alert.getId());
+                    }
+                }
+                return;
+            }
+            retriedCounter.increment();
+            Thread.sleep(backoffMs);
+            backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+        }
+    }
+
+    private boolean insert(List<Alert> records) {
+        try {
+            batchRepository.insertAll(records);
+            writtenCounter.increment(records.size());
+            log.debug("Wrote batch of {} alert records", records.size());
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to write batch of {} alert records: {}", records.size(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.pulsewatch.alerting.dispatch;
+
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertDispatcherTest {
+
+    private AlertDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void testChannelSettingsBoundQueueAndKeepCriticalReserve() throws Exception {
+        // Given
+        dispatcher = new AlertDispatcher(new MockEnvironment()
+                .withProperty("alerting.dispatch.email.concurrency", "1")
+                .withProperty("alerting.dispatch.email.queue-size", "2")
+                .withProperty("alerting.dispatch.email.critical-reserve", "1"), new SimpleMeterRegistry());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = dispatcher.deliver(AlertChannel.EMAIL, AlertSeverity.WARNING, () -> {
+            running.countDown();
+            await(release);
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // When
+        CompletableFuture<Void> warning = dispatcher.deliver(AlertChannel.EMAIL, AlertSeverity.WARNING, () -> { });
+        CompletableFuture<Void> overflow = dispatcher.deliver(AlertChannel.EMAIL, AlertSeverity.WARNING, () -> { });
+        CompletableFuture<Void> critical = dispatcher.deliver(AlertChannel.EMAIL, AlertSeverity.CRITICAL, () -> { });
+        CompletableFuture<Void> inApp = dispatcher.deliver(AlertChannel.IN_APP, AlertSeverity.WARNING, () -> { });
+
+        // Then: a full email queue does not hold up other channels
+        inApp.get(5, TimeUnit.SECONDS);
+        ExecutionException error = assertThrows(ExecutionException.class, overflow::get);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        release.countDown();
+        CompletableFuture.allOf(blocker, warning, critical).get(5, TimeUnit.SECONDS);
+        assertEquals(CircuitBreaker.State.CLOSED, dispatcher.getCircuitBreaker(AlertChannel.EMAIL).getState());
+    }
+
+    @Test
+    void testRateLimitAppliesPerChannel() throws Exception {
+        // Given
+        dispatcher = new AlertDispatcher(new MockEnvironment()
+                .withProperty("alerting.dispatch.whatsapp.rate-per-second", "10")
+                .withProperty("alerting.dispatch.whatsapp.burst", "1"), new SimpleMeterRegistry());
+
+        // When
+        long start = System.nanoTime();
+        CompletableFuture<?>[] deliveries = new CompletableFuture<?>[6];
+        for (int i = 0; i < deliveries.length; i++) {
+            deliveries[i] = dispatcher.deliver(AlertChannel.WHATSAPP, AlertSeverity.CRITICAL, () -> { });
+        }
+        CompletableFuture.allOf(deliveries).get(5, TimeUnit.SECONDS);
+        long whatsappMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < deliveries.length; i++) {
+            deliveries[i] = dispatcher.deliver(AlertChannel.EMAIL, AlertSeverity.CRITICAL, () -> { });
+        }
+        CompletableFuture.allOf(deliveries).get(5, TimeUnit.SECONDS);
+        long emailMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then: critical alerts are not exempt from the quota; unlimited channels are not slowed
+        assertTrue(whatsappMs >= 450, "6 WhatsApp deliveries in " + whatsappMs + "ms");
+        assertTrue(emailMs < 450, "6 emails in " + emailMs + "ms");
+    }
+
+    @Test
+    void testOpenBreakerFailsFastWithoutCallingProvider() throws Exception {
+        // Given
+        dispatcher = new AlertDispatcher(new MockEnvironment()
+                .withProperty("alerting.dispatch.email.concurrency", "1")
+                .withProperty("alerting.dispatch.email.circuit-breaker.window-size", "4")
+                .withProperty("alerting.dispatch.email.circuit-breaker.minimum-calls", "2")
+                .withProperty("alerting.dispatch.email.circuit-breaker.open-ms", "60000"), new SimpleMeterRegistry());
+        for (int i = 0; i < 2; i++) {
+            CompletableFuture<Void> failed = dispatcher.deliver(AlertChannel.EMAIL, AlertSeverity.WARNING, () -> {
+                throw new IllegalStateException("smtp down");
+            });
+            assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        }
+
+        // When
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Void> held = dispatcher.deliver(AlertChannel.EMAIL, AlertSeverity.CRITICAL, calls::incrementAndGet);
+
+        // Then
+        ExecutionException error = assertThrows(ExecutionException.class, held::get);
+        assertInstanceOf(CircuitOpenException.class, error.getCause());
+        assertEquals(0, calls.get());
+        assertEquals(CircuitBreaker.State.OPEN, dispatcher.getCircuitBreaker(AlertChannel.EMAIL).getState());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
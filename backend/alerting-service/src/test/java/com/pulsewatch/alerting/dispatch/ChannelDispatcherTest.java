@@ -0,0 +1,137 @@
+package com.pulsewatch.alerting.dispatch;
+
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ChannelDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.shutdown(1000);
+        }
+    }
+
+    @Test
+    void testDeliveriesStartNoFasterThanRateLimit() throws Exception {
+        // Given
+        dispatcher = new ChannelDispatcher(AlertChannel.EMAIL, 4, 100, 0, 20, 2, meterRegistry);
+        Queue<Long> startedAt = new ConcurrentLinkedQueue<>();
+
+        // When
+        long start = System.nanoTime();
+        List<CompletableFuture<Long>> deliveries = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            deliveries.add(dispatcher.submit(AlertSeverity.WARNING, () -> {
+                startedAt.add(System.nanoTime());
+                return 0L;
+            }));
+        }
+        CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // Then: a burst of 2, then one every 50ms
+        long lastStartMs = TimeUnit.NANOSECONDS.toMillis(startedAt.stream().mapToLong(Long::longValue).max().orElseThrow() - start);
+        assertTrue(lastStartMs >= 450, "12 deliveries started within " + lastStartMs + "ms");
+        assertEquals(12, meterRegistry.timer("alerting.dispatch.throttled", "channel", "email").count());
+    }
+
+    @Test
+    void testCriticalReserveIsKeptUnderFullQueue() throws Exception {
+        // Given: the only worker is busy, leaving 2 of 4 queue slots to non-critical alerts
+        dispatcher = new ChannelDispatcher(AlertChannel.EMAIL, 1, 4, 2, 0, 1, meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> blocker = dispatcher.submit(AlertSeverity.INFO, () -> {
+            running.countDown();
+            await(release);
+            return null;
+        });
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Queue<String> order = new ConcurrentLinkedQueue<>();
+
+        // When
+        CompletableFuture<Void> warning1 = dispatcher.submit(AlertSeverity.WARNING, () -> record(order, "warning-1"));
+        CompletableFuture<Void> warning2 = dispatcher.submit(AlertSeverity.WARNING, () -> record(order, "warning-2"));
+        CompletableFuture<Void> warning3 = dispatcher.submit(AlertSeverity.WARNING, () -> record(order, "warning-3"));
+        CompletableFuture<Void> critical1 = dispatcher.submit(AlertSeverity.CRITICAL, () -> record(order, "critical-1"));
+        CompletableFuture<Void> critical2 = dispatcher.submit(AlertSeverity.CRITICAL, () -> record(order, "critical-2"));
+        CompletableFuture<Void> critical3 = dispatcher.submit(AlertSeverity.CRITICAL, () -> record(order, "critical-3"));
+
+        // Then
+        assertRejected(warning3);
+        assertRejected(critical3);
+        assertEquals(2, meterRegistry.counter("alerting.dispatch.rejected", "channel", "email").count());
+
+        release.countDown();
+        CompletableFuture.allOf(blocker, warning1, warning2, critical1, critical2).get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("critical-1", "critical-2", "warning-1", "warning-2"), new ArrayList<>(order));
+    }
+
+    @Test
+    void testAsyncDeliveryReleasesWorkerOnceStarted() throws Exception {
+        // Given
+        dispatcher = new ChannelDispatcher(AlertChannel.WHATSAPP, 1, 10, 0, 0, 1, meterRegistry);
+        CompletableFuture<String> response = new CompletableFuture<>();
+
+        // When
+        CompletableFuture<String> pending = dispatcher.submitAsync(AlertSeverity.WARNING, () -> response);
+        String next = dispatcher.submit(AlertSeverity.WARNING, () -> "sent").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("sent", next);
+        assertFalse(pending.isDone());
+        response.complete("delivered");
+        assertEquals("delivered", pending.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testDeliveryFailureCompletesFutureWithCause() {
+        // Given
+        dispatcher = new ChannelDispatcher(AlertChannel.EMAIL, 1, 10, 0, 0, 1, meterRegistry);
+
+        // When
+        CompletableFuture<Void> delivery = dispatcher.submit(AlertSeverity.WARNING, () -> {
+            throw new IllegalStateException("smtp down");
+        });
+
+        // Then
+        ExecutionException error = assertThrows(ExecutionException.class, () -> delivery.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    private static Void record(Queue<String> order, String name) {
+        order.add(name);
+        return null;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertRejected(CompletableFuture<?> delivery) {
+        assertTrue(delivery.isCompletedExceptionally());
+        ExecutionException error = assertThrows(ExecutionException.class, delivery::get);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+    }
+}
@@ -0,0 +1,143 @@
+package com.pulsewatch.alerting.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    @Test
+    void testStaysClosedUntilMinimumCallsAreSeen() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 60000);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.isCallPermitted());
+    }
+
+    @Test
+    void testOpensAtFailureRateAndRejectsCalls() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 60000);
+        record(breaker, true, false, true, false);
+
+        // When
+        Instant before = Instant.now();
+        record(breaker, true);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.isCallPermitted());
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.getRetryAt().isBefore(before.plusMillis(59000)));
+    }
+
+    @Test
+    void testSuccessesOutsideWindowAreForgotten() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.75, 60000);
+        record(breaker, false, false, false, false);
+
+        // When
+        record(breaker, true, true);
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        record(breaker, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "3 of the last 4 calls failed");
+    }
+
+    @Test
+    void testHalfOpenLetsOneTrialThroughAndSuccessCloses() throws InterruptedException {
+        // Given
+        CircuitBreaker breaker = openBreaker(50);
+        Thread.sleep(80);
+
+        // When
+        assertTrue(breaker.isCallPermitted());
+        assertTrue(breaker.tryAcquire());
+
+        // Then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(), "only one trial may be in flight");
+        assertFalse(breaker.isCallPermitted());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void testFailedTrialReopens() throws InterruptedException {
+        // Given
+        CircuitBreaker breaker = openBreaker(50);
+        Thread.sleep(80);
+        assertTrue(breaker.tryAcquire());
+
+        // When
+        breaker.onFailure();
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void testReleasedTrialLetsNextTrialThrough() throws InterruptedException {
+        // Given
+        CircuitBreaker breaker = openBreaker(50);
+        Thread.sleep(80);
+        assertTrue(breaker.tryAcquire());
+
+        // When
+        breaker.release();
+
+        // Then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.isCallPermitted());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void testReleaseIsNotCountedWhileClosed() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, 60000);
+        record(breaker, true);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.release();
+        }
+        record(breaker, true);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState(), "released calls are neither successes nor failures");
+    }
+
+    private static CircuitBreaker openBreaker(long openMs) {
+        CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, openMs);
+        record(breaker, true, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private static void record(CircuitBreaker breaker, boolean... failures) {
+        for (boolean failure : failures) {
+            assertTrue(breaker.tryAcquire());
+            if (failure) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+    }
+}
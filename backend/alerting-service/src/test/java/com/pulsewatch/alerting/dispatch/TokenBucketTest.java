@@ -0,0 +1,67 @@
+package com.pulsewatch.alerting.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    void testBurstIsServedWithoutWaiting() throws Exception {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 5);
+
+        // When / Then
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.acquire());
+        }
+    }
+
+    @Test
+    void testCallerBeyondBurstWaitsForNextToken() throws Exception {
+        // Given
+        TokenBucket bucket = new TokenBucket(10, 2);
+        bucket.acquire();
+        bucket.acquire();
+
+        // When
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(bucket.acquire());
+
+        // Then
+        assertTrue(waitedMs > 50 && waitedMs <= 100, "waited " + waitedMs + "ms");
+    }
+
+    @Test
+    void testLongRunRateDoesNotExceedLimit() throws Exception {
+        // Given
+        TokenBucket bucket = new TokenBucket(50, 1);
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < 26; i++) {
+            bucket.acquire();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then: the first token is free, the other 25 take 20ms each
+        assertTrue(elapsedMs >= 490, "26 tokens in " + elapsedMs + "ms");
+    }
+
+    @Test
+    void testIdleBucketRefillsOnlyUpToBurst() throws Exception {
+        // Given
+        TokenBucket bucket = new TokenBucket(100, 3);
+        Thread.sleep(100);
+
+        // When
+        int immediate = 0;
+        while (bucket.acquire() == 0) {
+            immediate++;
+        }
+
+        // Then
+        assertEquals(3, immediate);
+    }
+}
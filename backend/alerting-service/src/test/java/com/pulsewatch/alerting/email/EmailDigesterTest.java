@@ -0,0 +1,159 @@
+package com.pulsewatch.alerting.email;
+
+import com.pulsewatch.alerting.dispatch.AlertChannel;
+import com.pulsewatch.alerting.dispatch.AlertDispatcher;
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import com.pulsewatch.alerting.dto.SendAlertRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class EmailDigesterTest {
+
+    private SmtpTransportPool transportPool;
+    private AlertDispatcher alertDispatcher;
+    private EmailDigester digester;
+    private final Queue<MimeMessage> sent = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        transportPool = mock(SmtpTransportPool.class);
+        alertDispatcher = mock(AlertDispatcher.class);
+        when(transportPool.createMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> sent.add(invocation.getArgument(0))).when(transportPool).send(any());
+        when(alertDispatcher.deliver(eq(AlertChannel.EMAIL), any(), any())).thenAnswer(invocation -> {
+            Runnable call = invocation.getArgument(2);
+            call.run();
+            return CompletableFuture.completedFuture(null);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (digester != null) {
+            digester.shutdown();
+        }
+    }
+
+    @Test
+    void testAlertsWithinWindowAreSentAsOneDigestPerRecipient() throws Exception {
+        // Given
+        digester = new EmailDigester(transportPool, alertDispatcher, new SimpleMeterRegistry(), 200, 50, "alerts@example.com");
+
+        // When
+        CompletableFuture<Void> first = digester.send(request("ops@example.com", "CPU at 91%", AlertSeverity.WARNING));
+        CompletableFuture<Void> second = digester.send(request("ops@example.com", "Disk at 95%", AlertSeverity.INFO));
+        CompletableFuture<Void> other = digester.send(request("dba@example.com", "Replica lag", AlertSeverity.WARNING));
+        assertFalse(first.isDone());
+        assertTrue(sent.isEmpty());
+
+        // Then
+        CompletableFuture.allOf(first, second, other).get(5, TimeUnit.SECONDS);
+        assertEquals(2, sent.size());
+        MimeMessage digest = message("ops@example.com");
+        assertEquals("PulseWatch Alert (2 alerts)", digest.getSubject());
+        assertEquals("[WARNING] CPU at 91%\n\n[INFO] Disk at 95%", digest.getContent());
+        assertEquals("alerts@example.com", digest.getFrom()[0].toString());
+        MimeMessage single = message("dba@example.com");
+        assertEquals("PulseWatch Alert", single.getSubject());
+        assertEquals("Replica lag", single.getContent());
+        verify(alertDispatcher, times(2)).deliver(eq(AlertChannel.EMAIL), eq(AlertSeverity.WARNING), any());
+    }
+
+    @Test
+    void testCriticalAlertSendsDigestImmediately() throws Exception {
+        // Given
+        digester = new EmailDigester(transportPool, alertDispatcher, new SimpleMeterRegistry(), 60000, 50, "");
+        CompletableFuture<Void> warning = digester.send(request("ops@example.com", "CPU at 91%", AlertSeverity.WARNING));
+
+        // When
+        CompletableFuture<Void> critical = digester.send(request("ops@example.com", "Host down", AlertSeverity.CRITICAL));
+
+        // Then
+        assertTrue(warning.isDone());
+        assertTrue(critical.isDone());
+        assertEquals(1, sent.size());
+        assertEquals("PulseWatch Alert (2 alerts)", sent.peek().getSubject());
+        verify(alertDispatcher).deliver(eq(AlertChannel.EMAIL), eq(AlertSeverity.CRITICAL), any());
+    }
+
+    @Test
+    void testDigestIsCappedAtMaxAlerts() throws Exception {
+        // Given
+        digester = new EmailDigester(transportPool, alertDispatcher, new SimpleMeterRegistry(), 60000, 3, "");
+
+        // When
+        for (int i = 1; i <= 4; i++) {
+            digester.send(request("ops@example.com", "CPU at 9" + i + "%", AlertSeverity.WARNING));
+        }
+
+        // Then
+        assertEquals(1, sent.size());
+        assertEquals("PulseWatch Alert (3 alerts)", sent.peek().getSubject());
+    }
+
+    @Test
+    void testZeroWindowSendsEachAlertOnItsOwn() {
+        // Given
+        digester = new EmailDigester(transportPool, alertDispatcher, new SimpleMeterRegistry(), 0, 50, "");
+
+        // When
+        digester.send(request("ops@example.com", "CPU at 91%", AlertSeverity.WARNING));
+        digester.send(request("ops@example.com", "CPU at 92%", AlertSeverity.WARNING));
+
+        // Then
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void testFailedSendFailsEveryAlertInDigest() {
+        // Given
+        when(alertDispatcher.deliver(eq(AlertChannel.EMAIL), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("smtp down")));
+        digester = new EmailDigester(transportPool, alertDispatcher, new SimpleMeterRegistry(), 60000, 2, "");
+
+        // When
+        CompletableFuture<Void> first = digester.send(request("ops@example.com", "CPU at 91%", AlertSeverity.WARNING));
+        CompletableFuture<Void> second = digester.send(request("ops@example.com", "CPU at 92%", AlertSeverity.WARNING));
+
+        // Then
+        for (CompletableFuture<Void> alert : List.of(first, second)) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> alert.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(MailSendException.class, error.getCause());
+        }
+    }
+
+    private MimeMessage message(String recipient) throws Exception {
+        for (MimeMessage message : sent) {
+            if (recipient.equals(message.getRecipients(MimeMessage.RecipientType.TO)[0].toString())) {
+                return message;
+            }
+        }
+        return fail("No email sent to " + recipient);
+    }
+
+    private static SendAlertRequest request(String recipient, String message, AlertSeverity severity) {
+        SendAlertRequest request = new SendAlertRequest();
+        request.setType("EMAIL");
+        request.setRecipient(recipient);
+        request.setMessage(message);
+        request.setSeverity(severity);
+        return request;
+    }
+}
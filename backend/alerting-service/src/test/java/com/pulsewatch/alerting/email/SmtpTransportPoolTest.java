@@ -0,0 +1,159 @@
+package com.pulsewatch.alerting.email;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SmtpTransportPoolTest {
+
+    private JavaMailSenderImpl mailSender;
+    private Session session;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = mock(JavaMailSenderImpl.class);
+        session = mock(Session.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(mailSender.getSession()).thenReturn(session);
+        when(mailSender.getProtocol()).thenReturn("smtp");
+        when(mailSender.getHost()).thenReturn("smtp.example.com");
+        when(mailSender.getPort()).thenReturn(587);
+        when(mailSender.getUsername()).thenReturn("alerts");
+        when(mailSender.getPassword()).thenReturn("secret");
+    }
+
+    @Test
+    void testConnectionIsReusedAcrossMessages() throws Exception {
+        // Given
+        Transport transport = mock(Transport.class);
+        when(session.getTransport("smtp")).thenReturn(transport);
+        SmtpTransportPool pool = pool(2, 100, 1000);
+
+        // When
+        pool.send(mock(MimeMessage.class));
+        pool.send(mock(MimeMessage.class));
+
+        // Then
+        verify(session, times(1)).getTransport("smtp");
+        verify(transport).connect("smtp.example.com", 587, "alerts", "secret");
+        verify(transport, times(2)).sendMessage(any(), any());
+        assertEquals(1.0, meterRegistry.get("alerting.email.connections").tag("state", "idle").gauge().value());
+    }
+
+    @Test
+    void testConnectionIsClosedAfterMaxMessages() throws Exception {
+        // Given
+        Transport first = mock(Transport.class);
+        Transport second = mock(Transport.class);
+        when(session.getTransport("smtp")).thenReturn(first, second);
+        SmtpTransportPool pool = pool(2, 1, 1000);
+
+        // When
+        pool.send(mock(MimeMessage.class));
+        pool.send(mock(MimeMessage.class));
+
+        // Then
+        verify(first).close();
+        verify(second).sendMessage(any(), any());
+        assertEquals(2.0, meterRegistry.counter("alerting.email.connections.closed", "reason", "max-messages").count());
+    }
+
+    @Test
+    void testBrokenReusedConnectionIsReplaced() throws Exception {
+        // Given
+        Transport broken = mock(Transport.class);
+        Transport replacement = mock(Transport.class);
+        when(session.getTransport("smtp")).thenReturn(broken, replacement);
+        SmtpTransportPool pool = pool(2, 100, 1000);
+        pool.send(mock(MimeMessage.class));
+        doThrow(new MessagingException("connection reset")).when(broken).sendMessage(any(), any());
+
+        // When
+        MimeMessage message = mock(MimeMessage.class);
+        pool.send(message);
+
+        // Then
+        verify(broken).close();
+        verify(replacement).sendMessage(eq(message), any());
+        assertEquals(1.0, meterRegistry.counter("alerting.email.connections.closed", "reason", "error").count());
+    }
+
+    @Test
+    void testFailureOnNewConnectionIsNotRetried() throws Exception {
+        // Given
+        Transport transport = mock(Transport.class);
+        when(session.getTransport("smtp")).thenReturn(transport);
+        doThrow(new MessagingException("connection reset")).when(transport).sendMessage(any(), any());
+        SmtpTransportPool pool = pool(2, 100, 1000);
+
+        // When / Then
+        assertThrows(MailSendException.class, () -> pool.send(mock(MimeMessage.class)));
+        verify(session, times(1)).getTransport("smtp");
+        verify(transport).close();
+    }
+
+    @Test
+    void testRejectedRecipientsKeepConnection() throws Exception {
+        // Given
+        Transport transport = mock(Transport.class);
+        when(session.getTransport("smtp")).thenReturn(transport);
+        doThrow(new SendFailedException("550 no such user")).doNothing().when(transport).sendMessage(any(), any());
+        SmtpTransportPool pool = pool(2, 100, 1000);
+
+        // When
+        assertThrows(MailSendException.class, () -> pool.send(mock(MimeMessage.class)));
+        pool.send(mock(MimeMessage.class));
+
+        // Then
+        verify(session, times(1)).getTransport("smtp");
+        verify(transport, never()).close();
+    }
+
+    @Test
+    void testSendGivesUpWhenNoConnectionIsFree() throws Exception {
+        // Given
+        Transport transport = mock(Transport.class);
+        when(session.getTransport("smtp")).thenReturn(transport);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(transport).sendMessage(any(), any());
+        SmtpTransportPool pool = pool(1, 100, 50);
+        CompletableFuture<Void> busy = CompletableFuture.runAsync(() -> pool.send(mock(MimeMessage.class)));
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        // When / Then
+        long start = System.nanoTime();
+        assertThrows(MailSendException.class, () -> pool.send(mock(MimeMessage.class)));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+
+        release.countDown();
+        busy.get(5, TimeUnit.SECONDS);
+        pool.send(mock(MimeMessage.class));
+        verify(transport, times(2)).sendMessage(any(), any());
+    }
+
+    private SmtpTransportPool pool(int size, int maxMessagesPerConnection, long acquireTimeoutMs) {
+        return new SmtpTransportPool(mailSender, meterRegistry, size, maxMessagesPerConnection, 60000, 60000,
+                acquireTimeoutMs);
+    }
+}
@@ -0,0 +1,188 @@
+package com.pulsewatch.alerting.grouping;
+
+import com.pulsewatch.alerting.dto.SendAlertRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertGrouperTest {
+
+    private AlertGrouper grouper;
+    private final Queue<Sent> sent = new ConcurrentLinkedQueue<>();
+    private final BiFunction<SendAlertRequest, Integer, CompletableFuture<?>> sender = (request, count) -> {
+        sent.add(new Sent(request, count));
+        return CompletableFuture.completedFuture(null);
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (grouper != null) {
+            grouper.shutdown();
+        }
+    }
+
+    @Test
+    void testFingerprintMasksNumbersAndWhitespace() {
+        // When / Then
+        assertEquals("cpu at #% on web-#", AlertGrouper.fingerprint("CPU at 91% on web-3"));
+        assertEquals(AlertGrouper.fingerprint("CPU at 91% on web-3"), AlertGrouper.fingerprint("cpu  at 97%\ton web-12 "));
+        assertNotEquals(AlertGrouper.fingerprint("CPU at 91% on web-3"), AlertGrouper.fingerprint("Memory at 91% on web-3"));
+    }
+
+    @Test
+    void testDuplicatesWithinGroupWaitAreSentOnce() {
+        // Given
+        grouper = new AlertGrouper(200, 60000, 100, new SimpleMeterRegistry());
+
+        // When
+        CompletableFuture<Void> opener = grouper.submit(request("ops@example.com", "CPU at 91% on web-1"), sender);
+        List<CompletableFuture<Void>> duplicates = new ArrayList<>();
+        for (int i = 2; i <= 5; i++) {
+            duplicates.add(grouper.submit(request("ops@example.com", "CPU at 9" + i + "% on web-" + i), sender));
+        }
+        CompletableFuture<Void> other = grouper.submit(request("dev@example.com", "CPU at 91% on web-1"), sender);
+
+        // Then
+        duplicates.forEach(duplicate -> assertTrue(duplicate.isDone(), "duplicates should complete right away"));
+        assertFalse(opener.isDone(), "the opener should wait for the group's notification");
+        opener.join();
+        other.join();
+
+        assertEquals(2, sent.size());
+        Sent grouped = sent.stream().filter(s -> s.request().getRecipient().equals("ops@example.com")).findFirst().orElseThrow();
+        assertEquals(5, grouped.count());
+        assertEquals("[5 similar alerts] CPU at 91% on web-1", grouped.request().getMessage());
+        Sent single = sent.stream().filter(s -> s.request().getRecipient().equals("dev@example.com")).findFirst().orElseThrow();
+        assertEquals(1, single.count());
+        assertEquals("CPU at 91% on web-1", single.request().getMessage());
+    }
+
+    @Test
+    void testDuplicatesAfterFirstNotificationWaitForRepeatInterval() {
+        // Given
+        grouper = new AlertGrouper(0, 300, 100, new SimpleMeterRegistry());
+        grouper.submit(request("ops@example.com", "Disk at 91%"), sender).join();
+
+        // When
+        grouper.submit(request("ops@example.com", "Disk at 93%"), sender).join();
+        grouper.submit(request("ops@example.com", "Disk at 95%"), sender).join();
+
+        // Then
+        assertEquals(1, sent.size(), "duplicates should not be sent before the repeat interval");
+        waitFor(() -> sent.size() == 2, 2000);
+        assertEquals(List.of(1, 2), sent.stream().map(Sent::count).toList());
+    }
+
+    @Test
+    void testFailedFirstNotificationFailsOpenerAndDropsGroup() {
+        // Given
+        grouper = new AlertGrouper(0, 60000, 100, new SimpleMeterRegistry());
+        AtomicBoolean saturated = new AtomicBoolean(true);
+        BiFunction<SendAlertRequest, Integer, CompletableFuture<?>> flaky = (request, count) -> {
+            sent.add(new Sent(request, count));
+            return saturated.get()
+                    ? CompletableFuture.failedFuture(new RejectedExecutionException("channel full"))
+                    : CompletableFuture.completedFuture(null);
+        };
+
+        // When
+        CompletableFuture<Void> first = grouper.submit(request("ops@example.com", "Disk at 91%"), flaky);
+        saturated.set(false);
+        CompletableFuture<Void> redelivered = grouper.submit(request("ops@example.com", "Disk at 91%"), flaky);
+
+        // Then
+        CompletionException error = assertThrows(CompletionException.class, first::join);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        redelivered.join();
+        assertEquals(2, sent.size(), "the redelivered alert should open a new group and be sent");
+        assertEquals(1, sent.stream().skip(1).findFirst().orElseThrow().count());
+    }
+
+    @Test
+    void testExpiryRacingDuplicatesLosesNoAlerts() throws Exception {
+        // Given
+        grouper = new AlertGrouper(0, 20, 100, new SimpleMeterRegistry());
+        AtomicInteger covered = new AtomicInteger();
+        BiFunction<SendAlertRequest, Integer, CompletableFuture<?>> counting = (request, count) -> {
+            covered.addAndGet(count);
+            return CompletableFuture.completedFuture(null);
+        };
+        int threads = 4;
+        int perThread = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        // When
+        executor.submit(() -> {
+            while (running.get()) {
+                grouper.expire();
+            }
+        });
+        Queue<CompletableFuture<Void>> futures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            producers.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    futures.add(grouper.submit(request("ops@example.com", "Load " + i), counting));
+                    if (i % 200 == 0) {
+                        sleep(25);
+                    }
+                }
+            }));
+        }
+        for (Future<?> producer : producers) {
+            producer.get(30, TimeUnit.SECONDS);
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        waitFor(() -> covered.get() == threads * perThread, 5000);
+        running.set(false);
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * perThread, covered.get(), "every alert should be covered by exactly one notification");
+    }
+
+    private static SendAlertRequest request(String recipient, String message) {
+        SendAlertRequest request = new SendAlertRequest();
+        request.setType("EMAIL");
+        request.setRecipient(recipient);
+        request.setMessage(message);
+        return request;
+    }
+
+    private static void waitFor(BooleanSupplier condition, long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Sent(SendAlertRequest request, int count) {
+    }
+}
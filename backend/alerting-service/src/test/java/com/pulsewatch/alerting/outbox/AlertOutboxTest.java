@@ -0,0 +1,102 @@
+package com.pulsewatch.alerting.outbox;
+
+import com.pulsewatch.alerting.repository.AlertOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AlertOutboxTest {
+
+    private static final long BASE_MS = 1000;
+    private static final long MAX_MS = 30000;
+
+    private final AlertOutbox outbox = new AlertOutbox(mock(AlertOutboxRepository.class), new SimpleMeterRegistry(),
+            true, 8, BASE_MS, MAX_MS);
+
+    @Test
+    void testBackoffDoublesWithEqualJitter() {
+        for (int attempts = 1; attempts <= 5; attempts++) {
+            long delayMs = BASE_MS << (attempts - 1);
+            for (int i = 0; i < 200; i++) {
+                // When
+                long actual = delayFrom(outbox.nextAttemptAt(attempts));
+
+                // Then
+                assertTrue(actual >= delayMs / 2 - 50 && actual <= delayMs + 50,
+                        "attempt " + attempts + " should wait between " + delayMs / 2 + " and " + delayMs + "ms, was " + actual);
+            }
+        }
+    }
+
+    @Test
+    void testBackoffIsCappedAtMaximum() {
+        for (int attempts : new int[]{6, 10, 31, 64, 1000}) {
+            for (int i = 0; i < 200; i++) {
+                // When
+                long actual = delayFrom(outbox.nextAttemptAt(attempts));
+
+                // Then
+                assertTrue(actual >= MAX_MS / 2 - 50 && actual <= MAX_MS + 50,
+                        "attempt " + attempts + " should be capped at " + MAX_MS + "ms, was " + actual);
+            }
+        }
+    }
+
+    @Test
+    void testBackoffSpreadsRetriesOfOneAttempt() {
+        // When
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 500; i++) {
+            long actual = delayFrom(outbox.nextAttemptAt(5));
+            min = Math.min(min, actual);
+            max = Math.max(max, actual);
+        }
+
+        // Then
+        assertTrue(max - min > 4000, "jitter should spread retries over half the delay, spread was " + (max - min) + "ms");
+    }
+
+    @Test
+    void testDeferredAttemptWaitsForBreakerAndSpreadsOverBaseBackoff() {
+        // Given
+        Instant retryAt = Instant.now().plusSeconds(60);
+
+        for (int i = 0; i < 200; i++) {
+            // When
+            Instant deferred = outbox.deferredAttemptAt(retryAt);
+
+            // Then
+            assertFalse(deferred.isBefore(retryAt));
+            assertTrue(deferred.isBefore(retryAt.plusMillis(BASE_MS)));
+        }
+    }
+
+    @Test
+    void testDeferredAttemptInPastStartsFromNow() {
+        // When
+        Instant before = Instant.now();
+        Instant deferred = outbox.deferredAttemptAt(before.minusSeconds(3600));
+
+        // Then
+        assertFalse(deferred.isBefore(before));
+        assertTrue(deferred.isBefore(Instant.now().plusMillis(BASE_MS)));
+    }
+
+    @Test
+    void testErrorsAreTruncatedToColumnLength() {
+        // When / Then
+        assertEquals(255, AlertOutbox.truncate("x".repeat(300)).length());
+        assertEquals("short", AlertOutbox.truncate("short"));
+        assertNull(AlertOutbox.truncate(null));
+    }
+
+    private static long delayFrom(Instant nextAttemptAt) {
+        return Duration.between(Instant.now(), nextAttemptAt).toMillis();
+    }
+}
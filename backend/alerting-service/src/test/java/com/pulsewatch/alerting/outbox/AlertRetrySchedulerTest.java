@@ -0,0 +1,181 @@
+package com.pulsewatch.alerting.outbox;
+
+import com.pulsewatch.alerting.dispatch.AlertChannel;
+import com.pulsewatch.alerting.dispatch.ChannelThrottledException;
+import com.pulsewatch.alerting.dispatch.CircuitOpenException;
+import com.pulsewatch.alerting.model.Alert;
+import com.pulsewatch.alerting.model.PendingDelivery;
+import com.pulsewatch.alerting.repository.AlertOutboxRepository;
+import com.pulsewatch.alerting.service.AlertService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AlertRetrySchedulerTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private AlertOutboxRepository repository;
+    private AlertService alertService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AlertOutboxRepository.class);
+        alertService = mock(AlertService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(repository.claim(anyList(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testOutcomesAreDeliveredDeferredRescheduledOrAbandoned() {
+        // Given
+        PendingDelivery delivered = delivery(1);
+        PendingDelivery heldBack = delivery(1);
+        PendingDelivery throttled = delivery(0);
+        PendingDelivery saturated = delivery(2);
+        PendingDelivery failed = delivery(1);
+        PendingDelivery exhausted = delivery(MAX_ATTEMPTS - 1);
+        Instant breakerRetryAt = Instant.now().plusSeconds(60);
+        Instant throttledRetryAt = Instant.now().plusSeconds(30);
+
+        when(repository.findDue(any(), anyInt()))
+                .thenReturn(List.of(delivered, heldBack, throttled, saturated, failed, exhausted));
+        when(alertService.redeliver(delivered)).thenReturn(CompletableFuture.completedFuture(new Alert()));
+        when(alertService.redeliver(heldBack)).thenReturn(CompletableFuture.failedFuture(
+                new CircuitOpenException(AlertChannel.EMAIL, breakerRetryAt)));
+        when(alertService.redeliver(throttled)).thenReturn(CompletableFuture.failedFuture(
+                new ChannelThrottledException(AlertChannel.WHATSAPP, throttledRetryAt)));
+        when(alertService.redeliver(saturated)).thenReturn(CompletableFuture.failedFuture(
+                new RejectedExecutionException("channel full")));
+        when(alertService.redeliver(failed)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("smtp down")));
+        when(alertService.redeliver(exhausted)).thenReturn(CompletableFuture.failedFuture(new RuntimeException("smtp down")));
+
+        // When
+        Instant before = Instant.now();
+        scheduler(true, 10).poll();
+
+        // Then
+        assertEquals(List.of(delivered, exhausted), deleted());
+        assertEquals(List.of(heldBack, throttled, saturated, failed), rescheduled());
+        verify(alertService).recordUndeliverable(exhausted);
+        verify(alertService, never()).recordUndeliverable(failed);
+
+        // Deferrals do not count as attempts and wait for the breaker or the provider
+        assertEquals(1, heldBack.getAttempts());
+        assertFalse(heldBack.getNextAttemptAt().isBefore(breakerRetryAt));
+        assertEquals(0, throttled.getAttempts());
+        assertFalse(throttled.getNextAttemptAt().isBefore(throttledRetryAt));
+        assertEquals(2, saturated.getAttempts());
+        assertFalse(saturated.getNextAttemptAt().isBefore(before));
+
+        // A failure counts and backs off
+        assertEquals(2, failed.getAttempts());
+        assertEquals("Failed to send alert: smtp down", failed.getLastError());
+        assertTrue(failed.getNextAttemptAt().isAfter(before));
+        assertEquals(MAX_ATTEMPTS, exhausted.getAttempts());
+
+        assertEquals(1, meterRegistry.counter("alerting.retry.attempts", "result", "delivered").count());
+        assertEquals(3, meterRegistry.counter("alerting.retry.attempts", "result", "deferred").count());
+        assertEquals(1, meterRegistry.counter("alerting.retry.attempts", "result", "failed").count());
+        assertEquals(1, meterRegistry.counter("alerting.retry.attempts", "result", "abandoned").count());
+    }
+
+    @Test
+    void testFullBatchIsFollowedByNextBatch() {
+        // Given
+        PendingDelivery first = delivery(1);
+        PendingDelivery second = delivery(1);
+        PendingDelivery third = delivery(1);
+        when(repository.findDue(any(), anyInt()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third))
+                .thenReturn(List.of());
+        when(alertService.redeliver(any())).thenReturn(CompletableFuture.completedFuture(new Alert()));
+
+        // When
+        scheduler(true, 2).poll();
+
+        // Then
+        verify(repository, times(2)).findDue(any(), eq(2));
+        verify(alertService, times(3)).redeliver(any());
+    }
+
+    @Test
+    void testBatchWithoutAttemptsStopsDraining() {
+        // Given
+        PendingDelivery heldBack = delivery(1);
+        when(repository.findDue(any(), anyInt())).thenReturn(List.of(heldBack));
+        when(alertService.redeliver(heldBack)).thenReturn(CompletableFuture.failedFuture(
+                new CircuitOpenException(AlertChannel.EMAIL, Instant.now().plusSeconds(60))));
+
+        // When
+        scheduler(true, 1).poll();
+
+        // Then
+        verify(repository, times(1)).findDue(any(), anyInt());
+        assertEquals(List.of(heldBack), rescheduled());
+    }
+
+    @Test
+    void testUnclaimedRowsAreNotAttempted() {
+        // Given
+        PendingDelivery taken = delivery(1);
+        when(repository.findDue(any(), anyInt())).thenReturn(List.of(taken));
+        when(repository.claim(anyList(), any())).thenReturn(List.of());
+
+        // When
+        scheduler(true, 10).poll();
+
+        // Then
+        verifyNoInteractions(alertService);
+        verify(repository, never()).deleteAll(anyList());
+    }
+
+    @Test
+    void testDisabledOutboxIsNotPolled() {
+        // When
+        scheduler(false, 10).poll();
+
+        // Then
+        verifyNoInteractions(repository, alertService);
+    }
+
+    private AlertRetryScheduler scheduler(boolean enabled, int batchSize) {
+        AlertOutbox outbox = new AlertOutbox(repository, meterRegistry, enabled, MAX_ATTEMPTS, 1000, 30000);
+        return new AlertRetryScheduler(outbox, repository, alertService, meterRegistry, batchSize, 60000);
+    }
+
+    private List<PendingDelivery> deleted() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PendingDelivery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).deleteAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private List<PendingDelivery> rescheduled() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PendingDelivery>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository).rescheduleAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static PendingDelivery delivery(int attempts) {
+        Instant now = Instant.now();
+        return new PendingDelivery(UUID.randomUUID(), "EMAIL", "Disk at 91%", "ops@example.com", "WARNING", 1,
+                attempts, now, null, now);
+    }
+}
@@ -0,0 +1,143 @@
+package com.pulsewatch.alerting.queue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import com.pulsewatch.alerting.dto.SendAlertRequest;
+import com.pulsewatch.alerting.service.AlertService;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AlertListenerTest {
+
+    private AlertService alertService;
+    private Channel channel;
+    private SimpleMeterRegistry meterRegistry;
+    private AlertListener listener;
+
+    @BeforeEach
+    void setUp() {
+        alertService = mock(AlertService.class);
+        channel = mock(Channel.class);
+        meterRegistry = new SimpleMeterRegistry();
+        listener = new AlertListener(alertService, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), mock(AmqpAdmin.class), meterRegistry,
+                "alerts.queue");
+    }
+
+    @Test
+    void testMixedBatchIsAckedRequeuedAndDeadLettered() throws Exception {
+        // Given
+        when(alertService.submitAlerts(anyList())).thenReturn(List.of(
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new RejectedExecutionException("channel full")),
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new RuntimeException("could not store for retry")),
+                CompletableFuture.completedFuture(null)));
+
+        // When
+        listener.receiveCriticalAlerts(List.of(
+                message(1, "{\"type\":\"EMAIL\",\"message\":\"Host down\",\"recipient\":\"ops@example.com\"}"),
+                message(2, "{not json"),
+                message(3, "{\"type\":\"EMAIL\",\"message\":\"Host down\"}"),
+                message(4, "{\"type\":\"WHATSAPP\",\"message\":\"Host down\",\"recipient\":\"+15550100\"}"),
+                message(5, "{\"type\":\"EMAIL\",\"message\":\"Disk at 91%\",\"recipient\":\"ops@example.com\","
+                        + "\"severity\":\"info\"}"),
+                message(6, "{\"type\":\"EMAIL\",\"message\":\"Host down\",\"recipient\":\"dba@example.com\"}"),
+                message(7, "{\"type\":\"IN_APP\",\"message\":\"Host down\",\"recipient\":\"dashboard\"}")),
+                channel);
+
+        // Then
+        InOrder settled = inOrder(channel);
+        settled.verify(channel).basicNack(2, false, false);
+        settled.verify(channel).basicNack(3, false, false);
+        settled.verify(channel).basicNack(4, false, true);
+        settled.verify(channel).basicNack(6, false, true);
+        settled.verify(channel).basicAck(7, true);
+        verifyNoMoreInteractions(channel);
+
+        List<SendAlertRequest> submitted = submitted();
+        assertEquals(5, submitted.size());
+        assertEquals(AlertSeverity.CRITICAL, submitted.get(0).getSeverity());
+        assertEquals(AlertSeverity.INFO, submitted.get(2).getSeverity());
+        assertEquals(AlertSeverity.CRITICAL, submitted.get(4).getSeverity());
+        assertEquals(3, meterRegistry.timer("alerting.lane.latency", "lane", "critical").count());
+    }
+
+    @Test
+    void testWarningLaneLeavesSeverityUnset() throws Exception {
+        // Given
+        when(alertService.submitAlerts(anyList())).thenReturn(List.of(CompletableFuture.completedFuture(null)));
+
+        // When
+        listener.receiveWarningAlerts(List.of(
+                message(9, "{\"type\":\"IN_APP\",\"message\":\"Deploy finished\",\"recipient\":\"dashboard\"}")),
+                channel);
+
+        // Then
+        assertNull(submitted().get(0).getSeverity());
+        verify(channel).basicAck(9, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    @Test
+    void testBatchWithoutValidAlertsIsOnlyDeadLettered() throws Exception {
+        // When
+        listener.receiveInfoAlerts(List.of(message(1, "[]"), message(2, "")), channel);
+
+        // Then
+        verify(channel).basicNack(1, false, false);
+        verify(channel).basicNack(2, false, false);
+        verifyNoMoreInteractions(channel);
+        verifyNoInteractions(alertService);
+    }
+
+    @Test
+    void testLastFailureIsNotCoveredByAck() throws Exception {
+        // Given
+        when(alertService.submitAlerts(anyList())).thenReturn(List.of(
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.failedFuture(new RejectedExecutionException("channel full"))));
+
+        // When
+        listener.receiveCriticalAlerts(List.of(
+                message(10, "{\"type\":\"EMAIL\",\"message\":\"Host down\",\"recipient\":\"ops@example.com\"}"),
+                message(11, "{\"type\":\"EMAIL\",\"message\":\"Host down\",\"recipient\":\"dba@example.com\"}")),
+                channel);
+
+        // Then
+        InOrder settled = inOrder(channel);
+        settled.verify(channel).basicNack(11, false, true);
+        settled.verify(channel).basicAck(10, true);
+        verifyNoMoreInteractions(channel);
+    }
+
+    private List<SendAlertRequest> submitted() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SendAlertRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(alertService).submitAlerts(captor.capture());
+        return captor.getValue();
+    }
+
+    private static Message message(long deliveryTag, String body) {
+        MessageProperties properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return new Message(body.getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,42 @@
+package com.pulsewatch.alerting.repository;
+
+import com.pulsewatch.alerting.model.Alert;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertCursorTest {
+
+    @Test
+    void testTokenRoundTripsPositionOfAlert() {
+        // Given
+        Alert alert = new Alert();
+        alert.setId(UUID.fromString("0b7c6f1e-4a52-4a1d-9a39-2f1d5c8e7a10"));
+        alert.setSentAt(Instant.parse("2024-01-15T09:30:12.345678Z"));
+
+        // When
+        String token = AlertCursor.of(alert).encode();
+
+        // Then
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        assertEquals(new AlertCursor(alert.getSentAt(), alert.getId()), AlertCursor.decode(token));
+    }
+
+    @Test
+    void testInvalidTokensAreRejected() {
+        for (String token : new String[]{"", "not base64!", encode("2024-01-15T09:30:00Z"),
+                encode("yesterday|0b7c6f1e-4a52-4a1d-9a39-2f1d5c8e7a10"), encode("2024-01-15T09:30:00Z|42")}) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> AlertCursor.decode(token));
+            assertEquals("Invalid page token", error.getMessage());
+        }
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
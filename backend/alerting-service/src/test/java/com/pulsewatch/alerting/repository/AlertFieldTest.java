@@ -0,0 +1,26 @@
+package com.pulsewatch.alerting.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertFieldTest {
+
+    @Test
+    void testParseAlwaysIncludesKeysetFields() {
+        assertEquals(EnumSet.of(AlertField.ID, AlertField.SENT_AT, AlertField.TYPE, AlertField.ERROR_MESSAGE),
+                AlertField.parse("type, errormessage"));
+        assertEquals(EnumSet.of(AlertField.ID, AlertField.SENT_AT), AlertField.parse(""));
+        assertEquals(EnumSet.of(AlertField.ID, AlertField.SENT_AT, AlertField.GROUP_SIZE),
+                AlertField.parse(",groupSize,,sentAt,"));
+    }
+
+    @Test
+    void testParseRejectsUnknownProperty() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> AlertField.parse("type,sent_at"));
+        assertEquals("Unknown alert field: sent_at", error.getMessage());
+    }
+}
@@ -0,0 +1,169 @@
+package com.pulsewatch.alerting.stats;
+
+import com.pulsewatch.alerting.model.Alert;
+import com.pulsewatch.alerting.model.AlertStatMinute;
+import com.pulsewatch.alerting.repository.AlertCursorRepository;
+import com.pulsewatch.alerting.repository.AlertRepository;
+import com.pulsewatch.alerting.repository.AlertStatMinuteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class AlertStatisticsTest {
+
+    private AlertStatMinuteRepository repository;
+    private AlertRepository alertRepository;
+    private AlertCursorRepository alertCursorRepository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(AlertStatMinuteRepository.class);
+        alertRepository = mock(AlertRepository.class);
+        alertCursorRepository = mock(AlertCursorRepository.class);
+    }
+
+    @Test
+    void testStatsSumInstancesAndTakeOwnRecentMinutesFromMemory() throws Exception {
+        // Given
+        when(repository.existsById(any())).thenReturn(true);
+        AlertStatistics statistics = statistics();
+        statistics.start();
+        Instant now = Instant.now();
+        statistics.record(alert("EMAIL", "ops@example.com", now), 150L);
+        statistics.record(alert("EMAIL", "ops@example.com", now), 250L);
+        statistics.checkpoint();
+        AlertStatMinute own = saved().get(0);
+
+        MinuteBucket other = new MinuteBucket(minuteOf(now));
+        for (int i = 0; i < 3; i++) {
+            other.record("WHATSAPP", true, "+15550100", 1, null);
+        }
+        MinuteBucket earlier = new MinuteBucket(minuteOf(now) - 120);
+        earlier.record("IN_APP", true, "dashboard", 1, null);
+        when(repository.findByMinuteBetween(any(), any())).thenReturn(List.of(
+                // Also in memory with the same counts; must not be counted twice
+                own,
+                new AlertStatMinute(own.getMinute(), "other-instance", other.checkpoint()),
+                // Minute from before this instance started, only in the checkpoint table
+                new AlertStatMinute(toInstant(minuteOf(now) - 120), own.getInstanceId(), earlier.checkpoint()),
+                new AlertStatMinute(Instant.EPOCH, "backfill", new byte[0])));
+
+        // When
+        Map<String, Object> stats = statistics.getStats(now.minus(3, ChronoUnit.HOURS), now.plus(1, ChronoUnit.MINUTES));
+
+        // Then
+        assertEquals(6L, stats.get("totalAlerts"));
+        assertEquals(2L, stats.get("successfulEmails"));
+        assertEquals(3L, stats.get("successfulWhatsApps"));
+        assertEquals(1L, stats.get("successfulInApps"));
+        assertEquals(2L, ((Map<?, ?>) ((Map<?, ?>) stats.get("deliveryLatencyMs")).get("EMAIL")).get("count"));
+    }
+
+    @Test
+    void testFailedCheckpointIsWrittenAgain() {
+        // Given
+        when(repository.existsById(any())).thenReturn(true);
+        AlertStatistics statistics = statistics();
+        statistics.start();
+        statistics.record(alert("EMAIL", "ops@example.com", Instant.now()), null);
+        when(repository.saveAll(any())).thenThrow(new RuntimeException("connection refused")).thenReturn(List.of());
+
+        // When
+        statistics.checkpoint();
+        statistics.checkpoint();
+        statistics.checkpoint();
+
+        // Then: nothing new to write after the retry succeeded
+        verify(repository, times(2)).saveAll(any());
+    }
+
+    @Test
+    void testHistoryIsAggregatedOnceOnFirstStart() {
+        // Given
+        Instant sentAt = Instant.now().minus(2, ChronoUnit.HOURS);
+        when(repository.existsById(new AlertStatMinute.Key(Instant.EPOCH, "backfill"))).thenReturn(false);
+        when(alertRepository.findEarliestSentAt()).thenReturn(sentAt);
+        doAnswer(invocation -> {
+            Instant from = invocation.getArgument(1);
+            Instant to = invocation.getArgument(2);
+            Consumer<Alert> consumer = invocation.getArgument(4);
+            for (Alert alert : List.of(alert("EMAIL", "ops@example.com", sentAt), alert("IN_APP", "dashboard", sentAt))) {
+                if (!alert.getSentAt().isBefore(from) && !alert.getSentAt().isAfter(to)) {
+                    consumer.accept(alert);
+                }
+            }
+            return null;
+        }).when(alertCursorRepository).forEach(isNull(), any(), any(), isNull(), any());
+
+        // When
+        statistics().start();
+
+        // Then
+        List<AlertStatMinute> history = new ArrayList<>();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<AlertStatMinute>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository, atLeastOnce()).saveAll(captor.capture());
+        captor.getAllValues().forEach(rows -> rows.forEach(history::add));
+        assertEquals(1, history.size());
+        assertEquals("backfill", history.get(0).getInstanceId());
+        assertEquals(sentAt.truncatedTo(ChronoUnit.MINUTES), history.get(0).getMinute());
+        verify(repository).save(argThat(row -> row.getMinute().equals(Instant.EPOCH)
+                && row.getInstanceId().equals("backfill")));
+    }
+
+    @Test
+    void testHistoryIsNotAggregatedAgainOnceMarked() {
+        // Given
+        when(repository.existsById(new AlertStatMinute.Key(Instant.EPOCH, "backfill"))).thenReturn(true);
+
+        // When
+        statistics().start();
+
+        // Then
+        verifyNoInteractions(alertRepository, alertCursorRepository);
+        verify(repository, never()).save(any());
+    }
+
+    private AlertStatistics statistics() {
+        return new AlertStatistics(repository, alertRepository, alertCursorRepository, 10080, 400, 10);
+    }
+
+    private List<AlertStatMinute> saved() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<AlertStatMinute>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository).saveAll(captor.capture());
+        List<AlertStatMinute> rows = new ArrayList<>();
+        captor.getValue().forEach(rows::add);
+        return rows;
+    }
+
+    private static Alert alert(String type, String recipient, Instant sentAt) {
+        Alert alert = new Alert();
+        alert.setType(type);
+        alert.setMessage("Disk at 91%");
+        alert.setRecipient(recipient);
+        alert.setSentAt(sentAt);
+        alert.setSuccess(true);
+        return alert;
+    }
+
+    private static long minuteOf(Instant instant) {
+        return instant.getEpochSecond() / 60;
+    }
+
+    private static Instant toInstant(long minute) {
+        return Instant.ofEpochSecond(minute * 60);
+    }
+}
@@ -0,0 +1,57 @@
+package com.pulsewatch.alerting.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinuteBucketTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-15T09:30:00Z");
+
+    @Test
+    void testCheckpointRestoresCountsAndLatencies() throws Exception {
+        // Given
+        MinuteBucket bucket = new MinuteBucket(28_421_730);
+        bucket.record("EMAIL", true, "ops@example.com", 1, 120L);
+        bucket.record("EMAIL", true, "ops@example.com", 3, 480L);
+        bucket.record("EMAIL", false, "dba@example.com", 1, null);
+        bucket.record("WHATSAPP", true, "+15550100", 2, 2_500L);
+        assertTrue(bucket.isDirty());
+
+        // When
+        byte[] payload = bucket.checkpoint();
+        MinuteBucket restored = MinuteBucket.restore(bucket.getMinute(), payload);
+
+        // Then
+        assertFalse(bucket.isDirty());
+        assertFalse(restored.isDirty());
+        assertEquals(bucket.getMinute(), restored.getMinute());
+        assertEquals(stats(bucket), stats(restored));
+        Map<String, Object> stats = stats(restored);
+        assertEquals(4L, stats.get("totalAlerts"));
+        assertEquals(3L, stats.get("groupedAlerts"));
+        assertEquals(Map.of("successful", 2L, "failed", 1L), ((Map<?, ?>) stats.get("byType")).get("EMAIL"));
+    }
+
+    @Test
+    void testEmptyBucketRoundTrips() throws Exception {
+        MinuteBucket restored = MinuteBucket.restore(1, new MinuteBucket(1).checkpoint());
+
+        assertEquals(0L, stats(restored).get("totalAlerts"));
+    }
+
+    @Test
+    void testTruncatedPayloadIsRejected() {
+        assertThrows(IOException.class, () -> MinuteBucket.restore(1, new byte[]{0, 0, 0, 5}));
+    }
+
+    private static Map<String, Object> stats(MinuteBucket bucket) {
+        StatsAccumulator accumulator = new StatsAccumulator();
+        bucket.addTo(accumulator);
+        return accumulator.toMap(NOW, NOW, 10);
+    }
+}
@@ -0,0 +1,364 @@
+package com.pulsewatch.alerting.whatsapp;
+
+import com.pulsewatch.alerting.dispatch.ChannelThrottledException;
+import com.pulsewatch.alerting.dto.AlertSeverity;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link GupshupClient} against a local stand-in for the Gupshup API.
+ */
+class GupshupClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpClient httpClient;
+    private MockEnvironment environment;
+
+    private final Queue<Map<String, String>> received = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final CountDownLatch released = new CountDownLatch(1);
+    private volatile Responder responder = (exchange, index) -> respond(exchange, 202);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/sm/api/v1/msg", this::handle);
+        server.start();
+
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        environment = new MockEnvironment()
+                .withProperty("alerting.gupshup.api-url",
+                        "http://127.0.0.1:" + server.getAddress().getPort() + "/sm/api/v1/msg")
+                .withProperty("alerting.gupshup.api-key", "test-key")
+                .withProperty("alerting.gupshup.source-number", "917834811114")
+                .withProperty("alerting.gupshup.app-name", "pulsewatch");
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testMessageIsPostedAsForm() {
+        // Given
+        GupshupClient client = client();
+
+        // When
+        client.send(AlertSeverity.WARNING, "919876543210", "CPU at 95% & rising").join();
+
+        // Then
+        Map<String, String> form = received.poll();
+        assertNotNull(form);
+        assertEquals("test-key", form.get("apikey"));
+        assertEquals("whatsapp", form.get("channel"));
+        assertEquals("917834811114", form.get("source"));
+        assertEquals("pulsewatch", form.get("src.name"));
+        assertEquals("919876543210", form.get("destination"));
+        assertEquals("CPU at 95% & rising", form.get("message"));
+    }
+
+    @Test
+    void testInFlightRequestsAreBoundedWithoutSerializing() {
+        // Given
+        environment.withProperty("alerting.gupshup.max-in-flight", "4");
+        responder = (exchange, index) -> {
+            sleep(200);
+            respond(exchange, 202);
+        };
+        GupshupClient client = client();
+
+        // When
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sent.add(client.send(AlertSeverity.WARNING, "91980000" + i, "alert " + i));
+        }
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Then
+        assertEquals(20, received.size());
+        assertEquals(4, maxConcurrent.get(), "requests in flight should reach but never exceed the limit");
+        assertTrue(elapsed >= 1000, "20 requests at 4 in flight take at least 5 rounds, took " + elapsed + "ms");
+        assertTrue(elapsed < 2500, "requests should not be sent one after another, took " + elapsed + "ms");
+        assertEquals(0, client.getActiveCount());
+    }
+
+    @Test
+    void testSendsBeyondWaitingLimitAreRejected() {
+        // Given
+        environment.withProperty("alerting.gupshup.max-in-flight", "1")
+                .withProperty("alerting.gupshup.max-waiting", "2");
+        responder = (exchange, index) -> {
+            await(released);
+            respond(exchange, 202);
+        };
+        GupshupClient client = client();
+
+        // When
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sent.add(client.send(AlertSeverity.WARNING, "91980000" + i, "alert " + i));
+        }
+
+        // Then
+        assertInstanceOf(RejectedExecutionException.class, failure(sent.get(3)));
+        assertInstanceOf(RejectedExecutionException.class, failure(sent.get(4)));
+        assertEquals(1, client.getActiveCount());
+        assertEquals(2, client.getWaitingCount());
+
+        released.countDown();
+        CompletableFuture.allOf(sent.subList(0, 3).toArray(CompletableFuture[]::new)).join();
+        assertEquals(3, received.size());
+        assertEquals(1, maxConcurrent.get());
+    }
+
+    @Test
+    void testWaitingMessagesAreSentInSeverityOrder() {
+        // Given
+        environment.withProperty("alerting.gupshup.max-in-flight", "1");
+        responder = (exchange, index) -> {
+            await(released);
+            respond(exchange, 202);
+        };
+        GupshupClient client = client();
+        CompletableFuture<Void> first = client.send(AlertSeverity.INFO, "first", "blocks the only slot");
+
+        // When
+        List<CompletableFuture<Void>> sent = new ArrayList<>(List.of(first));
+        sent.add(client.send(AlertSeverity.INFO, "info", "queued first"));
+        sent.add(client.send(AlertSeverity.WARNING, "warning", "queued second"));
+        sent.add(client.send(AlertSeverity.CRITICAL, "critical", "queued last"));
+        released.countDown();
+        CompletableFuture.allOf(sent.toArray(CompletableFuture[]::new)).join();
+
+        // Then
+        List<String> order = received.stream().map(form -> form.get("destination")).toList();
+        assertEquals(List.of("first", "critical", "warning", "info"), order);
+    }
+
+    @Test
+    void testThrottledMessageIsResentAfterRetryAfter() {
+        // Given
+        environment.withProperty("alerting.gupshup.max-in-flight", "4");
+        responder = (exchange, index) -> {
+            if (index == 0) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 429);
+            } else {
+                respond(exchange, 202);
+            }
+        };
+        GupshupClient client = client();
+
+        // When
+        long start = System.currentTimeMillis();
+        client.send(AlertSeverity.CRITICAL, "919876543210", "disk full").join();
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Then
+        assertEquals(2, received.size());
+        assertTrue(elapsed >= 900, "the retry should wait for Retry-After, took " + elapsed + "ms");
+        assertEquals(2, client.getConcurrencyLimit());
+    }
+
+    @Test
+    void testLimitRecoversAfterThrottling() {
+        // Given
+        environment.withProperty("alerting.gupshup.max-in-flight", "8");
+        responder = (exchange, index) -> {
+            if (index == 0) {
+                exchange.getResponseHeaders().set("Retry-After", "0");
+                respond(exchange, 429);
+            } else {
+                respond(exchange, 202);
+            }
+        };
+        GupshupClient client = client();
+        client.send(AlertSeverity.WARNING, "919876543210", "throttled once").join();
+        assertEquals(4, client.getConcurrencyLimit());
+
+        // When
+        for (int i = 0; i < 40; i++) {
+            client.send(AlertSeverity.WARNING, "91980000" + i, "alert " + i).join();
+        }
+
+        // Then
+        assertEquals(8, client.getConcurrencyLimit());
+    }
+
+    @Test
+    void testLongThrottlingFailsWithRetryAt() {
+        // Given
+        responder = (exchange, index) -> {
+            exchange.getResponseHeaders().set("Retry-After", "120");
+            respond(exchange, 429);
+        };
+        GupshupClient client = client();
+
+        // When
+        Throwable throttled = failure(client.send(AlertSeverity.WARNING, "919876543210", "first"));
+        Throwable next = failure(client.send(AlertSeverity.WARNING, "919876543210", "second"));
+
+        // Then
+        ChannelThrottledException exception = assertInstanceOf(ChannelThrottledException.class, throttled);
+        assertTrue(exception.getRetryAt().isAfter(Instant.now().plusSeconds(100)));
+        assertInstanceOf(ChannelThrottledException.class, next);
+        assertEquals(1, received.size(), "sends during the pause should not reach the provider");
+    }
+
+    @Test
+    void testErrorResponseFailsWithoutRetry() {
+        // Given
+        responder = (exchange, index) -> respond(exchange, 500);
+        GupshupClient client = client();
+
+        // When
+        Throwable error = failure(client.send(AlertSeverity.WARNING, "919876543210", "alert"));
+
+        // Then
+        assertEquals("WhatsApp sending failed: HTTP 500", error.getMessage());
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    void testStalledResponseTimesOut() {
+        // Given
+        environment.withProperty("alerting.gupshup.read-timeout-ms", "300");
+        responder = (exchange, index) -> {
+            await(released);
+            respond(exchange, 202);
+        };
+        GupshupClient client = client();
+
+        // When
+        long start = System.currentTimeMillis();
+        Throwable error = failure(client.send(AlertSeverity.WARNING, "919876543210", "alert"));
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Then
+        assertEquals("WhatsApp sending failed: timed out", error.getMessage());
+        assertTrue(elapsed < 1500, "read timeout should end the request, took " + elapsed + "ms");
+        assertEquals(0, client.getActiveCount());
+    }
+
+    @Test
+    void testRetryAfterAcceptsSecondsAndHttpDate() {
+        // Given
+        GupshupClient client = client();
+        long now = Instant.parse("2026-10-17T10:00:00Z").toEpochMilli();
+
+        // When / Then
+        assertEquals(5000, client.retryAfterMs("5", now));
+        assertEquals(30000, client.retryAfterMs("Sat, 17 Oct 2026 10:00:30 GMT", now));
+        assertEquals(1000, client.retryAfterMs("soon", now));
+        assertEquals(1000, client.retryAfterMs(null, now));
+    }
+
+    private GupshupClient client() {
+        return new GupshupClient(httpClient, environment, new SimpleMeterRegistry());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int index;
+        synchronized (received) {
+            index = received.size();
+            received.add(form(exchange));
+        }
+        int running = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(running, Math::max);
+        try {
+            responder.respond(exchange, index);
+        } finally {
+            concurrent.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static Map<String, String> form(HttpExchange exchange) throws IOException {
+        Map<String, String> form = new LinkedHashMap<>();
+        form.put("apikey", exchange.getRequestHeaders().getFirst("apikey"));
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        for (String pair : body.split("&")) {
+            int separator = pair.indexOf('=');
+            form.put(URLDecoder.decode(pair.substring(0, separator), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] body = "{\"status\":\"submitted\"}".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static Throwable failure(CompletableFuture<Void> future) {
+        CompletionException error = assertThrows(CompletionException.class, future::join);
+        return error.getCause();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Responder {
+        void respond(HttpExchange exchange, int index) throws IOException;
+    }
+}
@@ -0,0 +1,139 @@
+package com.pulsewatch.alerting.writer;
+
+import com.pulsewatch.alerting.model.Alert;
+import com.pulsewatch.alerting.repository.AlertBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class AlertRecordWriterTest {
+
+    private AlertBatchRepository batchRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private final Queue<Alert> stored = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        batchRepository = mock(AlertBatchRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testFailedBatchIsRetriedUntilWritten() {
+        // Given
+        doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doThrow(new DataAccessResourceFailureException("connection refused"))
+                .doAnswer(invocation -> stored.addAll(invocation.getArgument(0)))
+                .when(batchRepository).insertAll(anyList());
+        AlertRecordWriter writer = writer(100, 5);
+        writer.start();
+
+        // When
+        Alert first = alert();
+        Alert second = alert();
+        writer.write(first);
+        writer.write(second);
+        writer.stop();
+
+        // Then
+        assertEquals(List.of(first, second), List.copyOf(stored));
+        assertEquals(2, records("written"));
+        assertEquals(2, records("retried"));
+        assertEquals(0, records("failed"));
+    }
+
+    @Test
+    void testRejectedRecordOnlyLosesItself() {
+        // Given
+        Alert rejected = alert();
+        doAnswer(invocation -> {
+            List<Alert> batch = invocation.getArgument(0);
+            if (batch.contains(rejected)) {
+                throw new DataIntegrityViolationException("value too long for column message");
+            }
+            return stored.addAll(batch);
+        }).when(batchRepository).insertAll(anyList());
+        AlertRecordWriter writer = writer(100, 2);
+        writer.start();
+
+        // When
+        Alert first = alert();
+        Alert last = alert();
+        writer.write(first);
+        writer.write(rejected);
+        writer.write(last);
+        writer.stop();
+
+        // Then
+        assertEquals(List.of(first, last), List.copyOf(stored));
+        assertEquals(2, records("written"));
+        assertEquals(1, records("failed"));
+    }
+
+    @Test
+    void testRecordNotQueuedIsWrittenOnCallerThread() {
+        // Given
+        doAnswer(invocation -> stored.addAll(invocation.getArgument(0))).when(batchRepository).insertAll(anyList());
+        AlertRecordWriter writer = writer(1, 5);
+        writer.start();
+        writer.stop();
+
+        // When
+        Alert alert = alert();
+        writer.write(alert);
+
+        // Then
+        verify(batchRepository).insertAll(List.of(alert));
+        assertEquals(List.of(alert), List.copyOf(stored));
+        assertEquals(1, records("inline"));
+    }
+
+    @Test
+    void testFailedInlineWriteIsCounted() {
+        // Given
+        doThrow(new DataAccessResourceFailureException("connection refused")).when(batchRepository).insertAll(anyList());
+        AlertRecordWriter writer = writer(1, 5);
+        writer.start();
+        writer.stop();
+
+        // When
+        writer.write(alert());
+
+        // Then
+        assertEquals(1, records("inline"));
+        assertEquals(1, records("failed"));
+    }
+
+    private AlertRecordWriter writer(int bufferCapacity, int maxAttempts) {
+        return new AlertRecordWriter(batchRepository, meterRegistry, bufferCapacity, 200, 50, maxAttempts, 1);
+    }
+
+    private double records(String result) {
+        return meterRegistry.counter("alerting.records", "result", result).count();
+    }
+
+    private static Alert alert() {
+        Instant now = Instant.now();
+        Alert alert = new Alert();
+        alert.setId(UUID.randomUUID());
+        alert.setType("EMAIL");
+        alert.setMessage("Disk at 91%");
+        alert.setRecipient("ops@example.com");
+        alert.setSentAt(now);
+        alert.setCreatedAt(now);
+        alert.setSuccess(true);
+        return alert;
+    }
+}
@@ -0,0 +1,44 @@
+package com.pulsewatch.dashboard.cache;
+
+/**
+ * Cached downstream reads. Each one gets its own TTL, stale window and size bound; the
+ * defaults here apply unless overridden under {@code dashboard.cache.<name>}.
+ */
+public enum DashboardCache {
+
+    ALERTS("alerts", 10_000, 60_000, 1),
+    PREDICTIONS("predictions", 60_000, 300_000, 1),
+    ANOMALIES("anomalies", 60_000, 300_000, 1),
+    CONFIG("config", 60_000, 600_000, 10_000);
+
+    private final String name;
+    private final long defaultTtlMs;
+    private final long defaultStaleMs;
+    private final int defaultMaxSize;
+
+    DashboardCache(String name, long defaultTtlMs, long defaultStaleMs, int defaultMaxSize) {
+        this.name = name;
+        this.defaultTtlMs = defaultTtlMs;
+        this.defaultStaleMs = defaultStaleMs;
+        this.defaultMaxSize = defaultMaxSize;
+    }
+
+    /**
+     * Property key and metrics tag of the cache.
+     */
+    public String getName() {
+        return name;
+    }
+
+    long getDefaultTtlMs() {
+        return defaultTtlMs;
+    }
+
+    long getDefaultStaleMs() {
+        return defaultStaleMs;
+    }
+
+    int getDefaultMaxSize() {
+        return defaultMaxSize;
+    }
+}
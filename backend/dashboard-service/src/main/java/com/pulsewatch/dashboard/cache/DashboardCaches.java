@@ -0,0 +1,79 @@
+package com.pulsewatch.dashboard.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caches in front of the alert, prediction and config services. TTL, stale window and size
+ * of each cache come from {@code dashboard.cache.<name>.ttl-ms}, {@code .stale-ms} and
+ * {@code .max-size}; background refreshes share {@code dashboard.cache.refresh-threads} threads.
+ */
+@Slf4j
+@Component
+public class DashboardCaches {
+
+    /**
+     * Key of caches that hold a single, user independent value.
+     */
+    public static final String GLOBAL = "global";
+
+    private final ExecutorService refreshExecutor;
+    private final RefreshingCache<String, List<Map<String, Object>>> alerts;
+    private final RefreshingCache<String, Map<String, Object>> predictions;
+    private final RefreshingCache<String, Map<String, Object>> anomalies;
+    private final RefreshingCache<Long, Map<String, Object>> config;
+
+    public DashboardCaches(Environment environment, MeterRegistry meterRegistry) {
+        int refreshThreads = environment.getProperty("dashboard.cache.refresh-threads", Integer.class, 4);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(refreshThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-cache-refresh-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.alerts = create(DashboardCache.ALERTS, environment, meterRegistry);
+        this.predictions = create(DashboardCache.PREDICTIONS, environment, meterRegistry);
+        this.anomalies = create(DashboardCache.ANOMALIES, environment, meterRegistry);
+        this.config = create(DashboardCache.CONFIG, environment, meterRegistry);
+    }
+
+    public RefreshingCache<String, List<Map<String, Object>>> alerts() {
+        return alerts;
+    }
+
+    public RefreshingCache<String, Map<String, Object>> predictions() {
+        return predictions;
+    }
+
+    public RefreshingCache<String, Map<String, Object>> anomalies() {
+        return anomalies;
+    }
+
+    public RefreshingCache<Long, Map<String, Object>> config() {
+        return config;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private <K, V> RefreshingCache<K, V> create(DashboardCache cache, Environment environment,
+                                                MeterRegistry meterRegistry) {
+        String prefix = "dashboard.cache." + cache.getName() + ".";
+        long ttlMs = environment.getProperty(prefix + "ttl-ms", Long.class, cache.getDefaultTtlMs());
+        long staleMs = environment.getProperty(prefix + "stale-ms", Long.class, cache.getDefaultStaleMs());
+        int maxSize = environment.getProperty(prefix + "max-size", Integer.class, cache.getDefaultMaxSize());
+        log.info("Dashboard cache {}: ttlMs={}, staleMs={}, maxSize={}", cache.getName(), ttlMs, staleMs, maxSize);
+        return new RefreshingCache<>(cache.getName(), ttlMs, staleMs, maxSize, refreshExecutor, meterRegistry);
+    }
+}
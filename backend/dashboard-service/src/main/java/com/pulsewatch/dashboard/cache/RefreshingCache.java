@@ -0,0 +1,184 @@
+package com.pulsewatch.dashboard.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * In-process cache with a size bound and two age limits. Entries younger than the TTL are
+ * served as is. Entries past the TTL but within the stale window are still served, and a
+ * single background refresh is started. Older entries are treated as missing. Only one load
+ * per key runs at a time: concurrent misses wait for the same load, so downstream traffic is
+ * bounded by refreshes rather than by the number of callers.
+ *
+ * <p>Failed and {@code null} loads are not cached. When a refresh fails, the stale entry is
+ * kept until it leaves the stale window.
+ */
+@Slf4j
+public class RefreshingCache<K, V> {
+
+    private final String name;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final Executor refreshExecutor;
+
+    // Access-ordered, so the least recently read entry is evicted first
+    private final Map<K, Entry<V>> entries;
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter staleCounter;
+    private final Counter missCounter;
+    private final Counter evictionCounter;
+    private final Timer loadSuccessTimer;
+    private final Timer loadFailureTimer;
+
+    public RefreshingCache(String name, long ttlMs, long staleMs, int maxSize,
+                           Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.staleNanos = TimeUnit.MILLISECONDS.toNanos(staleMs);
+        this.refreshExecutor = refreshExecutor;
+        this.hitCounter = meterRegistry.counter("dashboard.cache.gets", "cache", name, "result", "hit");
+        this.staleCounter = meterRegistry.counter("dashboard.cache.gets", "cache", name, "result", "stale");
+        this.missCounter = meterRegistry.counter("dashboard.cache.gets", "cache", name, "result", "miss");
+        this.evictionCounter = meterRegistry.counter("dashboard.cache.evictions", "cache", name);
+        this.loadSuccessTimer = meterRegistry.timer("dashboard.cache.loads", "cache", name, "result", "success");
+        this.loadFailureTimer = meterRegistry.timer("dashboard.cache.loads", "cache", name, "result", "failure");
+        Gauge.builder("dashboard.cache.size", this, RefreshingCache::size)
+                .tag("cache", name)
+                .description("Entries held in the cache")
+                .register(meterRegistry);
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > maxSize) {
+                    evictionCounter.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, loading it on the calling thread on a miss. Stale entries are
+     * refreshed on the refresh executor. Exceptions thrown by {@code loader} are rethrown.
+     */
+    public V get(K key, Supplier<V> loader) {
+        try {
+            return lookup(key,
+                    () -> CompletableFuture.completedFuture(loader.get()),
+                    () -> CompletableFuture.supplyAsync(loader, refreshExecutor)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the cached value, or the result of {@code loader} on a miss. {@code loader} is
+     * expected to do its work off the calling thread; it is also used for background refreshes.
+     */
+    public CompletableFuture<V> getAsync(K key, Supplier<CompletableFuture<V>> loader) {
+        return lookup(key, loader, loader);
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+        // A load already in flight still completes for its waiters but is not stored
+        loading.remove(key);
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        loading.clear();
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private CompletableFuture<V> lookup(K key, Supplier<CompletableFuture<V>> missLoader,
+                                       Supplier<CompletableFuture<V>> refreshLoader) {
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null) {
+            long age = System.nanoTime() - entry.loadedAt();
+            if (age < ttlNanos) {
+                hitCounter.increment();
+                return CompletableFuture.completedFuture(entry.value());
+            }
+            if (age < ttlNanos + staleNanos) {
+                staleCounter.increment();
+                load(key, refreshLoader);
+                return CompletableFuture.completedFuture(entry.value());
+            }
+        }
+        missCounter.increment();
+        return load(key, missLoader);
+    }
+
+    private CompletableFuture<V> load(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, pending);
+        if (running != null) {
+            return running;
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<V> source;
+        try {
+            source = loader.get();
+        } catch (RuntimeException e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        source.whenComplete((value, error) -> {
+            long elapsed = System.nanoTime() - start;
+            boolean current = loading.remove(key, pending);
+            if (error != null) {
+                loadFailureTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                log.warn("Failed to load {} cache entry {}: {}", name, key, error.getMessage());
+                pending.completeExceptionally(error);
+                return;
+            }
+            loadSuccessTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            if (current && value != null) {
+                synchronized (entries) {
+                    entries.put(key, new Entry<>(value, System.nanoTime()));
+                }
+            }
+            pending.complete(value);
+        });
+        return pending;
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
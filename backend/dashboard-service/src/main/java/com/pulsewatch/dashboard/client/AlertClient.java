@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.util.List;
 import java.util.Map;
 
-@FeignClient(name = "alert-service", url = "http://localhost:8081")
+@FeignClient(name = "alert-service", url = "${dashboard.clients.alert-service.url:http://localhost:8081}")
 public interface AlertClient {
     
     @GetMapping("/alerts/latest")
@@ -8,7 +8,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.util.List;
 import java.util.Map;
 
-@FeignClient(name = "config-service", url = "http://localhost:8085")
+@FeignClient(name = "config-service", url = "${dashboard.clients.config-service.url:http://localhost:8085}")
 public interface ConfigClient {
     
     @GetMapping("/config/{userId}")
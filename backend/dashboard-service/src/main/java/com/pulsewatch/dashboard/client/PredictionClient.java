@@ -7,7 +7,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.Map;
 
-@FeignClient(name = "prediction-service", url = "http://localhost:8082")
+@FeignClient(name = "prediction-service", url = "${dashboard.clients.prediction-service.url:http://localhost:8082}")
 public interface PredictionClient {
     
     @GetMapping("/ai/predict")
@@ -1,12 +1,15 @@
 package com.pulsewatch.dashboard.config;
 
 import feign.FeignException;
+import feign.Request;
 import feign.Response;
+import feign.RetryableException;
 import feign.codec.ErrorDecoder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.Date;
 
 @Slf4j
 @Component
@@ -25,6 +28,12 @@ public class CustomErrorDecoder implements ErrorDecoder {
             log.warn("Could not read response body: {}", e.getMessage());
         }
         
+        // Gateway and overload errors on reads are worth another attempt; the retryer decides
+        if (isTransient(response.status()) && response.request().httpMethod() == Request.HttpMethod.GET) {
+            return new RetryableException(response.status(), "Service unavailable", Request.HttpMethod.GET,
+                    (Date) null, response.request());
+        }
+
         switch (response.status()) {
             case 400:
                 return new FeignException.BadRequest("Bad Request", response.request(), responseBody, null);
@@ -40,4 +49,8 @@ public class CustomErrorDecoder implements ErrorDecoder {
                 return new FeignException.FeignServerException(response.status(), "Service unavailable", response.request(), responseBody, null);
         }
     }
-} 
\ No newline at end of file
+
+    private boolean isTransient(int status) {
+        return status == 502 || status == 503 || status == 504;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.pulsewatch.dashboard.config;
+
+import com.pulsewatch.dashboard.transport.ClientSettings;
+import com.pulsewatch.dashboard.transport.InstrumentedFeignClient;
+import com.pulsewatch.dashboard.transport.JitteredRetryer;
+import com.pulsewatch.dashboard.transport.TimedConnectionManager;
+import feign.Client;
+import feign.Retryer;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.client5.http.socket.PlainConnectionSocketFactory;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactory;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.config.Registry;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * HTTP transport shared by the Feign clients: one pooled Apache HttpClient 5 with keep-alive,
+ * a connection limit per downstream service, per-method timeouts and jittered retries.
+ * Settings live under {@code dashboard.clients}.
+ */
+@Slf4j
+@Configuration
+public class FeignTransportConfig {
+
+    static final List<String> CLIENTS = List.of("alert-service", "prediction-service", "config-service");
+
+    @Bean
+    public ClientSettings clientSettings(Environment environment) {
+        return new ClientSettings(environment);
+    }
+
+    @Bean(destroyMethod = "close")
+    public TimedConnectionManager feignConnectionManager(ClientSettings settings,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${dashboard.clients.pool.time-to-live-ms:300000}") long timeToLiveMs,
+                                                         @Value("${dashboard.clients.pool.validate-after-inactivity-ms:2000}") long validateAfterInactivityMs) {
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", SSLConnectionSocketFactory.getSocketFactory())
+                .build();
+        TimedConnectionManager manager = new TimedConnectionManager(socketFactories,
+                TimeValue.ofMilliseconds(timeToLiveMs), meterRegistry);
+        manager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setTimeToLive(TimeValue.ofMilliseconds(timeToLiveMs))
+                .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivityMs))
+                .build());
+
+        // The pool is keyed by route, so a per-route limit is a per-client limit
+        int maxTotal = 0;
+        for (String client : CLIENTS) {
+            int maxConnections = settings.getMaxConnections(client);
+            maxTotal += maxConnections;
+            HttpRoute route = route(settings.getUrl(client));
+            if (route != null) {
+                manager.setMaxPerRoute(route, maxConnections);
+            }
+            log.info("Feign client {}: url={}, maxConnections={}", client, settings.getUrl(client), maxConnections);
+        }
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(settings.getMaxConnections("default"));
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(manager, "feign").bindTo(meterRegistry);
+        return manager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient feignHttpClient(TimedConnectionManager feignConnectionManager,
+                                               @Value("${dashboard.clients.pool.connection-request-timeout-ms:1000}") long connectionRequestTimeoutMs,
+                                               @Value("${dashboard.clients.pool.idle-evict-ms:30000}") long idleEvictMs) {
+        // Timeouts are applied per request by InstrumentedFeignClient; gzip responses are
+        // decompressed by HttpClient's content compression support, enabled by default
+        return HttpClients.custom()
+                .setConnectionManager(feignConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+    }
+
+    @Bean
+    public Client feignClient(CloseableHttpClient feignHttpClient, ClientSettings settings, MeterRegistry meterRegistry) {
+        return new InstrumentedFeignClient(new ApacheHttp5Client(feignHttpClient), settings, meterRegistry);
+    }
+
+    @Bean
+    public Retryer feignRetryer(ClientSettings settings, MeterRegistry meterRegistry) {
+        return new JitteredRetryer(settings, meterRegistry);
+    }
+
+    private static HttpRoute route(String url) {
+        if (url == null) {
+            return null;
+        }
+        URI uri = URI.create(url);
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equals(uri.getScheme()) ? 443 : 80;
+        return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port));
+    }
+}
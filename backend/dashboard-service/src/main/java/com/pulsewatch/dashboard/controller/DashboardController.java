@@ -1,13 +1,27 @@
 package com.pulsewatch.dashboard.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewatch.dashboard.dto.MetricWriteResult;
 import com.pulsewatch.dashboard.service.DashboardService;
 import com.pulsewatch.dashboard.service.DatabaseService;
 import com.pulsewatch.dashboard.entity.DashboardMetrics;
+import com.pulsewatch.dashboard.snapshot.DashboardSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @RestController
@@ -18,18 +32,28 @@ public class DashboardController {
 
     private final DashboardService dashboardService;
     private final DatabaseService databaseService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${dashboard.sse-timeout-ms:30000}")
+    private long sseTimeoutMs;
+
+    @Value("${dashboard.metrics.max-batch-items:10000}")
+    private int maxBatchItems;
 
     @GetMapping("/summary")
-    public ResponseEntity<Map<String, Object>> getDashboardSummary(@RequestParam Long userId) {
+    public ResponseEntity<Map<String, Object>> getDashboardSummary(
+            @RequestParam Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             log.info("Fetching dashboard summary for user: {}", userId);
-            Map<String, Object> result = dashboardService.getDashboardSummary(userId);
-            
-            // Add database metrics to the summary
-            List<Map<String, Object>> dbMetrics = databaseService.getDashboardSummaryFromDB(userId);
-            result.put("databaseMetrics", dbMetrics);
-            
-            return ResponseEntity.ok(result);
+            DashboardSnapshot snapshot = dashboardService.getDashboardSnapshot(userId);
+            if (snapshot.etag() == null) {
+                return ResponseEntity.ok(snapshot.summary());
+            }
+            if (etagMatches(ifNoneMatch, snapshot.etag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).build();
+            }
+            return ResponseEntity.ok().eTag(snapshot.etag()).body(snapshot.summary());
         } catch (Exception e) {
             log.error("Error fetching dashboard summary for user {}: {}", userId, e.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
@@ -40,6 +64,27 @@ public class DashboardController {
         }
     }
 
+    @GetMapping(value = "/summary", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboardSummary(@RequestParam Long userId) {
+        log.info("Streaming dashboard summary for user: {}", userId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        
+        dashboardService.loadDashboardSummary(userId, (section, payload) -> sendEvent(emitter, section, payload))
+                .whenComplete((summary, error) -> {
+                    if (error != null) {
+                        log.error("Error streaming dashboard summary for user {}: {}", userId, error.getMessage());
+                        emitter.completeWithError(error);
+                        return;
+                    }
+                    Map<String, Object> done = new HashMap<>();
+                    done.put("statistics", summary.get("statistics"));
+                    done.put("errors", summary.getOrDefault("errors", Collections.emptyMap()));
+                    sendEvent(emitter, "complete", done);
+                    emitter.complete();
+                });
+        return emitter;
+    }
+
     @GetMapping("/alerts")
     public ResponseEntity<List<Map<String, Object>>> getAlerts(@RequestParam(defaultValue = "10") Integer limit) {
         try {
@@ -127,6 +172,39 @@ public class DashboardController {
         }
     }
 
+    @PostMapping(value = "/metrics/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> saveMetrics(@RequestBody List<DashboardMetrics> metrics) {
+        log.info("Saving batch of {} metrics", metrics.size());
+        return saveBatch(metrics);
+    }
+
+    @PostMapping(value = "/metrics/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Map<String, Object>> saveMetricsNdjson(InputStream body) {
+        List<DashboardMetrics> metrics = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (metrics.size() >= maxBatchItems) {
+                    return batchTooLarge();
+                }
+                try {
+                    metrics.add(objectMapper.readValue(line, DashboardMetrics.class));
+                } catch (JsonProcessingException e) {
+                    // Reported as a rejected item at this position
+                    metrics.add(null);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error reading metrics batch: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        log.info("Saving NDJSON batch of {} metrics", metrics.size());
+        return saveBatch(metrics);
+    }
+
     @GetMapping("/metrics/count/{userId}/{metricType}")
     public ResponseEntity<Map<String, Object>> getMetricCount(
             @PathVariable Long userId, 
@@ -153,4 +231,60 @@ public class DashboardController {
         health.put("timestamp", new Date());
         return ResponseEntity.ok(health);
     }
-} 
\ No newline at end of file
+
+    private ResponseEntity<Map<String, Object>> saveBatch(List<DashboardMetrics> metrics) {
+        if (metrics.size() > maxBatchItems) {
+            return batchTooLarge();
+        }
+        try {
+            List<MetricWriteResult> results = databaseService.saveMetrics(metrics);
+            Map<MetricWriteResult.Status, Long> counts = new EnumMap<>(MetricWriteResult.Status.class);
+            for (MetricWriteResult.Status status : MetricWriteResult.Status.values()) {
+                counts.put(status, results.stream().filter(result -> result.status() == status).count());
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("total", results.size());
+            response.put("created", counts.get(MetricWriteResult.Status.CREATED));
+            response.put("rejected", counts.get(MetricWriteResult.Status.REJECTED));
+            response.put("failed", counts.get(MetricWriteResult.Status.FAILED));
+            response.put("results", results);
+            boolean allCreated = counts.get(MetricWriteResult.Status.CREATED) == results.size();
+            return ResponseEntity.status(allCreated ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(response);
+        } catch (Exception e) {
+            log.error("Error saving metrics batch: {}", e.getMessage());
+            return ResponseEntity.status(500).build();
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> batchTooLarge() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Batch too large");
+        errorResponse.put("message", "At most " + maxBatchItems + " metrics per request");
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(errorResponse);
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data == null ? Collections.emptyMap() : data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the remaining sections are simply dropped
+            log.debug("Could not send dashboard event {}: {}", name, e.getMessage());
+        }
+    }
+}
\ No newline at end of file
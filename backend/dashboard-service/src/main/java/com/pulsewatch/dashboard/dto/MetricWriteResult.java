@@ -0,0 +1,26 @@
+package com.pulsewatch.dashboard.dto;
+
+/**
+ * Outcome of one item of a bulk metric write. {@code index} is the item's position in the
+ * request; {@code id} is set for created items and {@code error} for the others.
+ */
+public record MetricWriteResult(int index, Status status, Long id, String error) {
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+        FAILED
+    }
+
+    public static MetricWriteResult created(int index, Long id) {
+        return new MetricWriteResult(index, Status.CREATED, id, null);
+    }
+
+    public static MetricWriteResult rejected(int index, String error) {
+        return new MetricWriteResult(index, Status.REJECTED, null, error);
+    }
+
+    public static MetricWriteResult failed(int index, String error) {
+        return new MetricWriteResult(index, Status.FAILED, null, error);
+    }
+}
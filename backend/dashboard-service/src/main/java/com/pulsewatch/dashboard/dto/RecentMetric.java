@@ -0,0 +1,16 @@
+package com.pulsewatch.dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the recent metrics shown on the dashboard. Serialized with the column names the
+ * summary has always used.
+ */
+public record RecentMetric(
+        @JsonProperty("metric_type") String metricType,
+        @JsonProperty("metric_value") String metricValue,
+        @JsonProperty("created_at") LocalDateTime createdAt,
+        @JsonProperty("updated_at") LocalDateTime updatedAt) {
+}
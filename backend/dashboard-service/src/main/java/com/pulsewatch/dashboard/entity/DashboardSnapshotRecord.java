@@ -0,0 +1,30 @@
+package com.pulsewatch.dashboard.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "dashboard_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSnapshotRecord {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "version")
+    private Long version;
+
+    // Gzipped JSON of the summary
+    @Column(name = "payload", length = 1048576)
+    private byte[] payload;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,50 @@
+package com.pulsewatch.dashboard.fanout;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fixed pool of threads with a bounded queue for calls to one dependency. When the pool and
+ * queue are full, new calls fail immediately instead of piling up behind a slow service.
+ */
+class Bulkhead {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    Bulkhead(String name, int maxConcurrent, int queueSize, long timeoutMs) {
+        this.name = name;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + name + "-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs {@code call} on the bulkhead. The future fails with a {@link RejectedExecutionException}
+     * when the bulkhead is full, or a {@link java.util.concurrent.TimeoutException} after the
+     * configured timeout.
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, executor).orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Bulkhead '" + name + "' is full"));
+        }
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
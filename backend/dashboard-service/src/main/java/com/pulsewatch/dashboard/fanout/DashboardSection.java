@@ -0,0 +1,44 @@
+package com.pulsewatch.dashboard.fanout;
+
+/**
+ * Independently loaded parts of the dashboard summary. Each one gets its own bulkhead and
+ * timeout; the defaults here apply unless overridden under {@code dashboard.fanout.<key>}.
+ */
+public enum DashboardSection {
+
+    ALERTS("alerts", 2000, 20, 100),
+    PREDICTIONS("predictions", 5000, 10, 50),
+    CONFIG("config", 2000, 20, 100),
+    DATABASE_METRICS("databaseMetrics", 2000, 20, 100);
+
+    private final String key;
+    private final long defaultTimeoutMs;
+    private final int defaultMaxConcurrent;
+    private final int defaultQueueSize;
+
+    DashboardSection(String key, long defaultTimeoutMs, int defaultMaxConcurrent, int defaultQueueSize) {
+        this.key = key;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.defaultMaxConcurrent = defaultMaxConcurrent;
+        this.defaultQueueSize = defaultQueueSize;
+    }
+
+    /**
+     * Field name of the section in the summary response and its SSE event name.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    long getDefaultTimeoutMs() {
+        return defaultTimeoutMs;
+    }
+
+    int getDefaultMaxConcurrent() {
+        return defaultMaxConcurrent;
+    }
+
+    int getDefaultQueueSize() {
+        return defaultQueueSize;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pulsewatch.dashboard.fanout;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs dashboard section loads on per-section bulkheads. Pool size, queue size and timeout of
+ * each section come from {@code dashboard.fanout.<key>.max-concurrent}, {@code .queue-size} and
+ * {@code .timeout-ms}.
+ */
+@Slf4j
+@Component
+public class SectionExecutor {
+
+    private final Map<DashboardSection, Bulkhead> bulkheads = new EnumMap<>(DashboardSection.class);
+
+    public SectionExecutor(Environment environment) {
+        for (DashboardSection section : DashboardSection.values()) {
+            String prefix = "dashboard.fanout." + section.getKey() + ".";
+            int maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class,
+                    section.getDefaultMaxConcurrent());
+            int queueSize = environment.getProperty(prefix + "queue-size", Integer.class,
+                    section.getDefaultQueueSize());
+            long timeoutMs = environment.getProperty(prefix + "timeout-ms", Long.class,
+                    section.getDefaultTimeoutMs());
+            bulkheads.put(section, new Bulkhead(section.getKey(), maxConcurrent, queueSize, timeoutMs));
+            log.info("Dashboard section {}: maxConcurrent={}, queueSize={}, timeoutMs={}",
+                    section.getKey(), maxConcurrent, queueSize, timeoutMs);
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(DashboardSection section, Supplier<T> call) {
+        return bulkheads.get(section).submit(call);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(Bulkhead::shutdown);
+    }
+}
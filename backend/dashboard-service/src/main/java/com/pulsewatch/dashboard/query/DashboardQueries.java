@@ -0,0 +1,51 @@
+package com.pulsewatch.dashboard.query;
+
+import com.pulsewatch.dashboard.dto.RecentMetric;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Every SQL statement the service runs through JDBC. Adding a query here, rather than passing
+ * SQL around, gives it a stable prepared statement, a typed mapper and its own metrics.
+ */
+public final class DashboardQueries {
+
+    public static final NamedQuery<RecentMetric> RECENT_METRICS = NamedQuery.of("recentMetrics", """
+            SELECT
+                dm.metric_type,
+                dm.metric_value,
+                dm.created_at,
+                dm.updated_at
+            FROM dashboard_metrics dm
+            WHERE dm.user_id = ?
+            ORDER BY dm.created_at DESC
+            LIMIT 10
+            """,
+            (rs, rowNum) -> new RecentMetric(
+                    rs.getString("metric_type"),
+                    rs.getString("metric_value"),
+                    toLocalDateTime(rs.getTimestamp("created_at")),
+                    toLocalDateTime(rs.getTimestamp("updated_at"))));
+
+    // Invalidated on every metric write, so the TTL only matters for writes by other instances
+    public static final NamedQuery<Long> METRIC_COUNT = NamedQuery.cached("metricCount", """
+            SELECT COUNT(*)
+            FROM dashboard_metrics
+            WHERE user_id = ? AND metric_type = ?
+            """,
+            (rs, rowNum) -> rs.getLong(1),
+            30_000);
+
+    public static final NamedStatement INSERT_METRIC = new NamedStatement("insertMetric", """
+            INSERT INTO dashboard_metrics (user_id, metric_type, metric_value, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?)
+            """);
+
+    private DashboardQueries() {
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
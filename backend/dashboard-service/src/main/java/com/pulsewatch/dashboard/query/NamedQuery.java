@@ -0,0 +1,19 @@
+package com.pulsewatch.dashboard.query;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * A registered, parameterized read. The SQL text never changes between executions, so the
+ * driver can reuse the server-side prepared statement and its plan. Results are cached per
+ * parameter list for {@code cacheTtlMs} when it is positive.
+ */
+public record NamedQuery<T>(String name, String sql, RowMapper<T> mapper, long cacheTtlMs) {
+
+    public static <T> NamedQuery<T> of(String name, String sql, RowMapper<T> mapper) {
+        return new NamedQuery<>(name, sql, mapper, 0);
+    }
+
+    public static <T> NamedQuery<T> cached(String name, String sql, RowMapper<T> mapper, long cacheTtlMs) {
+        return new NamedQuery<>(name, sql, mapper, cacheTtlMs);
+    }
+}
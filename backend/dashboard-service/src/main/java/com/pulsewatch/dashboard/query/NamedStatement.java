@@ -0,0 +1,7 @@
+package com.pulsewatch.dashboard.query;
+
+/**
+ * A registered, parameterized insert, update or delete.
+ */
+public record NamedStatement(String name, String sql) {
+}
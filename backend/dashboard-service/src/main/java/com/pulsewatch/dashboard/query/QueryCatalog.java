@@ -0,0 +1,117 @@
+package com.pulsewatch.dashboard.query;
+
+import com.pulsewatch.dashboard.cache.RefreshingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link NamedQuery named queries} and {@link NamedStatement named statements}; there is
+ * deliberately no way to run free-form SQL. Every execution is timed as {@code dashboard.query}
+ * tagged with the query name and outcome.
+ */
+@Component
+public class QueryCatalog {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int cacheMaxSize;
+    private final Map<String, RefreshingCache<List<Object>, List<?>>> resultCaches = new ConcurrentHashMap<>();
+
+    public QueryCatalog(JdbcTemplate jdbcTemplate,
+                        MeterRegistry meterRegistry,
+                        @Value("${dashboard.query.cache-max-size:1000}") int cacheMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.cacheMaxSize = cacheMaxSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> List<T> query(NamedQuery<T> query, Object... params) {
+        if (query.cacheTtlMs() <= 0) {
+            return execute(query, params);
+        }
+        return (List<T>) resultCache(query).get(Arrays.asList(params),
+                () -> Collections.unmodifiableList(execute(query, params)));
+    }
+
+    /**
+     * Executes {@code statement} once per item in a single JDBC batch and returns the generated
+     * {@code id} of each row, in item order.
+     */
+    public <T> List<Long> insertBatch(NamedStatement statement, List<T> items,
+                                      ParameterizedPreparedStatementSetter<T> setter) {
+        return timed(statement.name(), () -> jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement prepared = connection.prepareStatement(statement.sql(), Statement.RETURN_GENERATED_KEYS)) {
+                for (T item : items) {
+                    setter.setValues(prepared, item);
+                    prepared.addBatch();
+                }
+                prepared.executeBatch();
+
+                List<Long> ids = new ArrayList<>(items.size());
+                try (ResultSet keys = prepared.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong("id"));
+                    }
+                }
+                if (ids.size() != items.size()) {
+                    throw new IllegalStateException("Expected " + items.size() + " generated ids, got " + ids.size());
+                }
+                return ids;
+            }
+        }));
+    }
+
+    /**
+     * Drops all cached results of {@code query}; call after writes that can change them.
+     */
+    public void invalidate(NamedQuery<?> query) {
+        RefreshingCache<List<Object>, List<?>> cache = resultCaches.get(query.name());
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private <T> List<T> execute(NamedQuery<T> query, Object... params) {
+        return timed(query.name(), () -> jdbcTemplate.query(query.sql(), query.mapper(), params));
+    }
+
+    private RefreshingCache<List<Object>, List<?>> resultCache(NamedQuery<?> query) {
+        // No stale window, so the refresh executor is never used
+        return resultCaches.computeIfAbsent(query.name(), name -> new RefreshingCache<>(
+                "query." + name, query.cacheTtlMs(), 0, cacheMaxSize, Runnable::run, meterRegistry));
+    }
+
+    private <R> R timed(String name, Supplier<R> call) {
+        long start = System.nanoTime();
+        try {
+            R result = call.get();
+            timer(name, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (RuntimeException e) {
+            timer(name, "failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(String name, String result) {
+        return meterRegistry.timer("dashboard.query", "query", name, "result", result);
+    }
+}
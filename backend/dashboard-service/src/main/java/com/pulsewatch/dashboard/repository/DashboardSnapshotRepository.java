@@ -0,0 +1,9 @@
+package com.pulsewatch.dashboard.repository;
+
+import com.pulsewatch.dashboard.entity.DashboardSnapshotRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DashboardSnapshotRepository extends JpaRepository<DashboardSnapshotRecord, Long> {
+}
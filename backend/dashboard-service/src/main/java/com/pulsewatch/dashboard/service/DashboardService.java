@@ -1,12 +1,22 @@
 package com.pulsewatch.dashboard.service;
 
+import com.pulsewatch.dashboard.snapshot.DashboardSnapshot;
+
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 public interface DashboardService {
     
     Map<String, Object> getDashboardSummary(Long userId);
     
+    // Calls sectionListener with each section's key and payload as soon as it is loaded
+    CompletableFuture<Map<String, Object>> loadDashboardSummary(Long userId, BiConsumer<String, Object> sectionListener);
+    
+    // Materialized summary with its ETag, built on first use and maintained incrementally
+    DashboardSnapshot getDashboardSnapshot(Long userId);
+    
     List<Map<String, Object>> getAlerts(Integer limit);
     
     Map<String, Object> getPredictions();
@@ -1,25 +1,25 @@
 package com.pulsewatch.dashboard.service;
 
+import com.pulsewatch.dashboard.dto.MetricWriteResult;
+import com.pulsewatch.dashboard.dto.RecentMetric;
 import com.pulsewatch.dashboard.entity.DashboardMetrics;
 
 import java.util.List;
-import java.util.Map;
 
 public interface DatabaseService {
     
     // JPA Repository methods
     DashboardMetrics saveMetric(DashboardMetrics metric);
     
+    // JDBC batch insert; null items are treated as malformed. Results are in request order.
+    List<MetricWriteResult> saveMetrics(List<DashboardMetrics> metrics);
+    
     List<DashboardMetrics> getMetricsByUserId(Long userId);
     
     List<DashboardMetrics> getMetricsByUserIdAndType(Long userId, String metricType);
     
     Long getMetricCountByUserIdAndType(Long userId, String metricType);
     
-    // JdbcTemplate methods for custom queries
-    List<Map<String, Object>> executeCustomQuery(String query);
-    
-    List<Map<String, Object>> getDashboardSummaryFromDB(Long userId);
-    
-    void executeUpdate(String sql, Object... params);
+    // Named JDBC queries, see QueryCatalog
+    List<RecentMetric> getDashboardSummaryFromDB(Long userId);
 } 
\ No newline at end of file
@@ -3,12 +3,26 @@ package com.pulsewatch.dashboard.service.impl;
 import com.pulsewatch.dashboard.client.AlertClient;
 import com.pulsewatch.dashboard.client.PredictionClient;
 import com.pulsewatch.dashboard.client.ConfigClient;
+import com.pulsewatch.dashboard.cache.DashboardCaches;
+import com.pulsewatch.dashboard.dto.RecentMetric;
+import com.pulsewatch.dashboard.fanout.DashboardSection;
+import com.pulsewatch.dashboard.fanout.SectionExecutor;
 import com.pulsewatch.dashboard.service.DashboardService;
+import com.pulsewatch.dashboard.service.DatabaseService;
+import com.pulsewatch.dashboard.snapshot.DashboardSnapshot;
+import com.pulsewatch.dashboard.snapshot.DashboardSnapshotStore;
+import com.pulsewatch.dashboard.snapshot.SummaryStatistics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 
 @Service
 @RequiredArgsConstructor
@@ -18,45 +32,123 @@ public class DashboardServiceImpl implements DashboardService {
     private final AlertClient alertClient;
     private final PredictionClient predictionClient;
     private final ConfigClient configClient;
+    private final DatabaseService databaseService;
+    private final SectionExecutor sectionExecutor;
+    private final DashboardCaches caches;
+    private final DashboardSnapshotStore snapshotStore;
 
     @Override
     public Map<String, Object> getDashboardSummary(Long userId) {
+        return loadDashboardSummary(userId, (section, payload) -> { }).join();
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Object>> loadDashboardSummary(Long userId,
+                                                                       BiConsumer<String, Object> sectionListener) {
         log.info("Aggregating dashboard summary for user: {}", userId);
         
-        Map<String, Object> summary = new HashMap<>();
+        Map<String, Object> summary = Collections.synchronizedMap(new LinkedHashMap<>());
         summary.put("timestamp", new Date());
         summary.put("userId", userId);
+        Map<String, String> errors = new ConcurrentHashMap<>();
         
-        try {
-            // Fetch alerts
-            List<Map<String, Object>> alerts = alertClient.getLatestAlerts();
-            summary.put("alerts", alerts);
-            summary.put("alertCount", alerts.size());
-            
-            // Fetch predictions
-            Map<String, Object> predictions = predictionClient.getPredictionSummary();
-            summary.put("predictions", predictions);
-            
-            // Fetch user configuration
-            Map<String, Object> config = configClient.getConfigByUserId(userId);
-            summary.put("config", config);
-            
-            // Add summary statistics
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalAlerts", alerts.size());
-            stats.put("hasPredictions", predictions != null && !predictions.isEmpty());
-            stats.put("hasConfig", config != null && !config.isEmpty());
-            summary.put("statistics", stats);
-            
-            log.info("Successfully aggregated dashboard summary for user: {}", userId);
-            return summary;
+        // All sections load concurrently, each on its own bulkhead with its own timeout.
+        // Downstream sections are served from cache and only hit the bulkhead on a miss or refresh.
+        CompletableFuture<List<Map<String, Object>>> alerts = loadSection(DashboardSection.ALERTS,
+                loadAlerts(), summary, errors, sectionListener);
+        CompletableFuture<Map<String, Object>> predictions = loadSection(DashboardSection.PREDICTIONS,
+                loadPredictions(), summary, errors, sectionListener);
+        CompletableFuture<Map<String, Object>> config = loadSection(DashboardSection.CONFIG,
+                loadConfig(userId), summary, errors, sectionListener);
+        CompletableFuture<List<RecentMetric>> databaseMetrics = loadSection(DashboardSection.DATABASE_METRICS,
+                sectionExecutor.submit(DashboardSection.DATABASE_METRICS, () -> databaseService.getDashboardSummaryFromDB(userId)),
+                summary, errors, sectionListener);
+        
+        return CompletableFuture.allOf(alerts, predictions, config, databaseMetrics).thenApply(ignored -> {
+            SummaryStatistics.apply(summary);
             
-        } catch (Exception e) {
-            log.error("Error aggregating dashboard summary for user {}: {}", userId, e.getMessage());
-            summary.put("error", "Failed to aggregate dashboard data");
-            summary.put("errorMessage", e.getMessage());
-            return summary;
+            if (errors.isEmpty()) {
+                log.info("Successfully aggregated dashboard summary for user: {}", userId);
+            } else {
+                summary.put("errors", new HashMap<>(errors));
+                log.warn("Aggregated partial dashboard summary for user {}, failed sections: {}", userId, errors.keySet());
+            }
+            return new LinkedHashMap<>(summary);
+        });
+    }
+
+    @Override
+    public DashboardSnapshot getDashboardSnapshot(Long userId) {
+        DashboardSnapshot snapshot = snapshotStore.find(userId);
+        if (snapshot != null) {
+            return snapshot;
         }
+        log.info("Building dashboard snapshot for user: {}", userId);
+        return snapshotStore.put(userId, getDashboardSummary(userId));
+    }
+
+    /**
+     * Pulls the shared sections, and the config of every user holding a snapshot, through the
+     * caches so snapshots pick up new alerts, predictions and config without waiting for a
+     * summary request. Downstream calls only happen when a cache entry is due for a refresh.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.refresh-interval-ms:10000}")
+    public void refreshSnapshots() {
+        loadAlerts().thenAccept(alerts -> snapshotStore.updateShared(DashboardSection.ALERTS.getKey(), alerts));
+        loadPredictions().thenAccept(predictions -> snapshotStore.updateShared(DashboardSection.PREDICTIONS.getKey(), predictions));
+        for (Long userId : snapshotStore.getUserIds()) {
+            loadConfig(userId).thenAccept(config -> snapshotStore.updateConfig(userId, config));
+        }
+    }
+
+    private CompletableFuture<List<Map<String, Object>>> loadAlerts() {
+        return caches.alerts().getAsync(DashboardCaches.GLOBAL,
+                () -> sectionExecutor.submit(DashboardSection.ALERTS, alertClient::getLatestAlerts));
+    }
+
+    private CompletableFuture<Map<String, Object>> loadPredictions() {
+        return caches.predictions().getAsync(DashboardCaches.GLOBAL,
+                () -> sectionExecutor.submit(DashboardSection.PREDICTIONS, predictionClient::getPredictionSummary));
+    }
+
+    private CompletableFuture<Map<String, Object>> loadConfig(Long userId) {
+        return caches.config().getAsync(userId,
+                () -> sectionExecutor.submit(DashboardSection.CONFIG, () -> configClient.getConfigByUserId(userId)));
+    }
+
+    /**
+     * Collects one section. The returned future never fails: a failed or timed out section is
+     * left out of the summary, recorded under {@code errors} and completes with null.
+     */
+    private <T> CompletableFuture<T> loadSection(DashboardSection section, CompletableFuture<T> load,
+                                                 Map<String, Object> summary, Map<String, String> errors,
+                                                 BiConsumer<String, Object> sectionListener) {
+        return load.handle((value, error) -> {
+            Object payload = value;
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                String message = cause instanceof TimeoutException ? "Timed out" : String.valueOf(cause.getMessage());
+                log.error("Error fetching dashboard section {}: {}", section.getKey(), message);
+                errors.put(section.getKey(), message);
+                payload = sectionError(section, message);
+            } else {
+                summary.put(section.getKey(), value);
+            }
+            
+            try {
+                sectionListener.accept(section.getKey(), payload);
+            } catch (Exception e) {
+                log.warn("Dashboard section listener failed for {}: {}", section.getKey(), e.getMessage());
+            }
+            return error == null ? value : null;
+        });
+    }
+
+    private Map<String, Object> sectionError(DashboardSection section, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Failed to fetch " + section.getKey());
+        errorResponse.put("message", message);
+        return errorResponse;
     }
 
     @Override
@@ -74,7 +166,7 @@ public class DashboardServiceImpl implements DashboardService {
     public Map<String, Object> getPredictions() {
         log.info("Fetching prediction summary");
         try {
-            return predictionClient.getPredictionSummary();
+            return caches.predictions().get(DashboardCaches.GLOBAL, predictionClient::getPredictionSummary);
         } catch (Exception e) {
             log.error("Error fetching predictions: {}", e.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
@@ -88,7 +180,7 @@ public class DashboardServiceImpl implements DashboardService {
     public Map<String, Object> getAnomalies() {
         log.info("Fetching anomaly summary");
         try {
-            return predictionClient.getAnomalySummary();
+            return caches.anomalies().get(DashboardCaches.GLOBAL, predictionClient::getAnomalySummary);
         } catch (Exception e) {
             log.error("Error fetching anomalies: {}", e.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
@@ -102,7 +194,7 @@ public class DashboardServiceImpl implements DashboardService {
     public Map<String, Object> getUserConfig(Long userId) {
         log.info("Fetching config for user: {}", userId);
         try {
-            return configClient.getConfigByUserId(userId);
+            return caches.config().get(userId, () -> configClient.getConfigByUserId(userId));
         } catch (Exception e) {
             log.error("Error fetching config for user {}: {}", userId, e.getMessage());
             Map<String, Object> errorResponse = new HashMap<>();
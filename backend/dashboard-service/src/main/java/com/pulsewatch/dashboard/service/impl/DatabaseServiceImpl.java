@@ -1,15 +1,24 @@
 package com.pulsewatch.dashboard.service.impl;
 
+import com.pulsewatch.dashboard.dto.MetricWriteResult;
+import com.pulsewatch.dashboard.dto.RecentMetric;
 import com.pulsewatch.dashboard.entity.DashboardMetrics;
+import com.pulsewatch.dashboard.query.DashboardQueries;
+import com.pulsewatch.dashboard.query.QueryCatalog;
 import com.pulsewatch.dashboard.repository.DashboardMetricsRepository;
 import com.pulsewatch.dashboard.service.DatabaseService;
+import com.pulsewatch.dashboard.snapshot.DashboardSnapshotStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -17,12 +26,62 @@ import java.util.Map;
 public class DatabaseServiceImpl implements DatabaseService {
 
     private final DashboardMetricsRepository metricsRepository;
-    private final JdbcTemplate jdbcTemplate;
+    private final QueryCatalog queryCatalog;
+    private final DashboardSnapshotStore snapshotStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${dashboard.metrics.batch-size:500}")
+    private int batchSize;
 
     @Override
     public DashboardMetrics saveMetric(DashboardMetrics metric) {
         log.info("Saving metric for user: {}, type: {}", metric.getUserId(), metric.getMetricType());
-        return metricsRepository.save(metric);
+        DashboardMetrics saved = metricsRepository.save(metric);
+        queryCatalog.invalidate(DashboardQueries.METRIC_COUNT);
+        snapshotStore.metricSaved(saved);
+        return saved;
+    }
+
+    @Override
+    public List<MetricWriteResult> saveMetrics(List<DashboardMetrics> metrics) {
+        log.info("Saving batch of {} metrics", metrics.size());
+        MetricWriteResult[] results = new MetricWriteResult[metrics.size()];
+        List<Integer> valid = new ArrayList<>(metrics.size());
+        for (int i = 0; i < metrics.size(); i++) {
+            String error = validate(metrics.get(i));
+            if (error != null) {
+                results[i] = MetricWriteResult.rejected(i, error);
+            } else {
+                valid.add(i);
+            }
+        }
+
+        List<DashboardMetrics> saved = new ArrayList<>(valid.size());
+        for (int from = 0; from < valid.size(); from += batchSize) {
+            List<Integer> chunk = valid.subList(from, Math.min(from + batchSize, valid.size()));
+            List<DashboardMetrics> batch = chunk.stream().map(metrics::get).toList();
+            try {
+                // Each chunk commits on its own, so one bad chunk does not roll back the others
+                List<Long> ids = transactionTemplate.execute(status -> insertBatch(batch));
+                for (int j = 0; j < chunk.size(); j++) {
+                    batch.get(j).setId(ids.get(j));
+                    results[chunk.get(j)] = MetricWriteResult.created(chunk.get(j), ids.get(j));
+                }
+                saved.addAll(batch);
+            } catch (Exception e) {
+                log.error("Error saving batch of {} metrics: {}", batch.size(), e.getMessage());
+                for (int index : chunk) {
+                    results[index] = MetricWriteResult.failed(index, "Failed to save metric batch");
+                }
+            }
+        }
+
+        if (!saved.isEmpty()) {
+            queryCatalog.invalidate(DashboardQueries.METRIC_COUNT);
+        }
+        snapshotStore.metricsSaved(saved);
+        log.info("Saved {} of {} metrics", saved.size(), metrics.size());
+        return Arrays.asList(results);
     }
 
     @Override
@@ -40,51 +99,46 @@ public class DatabaseServiceImpl implements DatabaseService {
     @Override
     public Long getMetricCountByUserIdAndType(Long userId, String metricType) {
         log.info("Counting metrics for user: {} and type: {}", userId, metricType);
-        return metricsRepository.countByUserIdAndMetricType(userId, metricType);
-    }
-
-    @Override
-    public List<Map<String, Object>> executeCustomQuery(String query) {
-        log.info("Executing custom query: {}", query);
-        try {
-            return jdbcTemplate.queryForList(query);
-        } catch (Exception e) {
-            log.error("Error executing custom query: {}", e.getMessage());
-            throw new RuntimeException("Failed to execute custom query", e);
-        }
+        return queryCatalog.query(DashboardQueries.METRIC_COUNT, userId, metricType).get(0);
     }
 
     @Override
-    public List<Map<String, Object>> getDashboardSummaryFromDB(Long userId) {
+    public List<RecentMetric> getDashboardSummaryFromDB(Long userId) {
         log.info("Fetching dashboard summary from database for user: {}", userId);
-        String query = """
-            SELECT 
-                dm.metric_type,
-                dm.metric_value,
-                dm.created_at,
-                dm.updated_at
-            FROM dashboard_metrics dm
-            WHERE dm.user_id = ?
-            ORDER BY dm.created_at DESC
-            LIMIT 10
-            """;
-        
         try {
-            return jdbcTemplate.queryForList(query, userId);
+            return queryCatalog.query(DashboardQueries.RECENT_METRICS, userId);
         } catch (Exception e) {
             log.error("Error fetching dashboard summary from database: {}", e.getMessage());
             throw new RuntimeException("Failed to fetch dashboard summary", e);
         }
     }
 
-    @Override
-    public void executeUpdate(String sql, Object... params) {
-        log.info("Executing update query: {}", sql);
-        try {
-            jdbcTemplate.update(sql, params);
-        } catch (Exception e) {
-            log.error("Error executing update query: {}", e.getMessage());
-            throw new RuntimeException("Failed to execute update query", e);
+    private String validate(DashboardMetrics metric) {
+        if (metric == null) {
+            return "Malformed item";
+        }
+        if (metric.getUserId() == null) {
+            return "userId is required";
+        }
+        if (metric.getMetricType() == null || metric.getMetricType().isBlank()) {
+            return "metricType is required";
         }
+        return null;
+    }
+
+    /**
+     * Inserts the batch in one JDBC round trip and returns the generated ids in insert order.
+     */
+    private List<Long> insertBatch(List<DashboardMetrics> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        return queryCatalog.insertBatch(DashboardQueries.INSERT_METRIC, batch, (statement, metric) -> {
+            metric.setCreatedAt(now);
+            metric.setUpdatedAt(now);
+            statement.setLong(1, metric.getUserId());
+            statement.setString(2, metric.getMetricType());
+            statement.setString(3, metric.getMetricValue());
+            statement.setTimestamp(4, Timestamp.valueOf(now));
+            statement.setTimestamp(5, Timestamp.valueOf(now));
+        });
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
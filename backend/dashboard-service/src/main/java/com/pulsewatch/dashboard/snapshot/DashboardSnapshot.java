@@ -0,0 +1,10 @@
+package com.pulsewatch.dashboard.snapshot;
+
+import java.util.Map;
+
+/**
+ * Immutable view of a user's dashboard summary. {@code etag} changes whenever the summary
+ * does; it is {@code null} for summaries that were not stored, such as partial ones.
+ */
+public record DashboardSnapshot(Long userId, String etag, Map<String, Object> summary) {
+}
@@ -0,0 +1,340 @@
+package com.pulsewatch.dashboard.snapshot;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewatch.dashboard.dto.RecentMetric;
+import com.pulsewatch.dashboard.entity.DashboardMetrics;
+import com.pulsewatch.dashboard.entity.DashboardSnapshotRecord;
+import com.pulsewatch.dashboard.repository.DashboardSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Materialized dashboard summaries, one per user. Reads return the last built snapshot and
+ * its ETag without touching the database or downstream services. Snapshots are patched in
+ * place when a metric is saved, when a user's config changes and when the shared alert or
+ * prediction sections change; the shared sections are applied lazily on the next read.
+ *
+ * <p>Changed snapshots are written to {@code dashboard_snapshots} as gzipped JSON every
+ * {@code flush-interval-ms}, so a restart does not rebuild every user's summary from scratch.
+ * Snapshots not read for {@code idle-ms} are dropped from memory, and persisted ones older
+ * than that are not restored.
+ */
+@Slf4j
+@Component
+public class DashboardSnapshotStore {
+
+    private static final int RECENT_METRICS = 10;
+    private static final TypeReference<LinkedHashMap<String, Object>> SUMMARY_TYPE = new TypeReference<>() {
+    };
+
+    private final DashboardSnapshotRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long idleMs;
+
+    // Prefix of every ETag, so versions from before a restart never match
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, UserSnapshot> snapshots = new ConcurrentHashMap<>();
+    // Users with metrics saved while not in memory; their persisted snapshot lacks them until rewritten
+    private final Set<Long> staleUsers = ConcurrentHashMap.newKeySet();
+    private volatile SharedSections shared = new SharedSections(0, Map.of());
+
+    public DashboardSnapshotStore(DashboardSnapshotRepository repository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${dashboard.snapshot.idle-ms:3600000}") long idleMs) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.idleMs = idleMs;
+    }
+
+    /**
+     * Returns the user's snapshot from memory, or restored from the database.
+     *
+     * @return {@code null} when the user has no usable snapshot and one must be built
+     */
+    public DashboardSnapshot find(Long userId) {
+        UserSnapshot snapshot = snapshots.get(userId);
+        if (snapshot == null) {
+            snapshot = restore(userId);
+            if (snapshot == null) {
+                return null;
+            }
+        }
+        return snapshot.read(shared);
+    }
+
+    /**
+     * Stores a freshly aggregated summary as the user's snapshot, unless another request stored
+     * one first. Partial summaries, those with an {@code errors} entry, are returned as is
+     * without an ETag and are not stored.
+     */
+    public DashboardSnapshot put(Long userId, Map<String, Object> summary) {
+        if (summary.containsKey("errors")) {
+            return new DashboardSnapshot(userId, null, summary);
+        }
+        UserSnapshot created = new UserSnapshot(userId, summary, 0, shared.generation());
+        UserSnapshot existing = snapshots.putIfAbsent(userId, created);
+        if (existing != null) {
+            return existing.read(shared);
+        }
+        created.changed();
+        return created.read(shared);
+    }
+
+    /**
+     * Replaces a section shared by all users, such as {@code alerts} or {@code predictions}.
+     * Snapshots pick up the new value on their next read.
+     */
+    public synchronized void updateShared(String section, Object value) {
+        if (value == null || Objects.equals(shared.sections().get(section), value)) {
+            return;
+        }
+        Map<String, Object> sections = new HashMap<>(shared.sections());
+        sections.put(section, value);
+        shared = new SharedSections(shared.generation() + 1, Map.copyOf(sections));
+    }
+
+    public void updateConfig(Long userId, Map<String, Object> config) {
+        UserSnapshot snapshot = snapshots.get(userId);
+        if (snapshot != null && config != null) {
+            snapshot.updateSection("config", config);
+        }
+    }
+
+    /**
+     * Adds a newly saved metric to the front of the user's recent metrics, the same rows
+     * {@code getDashboardSummaryFromDB} would return.
+     */
+    public void metricSaved(DashboardMetrics metric) {
+        metricsSaved(List.of(metric));
+    }
+
+    /**
+     * Adds newly saved metrics, in save order, to their users' recent metrics. Users without a
+     * snapshot in memory are skipped without reading the database; their persisted snapshot is
+     * no longer restored, so the next read builds one that includes the metrics.
+     */
+    public void metricsSaved(List<DashboardMetrics> metrics) {
+        Map<Long, List<RecentMetric>> rowsByUser = new LinkedHashMap<>();
+        for (DashboardMetrics metric : metrics) {
+            rowsByUser.computeIfAbsent(metric.getUserId(), userId -> new ArrayList<>()).add(toRow(metric));
+        }
+        rowsByUser.forEach((userId, rows) -> {
+            UserSnapshot snapshot = snapshots.get(userId);
+            if (snapshot == null) {
+                staleUsers.add(userId);
+                // Picks up a snapshot restored before the mark was visible; restore drops any put after it
+                snapshot = snapshots.get(userId);
+            }
+            if (snapshot != null) {
+                snapshot.addMetrics(rows);
+            }
+        });
+    }
+
+    public Set<Long> getUserIds() {
+        return Collections.unmodifiableSet(snapshots.keySet());
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.flush-interval-ms:5000}")
+    public void flush() {
+        List<UserSnapshot> flushed = new ArrayList<>();
+        List<DashboardSnapshotRecord> records = new ArrayList<>();
+        for (UserSnapshot snapshot : snapshots.values()) {
+            PendingWrite pending = snapshot.takeDirty();
+            if (pending == null) {
+                continue;
+            }
+            try {
+                records.add(new DashboardSnapshotRecord(pending.userId(), pending.version(),
+                        encode(pending.summary()), LocalDateTime.now()));
+                flushed.add(snapshot);
+            } catch (IOException e) {
+                log.error("Failed to encode dashboard snapshot for user {}: {}", pending.userId(), e.getMessage());
+            }
+        }
+
+        if (!records.isEmpty()) {
+            try {
+                repository.saveAll(records);
+                records.forEach(record -> staleUsers.remove(record.getUserId()));
+                log.debug("Persisted {} dashboard snapshots", records.size());
+            } catch (Exception e) {
+                log.error("Failed to persist {} dashboard snapshots: {}", records.size(), e.getMessage());
+                flushed.forEach(UserSnapshot::markDirty);
+            }
+        }
+
+        long idleSince = System.currentTimeMillis() - idleMs;
+        snapshots.values().removeIf(snapshot -> snapshot.isIdle(idleSince));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private UserSnapshot restore(Long userId) {
+        if (staleUsers.contains(userId)) {
+            return null;
+        }
+        DashboardSnapshotRecord record;
+        try {
+            record = repository.findById(userId).orElse(null);
+        } catch (Exception e) {
+            log.warn("Failed to read dashboard snapshot for user {}: {}", userId, e.getMessage());
+            return null;
+        }
+        if (record == null || record.getUpdatedAt().isBefore(LocalDateTime.now().minus(idleMs, ChronoUnit.MILLIS))) {
+            return null;
+        }
+
+        Map<String, Object> summary;
+        try {
+            summary = decode(record.getPayload());
+        } catch (IOException e) {
+            log.warn("Discarding unreadable dashboard snapshot for user {}: {}", userId, e.getMessage());
+            return null;
+        }
+        // Generation -1 makes the first read apply the current shared sections
+        UserSnapshot restored = new UserSnapshot(userId, summary, record.getVersion(), -1);
+        UserSnapshot existing = snapshots.putIfAbsent(userId, restored);
+        if (existing != null) {
+            return existing;
+        }
+        if (staleUsers.contains(userId)) {
+            snapshots.remove(userId, restored);
+            return null;
+        }
+        return restored;
+    }
+
+    private RecentMetric toRow(DashboardMetrics metric) {
+        return new RecentMetric(metric.getMetricType(), metric.getMetricValue(), metric.getCreatedAt(), metric.getUpdatedAt());
+    }
+
+    private byte[] encode(Map<String, Object> summary) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, summary);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Map<String, Object> decode(byte[] payload) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, SUMMARY_TYPE);
+        }
+    }
+
+    private record SharedSections(long generation, Map<String, Object> sections) {
+    }
+
+    private record PendingWrite(Long userId, long version, Map<String, Object> summary) {
+    }
+
+    /**
+     * Working copy of one user's summary. Mutations happen under the instance lock; reads of an
+     * up to date snapshot only touch volatile fields.
+     */
+    private final class UserSnapshot {
+        private final Long userId;
+        private final Map<String, Object> summary;
+        private long version;
+        private boolean dirty;
+        private volatile long appliedGeneration;
+        private volatile DashboardSnapshot published;
+        private volatile long lastReadAt = System.currentTimeMillis();
+
+        private UserSnapshot(Long userId, Map<String, Object> summary, long version, long appliedGeneration) {
+            this.userId = userId;
+            this.summary = new LinkedHashMap<>(summary);
+            this.version = version;
+            this.appliedGeneration = appliedGeneration;
+            this.published = new DashboardSnapshot(userId, etag(), Collections.unmodifiableMap(this.summary));
+        }
+
+        DashboardSnapshot read(SharedSections current) {
+            lastReadAt = System.currentTimeMillis();
+            if (appliedGeneration == current.generation()) {
+                return published;
+            }
+            synchronized (this) {
+                if (appliedGeneration != current.generation()) {
+                    current.sections().forEach(summary::put);
+                    appliedGeneration = current.generation();
+                    changed();
+                }
+                return published;
+            }
+        }
+
+        synchronized void updateSection(String section, Object value) {
+            if (!Objects.equals(summary.get(section), value)) {
+                summary.put(section, value);
+                changed();
+            }
+        }
+
+        // Restored snapshots hold the rows as plain maps, so entries are not typed here
+        synchronized void addMetrics(List<RecentMetric> rows) {
+            List<Object> recent = new ArrayList<>(RECENT_METRICS);
+            for (int i = rows.size() - 1; i >= 0 && recent.size() < RECENT_METRICS; i--) {
+                recent.add(rows.get(i));
+            }
+            if (summary.get("databaseMetrics") instanceof List<?> previous) {
+                for (Object metric : previous) {
+                    if (recent.size() >= RECENT_METRICS) {
+                        break;
+                    }
+                    recent.add(metric);
+                }
+            }
+            summary.put("databaseMetrics", recent);
+            changed();
+        }
+
+        synchronized void changed() {
+            version++;
+            summary.put("timestamp", new Date());
+            SummaryStatistics.apply(summary);
+            published = new DashboardSnapshot(userId, etag(), Collections.unmodifiableMap(new LinkedHashMap<>(summary)));
+            dirty = true;
+        }
+
+        synchronized PendingWrite takeDirty() {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            return new PendingWrite(userId, version, published.summary());
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        synchronized boolean isIdle(long idleSince) {
+            return !dirty && lastReadAt < idleSince;
+        }
+
+        private String etag() {
+            return "\"" + epoch + "-" + version + "\"";
+        }
+    }
+}
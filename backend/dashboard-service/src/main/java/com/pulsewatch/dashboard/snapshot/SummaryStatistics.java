@@ -0,0 +1,29 @@
+package com.pulsewatch.dashboard.snapshot;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Derives {@code alertCount} and {@code statistics} from the sections present in a summary.
+ */
+public final class SummaryStatistics {
+
+    private SummaryStatistics() {
+    }
+
+    public static void apply(Map<String, Object> summary) {
+        int alertCount = summary.get("alerts") instanceof Collection<?> alerts ? alerts.size() : 0;
+        summary.put("alertCount", alertCount);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalAlerts", alertCount);
+        stats.put("hasPredictions", isPresent(summary.get("predictions")));
+        stats.put("hasConfig", isPresent(summary.get("config")));
+        summary.put("statistics", stats);
+    }
+
+    private static boolean isPresent(Object section) {
+        return section instanceof Map<?, ?> map && !map.isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.pulsewatch.dashboard.transport;
+
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transport settings of the downstream Feign clients, read from
+ * {@code dashboard.clients.<client>.*}. Timeouts, retry attempts and backoff can be
+ * overridden per method under {@code dashboard.clients.<client>.methods.<method>.*}, where
+ * {@code <method>} is the Java method name on the client interface.
+ */
+public class ClientSettings {
+
+    private static final String PREFIX = "dashboard.clients.";
+
+    private final Environment environment;
+    private final Map<String, MethodSettings> methods = new ConcurrentHashMap<>();
+
+    public ClientSettings(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * @return the client's base URL, or {@code null} when it is not configured
+     */
+    public String getUrl(String client) {
+        return environment.getProperty(PREFIX + client + ".url");
+    }
+
+    public int getMaxConnections(String client) {
+        return environment.getProperty(PREFIX + client + ".max-connections", Integer.class, 50);
+    }
+
+    /**
+     * Request bodies smaller than this are sent uncompressed even when compression is enabled.
+     */
+    public int getCompressionMinSize() {
+        return environment.getProperty(PREFIX + "compression.min-request-size", Integer.class, 2048);
+    }
+
+    public MethodSettings forMethod(String client, String method) {
+        return methods.computeIfAbsent(client + "#" + method, key -> resolve(client, method));
+    }
+
+    private MethodSettings resolve(String client, String method) {
+        String clientPrefix = PREFIX + client + ".";
+        String methodPrefix = clientPrefix + "methods." + method + ".";
+        return new MethodSettings(
+                property(clientPrefix, methodPrefix, "connect-timeout-ms", Integer.class, 250),
+                property(clientPrefix, methodPrefix, "read-timeout-ms", Integer.class, 600),
+                property(clientPrefix, methodPrefix, "max-attempts", Integer.class, 2),
+                property(clientPrefix, methodPrefix, "backoff-ms", Long.class, 100L),
+                property(clientPrefix, methodPrefix, "max-backoff-ms", Long.class, 1000L),
+                property(clientPrefix, methodPrefix, "call-budget-ms", Long.class, 1900L),
+                property(clientPrefix, methodPrefix, "request-compression", Boolean.class, false));
+    }
+
+    private <T> T property(String clientPrefix, String methodPrefix, String key, Class<T> type, T defaultValue) {
+        T clientValue = environment.getProperty(clientPrefix + key, type, defaultValue);
+        return environment.getProperty(methodPrefix + key, type, clientValue);
+    }
+
+    /**
+     * @param maxAttempts        total attempts including the first; only GET requests are retried
+     * @param backoffMs          base of the exponential backoff between attempts
+     * @param callBudgetMs       time a call may take over all its attempts; a retry that could
+     *                           not finish within it is not started. Keep it within the timeout
+     *                           of the summary section the method is called from
+     * @param requestCompression gzip request bodies; only enable for services that accept it
+     */
+    public record MethodSettings(int connectTimeoutMs, int readTimeoutMs, int maxAttempts,
+                                 long backoffMs, long maxBackoffMs, long callBudgetMs,
+                                 boolean requestCompression) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.pulsewatch.dashboard.transport;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Wraps the pooled Feign client to apply per-method timeouts from {@link ClientSettings},
+ * gzip request bodies where enabled, and time every call as {@code dashboard.client.requests}
+ * tagged with client, method and status.
+ */
+public class InstrumentedFeignClient implements Client {
+
+    private final Client delegate;
+    private final ClientSettings settings;
+    private final MeterRegistry meterRegistry;
+
+    public InstrumentedFeignClient(Client delegate, ClientSettings settings, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String client = RequestNames.client(request);
+        String method = RequestNames.method(request);
+        ClientSettings.MethodSettings methodSettings = settings.forMethod(client, method);
+        Request.Options methodOptions = new Request.Options(
+                methodSettings.connectTimeoutMs(), TimeUnit.MILLISECONDS,
+                methodSettings.readTimeoutMs(), TimeUnit.MILLISECONDS,
+                options.isFollowRedirects());
+        if (methodSettings.requestCompression()) {
+            request = compress(request);
+        }
+
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        try {
+            Response response = delegate.execute(request, methodOptions);
+            status = String.valueOf(response.status());
+            return response;
+        } finally {
+            meterRegistry.timer("dashboard.client.requests", "client", client, "method", method, "status", status)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Request compress(Request request) throws IOException {
+        byte[] body = request.body();
+        if (body == null || body.length < settings.getCompressionMinSize()) {
+            return request;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        }
+
+        Map<String, Collection<String>> headers = new LinkedHashMap<>();
+        request.headers().forEach((name, values) -> {
+            if (!name.equalsIgnoreCase("Content-Length") && !name.equalsIgnoreCase("Content-Encoding")) {
+                headers.put(name, values);
+            }
+        });
+        headers.put("Content-Encoding", List.of("gzip"));
+        return Request.create(request.httpMethod(), request.url(), headers, compressed.toByteArray(),
+                request.charset(), request.requestTemplate());
+    }
+}
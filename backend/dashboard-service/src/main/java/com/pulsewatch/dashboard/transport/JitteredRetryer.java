@@ -0,0 +1,65 @@
+package com.pulsewatch.dashboard.transport;
+
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries idempotent (GET) calls with exponential backoff and full jitter, so callers that
+ * failed together do not retry together. Attempts, backoff and the call's time budget come
+ * from the method's {@link ClientSettings}. A retry is only started if its backoff and a full
+ * attempt fit in what is left of the budget, so a call does not keep a bulkhead thread busy
+ * after its summary section has stopped waiting. Feign clones the retryer for every call.
+ */
+public class JitteredRetryer implements Retryer {
+
+    private final ClientSettings settings;
+    private final MeterRegistry meterRegistry;
+    private final long startedAt = System.nanoTime();
+    private int attempt = 1;
+
+    public JitteredRetryer(ClientSettings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        Request request = e.request();
+        if (request == null || request.httpMethod() != Request.HttpMethod.GET) {
+            throw e;
+        }
+        String client = RequestNames.client(request);
+        String method = RequestNames.method(request);
+        ClientSettings.MethodSettings methodSettings = settings.forMethod(client, method);
+        if (attempt >= methodSettings.maxAttempts()) {
+            throw e;
+        }
+
+        long backoff = Math.min(methodSettings.maxBackoffMs(), methodSettings.backoffMs() << Math.min(attempt - 1, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(backoff + 1);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        long attemptMs = methodSettings.connectTimeoutMs() + methodSettings.readTimeoutMs();
+        if (elapsedMs + sleepMs + attemptMs > methodSettings.callBudgetMs()) {
+            meterRegistry.counter("dashboard.client.retries.skipped", "client", client, "method", method).increment();
+            throw e;
+        }
+        attempt++;
+        meterRegistry.counter("dashboard.client.retries", "client", client, "method", method).increment();
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    @Override
+    public Retryer clone() {
+        return new JitteredRetryer(settings, meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.pulsewatch.dashboard.transport;
+
+import feign.Request;
+import feign.RequestTemplate;
+
+/**
+ * Client and method names of a Feign request, used to look up settings and tag metrics.
+ */
+final class RequestNames {
+
+    private RequestNames() {
+    }
+
+    static String client(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template != null && template.feignTarget() != null ? template.feignTarget().name() : "unknown";
+    }
+
+    static String method(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template != null && template.methodMetadata() != null
+                ? template.methodMetadata().method().getName()
+                : "unknown";
+    }
+}
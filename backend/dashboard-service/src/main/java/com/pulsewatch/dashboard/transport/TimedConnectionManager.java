@@ -0,0 +1,57 @@
+package com.pulsewatch.dashboard.transport;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.socket.ConnectionSocketFactory;
+import org.apache.hc.core5.http.config.Registry;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Connection pool that records how long each request waited for a connection as
+ * {@code dashboard.client.pool.wait}, tagged with the target host.
+ */
+public class TimedConnectionManager extends PoolingHttpClientConnectionManager {
+
+    private final MeterRegistry meterRegistry;
+
+    public TimedConnectionManager(Registry<ConnectionSocketFactory> socketFactoryRegistry,
+                                  TimeValue timeToLive,
+                                  MeterRegistry meterRegistry) {
+        super(socketFactoryRegistry, PoolConcurrencyPolicy.STRICT, PoolReusePolicy.LIFO, timeToLive);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+        LeaseRequest lease = super.lease(id, route, requestTimeout, state);
+        String host = route.getTargetHost().toHostString();
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(Timeout timeout)
+                    throws InterruptedException, ExecutionException, TimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return lease.get(timeout);
+                } finally {
+                    meterRegistry.timer("dashboard.client.pool.wait", "host", host)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return lease.cancel();
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.pulsewatch.dashboard.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshingCacheTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testFreshValueIsServedFromCache() {
+        RefreshingCache<String, String> cache = new RefreshingCache<>("test", 60_000, 60_000, 10, executor, new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get("key", () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get("key", () -> "v" + loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testConcurrentMissesShareOneLoad() throws Exception {
+        RefreshingCache<String, String> cache = new RefreshingCache<>("test", 60_000, 60_000, 10, executor, new SimpleMeterRegistry());
+        AtomicInteger loads = new AtomicInteger();
+        CompletableFuture<String> slowLoad = new CompletableFuture<>();
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            results.add(cache.getAsync("key", () -> {
+                loads.incrementAndGet();
+                return slowLoad;
+            }));
+        }
+        slowLoad.complete("value");
+
+        for (CompletableFuture<String> result : results) {
+            assertEquals("value", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testStaleValueIsServedWhileRefreshing() throws Exception {
+        RefreshingCache<String, String> cache = new RefreshingCache<>("test", 50, 60_000, 10, executor, new SimpleMeterRegistry());
+        cache.get("key", () -> "old");
+        Thread.sleep(100);
+
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String stale = cache.get("key", () -> {
+            refreshing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "new";
+        });
+
+        assertEquals("old", stale, "stale entry must be returned without waiting for the refresh");
+        assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+        release.countDown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"new".equals(cache.get("key", () -> "unexpected")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("new", cache.get("key", () -> "unexpected"));
+    }
+
+    @Test
+    void testExpiredValueIsReloaded() throws Exception {
+        RefreshingCache<String, String> cache = new RefreshingCache<>("test", 20, 20, 10, executor, new SimpleMeterRegistry());
+        cache.get("key", () -> "old");
+        Thread.sleep(100);
+
+        assertEquals("new", cache.get("key", () -> "new"));
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        RefreshingCache<String, String> cache = new RefreshingCache<>("test", 60_000, 60_000, 10, executor, new SimpleMeterRegistry());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> cache.get("key", () -> { throw new IllegalStateException("down"); }));
+        assertEquals("down", error.getMessage());
+        assertEquals("value", cache.get("key", () -> "value"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        RefreshingCache<Integer, String> cache = new RefreshingCache<>("test", 60_000, 60_000, 2, executor, new SimpleMeterRegistry());
+        cache.get(1, () -> "one");
+        cache.get(2, () -> "two");
+        cache.get(1, () -> "unexpected");
+        cache.get(3, () -> "three");
+
+        assertEquals(2, cache.size());
+        assertEquals("one", cache.get(1, () -> "reloaded"));
+        assertEquals("reloaded", cache.get(2, () -> "reloaded"));
+    }
+}
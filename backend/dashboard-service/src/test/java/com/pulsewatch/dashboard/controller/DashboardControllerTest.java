@@ -1,8 +1,10 @@
 package com.pulsewatch.dashboard.controller;
 
+import com.pulsewatch.dashboard.dto.MetricWriteResult;
 import com.pulsewatch.dashboard.service.DashboardService;
 import com.pulsewatch.dashboard.service.DatabaseService;
 import com.pulsewatch.dashboard.entity.DashboardMetrics;
+import com.pulsewatch.dashboard.snapshot.DashboardSnapshot;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -15,6 +17,8 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -39,18 +43,65 @@ class DashboardControllerTest {
         mockSummary.put("predictions", new HashMap<>());
         mockSummary.put("config", new HashMap<>());
 
-        List<Map<String, Object>> mockDbMetrics = new ArrayList<>();
-
-        when(dashboardService.getDashboardSummary(eq(1L))).thenReturn(mockSummary);
-        when(databaseService.getDashboardSummaryFromDB(eq(1L))).thenReturn(mockDbMetrics);
+        when(dashboardService.getDashboardSnapshot(eq(1L))).thenReturn(new DashboardSnapshot(1L, "\"abc-1\"", mockSummary));
 
         // When & Then
         mockMvc.perform(get("/dashboard/summary")
                 .param("userId", "1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc-1\""))
                 .andExpect(jsonPath("$.userId").value(1));
     }
 
+    @Test
+    void testGetDashboardSummaryNotModified() throws Exception {
+        // Given
+        Map<String, Object> mockSummary = new HashMap<>();
+        mockSummary.put("userId", 1L);
+        when(dashboardService.getDashboardSnapshot(eq(1L))).thenReturn(new DashboardSnapshot(1L, "\"abc-2\"", mockSummary));
+
+        // When & Then
+        mockMvc.perform(get("/dashboard/summary")
+                .param("userId", "1")
+                .header("If-None-Match", "\"abc-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc-2\""));
+        mockMvc.perform(get("/dashboard/summary")
+                .param("userId", "1")
+                .header("If-None-Match", "\"abc-1\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testSaveMetricsNdjson() throws Exception {
+        // Given
+        when(databaseService.saveMetrics(any())).thenAnswer(invocation -> {
+            List<DashboardMetrics> metrics = invocation.getArgument(0);
+            List<MetricWriteResult> results = new ArrayList<>();
+            for (int i = 0; i < metrics.size(); i++) {
+                results.add(metrics.get(i) == null
+                        ? MetricWriteResult.rejected(i, "Malformed item")
+                        : MetricWriteResult.created(i, 100L + i));
+            }
+            return results;
+        });
+        String body = """
+                {"userId": 1, "metricType": "CPU", "metricValue": "10"}
+                not json
+                {"userId": 1, "metricType": "CPU", "metricValue": "12"}
+                """;
+
+        // When & Then
+        mockMvc.perform(post("/dashboard/metrics/batch")
+                .contentType("application/x-ndjson")
+                .content(body))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.results[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[2].id").value(102));
+    }
+
     @Test
     void testGetHealth() throws Exception {
         // When & Then
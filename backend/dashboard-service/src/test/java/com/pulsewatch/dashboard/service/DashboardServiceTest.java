@@ -0,0 +1,147 @@
+package com.pulsewatch.dashboard.service;
+
+import com.pulsewatch.dashboard.cache.DashboardCaches;
+import com.pulsewatch.dashboard.client.AlertClient;
+import com.pulsewatch.dashboard.client.ConfigClient;
+import com.pulsewatch.dashboard.client.PredictionClient;
+import com.pulsewatch.dashboard.fanout.SectionExecutor;
+import com.pulsewatch.dashboard.service.impl.DashboardServiceImpl;
+import com.pulsewatch.dashboard.snapshot.DashboardSnapshotStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class DashboardServiceTest {
+
+    private AlertClient alertClient;
+    private PredictionClient predictionClient;
+    private ConfigClient configClient;
+    private DatabaseService databaseService;
+    private SectionExecutor sectionExecutor;
+    private DashboardCaches caches;
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        alertClient = mock(AlertClient.class);
+        predictionClient = mock(PredictionClient.class);
+        configClient = mock(ConfigClient.class);
+        databaseService = mock(DatabaseService.class);
+        sectionExecutor = new SectionExecutor(new MockEnvironment()
+                .withProperty("dashboard.fanout.predictions.timeout-ms", "200"));
+        caches = new DashboardCaches(new MockEnvironment(), new SimpleMeterRegistry());
+        dashboardService = new DashboardServiceImpl(alertClient, predictionClient, configClient,
+                databaseService, sectionExecutor, caches, mock(DashboardSnapshotStore.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sectionExecutor.shutdown();
+        caches.shutdown();
+    }
+
+    @Test
+    void testSectionsAreLoadedConcurrently() {
+        // Given
+        when(alertClient.getLatestAlerts()).thenAnswer(invocation -> {
+            Thread.sleep(150);
+            return List.of(Map.of("id", 1), Map.of("id", 2));
+        });
+        when(predictionClient.getPredictionSummary()).thenAnswer(invocation -> {
+            Thread.sleep(150);
+            return Map.of("risk", "LOW");
+        });
+        when(configClient.getConfigByUserId(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(150);
+            return Map.of("theme", "dark");
+        });
+        when(databaseService.getDashboardSummaryFromDB(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(150);
+            return new ArrayList<>();
+        });
+
+        // When
+        long start = System.currentTimeMillis();
+        Map<String, Object> summary = dashboardService.getDashboardSummary(1L);
+        long elapsed = System.currentTimeMillis() - start;
+
+        // Then
+        assertTrue(elapsed < 450, "sections should not load one after another, took " + elapsed + "ms");
+        assertEquals(2, summary.get("alertCount"));
+        assertNotNull(summary.get("predictions"));
+        assertNotNull(summary.get("config"));
+        assertNotNull(summary.get("databaseMetrics"));
+        assertFalse(summary.containsKey("errors"));
+    }
+
+    @Test
+    void testFailedAndSlowSectionsAreReportedWithoutFailingSummary() {
+        // Given
+        when(alertClient.getLatestAlerts()).thenThrow(new RuntimeException("alerting down"));
+        when(predictionClient.getPredictionSummary()).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return Map.of("risk", "LOW");
+        });
+        when(configClient.getConfigByUserId(anyLong())).thenReturn(Map.of("theme", "dark"));
+        when(databaseService.getDashboardSummaryFromDB(anyLong())).thenReturn(new ArrayList<>());
+
+        // When
+        Map<String, Object> summary = dashboardService.getDashboardSummary(1L);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        Map<String, String> errors = (Map<String, String>) summary.get("errors");
+        assertNotNull(errors);
+        assertEquals("alerting down", errors.get("alerts"));
+        assertEquals("Timed out", errors.get("predictions"));
+        assertEquals(0, summary.get("alertCount"));
+        assertEquals(Map.of("theme", "dark"), summary.get("config"));
+    }
+
+    @Test
+    void testListenerReceivesEverySection() {
+        // Given
+        when(alertClient.getLatestAlerts()).thenReturn(new ArrayList<>());
+        when(predictionClient.getPredictionSummary()).thenThrow(new RuntimeException("prediction down"));
+        when(configClient.getConfigByUserId(anyLong())).thenReturn(new HashMap<>());
+        when(databaseService.getDashboardSummaryFromDB(anyLong())).thenReturn(new ArrayList<>());
+
+        // When
+        Map<String, Object> events = new ConcurrentHashMap<>();
+        dashboardService.loadDashboardSummary(1L, events::put).join();
+
+        // Then
+        assertEquals(Set.of("alerts", "predictions", "config", "databaseMetrics"), events.keySet());
+        assertTrue(((Map<?, ?>) events.get("predictions")).containsKey("error"));
+    }
+
+    @Test
+    void testDownstreamSectionsAreCachedAcrossUsers() {
+        // Given
+        when(alertClient.getLatestAlerts()).thenReturn(new ArrayList<>());
+        when(predictionClient.getPredictionSummary()).thenReturn(Map.of("risk", "LOW"));
+        when(configClient.getConfigByUserId(anyLong())).thenReturn(Map.of("theme", "dark"));
+        when(databaseService.getDashboardSummaryFromDB(anyLong())).thenReturn(new ArrayList<>());
+
+        // When
+        for (long userId = 1; userId <= 20; userId++) {
+            dashboardService.getDashboardSummary(userId);
+            dashboardService.getDashboardSummary(userId);
+        }
+
+        // Then
+        verify(alertClient, times(1)).getLatestAlerts();
+        verify(predictionClient, times(1)).getPredictionSummary();
+        verify(configClient, times(20)).getConfigByUserId(anyLong());
+        verify(databaseService, times(40)).getDashboardSummaryFromDB(anyLong());
+    }
+}
@@ -1,5 +1,7 @@
 package com.pulsewatch.dashboard.service;
 
+import com.pulsewatch.dashboard.dto.MetricWriteResult;
+import com.pulsewatch.dashboard.dto.RecentMetric;
 import com.pulsewatch.dashboard.entity.DashboardMetrics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,8 +9,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -85,19 +87,67 @@ class DatabaseServiceTest {
     }
 
     @Test
-    void testCustomQuery() {
-        // Create a test metric
-        DashboardMetrics metric = new DashboardMetrics();
-        metric.setUserId(1L);
-        metric.setMetricType("TEST_METRIC");
-        metric.setMetricValue("test_value");
-        databaseService.saveMetric(metric);
-
-        // Execute custom query
-        List<Map<String, Object>> results = databaseService.executeCustomQuery(
-            "SELECT * FROM dashboard_metrics WHERE user_id = 1"
-        );
-        
-        assertFalse(results.isEmpty());
+    void testRecentMetricsQuery() {
+        // Create test metrics
+        for (int i = 0; i < 12; i++) {
+            DashboardMetrics metric = new DashboardMetrics();
+            metric.setUserId(3L);
+            metric.setMetricType("TEST_METRIC");
+            metric.setMetricValue("value_" + i);
+            databaseService.saveMetric(metric);
+        }
+
+        // Run the named query
+        List<RecentMetric> results = databaseService.getDashboardSummaryFromDB(3L);
+
+        assertEquals(10, results.size());
+        assertEquals("TEST_METRIC", results.get(0).metricType());
+        assertNotNull(results.get(0).createdAt());
+    }
+
+    @Test
+    void testCachedMetricCountIsInvalidatedByWrites() {
+        DashboardMetrics metric1 = new DashboardMetrics();
+        metric1.setUserId(4L);
+        metric1.setMetricType("CACHED_COUNT");
+        metric1.setMetricValue("1");
+        databaseService.saveMetric(metric1);
+        assertEquals(1L, databaseService.getMetricCountByUserIdAndType(4L, "CACHED_COUNT"));
+
+        DashboardMetrics metric2 = new DashboardMetrics();
+        metric2.setUserId(4L);
+        metric2.setMetricType("CACHED_COUNT");
+        metric2.setMetricValue("2");
+        databaseService.saveMetric(metric2);
+        assertEquals(2L, databaseService.getMetricCountByUserIdAndType(4L, "CACHED_COUNT"));
+    }
+
+    @Test
+    void testSaveMetricsBatch() {
+        // Create a batch with one invalid item in the middle
+        List<DashboardMetrics> metrics = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            DashboardMetrics metric = new DashboardMetrics();
+            metric.setUserId(2L);
+            metric.setMetricType("BATCH_METRIC");
+            metric.setMetricValue(String.valueOf(i));
+            metrics.add(metric);
+        }
+        metrics.get(2).setUserId(null);
+        metrics.add(null);
+
+        // Save the batch
+        List<MetricWriteResult> results = databaseService.saveMetrics(metrics);
+
+        // Verify per-item results are in request order
+        assertEquals(6, results.size());
+        assertEquals(MetricWriteResult.Status.REJECTED, results.get(2).status());
+        assertEquals(MetricWriteResult.Status.REJECTED, results.get(5).status());
+        for (int i : new int[]{0, 1, 3, 4}) {
+            assertEquals(MetricWriteResult.Status.CREATED, results.get(i).status());
+            assertEquals(i, results.get(i).index());
+            assertNotNull(results.get(i).id());
+        }
+        assertEquals(4L, databaseService.getMetricCountByUserIdAndType(2L, "BATCH_METRIC"));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+package com.pulsewatch.dashboard.snapshot;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewatch.dashboard.dto.RecentMetric;
+import com.pulsewatch.dashboard.entity.DashboardMetrics;
+import com.pulsewatch.dashboard.entity.DashboardSnapshotRecord;
+import com.pulsewatch.dashboard.repository.DashboardSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DashboardSnapshotStoreTest {
+
+    private DashboardSnapshotRepository repository;
+    private DashboardSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(DashboardSnapshotRepository.class);
+        store = new DashboardSnapshotStore(repository, new ObjectMapper().findAndRegisterModules(), 3_600_000);
+    }
+
+    @Test
+    void testStoredSnapshotIsReturnedUntilItChanges() {
+        DashboardSnapshot stored = store.put(1L, summary(1L));
+
+        DashboardSnapshot found = store.find(1L);
+
+        assertNotNull(stored.etag());
+        assertEquals(stored.etag(), found.etag());
+        assertSame(stored.summary(), found.summary());
+    }
+
+    @Test
+    void testPartialSummaryIsNotStored() {
+        Map<String, Object> partial = summary(1L);
+        partial.put("errors", Map.of("predictions", "Timed out"));
+
+        DashboardSnapshot snapshot = store.put(1L, partial);
+
+        assertNull(snapshot.etag());
+        assertNull(store.find(1L));
+    }
+
+    @Test
+    void testSavedMetricIsPrependedToRecentMetrics() {
+        Map<String, Object> summary = summary(1L);
+        List<Map<String, Object>> recent = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            recent.add(Map.of("metric_type", "OLD_" + i));
+        }
+        summary.put("databaseMetrics", recent);
+        String etag = store.put(1L, summary).etag();
+
+        DashboardMetrics metric = new DashboardMetrics(5L, 1L, "CPU_USAGE", "42", LocalDateTime.now(), LocalDateTime.now());
+        store.metricSaved(metric);
+
+        DashboardSnapshot updated = store.find(1L);
+        List<?> metrics = (List<?>) updated.summary().get("databaseMetrics");
+        assertNotEquals(etag, updated.etag());
+        assertEquals(10, metrics.size());
+        assertEquals("CPU_USAGE", ((RecentMetric) metrics.get(0)).metricType());
+        assertEquals("OLD_8", ((Map<?, ?>) metrics.get(9)).get("metric_type"));
+    }
+
+    @Test
+    void testMetricForUserNotInMemoryIsSkippedAndStaleSnapshotNotRestored() {
+        DashboardSnapshotRecord record = new DashboardSnapshotRecord(1L, 3L, new byte[0], LocalDateTime.now());
+        when(repository.findById(1L)).thenReturn(Optional.of(record));
+
+        store.metricSaved(new DashboardMetrics(5L, 1L, "CPU_USAGE", "42", LocalDateTime.now(), LocalDateTime.now()));
+
+        verifyNoInteractions(repository);
+        assertNull(store.find(1L));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testSharedSectionChangeIsAppliedOnRead() {
+        String etag = store.put(1L, summary(1L)).etag();
+
+        store.updateShared("alerts", List.of(Map.of("id", 1), Map.of("id", 2)));
+        DashboardSnapshot updated = store.find(1L);
+
+        assertNotEquals(etag, updated.etag());
+        assertEquals(2, updated.summary().get("alertCount"));
+
+        store.updateShared("alerts", List.of(Map.of("id", 1), Map.of("id", 2)));
+        assertEquals(updated.etag(), store.find(1L).etag(), "unchanged section must keep the ETag");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlushedSnapshotIsRestored() {
+        store.put(1L, summary(1L));
+
+        store.flush();
+
+        ArgumentCaptor<List<DashboardSnapshotRecord>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        DashboardSnapshotRecord record = saved.getValue().get(0);
+
+        DashboardSnapshotRepository restartedRepository = mock(DashboardSnapshotRepository.class);
+        when(restartedRepository.findById(1L)).thenReturn(Optional.of(record));
+        DashboardSnapshotStore restarted = new DashboardSnapshotStore(restartedRepository, new ObjectMapper().findAndRegisterModules(), 3_600_000);
+
+        DashboardSnapshot restored = restarted.find(1L);
+        assertNotNull(restored);
+        assertEquals(1, ((Number) restored.summary().get("userId")).intValue());
+        assertEquals(Map.of("theme", "dark"), restored.summary().get("config"));
+
+        store.flush();
+        verify(repository, times(1)).saveAll(anyList());
+    }
+
+    private Map<String, Object> summary(Long userId) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("timestamp", new Date());
+        summary.put("userId", userId);
+        summary.put("alerts", new ArrayList<>());
+        summary.put("predictions", Map.of("risk", "LOW"));
+        summary.put("config", Map.of("theme", "dark"));
+        summary.put("databaseMetrics", new ArrayList<>());
+        return summary;
+    }
+}
@@ -0,0 +1,39 @@
+package com.pulsewatch.dashboard.transport;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientSettingsTest {
+
+    @Test
+    void testMethodSettingsFallBackToClientThenDefaults() {
+        ClientSettings settings = new ClientSettings(new MockEnvironment()
+                .withProperty("dashboard.clients.prediction-service.read-timeout-ms", "4000")
+                .withProperty("dashboard.clients.prediction-service.max-attempts", "2")
+                .withProperty("dashboard.clients.prediction-service.methods.predictAnomaly.read-timeout-ms", "10000")
+                .withProperty("dashboard.clients.prediction-service.methods.predictAnomaly.request-compression", "true"));
+
+        ClientSettings.MethodSettings summary = settings.forMethod("prediction-service", "getPredictionSummary");
+        assertEquals(4000, summary.readTimeoutMs());
+        assertEquals(2, summary.maxAttempts());
+        assertEquals(250, summary.connectTimeoutMs());
+        assertFalse(summary.requestCompression());
+
+        ClientSettings.MethodSettings predict = settings.forMethod("prediction-service", "predictAnomaly");
+        assertEquals(10000, predict.readTimeoutMs());
+        assertEquals(2, predict.maxAttempts());
+        assertTrue(predict.requestCompression());
+    }
+
+    @Test
+    void testClientsWithoutSettingsUseDefaults() {
+        ClientSettings settings = new ClientSettings(new MockEnvironment());
+
+        ClientSettings.MethodSettings defaults = settings.forMethod("alert-service", "getLatestAlerts");
+        assertEquals(new ClientSettings.MethodSettings(250, 600, 2, 100L, 1000L, 1900L, false), defaults);
+        assertEquals(50, settings.getMaxConnections("alert-service"));
+        assertNull(settings.getUrl("alert-service"));
+    }
+}
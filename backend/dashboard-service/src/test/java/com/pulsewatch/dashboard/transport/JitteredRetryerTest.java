@@ -0,0 +1,94 @@
+package com.pulsewatch.dashboard.transport;
+
+import feign.Request;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JitteredRetryerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testGetIsRetriedUpToMaxAttempts() {
+        Retryer retryer = retryer(new MockEnvironment()
+                .withProperty("dashboard.clients.unknown.max-attempts", "3")
+                .withProperty("dashboard.clients.unknown.backoff-ms", "1")
+                .withProperty("dashboard.clients.unknown.call-budget-ms", "10000"));
+        RetryableException failure = failure(Request.HttpMethod.GET);
+
+        retryer.continueOrPropagate(failure);
+        retryer.continueOrPropagate(failure);
+        assertSame(failure, assertThrows(RetryableException.class, () -> retryer.continueOrPropagate(failure)));
+        assertEquals(2, retries("dashboard.client.retries"));
+    }
+
+    @Test
+    void testPostIsNotRetried() {
+        Retryer retryer = retryer(new MockEnvironment());
+
+        assertThrows(RetryableException.class, () -> retryer.continueOrPropagate(failure(Request.HttpMethod.POST)));
+        assertEquals(0, retries("dashboard.client.retries"));
+    }
+
+    @Test
+    void testDefaultsFitTwoAttemptsInBudget() {
+        Retryer retryer = retryer(new MockEnvironment());
+        RetryableException failure = failure(Request.HttpMethod.GET);
+
+        retryer.continueOrPropagate(failure);
+        assertThrows(RetryableException.class, () -> retryer.continueOrPropagate(failure));
+        assertEquals(1, retries("dashboard.client.retries"));
+        assertEquals(0, retries("dashboard.client.retries.skipped"));
+    }
+
+    @Test
+    void testRetryIsSkippedWhenAttemptWouldOutlastBudget() {
+        // Connect 250ms + read 600ms does not fit in what is left of 800ms
+        Retryer retryer = retryer(new MockEnvironment()
+                .withProperty("dashboard.clients.unknown.call-budget-ms", "800"));
+
+        assertThrows(RetryableException.class, () -> retryer.continueOrPropagate(failure(Request.HttpMethod.GET)));
+        assertEquals(0, retries("dashboard.client.retries"));
+        assertEquals(1, retries("dashboard.client.retries.skipped"));
+    }
+
+    @Test
+    void testBudgetCountsFromStartOfCall() throws Exception {
+        Retryer retryer = retryer(new MockEnvironment()
+                .withProperty("dashboard.clients.unknown.backoff-ms", "1")
+                .withProperty("dashboard.clients.unknown.call-budget-ms", "1000"));
+        RetryableException failure = failure(Request.HttpMethod.GET);
+
+        // A slow first attempt leaves too little of the budget for another one
+        Thread.sleep(200);
+        assertThrows(RetryableException.class, () -> retryer.continueOrPropagate(failure));
+        assertEquals(1, retries("dashboard.client.retries.skipped"));
+
+        // Each call gets its own clone and budget
+        retryer.clone().continueOrPropagate(failure);
+        assertEquals(1, retries("dashboard.client.retries"));
+    }
+
+    private JitteredRetryer retryer(MockEnvironment environment) {
+        return new JitteredRetryer(new ClientSettings(environment), meterRegistry);
+    }
+
+    private double retries(String name) {
+        return meterRegistry.counter(name, "client", "unknown", "method", "unknown").count();
+    }
+
+    private static RetryableException failure(Request.HttpMethod method) {
+        Request request = Request.create(method, "http://localhost:8081/alerts/latest", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new RetryableException(503, "Service unavailable", method, (Date) null, request);
+    }
+}
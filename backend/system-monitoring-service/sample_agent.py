@@ -76,7 +76,7 @@ def send_metrics_to_service(service_url="http://localhost:8082/metrics"):
             timeout=10
         )
         
-        if response.status_code == 200:
+        if response.status_code in (200, 202):
             print(f"✅ Successfully sent metrics. Response: {response.text}")
         else:
             print(f"❌ Failed to send metrics. Status: {response.status_code}, Response: {response.text}")
@@ -1,5 +1,7 @@
 package com.pulsewatch.monitoring.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewatch.monitoring.dto.CursorPage;
 import com.pulsewatch.monitoring.dto.MetricsRequest;
 import com.pulsewatch.monitoring.dto.MetricsResponse;
 import com.pulsewatch.monitoring.model.SystemMetrics;
@@ -8,10 +10,18 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -24,55 +34,113 @@ public class MetricsController {
     private static final Logger log = LoggerFactory.getLogger(MetricsController.class);
 
     private final MetricsService metricsService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${monitoring.ingest.async:true}")
+    private boolean asyncIngest;
 
     @PostMapping
     public ResponseEntity<String> saveMetrics(@Valid @RequestBody MetricsRequest request) {
-        log.info("Received metrics request for host: {}", request.getHost());
-        metricsService.saveMetrics(request);
-        return ResponseEntity.ok("Metrics saved successfully");
+        log.debug("Received metrics request for host: {}", request.getHost());
+        
+        if (!asyncIngest) {
+            metricsService.saveMetrics(request);
+            return ResponseEntity.ok("Metrics saved successfully");
+        }
+        
+        if (!metricsService.enqueueMetrics(request)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Metrics buffer is full, retry later");
+        }
+        return ResponseEntity.accepted().body("Metrics accepted for processing");
     }
 
     @GetMapping("/cpu")
-    public ResponseEntity<List<SystemMetrics>> getCpuMetrics(
+    public ResponseEntity<?> getCpuMetrics(
             @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now().minusHours(1)}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) Long step) {
+        if (step != null) {
+            return ResponseEntity.ok(metricsService.getDownsampledMetrics("CPU", startTime, step));
+        }
         List<SystemMetrics> metrics = metricsService.getCpuMetrics(startTime);
         return ResponseEntity.ok(metrics);
     }
 
     @GetMapping("/memory")
-    public ResponseEntity<List<SystemMetrics>> getMemoryMetrics(
+    public ResponseEntity<?> getMemoryMetrics(
             @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now().minusHours(1)}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) Long step) {
+        if (step != null) {
+            return ResponseEntity.ok(metricsService.getDownsampledMetrics("MEMORY", startTime, step));
+        }
         List<SystemMetrics> metrics = metricsService.getMemoryMetrics(startTime);
         return ResponseEntity.ok(metrics);
     }
 
     @GetMapping("/disk")
-    public ResponseEntity<List<SystemMetrics>> getDiskMetrics(
+    public ResponseEntity<?> getDiskMetrics(
             @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now().minusHours(1)}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) Long step) {
+        if (step != null) {
+            return ResponseEntity.ok(metricsService.getDownsampledMetrics("DISK", startTime, step));
+        }
         List<SystemMetrics> metrics = metricsService.getDiskMetrics(startTime);
         return ResponseEntity.ok(metrics);
     }
 
     @GetMapping("/network")
-    public ResponseEntity<List<SystemMetrics>> getNetworkMetrics(
+    public ResponseEntity<?> getNetworkMetrics(
             @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now().minusHours(1)}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) Long step) {
+        if (step != null) {
+            return ResponseEntity.ok(metricsService.getDownsampledMetrics("NETWORK", startTime, step));
+        }
         List<SystemMetrics> metrics = metricsService.getNetworkMetrics(startTime);
         return ResponseEntity.ok(metrics);
     }
 
     @GetMapping("/{metricType}")
-    public ResponseEntity<MetricsResponse> getMetricsByType(
+    public ResponseEntity<?> getMetricsByType(
             @PathVariable String metricType,
             @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now().minusHours(1)}") 
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) Long step) {
+        if (step != null) {
+            return ResponseEntity.ok(metricsService.getDownsampledMetrics(metricType, startTime, step));
+        }
         MetricsResponse response = metricsService.getMetricsByType(metricType, startTime);
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/{metricType}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMetricsByType(
+            @PathVariable String metricType,
+            @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now().minusHours(1)}") 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
+        // Reject unknown types before the response is committed
+        SystemMetrics.MetricType.valueOf(metricType.toUpperCase());
+        
+        StreamingResponseBody body = out -> metricsService.streamMetricsByType(metricType, startTime,
+                metric -> writeLine(out, metric));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/{metricType}/page")
+    public ResponseEntity<CursorPage<SystemMetrics>> getMetricsPage(
+            @PathVariable String metricType,
+            @RequestParam(defaultValue = "#{T(java.time.LocalDateTime).now().minusHours(1)}") 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "500") int limit) {
+        CursorPage<SystemMetrics> page = metricsService.getMetricsPage(metricType, startTime, pageToken, limit);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{metricType}/average")
     public ResponseEntity<Double> getAverageMetricValue(
             @PathVariable String metricType,
@@ -81,4 +149,19 @@ public class MetricsController {
         Double average = metricsService.getAverageMetricValue(metricType, startTime);
         return ResponseEntity.ok(average);
     }
-} 
\ No newline at end of file
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+        log.warn("Rejected metrics request: {}", e.getMessage());
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.pulsewatch.monitoring.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class DownsampledMetricsResponse {
+    private String metricType;
+    private Long step;
+    private String resolution;
+    private List<Bucket> buckets;
+    
+    @Data
+    public static class Bucket {
+        private LocalDateTime timestamp;
+        private String host;
+        private String metricName;
+        private String unit;
+        private Double min;
+        private Double max;
+        private Double avg;
+        private Long count;
+        private Double last;
+    }
+}
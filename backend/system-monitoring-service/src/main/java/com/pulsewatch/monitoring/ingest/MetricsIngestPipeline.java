@@ -0,0 +1,187 @@
+package com.pulsewatch.monitoring.ingest;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import com.pulsewatch.monitoring.rollup.MetricRollupService;
+import com.pulsewatch.monitoring.store.MetricStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded in-memory buffer between the metrics endpoint and the {@link MetricStore}.
+ * Requests are accepted as long as the buffer has room; a fixed pool of writer threads
+ * drains it into the store in batches of up to {@code batch-size} metrics,
+ * flushing partial batches after {@code flush-interval-ms}, and folds each written batch into
+ * the rollup tiers.
+ */
+@Component
+public class MetricsIngestPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsIngestPipeline.class);
+
+    private final MetricStore metricStore;
+    private final MetricRollupService rollupService;
+    private final BlockingQueue<SystemMetrics> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int writerThreads;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    private ExecutorService writers;
+    private volatile boolean running;
+
+    public MetricsIngestPipeline(MetricStore metricStore,
+                                 MetricRollupService rollupService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${monitoring.ingest.buffer-capacity:100000}") int bufferCapacity,
+                                 @Value("${monitoring.ingest.batch-size:500}") int batchSize,
+                                 @Value("${monitoring.ingest.flush-interval-ms:1000}") long flushIntervalMs,
+                                 @Value("${monitoring.ingest.writer-threads:2}") int writerThreads) {
+        this.metricStore = metricStore;
+        this.rollupService = rollupService;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.writerThreads = writerThreads;
+
+        Gauge.builder("monitoring.ingest.buffer.size", buffer, BlockingQueue::size)
+                .description("Metrics waiting to be written")
+                .register(meterRegistry);
+        this.acceptedCounter = meterRegistry.counter("monitoring.ingest.metrics", "result", "accepted");
+        this.rejectedCounter = meterRegistry.counter("monitoring.ingest.metrics", "result", "rejected");
+        this.writtenCounter = meterRegistry.counter("monitoring.ingest.metrics", "result", "written");
+        this.failedCounter = meterRegistry.counter("monitoring.ingest.metrics", "result", "failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        AtomicInteger threadIndex = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(writerThreads, runnable -> {
+            Thread thread = new Thread(runnable, "metrics-writer-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < writerThreads; i++) {
+            writers.submit(this::drainLoop);
+        }
+        log.info("Metrics ingest pipeline started: capacity={}, batchSize={}, flushIntervalMs={}, writers={}",
+                buffer.remainingCapacity(), batchSize, flushIntervalMs, writerThreads);
+    }
+
+    /**
+     * Queues all metrics of one request, or none of them if the buffer cannot hold the whole set.
+     * Producers are serialized so the capacity check and the inserts cannot interleave; writers
+     * only ever remove elements, so free space can only grow between the two.
+     *
+     * @return {@code false} when the buffer is full and the caller should back off
+     */
+    public synchronized boolean offer(List<SystemMetrics> metrics) {
+        if (!running || buffer.remainingCapacity() < metrics.size()) {
+            rejectedCounter.increment(metrics.size());
+            return false;
+        }
+        buffer.addAll(metrics);
+        acceptedCounter.increment(metrics.size());
+        return true;
+    }
+
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        writers.shutdown();
+        try {
+            if (!writers.awaitTermination(flushIntervalMs * 2 + 10_000, TimeUnit.MILLISECONDS)) {
+                log.warn("Metrics writers did not finish in time, {} metrics left unwritten", buffer.size());
+                writers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Metrics ingest pipeline stopped");
+    }
+
+    private void drainLoop() {
+        List<SystemMetrics> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                SystemMetrics first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<SystemMetrics> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (batch.size() >= batchSize || !running) {
+                return;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            SystemMetrics next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<SystemMetrics> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            metricStore.append(batch);
+            writtenCounter.increment(batch.size());
+            log.debug("Wrote batch of {} metrics", batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to write batch of {} metrics: {}", batch.size(), e.getMessage());
+            return;
+        }
+        try {
+            rollupService.record(batch);
+        } catch (Exception e) {
+            log.error("Failed to update rollups for batch of {} metrics: {}", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.pulsewatch.monitoring.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated samples of one series over one bucket of a rollup tier.
+ * Rows are merged in place by {@code MetricRollupRepository} as samples arrive.
+ */
+@Entity
+@Table(name = "metric_rollups",
+    uniqueConstraints = @UniqueConstraint(name = "uk_rollup_series_bucket",
+        columnNames = {"tier", "metric_type", "host", "metric_name", "bucket_start"}),
+    indexes = @Index(name = "idx_rollup_tier_type_bucket", columnList = "tier, metric_type, bucket_start"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tier", nullable = false, length = 16)
+    private String tier;
+
+    @Column(name = "host", nullable = false)
+    private String host;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric_type", nullable = false)
+    private SystemMetrics.MetricType metricType;
+
+    @Column(name = "metric_name", nullable = false)
+    private String metricName;
+
+    @Column(name = "unit")
+    private String unit;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "min_value", nullable = false)
+    private Double minValue;
+
+    @Column(name = "max_value", nullable = false)
+    private Double maxValue;
+
+    @Column(name = "sum_value", nullable = false)
+    private Double sumValue;
+
+    @Column(name = "sample_count", nullable = false)
+    private Long sampleCount;
+
+    @Column(name = "last_value", nullable = false)
+    private Double lastValue;
+
+    @Column(name = "last_timestamp", nullable = false)
+    private LocalDateTime lastTimestamp;
+}
@@ -0,0 +1,81 @@
+package com.pulsewatch.monitoring.repository;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import com.pulsewatch.monitoring.rollup.RollupBucket;
+import com.pulsewatch.monitoring.rollup.RollupTier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC access to {@code metric_rollups}. Writes are upserts that merge a partial bucket into
+ * the stored one, so the same bucket can be fed from any number of ingest batches.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MetricRollupRepository {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO metric_rollups (tier, host, metric_type, metric_name, unit, bucket_start, " +
+            "min_value, max_value, sum_value, sample_count, last_value, last_timestamp) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (tier, metric_type, host, metric_name, bucket_start) DO UPDATE SET " +
+            "min_value = LEAST(metric_rollups.min_value, EXCLUDED.min_value), " +
+            "max_value = GREATEST(metric_rollups.max_value, EXCLUDED.max_value), " +
+            "sum_value = metric_rollups.sum_value + EXCLUDED.sum_value, " +
+            "sample_count = metric_rollups.sample_count + EXCLUDED.sample_count, " +
+            "last_value = CASE WHEN EXCLUDED.last_timestamp >= metric_rollups.last_timestamp " +
+            "THEN EXCLUDED.last_value ELSE metric_rollups.last_value END, " +
+            "last_timestamp = GREATEST(metric_rollups.last_timestamp, EXCLUDED.last_timestamp)";
+
+    private static final String SELECT_SQL =
+            "SELECT host, metric_type, metric_name, unit, bucket_start, min_value, max_value, sum_value, " +
+            "sample_count, last_value, last_timestamp FROM metric_rollups " +
+            "WHERE tier = ? AND metric_type = ? AND bucket_start >= ? ORDER BY bucket_start ASC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void upsertAll(RollupTier tier, Collection<RollupBucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(buckets), buckets.size(), (ps, bucket) -> {
+            ps.setString(1, tier.getLabel());
+            ps.setString(2, bucket.getHost());
+            ps.setString(3, bucket.getMetricType().name());
+            ps.setString(4, bucket.getMetricName());
+            ps.setString(5, bucket.getUnit());
+            ps.setTimestamp(6, Timestamp.valueOf(bucket.getBucketStart()));
+            ps.setDouble(7, bucket.getMinValue());
+            ps.setDouble(8, bucket.getMaxValue());
+            ps.setDouble(9, bucket.getSumValue());
+            ps.setLong(10, bucket.getSampleCount());
+            ps.setDouble(11, bucket.getLastValue());
+            ps.setTimestamp(12, Timestamp.valueOf(bucket.getLastTimestamp()));
+        });
+    }
+
+    /**
+     * Buckets of the given tier and type that start at or after {@code startTime}, oldest first.
+     */
+    public List<RollupBucket> findBuckets(RollupTier tier, SystemMetrics.MetricType metricType, LocalDateTime startTime) {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> {
+            RollupBucket bucket = new RollupBucket(
+                    rs.getString("host"),
+                    SystemMetrics.MetricType.valueOf(rs.getString("metric_type")),
+                    rs.getString("metric_name"),
+                    rs.getString("unit"),
+                    rs.getTimestamp("bucket_start").toLocalDateTime());
+            bucket.merge(rs.getDouble("min_value"), rs.getDouble("max_value"), rs.getDouble("sum_value"),
+                    rs.getLong("sample_count"), rs.getDouble("last_value"),
+                    rs.getTimestamp("last_timestamp").toLocalDateTime());
+            return bucket;
+        }, tier.getLabel(), metricType.name(), Timestamp.valueOf(startTime));
+    }
+}
@@ -0,0 +1,45 @@
+package com.pulsewatch.monitoring.repository;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Plain JDBC writer for {@link SystemMetrics}. The JPA entity uses IDENTITY keys, which
+ * stops Hibernate from batching inserts, so bulk writes go through here instead.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SystemMetricsBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO system_metrics (host, metric_type, metric_name, metric_value, unit, timestamp, additional_data) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertAll(List<SystemMetrics> metrics) {
+        if (metrics.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, metrics, metrics.size(), (ps, metric) -> {
+            ps.setString(1, metric.getHost());
+            ps.setString(2, metric.getMetricType().name());
+            ps.setString(3, metric.getMetricName());
+            ps.setDouble(4, metric.getMetricValue());
+            ps.setString(5, metric.getUnit());
+            ps.setTimestamp(6, Timestamp.valueOf(metric.getTimestamp()));
+            if (metric.getAdditionalData() != null) {
+                ps.setString(7, metric.getAdditionalData());
+            } else {
+                ps.setNull(7, Types.VARCHAR);
+            }
+        });
+        return metrics.size();
+    }
+}
@@ -0,0 +1,81 @@
+package com.pulsewatch.monitoring.repository;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import com.pulsewatch.monitoring.store.SampleCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only reads of {@code system_metrics} for large results. Streaming runs in a read-only
+ * transaction so the PostgreSQL driver uses a server-side cursor and only holds
+ * {@code fetch-size} rows at a time; pages use keyset predicates instead of OFFSET.
+ */
+@Repository
+public class SystemMetricsCursorRepository {
+
+    private static final String COLUMNS =
+            "SELECT id, host, metric_type, metric_name, metric_value, unit, timestamp, additional_data " +
+            "FROM system_metrics ";
+
+    private static final String ORDER = " ORDER BY timestamp DESC, host ASC, metric_name ASC, id ASC";
+
+    private static final String STREAM_SQL =
+            COLUMNS + "WHERE metric_type = ? AND timestamp > ?" + ORDER;
+
+    private static final String FIRST_PAGE_SQL =
+            COLUMNS + "WHERE metric_type = ? AND timestamp > ?" + ORDER + " LIMIT ?";
+
+    private static final String NEXT_PAGE_SQL =
+            COLUMNS + "WHERE metric_type = ? AND timestamp > ? AND (timestamp < ? OR " +
+            "(timestamp = ? AND (host > ? OR (host = ? AND (metric_name > ? OR " +
+            "(metric_name = ? AND id > ?))))))" + ORDER + " LIMIT ?";
+
+    private static final RowMapper<SystemMetrics> ROW_MAPPER = (rs, rowNum) -> new SystemMetrics(
+            rs.getLong("id"),
+            rs.getString("host"),
+            SystemMetrics.MetricType.valueOf(rs.getString("metric_type")),
+            rs.getString("metric_name"),
+            rs.getDouble("metric_value"),
+            rs.getString("unit"),
+            rs.getTimestamp("timestamp").toLocalDateTime(),
+            rs.getString("additional_data"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SystemMetricsCursorRepository(DataSource dataSource,
+                                         @Value("${monitoring.query.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachByType(SystemMetrics.MetricType metricType, LocalDateTime startTime,
+                              Consumer<SystemMetrics> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow()));
+        jdbcTemplate.query(STREAM_SQL, handler, metricType.name(), Timestamp.valueOf(startTime));
+    }
+
+    public List<SystemMetrics> findPageByType(SystemMetrics.MetricType metricType, LocalDateTime startTime,
+                                              SampleCursor after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(FIRST_PAGE_SQL, ROW_MAPPER,
+                    metricType.name(), Timestamp.valueOf(startTime), limit);
+        }
+        Timestamp afterTimestamp = Timestamp.valueOf(after.timestamp());
+        // A cursor without an id skips every row with the same key rather than binding a NULL
+        long afterId = after.id() != null ? after.id() : Long.MAX_VALUE;
+        return jdbcTemplate.query(NEXT_PAGE_SQL, ROW_MAPPER,
+                metricType.name(), Timestamp.valueOf(startTime), afterTimestamp,
+                afterTimestamp, after.host(), after.host(), after.metricName(), after.metricName(), afterId, limit);
+    }
+}
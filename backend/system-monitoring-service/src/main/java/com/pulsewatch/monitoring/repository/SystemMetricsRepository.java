@@ -12,11 +12,11 @@ import java.util.List;
 @Repository
 public interface SystemMetricsRepository extends JpaRepository<SystemMetrics, Long> {
     
-    @Query("SELECT sm FROM SystemMetrics sm WHERE sm.metricType = :metricType AND sm.timestamp >= :startTime ORDER BY sm.timestamp DESC")
+    @Query("SELECT sm FROM SystemMetrics sm WHERE sm.metricType = :metricType AND sm.timestamp > :startTime ORDER BY sm.timestamp DESC")
     List<SystemMetrics> findByMetricTypeAndTimestampAfter(@Param("metricType") SystemMetrics.MetricType metricType, 
                                                          @Param("startTime") LocalDateTime startTime);
     
-    @Query("SELECT sm FROM SystemMetrics sm WHERE sm.host = :host AND sm.metricType = :metricType AND sm.timestamp >= :startTime ORDER BY sm.timestamp DESC")
+    @Query("SELECT sm FROM SystemMetrics sm WHERE sm.host = :host AND sm.metricType = :metricType AND sm.timestamp > :startTime ORDER BY sm.timestamp DESC")
     List<SystemMetrics> findByHostAndMetricTypeAndTimestampAfter(@Param("host") String host,
                                                                 @Param("metricType") SystemMetrics.MetricType metricType,
                                                                 @Param("startTime") LocalDateTime startTime);
@@ -26,7 +26,7 @@ public interface SystemMetricsRepository extends JpaRepository<SystemMetrics, Lo
                                                            @Param("startTime") LocalDateTime startTime,
                                                            @Param("endTime") LocalDateTime endTime);
     
-    @Query("SELECT AVG(sm.metricValue) FROM SystemMetrics sm WHERE sm.metricType = :metricType AND sm.timestamp >= :startTime")
+    @Query("SELECT AVG(sm.metricValue) FROM SystemMetrics sm WHERE sm.metricType = :metricType AND sm.timestamp > :startTime")
     Double getAverageMetricValue(@Param("metricType") SystemMetrics.MetricType metricType,
                                 @Param("startTime") LocalDateTime startTime);
 } 
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.pulsewatch.monitoring.rollup;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import com.pulsewatch.monitoring.repository.MetricRollupRepository;
+import com.pulsewatch.monitoring.store.MetricStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains the 1m/10m/1h rollup tiers and answers downsampled queries.
+ * <p>
+ * Every written batch is folded into partial buckets per tier and merged into
+ * {@code metric_rollups}. A query for a given step reads the coarsest tier that tiles the step
+ * and re-buckets it; steps finer than a minute, or not a multiple of one, are computed from
+ * raw samples instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class MetricRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricRollupService.class);
+
+    private static final Comparator<RollupBucket> BUCKET_ORDER = Comparator
+            .comparing(RollupBucket::getMetricType)
+            .thenComparing(RollupBucket::getHost)
+            .thenComparing(RollupBucket::getMetricName)
+            .thenComparing(RollupBucket::getBucketStart);
+
+    private record SeriesBucketKey(String host, SystemMetrics.MetricType metricType, String metricName,
+                                   LocalDateTime bucketStart) {
+    }
+
+    private final MetricRollupRepository rollupRepository;
+    private final MetricStore metricStore;
+
+    public void record(List<SystemMetrics> metrics) {
+        if (metrics.isEmpty()) {
+            return;
+        }
+        for (RollupTier tier : RollupTier.values()) {
+            List<RollupBucket> buckets = new ArrayList<>(aggregate(metrics, tier.getSeconds()));
+            // A fixed row order keeps concurrent writers from deadlocking on the same buckets
+            buckets.sort(BUCKET_ORDER);
+            rollupRepository.upsertAll(tier, buckets);
+        }
+        log.debug("Updated rollups for {} metrics", metrics.size());
+    }
+
+    /**
+     * Buckets of {@code stepSeconds} for every series of the given type, starting with the
+     * bucket that contains {@code startTime}, oldest first.
+     */
+    public List<RollupBucket> query(SystemMetrics.MetricType metricType, LocalDateTime startTime, long stepSeconds) {
+        if (stepSeconds <= 0) {
+            throw new IllegalArgumentException("Step must be a positive number of seconds");
+        }
+        LocalDateTime alignedStart = RollupTier.alignTo(startTime, stepSeconds);
+        Optional<RollupTier> tier = RollupTier.coarsestFor(stepSeconds);
+
+        List<RollupBucket> buckets;
+        if (tier.isPresent()) {
+            log.debug("Serving {} step={}s from rollup tier {}", metricType, stepSeconds, tier.get().getLabel());
+            buckets = rebucket(rollupRepository.findBuckets(tier.get(), metricType, alignedStart), stepSeconds);
+        } else {
+            log.debug("Serving {} step={}s from raw samples", metricType, stepSeconds);
+            // Store reads are exclusive of their start; include a sample exactly at the aligned start
+            buckets = aggregate(metricStore.findByType(metricType, alignedStart.minus(1, ChronoUnit.MICROS)), stepSeconds);
+        }
+        buckets.sort(Comparator.comparing(RollupBucket::getBucketStart)
+                .thenComparing(RollupBucket::getHost)
+                .thenComparing(RollupBucket::getMetricName));
+        return buckets;
+    }
+
+    private List<RollupBucket> aggregate(List<SystemMetrics> metrics, long stepSeconds) {
+        Map<SeriesBucketKey, RollupBucket> buckets = new LinkedHashMap<>();
+        for (SystemMetrics metric : metrics) {
+            LocalDateTime bucketStart = RollupTier.alignTo(metric.getTimestamp(), stepSeconds);
+            SeriesBucketKey key = new SeriesBucketKey(metric.getHost(), metric.getMetricType(),
+                    metric.getMetricName(), bucketStart);
+            buckets.computeIfAbsent(key, k -> new RollupBucket(metric.getHost(), metric.getMetricType(),
+                            metric.getMetricName(), metric.getUnit(), bucketStart))
+                    .add(metric.getMetricValue(), metric.getTimestamp());
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private List<RollupBucket> rebucket(List<RollupBucket> source, long stepSeconds) {
+        Map<SeriesBucketKey, RollupBucket> buckets = new LinkedHashMap<>();
+        for (RollupBucket bucket : source) {
+            LocalDateTime bucketStart = RollupTier.alignTo(bucket.getBucketStart(), stepSeconds);
+            SeriesBucketKey key = new SeriesBucketKey(bucket.getHost(), bucket.getMetricType(),
+                    bucket.getMetricName(), bucketStart);
+            buckets.computeIfAbsent(key, k -> new RollupBucket(bucket.getHost(), bucket.getMetricType(),
+                            bucket.getMetricName(), bucket.getUnit(), bucketStart))
+                    .merge(bucket);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+}
@@ -0,0 +1,58 @@
+package com.pulsewatch.monitoring.rollup;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mutable min/max/sum/count/last accumulator for one series over one bucket.
+ */
+@Getter
+public class RollupBucket {
+
+    private final String host;
+    private final SystemMetrics.MetricType metricType;
+    private final String metricName;
+    private final String unit;
+    private final LocalDateTime bucketStart;
+
+    private double minValue = Double.POSITIVE_INFINITY;
+    private double maxValue = Double.NEGATIVE_INFINITY;
+    private double sumValue;
+    private long sampleCount;
+    private double lastValue;
+    private LocalDateTime lastTimestamp;
+
+    public RollupBucket(String host, SystemMetrics.MetricType metricType, String metricName, String unit,
+                        LocalDateTime bucketStart) {
+        this.host = host;
+        this.metricType = metricType;
+        this.metricName = metricName;
+        this.unit = unit;
+        this.bucketStart = bucketStart;
+    }
+
+    public void add(double value, LocalDateTime timestamp) {
+        merge(value, value, value, 1, value, timestamp);
+    }
+
+    public void merge(double min, double max, double sum, long count, double last, LocalDateTime lastAt) {
+        minValue = Math.min(minValue, min);
+        maxValue = Math.max(maxValue, max);
+        sumValue += sum;
+        sampleCount += count;
+        if (lastTimestamp == null || !lastAt.isBefore(lastTimestamp)) {
+            lastValue = last;
+            lastTimestamp = lastAt;
+        }
+    }
+
+    public void merge(RollupBucket other) {
+        merge(other.minValue, other.maxValue, other.sumValue, other.sampleCount, other.lastValue, other.lastTimestamp);
+    }
+
+    public double getAverage() {
+        return sampleCount == 0 ? 0 : sumValue / sampleCount;
+    }
+}
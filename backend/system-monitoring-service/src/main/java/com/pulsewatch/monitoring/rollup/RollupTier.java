@@ -0,0 +1,56 @@
+package com.pulsewatch.monitoring.rollup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+/**
+ * Fixed-width aggregation tiers maintained for every series, finest first.
+ */
+public enum RollupTier {
+    ONE_MINUTE("1m", 60),
+    TEN_MINUTES("10m", 600),
+    ONE_HOUR("1h", 3600);
+
+    private final String label;
+    private final long seconds;
+
+    RollupTier(String label, long seconds) {
+        this.label = label;
+        this.seconds = seconds;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * The coarsest tier whose buckets tile a bucket of {@code stepSeconds} exactly, or empty
+     * when the step is finer than every tier and has to be computed from raw samples.
+     */
+    public static Optional<RollupTier> coarsestFor(long stepSeconds) {
+        RollupTier[] tiers = values();
+        for (int i = tiers.length - 1; i >= 0; i--) {
+            if (stepSeconds >= tiers[i].seconds && stepSeconds % tiers[i].seconds == 0) {
+                return Optional.of(tiers[i]);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Start of the {@code stepSeconds}-wide bucket containing {@code time}, aligned to the epoch.
+     */
+    public static LocalDateTime alignTo(LocalDateTime time, long stepSeconds) {
+        long epochSecond = time.toEpochSecond(ZoneOffset.UTC);
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochSecond, stepSeconds) * stepSeconds, 0, ZoneOffset.UTC);
+    }
+
+    public LocalDateTime align(LocalDateTime time) {
+        return alignTo(time, seconds);
+    }
+}
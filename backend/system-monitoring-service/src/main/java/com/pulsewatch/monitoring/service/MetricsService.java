@@ -1,18 +1,25 @@
 package com.pulsewatch.monitoring.service;
 
+import com.pulsewatch.monitoring.dto.CursorPage;
+import com.pulsewatch.monitoring.dto.DownsampledMetricsResponse;
 import com.pulsewatch.monitoring.dto.MetricsRequest;
 import com.pulsewatch.monitoring.dto.MetricsResponse;
 import com.pulsewatch.monitoring.model.SystemMetrics;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MetricsService {
     void saveMetrics(MetricsRequest request);
+    boolean enqueueMetrics(MetricsRequest request);
     List<SystemMetrics> getCpuMetrics(LocalDateTime startTime);
     List<SystemMetrics> getMemoryMetrics(LocalDateTime startTime);
     List<SystemMetrics> getDiskMetrics(LocalDateTime startTime);
     List<SystemMetrics> getNetworkMetrics(LocalDateTime startTime);
     MetricsResponse getMetricsByType(String metricType, LocalDateTime startTime);
+    DownsampledMetricsResponse getDownsampledMetrics(String metricType, LocalDateTime startTime, long step);
+    void streamMetricsByType(String metricType, LocalDateTime startTime, Consumer<SystemMetrics> consumer);
+    CursorPage<SystemMetrics> getMetricsPage(String metricType, LocalDateTime startTime, String pageToken, int limit);
     Double getAverageMetricValue(String metricType, LocalDateTime startTime);
 } 
\ No newline at end of file
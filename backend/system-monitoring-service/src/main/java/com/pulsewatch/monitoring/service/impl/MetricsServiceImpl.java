@@ -1,17 +1,26 @@
 package com.pulsewatch.monitoring.service.impl;
 
+import com.pulsewatch.monitoring.dto.CursorPage;
+import com.pulsewatch.monitoring.dto.DownsampledMetricsResponse;
 import com.pulsewatch.monitoring.dto.MetricsRequest;
 import com.pulsewatch.monitoring.dto.MetricsResponse;
+import com.pulsewatch.monitoring.ingest.MetricsIngestPipeline;
 import com.pulsewatch.monitoring.model.SystemMetrics;
-import com.pulsewatch.monitoring.repository.SystemMetricsRepository;
+import com.pulsewatch.monitoring.rollup.MetricRollupService;
+import com.pulsewatch.monitoring.rollup.RollupBucket;
+import com.pulsewatch.monitoring.rollup.RollupTier;
 import com.pulsewatch.monitoring.service.MetricsService;
+import com.pulsewatch.monitoring.store.MetricStore;
+import com.pulsewatch.monitoring.store.SampleCursor;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,54 +29,61 @@ public class MetricsServiceImpl implements MetricsService {
 
     private static final Logger log = LoggerFactory.getLogger(MetricsServiceImpl.class);
 
-    private final SystemMetricsRepository metricsRepository;
+    private final MetricStore metricStore;
+    private final MetricsIngestPipeline ingestPipeline;
+    private final MetricRollupService rollupService;
+
+    @Value("${monitoring.query.max-page-size:1000}")
+    private int maxPageSize;
 
     @Override
     public void saveMetrics(MetricsRequest request) {
         log.info("Saving metrics for host: {}", request.getHost());
         
-        List<SystemMetrics> metrics = request.getMetrics().stream()
-                .map(metricData -> {
-                    SystemMetrics metric = new SystemMetrics();
-                    metric.setHost(request.getHost());
-                    metric.setTimestamp(request.getTimestamp());
-                    metric.setMetricType(SystemMetrics.MetricType.valueOf(metricData.getMetricType().toUpperCase()));
-                    metric.setMetricName(metricData.getMetricName());
-                    metric.setMetricValue(metricData.getMetricValue());
-                    metric.setUnit(metricData.getUnit());
-                    metric.setAdditionalData(metricData.getAdditionalData());
-                    return metric;
-                })
-                .collect(Collectors.toList());
+        List<SystemMetrics> metrics = toEntities(request);
         
-        metricsRepository.saveAll(metrics);
+        metricStore.append(metrics);
+        rollupService.record(metrics);
         log.info("Saved {} metrics for host: {}", metrics.size(), request.getHost());
     }
 
+    @Override
+    public boolean enqueueMetrics(MetricsRequest request) {
+        List<SystemMetrics> metrics = toEntities(request);
+        
+        boolean accepted = ingestPipeline.offer(metrics);
+        if (accepted) {
+            log.debug("Queued {} metrics for host: {}", metrics.size(), request.getHost());
+        } else {
+            log.warn("Ingest buffer full, rejected {} metrics for host: {}", metrics.size(), request.getHost());
+        }
+        return accepted;
+    }
+
     @Override
     public List<SystemMetrics> getCpuMetrics(LocalDateTime startTime) {
-        return metricsRepository.findByMetricTypeAndTimestampAfter(SystemMetrics.MetricType.CPU, startTime);
+        return metricStore.findByType(SystemMetrics.MetricType.CPU, startTime);
     }
 
     @Override
     public List<SystemMetrics> getMemoryMetrics(LocalDateTime startTime) {
-        return metricsRepository.findByMetricTypeAndTimestampAfter(SystemMetrics.MetricType.MEMORY, startTime);
+        return metricStore.findByType(SystemMetrics.MetricType.MEMORY, startTime);
     }
 
     @Override
     public List<SystemMetrics> getDiskMetrics(LocalDateTime startTime) {
-        return metricsRepository.findByMetricTypeAndTimestampAfter(SystemMetrics.MetricType.DISK, startTime);
+        return metricStore.findByType(SystemMetrics.MetricType.DISK, startTime);
     }
 
     @Override
     public List<SystemMetrics> getNetworkMetrics(LocalDateTime startTime) {
-        return metricsRepository.findByMetricTypeAndTimestampAfter(SystemMetrics.MetricType.NETWORK, startTime);
+        return metricStore.findByType(SystemMetrics.MetricType.NETWORK, startTime);
     }
 
     @Override
     public MetricsResponse getMetricsByType(String metricType, LocalDateTime startTime) {
         SystemMetrics.MetricType type = SystemMetrics.MetricType.valueOf(metricType.toUpperCase());
-        List<SystemMetrics> metrics = metricsRepository.findByMetricTypeAndTimestampAfter(type, startTime);
+        List<SystemMetrics> metrics = metricStore.findByType(type, startTime);
         
         MetricsResponse response = new MetricsResponse();
         response.setMetricType(metricType);
@@ -78,10 +94,61 @@ public class MetricsServiceImpl implements MetricsService {
         return response;
     }
 
+    @Override
+    public DownsampledMetricsResponse getDownsampledMetrics(String metricType, LocalDateTime startTime, long step) {
+        SystemMetrics.MetricType type = SystemMetrics.MetricType.valueOf(metricType.toUpperCase());
+        List<RollupBucket> buckets = rollupService.query(type, startTime, step);
+        
+        DownsampledMetricsResponse response = new DownsampledMetricsResponse();
+        response.setMetricType(metricType);
+        response.setStep(step);
+        response.setResolution(RollupTier.coarsestFor(step).map(RollupTier::getLabel).orElse("raw"));
+        response.setBuckets(buckets.stream()
+                .map(this::mapToBucket)
+                .collect(Collectors.toList()));
+        
+        return response;
+    }
+
+    @Override
+    public void streamMetricsByType(String metricType, LocalDateTime startTime, Consumer<SystemMetrics> consumer) {
+        SystemMetrics.MetricType type = SystemMetrics.MetricType.valueOf(metricType.toUpperCase());
+        metricStore.forEachByType(type, startTime, consumer);
+    }
+
+    @Override
+    public CursorPage<SystemMetrics> getMetricsPage(String metricType, LocalDateTime startTime, String pageToken, int limit) {
+        SystemMetrics.MetricType type = SystemMetrics.MetricType.valueOf(metricType.toUpperCase());
+        SampleCursor after = pageToken != null ? SampleCursor.decode(pageToken) : null;
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        
+        List<SystemMetrics> items = metricStore.findPageByType(type, startTime, after, pageSize);
+        String nextPageToken = items.size() == pageSize
+                ? SampleCursor.of(items.get(items.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(items, nextPageToken);
+    }
+
     @Override
     public Double getAverageMetricValue(String metricType, LocalDateTime startTime) {
         SystemMetrics.MetricType type = SystemMetrics.MetricType.valueOf(metricType.toUpperCase());
-        return metricsRepository.getAverageMetricValue(type, startTime);
+        return metricStore.getAverageValue(type, startTime);
+    }
+
+    private List<SystemMetrics> toEntities(MetricsRequest request) {
+        return request.getMetrics().stream()
+                .map(metricData -> {
+                    SystemMetrics metric = new SystemMetrics();
+                    metric.setHost(request.getHost());
+                    metric.setTimestamp(request.getTimestamp());
+                    metric.setMetricType(SystemMetrics.MetricType.valueOf(metricData.getMetricType().toUpperCase()));
+                    metric.setMetricName(metricData.getMetricName());
+                    metric.setMetricValue(metricData.getMetricValue());
+                    metric.setUnit(metricData.getUnit());
+                    metric.setAdditionalData(metricData.getAdditionalData());
+                    return metric;
+                })
+                .collect(Collectors.toList());
     }
 
     private MetricsResponse.MetricPoint mapToMetricPoint(SystemMetrics metric) {
@@ -91,4 +158,18 @@ public class MetricsServiceImpl implements MetricsService {
         point.setUnit(metric.getUnit());
         return point;
     }
-} 
\ No newline at end of file
+
+    private DownsampledMetricsResponse.Bucket mapToBucket(RollupBucket rollup) {
+        DownsampledMetricsResponse.Bucket bucket = new DownsampledMetricsResponse.Bucket();
+        bucket.setTimestamp(rollup.getBucketStart());
+        bucket.setHost(rollup.getHost());
+        bucket.setMetricName(rollup.getMetricName());
+        bucket.setUnit(rollup.getUnit());
+        bucket.setMin(rollup.getMinValue());
+        bucket.setMax(rollup.getMaxValue());
+        bucket.setAvg(rollup.getAverage());
+        bucket.setCount(rollup.getSampleCount());
+        bucket.setLast(rollup.getLastValue());
+        return bucket;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.pulsewatch.monitoring.store;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import com.pulsewatch.monitoring.repository.SystemMetricsBatchRepository;
+import com.pulsewatch.monitoring.repository.SystemMetricsCursorRepository;
+import com.pulsewatch.monitoring.repository.SystemMetricsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "monitoring.store.type", havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JdbcMetricStore implements MetricStore {
+
+    private final SystemMetricsRepository metricsRepository;
+    private final SystemMetricsBatchRepository batchRepository;
+    private final SystemMetricsCursorRepository cursorRepository;
+
+    @Override
+    public void append(List<SystemMetrics> metrics) {
+        batchRepository.insertAll(metrics);
+    }
+
+    @Override
+    public List<SystemMetrics> findByType(SystemMetrics.MetricType metricType, LocalDateTime startTime) {
+        return metricsRepository.findByMetricTypeAndTimestampAfter(metricType, startTime);
+    }
+
+    @Override
+    public List<SystemMetrics> findByHostAndType(String host, SystemMetrics.MetricType metricType, LocalDateTime startTime) {
+        return metricsRepository.findByHostAndMetricTypeAndTimestampAfter(host, metricType, startTime);
+    }
+
+    @Override
+    public void forEachByType(SystemMetrics.MetricType metricType, LocalDateTime startTime,
+                              Consumer<SystemMetrics> consumer) {
+        cursorRepository.forEachByType(metricType, startTime, consumer);
+    }
+
+    @Override
+    public List<SystemMetrics> findPageByType(SystemMetrics.MetricType metricType, LocalDateTime startTime,
+                                              SampleCursor after, int limit) {
+        return cursorRepository.findPageByType(metricType, startTime, after, limit);
+    }
+
+    @Override
+    public Double getAverageValue(SystemMetrics.MetricType metricType, LocalDateTime startTime) {
+        return metricsRepository.getAverageMetricValue(metricType, startTime);
+    }
+}
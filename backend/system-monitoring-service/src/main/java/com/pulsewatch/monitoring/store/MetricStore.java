@@ -0,0 +1,42 @@
+package com.pulsewatch.monitoring.store;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend for metric samples. Selected with {@code monitoring.store.type}:
+ * {@code jdbc} keeps samples as rows in {@code system_metrics}, {@code tsdb} uses the local
+ * compressed time-series engine.
+ */
+public interface MetricStore {
+
+    void append(List<SystemMetrics> metrics);
+
+    /**
+     * Samples of the given type after {@code startTime}, newest first.
+     */
+    List<SystemMetrics> findByType(SystemMetrics.MetricType metricType, LocalDateTime startTime);
+
+    /**
+     * Samples of the given host and type after {@code startTime}, newest first.
+     */
+    List<SystemMetrics> findByHostAndType(String host, SystemMetrics.MetricType metricType, LocalDateTime startTime);
+
+    /**
+     * Passes samples of the given type after {@code startTime} to {@code consumer} in
+     * {@link SampleCursor} order without holding the whole result in memory.
+     */
+    void forEachByType(SystemMetrics.MetricType metricType, LocalDateTime startTime, Consumer<SystemMetrics> consumer);
+
+    /**
+     * Up to {@code limit} samples of the given type after {@code startTime} in
+     * {@link SampleCursor} order, starting after {@code after} when it is not null.
+     */
+    List<SystemMetrics> findPageByType(SystemMetrics.MetricType metricType, LocalDateTime startTime,
+                                       SampleCursor after, int limit);
+
+    Double getAverageValue(SystemMetrics.MetricType metricType, LocalDateTime startTime);
+}
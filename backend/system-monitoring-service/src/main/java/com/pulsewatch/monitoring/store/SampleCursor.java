@@ -0,0 +1,58 @@
+package com.pulsewatch.monitoring.store;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position of a sample in the keyset order used for paging: timestamp descending, then host,
+ * metric name and row id ascending. The id breaks ties between samples of one series with the
+ * same timestamp; it is {@code null} for samples without a row id. Serialized as an opaque page
+ * token.
+ */
+public record SampleCursor(LocalDateTime timestamp, String host, String metricName, Long id) {
+
+    private static final String SEPARATOR = "\n";
+
+    public static SampleCursor of(SystemMetrics metric) {
+        return new SampleCursor(metric.getTimestamp(), metric.getHost(), metric.getMetricName(), metric.getId());
+    }
+
+    /**
+     * Whether {@code metric} sorts strictly after this cursor.
+     */
+    public boolean isBefore(SystemMetrics metric) {
+        int byTime = metric.getTimestamp().compareTo(timestamp);
+        if (byTime != 0) {
+            return byTime < 0;
+        }
+        int byHost = metric.getHost().compareTo(host);
+        if (byHost != 0) {
+            return byHost > 0;
+        }
+        int byName = metric.getMetricName().compareTo(metricName);
+        if (byName != 0) {
+            return byName > 0;
+        }
+        return id != null && metric.getId() != null && metric.getId() > id;
+    }
+
+    public String encode() {
+        // The id goes first so that the free-form names stay at the end
+        String raw = timestamp + SEPARATOR + (id != null ? id : "") + SEPARATOR + host + SEPARATOR + metricName;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SampleCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            Long id = parts[1].isEmpty() ? null : Long.valueOf(parts[1]);
+            return new SampleCursor(LocalDateTime.parse(parts[0]), parts[2], parts[3], id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+/**
+ * MSB-first reader over a buffer produced by {@link BitWriter}.
+ */
+final class BitReader {
+
+    private final byte[] data;
+    private int position;
+
+    BitReader(byte[] data) {
+        this.data = data;
+    }
+
+    boolean readBit() {
+        int byteIndex = position >>> 3;
+        if (byteIndex >= data.length) {
+            throw new IllegalStateException("Read past end of chunk");
+        }
+        boolean bit = (data[byteIndex] & (0x80 >>> (position & 7))) != 0;
+        position++;
+        return bit;
+    }
+
+    long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+}
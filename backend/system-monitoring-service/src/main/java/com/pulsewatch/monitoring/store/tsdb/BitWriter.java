@@ -0,0 +1,40 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+import java.util.Arrays;
+
+/**
+ * Growable MSB-first bit buffer.
+ */
+final class BitWriter {
+
+    private byte[] buffer = new byte[32];
+    private int bitLength;
+
+    void writeBit(boolean bit) {
+        int byteIndex = bitLength >>> 3;
+        if (byteIndex == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        if (bit) {
+            buffer[byteIndex] |= (byte) (0x80 >>> (bitLength & 7));
+        }
+        bitLength++;
+    }
+
+    /**
+     * Writes the lowest {@code count} bits of {@code value}, most significant first.
+     */
+    void writeBits(long value, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            writeBit(((value >>> i) & 1L) != 0);
+        }
+    }
+
+    int bitLength() {
+        return bitLength;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, (bitLength + 7) >>> 3);
+    }
+}
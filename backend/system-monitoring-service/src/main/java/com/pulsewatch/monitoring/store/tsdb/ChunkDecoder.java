@@ -0,0 +1,64 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+/**
+ * Decodes chunks written by {@link ChunkEncoder}.
+ */
+final class ChunkDecoder {
+
+    @FunctionalInterface
+    interface SampleVisitor {
+        void accept(long timestamp, double value);
+    }
+
+    private ChunkDecoder() {
+    }
+
+    static void decode(byte[] data, int count, SampleVisitor visitor) {
+        if (count == 0) {
+            return;
+        }
+        BitReader bits = new BitReader(data);
+
+        long timestamp = bits.readBits(64);
+        long valueBits = bits.readBits(64);
+        visitor.accept(timestamp, Double.longBitsToDouble(valueBits));
+
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(bits);
+            timestamp += delta;
+
+            if (bits.readBit()) {
+                if (bits.readBit()) {
+                    leading = (int) bits.readBits(5);
+                    int significant = (int) bits.readBits(6);
+                    if (significant == 0) {
+                        significant = 64;
+                    }
+                    trailing = 64 - leading - significant;
+                }
+                long xor = bits.readBits(64 - leading - trailing) << trailing;
+                valueBits ^= xor;
+            }
+            visitor.accept(timestamp, Double.longBitsToDouble(valueBits));
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader bits) {
+        if (!bits.readBit()) {
+            return 0;
+        }
+        if (!bits.readBit()) {
+            return bits.readBits(7) - 63;
+        }
+        if (!bits.readBit()) {
+            return bits.readBits(9) - 255;
+        }
+        if (!bits.readBit()) {
+            return bits.readBits(12) - 2047;
+        }
+        return bits.readBits(64);
+    }
+}
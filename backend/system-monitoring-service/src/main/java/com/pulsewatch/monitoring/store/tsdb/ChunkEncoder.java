@@ -0,0 +1,100 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+/**
+ * Appends samples of one series to a compressed chunk.
+ * <p>
+ * Timestamps (epoch millis) are stored as delta-of-deltas in variable-width buckets, and values as
+ * the XOR with the previous value, reusing the previous leading/trailing-zero window when it fits.
+ * Agents report on a fixed interval, so most samples cost one bit for the timestamp and a few bits
+ * for the value. {@link ChunkDecoder} reverses the encoding.
+ */
+final class ChunkEncoder {
+
+    private final BitWriter bits = new BitWriter();
+
+    private int count;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+    private long previousTimestamp;
+    private long previousDelta;
+    private long previousValueBits;
+    private int previousLeading = -1;
+    private int previousTrailing;
+
+    void append(long timestamp, double value) {
+        long valueBits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            bits.writeBits(timestamp, 64);
+            bits.writeBits(valueBits, 64);
+        } else {
+            long delta = timestamp - previousTimestamp;
+            writeDeltaOfDelta(delta - previousDelta);
+            writeValue(valueBits);
+            previousDelta = delta;
+        }
+        previousTimestamp = timestamp;
+        previousValueBits = valueBits;
+        minTimestamp = Math.min(minTimestamp, timestamp);
+        maxTimestamp = Math.max(maxTimestamp, timestamp);
+        count++;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long minTimestamp() {
+        return minTimestamp;
+    }
+
+    long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    byte[] toByteArray() {
+        return bits.toByteArray();
+    }
+
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            bits.writeBit(false);
+        } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+            bits.writeBits(0b10, 2);
+            bits.writeBits(deltaOfDelta + 63, 7);
+        } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+            bits.writeBits(0b110, 3);
+            bits.writeBits(deltaOfDelta + 255, 9);
+        } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+            bits.writeBits(0b1110, 4);
+            bits.writeBits(deltaOfDelta + 2047, 12);
+        } else {
+            bits.writeBits(0b1111, 4);
+            bits.writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private void writeValue(long valueBits) {
+        long xor = valueBits ^ previousValueBits;
+        if (xor == 0) {
+            bits.writeBit(false);
+            return;
+        }
+        bits.writeBit(true);
+
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+            bits.writeBit(false);
+            bits.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+        } else {
+            int significant = 64 - leading - trailing;
+            bits.writeBit(true);
+            bits.writeBits(leading, 5);
+            // 64 significant bits does not fit in 6 bits and is stored as 0
+            bits.writeBits(significant == 64 ? 0 : significant, 6);
+            bits.writeBits(xor >>> trailing, significant);
+            previousLeading = leading;
+            previousTrailing = trailing;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copy of the open head chunks, rewritten on every flush so samples that have not filled a chunk
+ * yet survive a crash without being sealed early. Each record is the series id, epoch hour,
+ * sample count and payload length followed by the encoded head. A new copy is written beside the
+ * old one and renamed over it, so a reader always sees one whole copy.
+ */
+final class HeadCheckpoint {
+
+    static final String FILE = "heads.dat";
+
+    record Head(int seriesId, long epochHour, int count, byte[] payload) {
+    }
+
+    private HeadCheckpoint() {
+    }
+
+    static void write(Path directory, List<Head> heads) throws IOException {
+        if (heads.isEmpty()) {
+            delete(directory);
+            return;
+        }
+        Path temporary = directory.resolve(FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            for (Head head : heads) {
+                out.writeInt(head.seriesId());
+                out.writeLong(head.epochHour());
+                out.writeInt(head.count());
+                out.writeInt(head.payload().length);
+                out.write(head.payload());
+            }
+            out.flush();
+            channel.force(false);
+        }
+        Files.move(temporary, directory.resolve(FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static List<Head> read(Path directory) throws IOException {
+        List<Head> heads = new ArrayList<>();
+        Path file = directory.resolve(FILE);
+        if (!Files.exists(file)) {
+            return heads;
+        }
+        ByteArrayInputStream bytes = new ByteArrayInputStream(Files.readAllBytes(file));
+        DataInputStream in = new DataInputStream(bytes);
+        try {
+            while (bytes.available() > 0) {
+                int seriesId = in.readInt();
+                long epochHour = in.readLong();
+                int count = in.readInt();
+                byte[] payload = new byte[in.readInt()];
+                in.readFully(payload);
+                heads.add(new Head(seriesId, epochHour, count, payload));
+            }
+        } catch (EOFException e) {
+            // Only possible if the file was cut short outside the rename; keep the whole records
+        }
+        return heads;
+    }
+
+    static void delete(Path directory) throws IOException {
+        Files.deleteIfExists(directory.resolve(FILE));
+    }
+}
@@ -0,0 +1,132 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One hour of sealed chunks in a single append-only file named after its epoch hour.
+ * Each record is a fixed header (series id, min/max timestamp, sample count, payload length)
+ * followed by the encoded chunk. Headers are kept in memory so queries can pick chunks by
+ * series and time range and read only those payloads from disk.
+ */
+final class Partition implements Closeable {
+
+    static final long DURATION_MS = 3_600_000L;
+    static final String FILE_SUFFIX = ".chunks";
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    record ChunkRef(int seriesId, long minTimestamp, long maxTimestamp, int count, long offset, int length) {
+    }
+
+    private final long epochHour;
+    private final FileChannel channel;
+    private final List<ChunkRef> chunks = new ArrayList<>();
+    private long size;
+
+    private Partition(long epochHour, FileChannel channel) {
+        this.epochHour = epochHour;
+        this.channel = channel;
+    }
+
+    static Path fileFor(Path directory, long epochHour) {
+        return directory.resolve(epochHour + FILE_SUFFIX);
+    }
+
+    static Partition open(Path directory, long epochHour) throws IOException {
+        FileChannel channel = FileChannel.open(fileFor(directory, epochHour),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Partition partition = new Partition(epochHour, channel);
+        partition.scan();
+        return partition;
+    }
+
+    long epochHour() {
+        return epochHour;
+    }
+
+    long startMs() {
+        return epochHour * DURATION_MS;
+    }
+
+    long endMs() {
+        return startMs() + DURATION_MS;
+    }
+
+    List<ChunkRef> chunks() {
+        return Collections.unmodifiableList(chunks);
+    }
+
+    void write(int seriesId, ChunkEncoder chunk) throws IOException {
+        byte[] payload = chunk.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        buffer.putInt(seriesId)
+                .putLong(chunk.minTimestamp())
+                .putLong(chunk.maxTimestamp())
+                .putInt(chunk.count())
+                .putInt(payload.length)
+                .put(payload)
+                .flip();
+        long offset = size;
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        chunks.add(new ChunkRef(seriesId, chunk.minTimestamp(), chunk.maxTimestamp(), chunk.count(),
+                offset + HEADER_BYTES, payload.length));
+        size = offset + HEADER_BYTES + payload.length;
+    }
+
+    byte[] read(ChunkRef ref) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ref.length());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, ref.offset() + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of partition " + epochHour);
+            }
+        }
+        return buffer.array();
+    }
+
+    void sync() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void scan() throws IOException {
+        long fileSize = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= fileSize) {
+            header.clear();
+            while (header.hasRemaining()) {
+                channel.read(header, position + header.position());
+            }
+            header.flip();
+            int seriesId = header.getInt();
+            long minTimestamp = header.getLong();
+            long maxTimestamp = header.getLong();
+            int count = header.getInt();
+            int length = header.getInt();
+            if (length < 0 || position + HEADER_BYTES + length > fileSize) {
+                break;
+            }
+            chunks.add(new ChunkRef(seriesId, minTimestamp, maxTimestamp, count, position + HEADER_BYTES, length));
+            position += HEADER_BYTES + length;
+        }
+        if (position < fileSize) {
+            // Torn write from an unclean shutdown; drop the partial record
+            channel.truncate(position);
+        }
+        size = position;
+    }
+}
@@ -0,0 +1,121 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns series keys to dense integer ids so chunks only carry an int instead of the host,
+ * type and name strings. The dictionary is an append-only file replayed on startup.
+ * Callers are expected to synchronize access.
+ */
+final class SeriesIndex implements Closeable {
+
+    record Series(int id, SeriesKey key, String unit) {
+    }
+
+    private final Map<SeriesKey, Series> byKey = new HashMap<>();
+    private final List<Series> byId = new ArrayList<>();
+    private final DataOutputStream out;
+
+    private SeriesIndex(Path file) throws IOException {
+        if (Files.exists(file)) {
+            load(file);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile(), true)));
+    }
+
+    static SeriesIndex open(Path file) throws IOException {
+        return new SeriesIndex(file);
+    }
+
+    Series intern(String host, SystemMetrics.MetricType metricType, String metricName, String unit) {
+        SeriesKey key = new SeriesKey(host, metricType, metricName);
+        Series series = byKey.get(key);
+        if (series != null) {
+            return series;
+        }
+        series = new Series(byId.size(), key, unit);
+        try {
+            out.writeInt(series.id());
+            out.writeUTF(host);
+            out.writeUTF(metricType.name());
+            out.writeUTF(metricName);
+            out.writeUTF(unit != null ? unit : "");
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to persist series " + key, e);
+        }
+        register(series);
+        return series;
+    }
+
+    Series get(int id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Series of the given type, optionally restricted to one host.
+     */
+    List<Series> find(SystemMetrics.MetricType metricType, String host) {
+        List<Series> result = new ArrayList<>();
+        for (Series series : byId) {
+            if (series.key().metricType() == metricType && (host == null || host.equals(series.key().host()))) {
+                result.add(series);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void load(Path file) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        ByteArrayInputStream bytes = new ByteArrayInputStream(content);
+        DataInputStream in = new DataInputStream(bytes);
+        int validLength = 0;
+        try {
+            while (bytes.available() > 0) {
+                int id = in.readInt();
+                String host = in.readUTF();
+                SystemMetrics.MetricType metricType = SystemMetrics.MetricType.valueOf(in.readUTF());
+                String metricName = in.readUTF();
+                String unit = in.readUTF();
+                register(new Series(id, new SeriesKey(host, metricType, metricName), unit.isEmpty() ? null : unit));
+                validLength = content.length - bytes.available();
+            }
+        } catch (EOFException e) {
+            // Torn write from an unclean shutdown; drop the partial record
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+            }
+        }
+    }
+
+    private void register(Series series) {
+        if (series.id() != byId.size()) {
+            throw new IllegalStateException("Series dictionary is corrupt at id " + series.id());
+        }
+        byId.add(series);
+        byKey.put(series.key(), series);
+    }
+}
@@ -0,0 +1,9 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+
+/**
+ * Identity of a series: every sample with the same host, type and name belongs to it.
+ */
+record SeriesKey(String host, SystemMetrics.MetricType metricType, String metricName) {
+}
@@ -0,0 +1,364 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import com.pulsewatch.monitoring.store.MetricStore;
+import com.pulsewatch.monitoring.store.SampleCursor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Local time-series engine for metric samples.
+ * <p>
+ * Series keys are interned to integer ids by {@link SeriesIndex}. Incoming samples go into an
+ * in-memory head chunk per series and hour; a head is sealed into its hourly {@link Partition}
+ * file once it holds {@code chunk-size} samples or its hour has closed, and all heads are sealed on
+ * shutdown. Every {@code flush-interval-ms} the heads still open are saved to a
+ * {@link HeadCheckpoint} and restored on startup, so a crash loses at most one flush interval.
+ * Queries only read and decode chunks whose series and time range match. {@code additionalData}
+ * is not retained.
+ */
+@Component
+@ConditionalOnProperty(name = "monitoring.store.type", havingValue = "tsdb")
+public class TimeSeriesMetricStore implements MetricStore {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeSeriesMetricStore.class);
+
+    private static final String SERIES_FILE = "series.dat";
+
+    private static final Comparator<SystemMetrics> SAMPLE_ORDER = Comparator
+            .comparing(SystemMetrics::getTimestamp).reversed()
+            .thenComparing(SystemMetrics::getHost)
+            .thenComparing(SystemMetrics::getMetricName);
+
+    private record HeadKey(int seriesId, long epochHour) {
+    }
+
+    private final Path dataDirectory;
+    private final int chunkSize;
+    private final LongSupplier clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, Partition> partitions = new TreeMap<>();
+    private final Map<HeadKey, ChunkEncoder> heads = new HashMap<>();
+    private SeriesIndex seriesIndex;
+
+    public TimeSeriesMetricStore(@Value("${monitoring.store.tsdb.data-dir:data/tsdb}") String dataDirectory,
+                                 @Value("${monitoring.store.tsdb.chunk-size:120}") int chunkSize) {
+        this(dataDirectory, chunkSize, System::currentTimeMillis);
+    }
+
+    TimeSeriesMetricStore(String dataDirectory, int chunkSize, LongSupplier clock) {
+        this.dataDirectory = Paths.get(dataDirectory);
+        this.chunkSize = chunkSize;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(dataDirectory);
+        seriesIndex = SeriesIndex.open(dataDirectory.resolve(SERIES_FILE));
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dataDirectory, "*" + Partition.FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long epochHour = Long.parseLong(name.substring(0, name.length() - Partition.FILE_SUFFIX.length()));
+                partitions.put(epochHour, Partition.open(dataDirectory, epochHour));
+            }
+        }
+        restoreHeads();
+        log.info("Opened time-series store at {} with {} partitions and {} open heads",
+                dataDirectory.toAbsolutePath(), partitions.size(), heads.size());
+    }
+
+    @Override
+    public void append(List<SystemMetrics> metrics) {
+        lock.writeLock().lock();
+        try {
+            for (SystemMetrics metric : metrics) {
+                SeriesIndex.Series series = seriesIndex.intern(metric.getHost(), metric.getMetricType(),
+                        metric.getMetricName(), metric.getUnit());
+                long timestamp = toEpochMillis(metric.getTimestamp());
+                HeadKey key = new HeadKey(series.id(), Math.floorDiv(timestamp, Partition.DURATION_MS));
+
+                ChunkEncoder head = heads.computeIfAbsent(key, k -> new ChunkEncoder());
+                head.append(timestamp, metric.getMetricValue());
+                if (head.count() >= chunkSize) {
+                    seal(key, head);
+                    heads.remove(key);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append metrics", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Seals the heads of closed hours and checkpoints the rest, leaving open heads to fill up to
+     * {@code chunk-size}.
+     */
+    @Scheduled(fixedDelayString = "${monitoring.store.tsdb.flush-interval-ms:60000}")
+    public void flush() {
+        long currentHour = Math.floorDiv(clock.getAsLong(), Partition.DURATION_MS);
+        flush(key -> key.epochHour() < currentHour);
+    }
+
+    private void flush(Predicate<HeadKey> sealing) {
+        lock.writeLock().lock();
+        try {
+            List<HeadCheckpoint.Head> open = new ArrayList<>();
+            Iterator<Map.Entry<HeadKey, ChunkEncoder>> iterator = heads.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<HeadKey, ChunkEncoder> entry = iterator.next();
+                HeadKey key = entry.getKey();
+                ChunkEncoder head = entry.getValue();
+                if (sealing.test(key)) {
+                    seal(key, head);
+                    iterator.remove();
+                } else {
+                    open.add(new HeadCheckpoint.Head(key.seriesId(), key.epochHour(), head.count(), head.toByteArray()));
+                }
+            }
+            // Sealed chunks are durable before the checkpoint that no longer holds them replaces the old one
+            for (Partition partition : partitions.values()) {
+                partition.sync();
+            }
+            HeadCheckpoint.write(dataDirectory, open);
+        } catch (IOException e) {
+            log.error("Failed to flush time-series store: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SystemMetrics> findByType(SystemMetrics.MetricType metricType, LocalDateTime startTime) {
+        return query(metricType, null, startTime);
+    }
+
+    @Override
+    public List<SystemMetrics> findByHostAndType(String host, SystemMetrics.MetricType metricType, LocalDateTime startTime) {
+        return query(metricType, host, startTime);
+    }
+
+    @Override
+    public void forEachByType(SystemMetrics.MetricType metricType, LocalDateTime startTime,
+                              Consumer<SystemMetrics> consumer) {
+        scan(metricType, null, toEpochMillis(startTime), Long.MAX_VALUE, metric -> {
+            consumer.accept(metric);
+            return true;
+        });
+    }
+
+    @Override
+    public List<SystemMetrics> findPageByType(SystemMetrics.MetricType metricType, LocalDateTime startTime,
+                                              SampleCursor after, int limit) {
+        List<SystemMetrics> page = new ArrayList<>(limit);
+        long untilHour = after == null
+                ? Long.MAX_VALUE
+                : Math.floorDiv(toEpochMillis(after.timestamp()), Partition.DURATION_MS);
+        scan(metricType, null, toEpochMillis(startTime), untilHour, metric -> {
+            if (after != null && !after.isBefore(metric)) {
+                return true;
+            }
+            page.add(metric);
+            return page.size() < limit;
+        });
+        return page;
+    }
+
+    @Override
+    public Double getAverageValue(SystemMetrics.MetricType metricType, LocalDateTime startTime) {
+        List<SystemMetrics> metrics = query(metricType, null, startTime);
+        if (metrics.isEmpty()) {
+            return null;
+        }
+        double sum = 0;
+        for (SystemMetrics metric : metrics) {
+            sum += metric.getMetricValue();
+        }
+        return sum / metrics.size();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        flush(key -> true);
+        for (Partition partition : partitions.values()) {
+            partition.close();
+        }
+        seriesIndex.close();
+        log.info("Closed time-series store at {}", dataDirectory.toAbsolutePath());
+    }
+
+    private List<SystemMetrics> query(SystemMetrics.MetricType metricType, String host, LocalDateTime startTime) {
+        List<SystemMetrics> result = new ArrayList<>();
+        scan(metricType, host, toEpochMillis(startTime), Long.MAX_VALUE, metric -> {
+            result.add(metric);
+            return true;
+        });
+        return result;
+    }
+
+    /**
+     * Visits matching samples in {@link SampleCursor} order, starting at {@code untilHour} and
+     * walking back to the hour of {@code startMs}. Only one hour is decoded at a time and the read
+     * lock is released between hours, so long scans neither hold the whole result nor block
+     * writers. Stops early when the visitor returns {@code false}.
+     */
+    private void scan(SystemMetrics.MetricType metricType, String host, long startMs, long untilHour,
+                      Predicate<SystemMetrics> visitor) {
+        long firstHour = Math.floorDiv(startMs, Partition.DURATION_MS);
+        Long hour;
+        lock.readLock().lock();
+        try {
+            hour = latestHourAtOrBefore(untilHour);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        while (hour != null && hour >= firstHour) {
+            List<SystemMetrics> samples = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                Map<Integer, SeriesIndex.Series> matching = new HashMap<>();
+                for (SeriesIndex.Series series : seriesIndex.find(metricType, host)) {
+                    matching.put(series.id(), series);
+                }
+                readHour(hour, matching, startMs, samples);
+                hour = latestHourAtOrBefore(hour - 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read metrics", e);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            samples.sort(SAMPLE_ORDER);
+            for (SystemMetrics sample : samples) {
+                if (!visitor.test(sample)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void readHour(long hour, Map<Integer, SeriesIndex.Series> matching, long startMs,
+                          List<SystemMetrics> result) throws IOException {
+        if (matching.isEmpty()) {
+            return;
+        }
+        Partition partition = partitions.get(hour);
+        if (partition != null) {
+            for (Partition.ChunkRef ref : partition.chunks()) {
+                SeriesIndex.Series series = matching.get(ref.seriesId());
+                if (series != null && ref.maxTimestamp() > startMs) {
+                    decodeInto(partition.read(ref), ref.count(), series, startMs, result);
+                }
+            }
+        }
+        for (Map.Entry<HeadKey, ChunkEncoder> entry : heads.entrySet()) {
+            SeriesIndex.Series series = matching.get(entry.getKey().seriesId());
+            ChunkEncoder head = entry.getValue();
+            if (entry.getKey().epochHour() == hour && series != null && head.maxTimestamp() > startMs) {
+                decodeInto(head.toByteArray(), head.count(), series, startMs, result);
+            }
+        }
+    }
+
+    private Long latestHourAtOrBefore(long hour) {
+        Long latest = partitions.floorKey(hour);
+        for (HeadKey key : heads.keySet()) {
+            if (key.epochHour() <= hour && (latest == null || key.epochHour() > latest)) {
+                latest = key.epochHour();
+            }
+        }
+        return latest;
+    }
+
+    private void decodeInto(byte[] chunk, int count, SeriesIndex.Series series, long startMs, List<SystemMetrics> result) {
+        ChunkDecoder.decode(chunk, count, (timestamp, value) -> {
+            if (timestamp > startMs) {
+                SystemMetrics metric = new SystemMetrics();
+                metric.setHost(series.key().host());
+                metric.setMetricType(series.key().metricType());
+                metric.setMetricName(series.key().metricName());
+                metric.setMetricValue(value);
+                metric.setUnit(series.unit());
+                metric.setTimestamp(fromEpochMillis(timestamp));
+                result.add(metric);
+            }
+        });
+    }
+
+    /**
+     * Reloads the checkpointed heads. A head that kept filling and was sealed after the checkpoint
+     * was taken is already covered by a sealed chunk of its series, and is skipped.
+     */
+    private void restoreHeads() throws IOException {
+        for (HeadCheckpoint.Head saved : HeadCheckpoint.read(dataDirectory)) {
+            ChunkEncoder head = new ChunkEncoder();
+            ChunkDecoder.decode(saved.payload(), saved.count(), head::append);
+            if (!isSealed(saved.seriesId(), saved.epochHour(), head)) {
+                heads.put(new HeadKey(saved.seriesId(), saved.epochHour()), head);
+            }
+        }
+    }
+
+    private boolean isSealed(int seriesId, long epochHour, ChunkEncoder head) {
+        Partition partition = partitions.get(epochHour);
+        if (partition == null) {
+            return false;
+        }
+        for (Partition.ChunkRef ref : partition.chunks()) {
+            if (ref.seriesId() == seriesId && ref.minTimestamp() <= head.minTimestamp()
+                    && ref.maxTimestamp() >= head.maxTimestamp()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void seal(HeadKey key, ChunkEncoder chunk) throws IOException {
+        Partition partition = partitions.get(key.epochHour());
+        if (partition == null) {
+            partition = Partition.open(dataDirectory, key.epochHour());
+            partitions.put(key.epochHour(), partition);
+        }
+        partition.write(key.seriesId(), chunk);
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromEpochMillis(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,120 @@
+package com.pulsewatch.monitoring.ingest;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import com.pulsewatch.monitoring.rollup.MetricRollupService;
+import com.pulsewatch.monitoring.store.MetricStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class MetricsIngestPipelineTest {
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private MetricsIngestPipeline pipeline;
+
+    private MetricsIngestPipeline createPipeline(int capacity, int batchSize) {
+        MetricStore store = mock(MetricStore.class);
+        doAnswer(invocation -> {
+            List<?> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            return null;
+        }).when(store).append(anyList());
+        return new MetricsIngestPipeline(store, mock(MetricRollupService.class), new SimpleMeterRegistry(), capacity, batchSize, 50, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void testBufferedMetricsAreWrittenInBatches() throws InterruptedException {
+        pipeline = createPipeline(1000, 10);
+        pipeline.start();
+
+        assertTrue(pipeline.offer(metrics(25)));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (batchSizes.stream().mapToInt(Integer::intValue).sum() < 25 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(25, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+    }
+
+    @Test
+    void testOfferIsRejectedWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MetricStore store = mock(MetricStore.class);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return null;
+        }).when(store).append(anyList());
+        pipeline = new MetricsIngestPipeline(store, mock(MetricRollupService.class), new SimpleMeterRegistry(), 5, 10, 50, 1);
+        pipeline.start();
+
+        // The only writer takes the first request and blocks inside the insert
+        assertTrue(pipeline.offer(metrics(5)));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        assertTrue(pipeline.offer(metrics(4)));
+        assertFalse(pipeline.offer(metrics(2)), "request larger than the free space must be rejected");
+        assertEquals(4, pipeline.getBufferedCount(), "rejected request must not be partially queued");
+        assertTrue(pipeline.offer(metrics(1)));
+
+        release.countDown();
+    }
+
+    @Test
+    void testOfferIsRejectedAfterStop() {
+        MetricsIngestPipeline stopped = createPipeline(1000, 10);
+        stopped.start();
+        stopped.stop();
+
+        assertFalse(stopped.offer(metrics(1)));
+        assertEquals(0, stopped.getBufferedCount());
+    }
+
+    @Test
+    void testRemainingMetricsAreFlushedOnStop() {
+        pipeline = createPipeline(1000, 500);
+        pipeline.start();
+
+        assertTrue(pipeline.offer(metrics(42)));
+        pipeline.stop();
+        pipeline = null;
+
+        assertEquals(42, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    private List<SystemMetrics> metrics(int count) {
+        List<SystemMetrics> metrics = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SystemMetrics metric = new SystemMetrics();
+            metric.setHost("test-server");
+            metric.setMetricType(SystemMetrics.MetricType.CPU);
+            metric.setMetricName("cpu_usage");
+            metric.setMetricValue((double) i);
+            metric.setUnit("%");
+            metric.setTimestamp(LocalDateTime.now());
+            metrics.add(metric);
+        }
+        return metrics;
+    }
+}
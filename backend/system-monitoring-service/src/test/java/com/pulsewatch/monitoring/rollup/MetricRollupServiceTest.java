@@ -0,0 +1,118 @@
+package com.pulsewatch.monitoring.rollup;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import com.pulsewatch.monitoring.repository.MetricRollupRepository;
+import com.pulsewatch.monitoring.store.MetricStore;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MetricRollupServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 15, 9, 0);
+
+    private final MetricRollupRepository rollupRepository = mock(MetricRollupRepository.class);
+    private final MetricStore metricStore = mock(MetricStore.class);
+    private final MetricRollupService rollupService = new MetricRollupService(rollupRepository, metricStore);
+
+    @Test
+    void testCoarsestTierIsChosenForStep() {
+        assertEquals(RollupTier.ONE_HOUR, RollupTier.coarsestFor(86_400).orElseThrow());
+        assertEquals(RollupTier.TEN_MINUTES, RollupTier.coarsestFor(1_800).orElseThrow());
+        assertEquals(RollupTier.ONE_MINUTE, RollupTier.coarsestFor(300).orElseThrow());
+        assertTrue(RollupTier.coarsestFor(30).isEmpty());
+        assertTrue(RollupTier.coarsestFor(90).isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecordFoldsSamplesIntoEveryTier() {
+        // 30 samples, one every 10 seconds: five 1m buckets, one 10m bucket, one 1h bucket
+        rollupService.record(samples(30, 10));
+
+        ArgumentCaptor<Collection<RollupBucket>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository).upsertAll(eq(RollupTier.ONE_MINUTE), captor.capture());
+        List<RollupBucket> minutes = new ArrayList<>(captor.getValue());
+        assertEquals(5, minutes.size());
+        assertEquals(START, minutes.get(0).getBucketStart());
+        assertEquals(6, minutes.get(0).getSampleCount());
+        assertEquals(0.0, minutes.get(0).getMinValue());
+        assertEquals(5.0, minutes.get(0).getMaxValue());
+        assertEquals(5.0, minutes.get(0).getLastValue());
+
+        verify(rollupRepository).upsertAll(eq(RollupTier.TEN_MINUTES), captor.capture());
+        RollupBucket tenMinutes = captor.getValue().iterator().next();
+        assertEquals(30, tenMinutes.getSampleCount());
+        assertEquals(14.5, tenMinutes.getAverage());
+
+        verify(rollupRepository).upsertAll(eq(RollupTier.ONE_HOUR), any());
+    }
+
+    @Test
+    void testQueryRebucketsFromCoarsestTier() {
+        List<RollupBucket> stored = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            RollupBucket bucket = new RollupBucket("server-01", SystemMetrics.MetricType.CPU, "cpu_usage", "%",
+                    START.plusMinutes(i * 10L));
+            bucket.add(i, START.plusMinutes(i * 10L + 5));
+            bucket.add(i + 10, START.plusMinutes(i * 10L + 6));
+            stored.add(bucket);
+        }
+        when(rollupRepository.findBuckets(RollupTier.TEN_MINUTES, SystemMetrics.MetricType.CPU, START))
+                .thenReturn(stored);
+
+        List<RollupBucket> buckets = rollupService.query(SystemMetrics.MetricType.CPU, START.plusMinutes(7), 1_800);
+
+        assertEquals(2, buckets.size());
+        assertEquals(START, buckets.get(0).getBucketStart());
+        assertEquals(6, buckets.get(0).getSampleCount());
+        assertEquals(0.0, buckets.get(0).getMinValue());
+        assertEquals(12.0, buckets.get(0).getMaxValue());
+        assertEquals(12.0, buckets.get(0).getLastValue());
+        assertEquals(START.plusMinutes(30), buckets.get(1).getBucketStart());
+        verifyNoInteractions(metricStore);
+    }
+
+    @Test
+    void testFineStepIsComputedFromRawSamples() {
+        when(metricStore.findByType(SystemMetrics.MetricType.CPU, START.minus(1, ChronoUnit.MICROS))).thenReturn(samples(12, 10));
+
+        List<RollupBucket> buckets = rollupService.query(SystemMetrics.MetricType.CPU, START, 30);
+
+        assertEquals(4, buckets.size());
+        assertEquals(3, buckets.get(0).getSampleCount());
+        assertEquals(1.0, buckets.get(0).getAverage());
+        verify(rollupRepository, never()).findBuckets(any(), any(), any());
+    }
+
+    @Test
+    void testNonPositiveStepIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> rollupService.query(SystemMetrics.MetricType.CPU, START, 0));
+    }
+
+    private List<SystemMetrics> samples(int count, int intervalSeconds) {
+        List<SystemMetrics> metrics = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SystemMetrics metric = new SystemMetrics();
+            metric.setHost("server-01");
+            metric.setMetricType(SystemMetrics.MetricType.CPU);
+            metric.setMetricName("cpu_usage");
+            metric.setMetricValue((double) i);
+            metric.setUnit("%");
+            metric.setTimestamp(START.plusSeconds((long) i * intervalSeconds));
+            metrics.add(metric);
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,60 @@
+package com.pulsewatch.monitoring.store;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampleCursorTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 1, 15, 9, 30);
+
+    @Test
+    void testTokenRoundTripsWithAndWithoutId() {
+        SampleCursor withId = new SampleCursor(TIME, "server-01", "cpu_usage", 42L);
+        assertEquals(withId, SampleCursor.decode(withId.encode()));
+
+        SampleCursor withoutId = new SampleCursor(TIME, "server-01", "cpu_usage", null);
+        assertEquals(withoutId, SampleCursor.decode(withoutId.encode()));
+    }
+
+    @Test
+    void testIdBreaksTiesBetweenSamplesWithSameKey() {
+        SampleCursor cursor = SampleCursor.of(metric(7L, TIME, "server-01", "cpu_usage"));
+
+        assertTrue(cursor.isBefore(metric(8L, TIME, "server-01", "cpu_usage")));
+        assertFalse(cursor.isBefore(metric(7L, TIME, "server-01", "cpu_usage")));
+        assertFalse(cursor.isBefore(metric(6L, TIME, "server-01", "cpu_usage")));
+    }
+
+    @Test
+    void testKeysetOrderComesBeforeId() {
+        SampleCursor cursor = SampleCursor.of(metric(7L, TIME, "server-01", "cpu_usage"));
+
+        assertTrue(cursor.isBefore(metric(1L, TIME.minusSeconds(1), "server-01", "cpu_usage")));
+        assertFalse(cursor.isBefore(metric(100L, TIME.plusSeconds(1), "server-01", "cpu_usage")));
+        assertTrue(cursor.isBefore(metric(1L, TIME, "server-02", "cpu_usage")));
+        assertTrue(cursor.isBefore(metric(1L, TIME, "server-01", "cpu_usage_total")));
+        assertFalse(cursor.isBefore(metric(100L, TIME, "server-01", "cpu")));
+    }
+
+    @Test
+    void testSamplesWithoutIdTieWithCursor() {
+        SampleCursor cursor = SampleCursor.of(metric(null, TIME, "server-01", "cpu_usage"));
+
+        assertNull(cursor.id());
+        assertFalse(cursor.isBefore(metric(null, TIME, "server-01", "cpu_usage")));
+        assertTrue(cursor.isBefore(metric(null, TIME.minusSeconds(1), "server-01", "cpu_usage")));
+    }
+
+    @Test
+    void testMalformedTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SampleCursor.decode("not a token"));
+    }
+
+    private static SystemMetrics metric(Long id, LocalDateTime timestamp, String host, String metricName) {
+        return new SystemMetrics(id, host, SystemMetrics.MetricType.CPU, metricName, 50.0, "%", timestamp, null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkEncoderTest {
+
+    @Test
+    void testRegularSamplesRoundTrip() {
+        ChunkEncoder encoder = new ChunkEncoder();
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < 120; i++) {
+            encoder.append(start + i * 10_000L, 40.0 + (i % 7));
+        }
+
+        List<long[]> timestamps = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        ChunkDecoder.decode(encoder.toByteArray(), encoder.count(), (timestamp, value) -> {
+            timestamps.add(new long[]{timestamp});
+            values.add(value);
+        });
+
+        assertEquals(120, values.size());
+        for (int i = 0; i < 120; i++) {
+            assertEquals(start + i * 10_000L, timestamps.get(i)[0]);
+            assertEquals(40.0 + (i % 7), values.get(i));
+        }
+        assertEquals(start, encoder.minTimestamp());
+        assertEquals(start + 119 * 10_000L, encoder.maxTimestamp());
+        // 120 raw samples take 1920 bytes; a fixed interval should compress far below that
+        assertTrue(encoder.toByteArray().length < 200);
+    }
+
+    @Test
+    void testIrregularSamplesRoundTrip() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 200; trial++) {
+            ChunkEncoder encoder = new ChunkEncoder();
+            int count = 1 + random.nextInt(200);
+            long[] timestamps = new long[count];
+            double[] values = new double[count];
+            long timestamp = 1_700_000_000_000L;
+            for (int i = 0; i < count; i++) {
+                timestamp += switch (random.nextInt(4)) {
+                    case 0 -> 10_000L;
+                    case 1 -> random.nextInt(5_000) - 2_500;
+                    case 2 -> -random.nextInt(100_000);
+                    default -> random.nextLong() >>> 30;
+                };
+                timestamps[i] = timestamp;
+                values[i] = switch (random.nextInt(4)) {
+                    case 0 -> i > 0 ? values[i - 1] : 0.0;
+                    case 1 -> random.nextDouble() * 100;
+                    case 2 -> Double.longBitsToDouble(random.nextLong());
+                    default -> Math.round(random.nextDouble() * 100);
+                };
+                encoder.append(timestamps[i], values[i]);
+            }
+
+            int[] index = {0};
+            ChunkDecoder.decode(encoder.toByteArray(), count, (decodedTimestamp, decodedValue) -> {
+                assertEquals(timestamps[index[0]], decodedTimestamp);
+                assertEquals(Double.doubleToRawLongBits(values[index[0]]), Double.doubleToRawLongBits(decodedValue));
+                index[0]++;
+            });
+            assertEquals(count, index[0]);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.pulsewatch.monitoring.store.tsdb;
+
+import com.pulsewatch.monitoring.model.SystemMetrics;
+import com.pulsewatch.monitoring.store.SampleCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSeriesMetricStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 15, 9, 30);
+    // Queries are exclusive of their start, so this includes the first sample at START
+    private static final LocalDateTime SINCE = START.minusSeconds(1);
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    void testQueriesReturnMatchingSamplesNewestFirst() throws Exception {
+        TimeSeriesMetricStore store = openStore();
+        store.append(samples("server-01", SystemMetrics.MetricType.CPU, 500));
+        store.append(samples("server-02", SystemMetrics.MetricType.CPU, 500));
+        store.append(samples("server-01", SystemMetrics.MetricType.MEMORY, 500));
+
+        List<SystemMetrics> cpu = store.findByType(SystemMetrics.MetricType.CPU, START.plusMinutes(60));
+        assertEquals(2 * 139, cpu.size());
+        assertTrue(cpu.stream().allMatch(metric -> metric.getMetricType() == SystemMetrics.MetricType.CPU));
+        for (int i = 1; i < cpu.size(); i++) {
+            assertFalse(cpu.get(i).getTimestamp().isAfter(cpu.get(i - 1).getTimestamp()));
+        }
+
+        List<SystemMetrics> host = store.findByHostAndType("server-02", SystemMetrics.MetricType.CPU, SINCE);
+        assertEquals(500, host.size());
+        assertTrue(host.stream().allMatch(metric -> "server-02".equals(metric.getHost())));
+        assertEquals("%", host.get(0).getUnit());
+        assertEquals(499.0, host.get(0).getMetricValue());
+        // A sample exactly at the start is not after it
+        assertEquals(499, store.findByHostAndType("server-02", SystemMetrics.MetricType.CPU, START).size());
+
+        assertEquals(249.5, store.getAverageValue(SystemMetrics.MetricType.MEMORY, SINCE));
+        assertNull(store.getAverageValue(SystemMetrics.MetricType.DISK, SINCE));
+        store.close();
+    }
+
+    @Test
+    void testSamplesSurviveRestart() throws Exception {
+        TimeSeriesMetricStore store = openStore();
+        store.append(samples("server-01", SystemMetrics.MetricType.DISK, 250));
+        store.close();
+
+        TimeSeriesMetricStore reopened = openStore();
+        List<SystemMetrics> disk = reopened.findByHostAndType("server-01", SystemMetrics.MetricType.DISK, SINCE);
+        assertEquals(250, disk.size());
+        assertEquals(START.plusSeconds(249 * 10), disk.get(0).getTimestamp());
+        assertEquals("disk_usage", disk.get(0).getMetricName());
+        reopened.close();
+    }
+
+    @Test
+    void testPagesAndStreamFollowKeysetOrder() throws Exception {
+        TimeSeriesMetricStore store = openStore();
+        store.append(samples("server-01", SystemMetrics.MetricType.CPU, 400));
+        store.append(samples("server-02", SystemMetrics.MetricType.CPU, 400));
+
+        List<SystemMetrics> streamed = new ArrayList<>();
+        store.forEachByType(SystemMetrics.MetricType.CPU, SINCE, streamed::add);
+        assertEquals(800, streamed.size());
+
+        List<SystemMetrics> paged = new ArrayList<>();
+        SampleCursor cursor = null;
+        while (true) {
+            List<SystemMetrics> page = store.findPageByType(SystemMetrics.MetricType.CPU, SINCE, cursor, 75);
+            paged.addAll(page);
+            if (page.size() < 75) {
+                break;
+            }
+            cursor = SampleCursor.decode(SampleCursor.of(page.get(page.size() - 1)).encode());
+        }
+
+        assertEquals(800, paged.size());
+        for (int i = 0; i < streamed.size(); i++) {
+            assertEquals(streamed.get(i).getTimestamp(), paged.get(i).getTimestamp());
+            assertEquals(streamed.get(i).getHost(), paged.get(i).getHost());
+        }
+        // Samples sharing a timestamp are ordered by host
+        assertEquals("server-01", streamed.get(0).getHost());
+        assertEquals("server-02", streamed.get(1).getHost());
+        assertEquals(streamed.get(0).getTimestamp(), streamed.get(1).getTimestamp());
+        store.close();
+    }
+
+    @Test
+    void testFlushSealsOnlyFullChunksAndClosedHours() throws Exception {
+        AtomicLong now = new AtomicLong(toEpochMillis(START.plusMinutes(25)));
+        TimeSeriesMetricStore store = openStore(now::get);
+        List<SystemMetrics> samples = samples("server-01", SystemMetrics.MetricType.CPU, 150);
+
+        store.append(samples.subList(0, 50));
+        store.flush();
+        store.append(samples.subList(50, 100));
+        store.flush();
+        assertEquals(0, sealedChunks());
+
+        store.append(samples.subList(100, 150));
+        store.flush();
+        assertEquals(1, sealedChunks());
+
+        // The hour has closed, so its last partial chunk is sealed
+        now.set(toEpochMillis(START.plusMinutes(35)));
+        store.flush();
+        assertEquals(2, sealedChunks());
+        assertFalse(Files.exists(dataDirectory.resolve(HeadCheckpoint.FILE)));
+        assertEquals(150, store.findByType(SystemMetrics.MetricType.CPU, SINCE).size());
+        store.close();
+    }
+
+    @Test
+    void testCheckpointedHeadsSurviveCrash() throws Exception {
+        LongSupplier clock = () -> toEpochMillis(START.plusMinutes(25));
+        TimeSeriesMetricStore store = openStore(clock);
+        List<SystemMetrics> samples = samples("server-01", SystemMetrics.MetricType.MEMORY, 150);
+        store.append(samples.subList(0, 50));
+        store.append(samples("server-02", SystemMetrics.MetricType.MEMORY, 30));
+        store.flush();
+        // Fills and seals the checkpointed server-01 head; the last 10 samples are never flushed
+        store.append(samples.subList(50, 130));
+
+        TimeSeriesMetricStore reopened = openStore(clock);
+        assertEquals(120, reopened.findByHostAndType("server-01", SystemMetrics.MetricType.MEMORY, SINCE).size());
+        assertEquals(30, reopened.findByHostAndType("server-02", SystemMetrics.MetricType.MEMORY, SINCE).size());
+        assertEquals(1, sealedChunks());
+        reopened.close();
+    }
+
+    private int sealedChunks() throws Exception {
+        long epochHour = Math.floorDiv(toEpochMillis(START), Partition.DURATION_MS);
+        if (!Files.exists(Partition.fileFor(dataDirectory, epochHour))) {
+            return 0;
+        }
+        try (Partition partition = Partition.open(dataDirectory, epochHour)) {
+            return partition.chunks().size();
+        }
+    }
+
+    private TimeSeriesMetricStore openStore() throws Exception {
+        TimeSeriesMetricStore store = new TimeSeriesMetricStore(dataDirectory.toString(), 120);
+        store.open();
+        return store;
+    }
+
+    private TimeSeriesMetricStore openStore(LongSupplier clock) throws Exception {
+        TimeSeriesMetricStore store = new TimeSeriesMetricStore(dataDirectory.toString(), 120, clock);
+        store.open();
+        return store;
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private List<SystemMetrics> samples(String host, SystemMetrics.MetricType type, int count) {
+        List<SystemMetrics> metrics = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SystemMetrics metric = new SystemMetrics();
+            metric.setHost(host);
+            metric.setMetricType(type);
+            metric.setMetricName(type.name().toLowerCase() + "_usage");
+            metric.setMetricValue((double) i);
+            metric.setUnit("%");
+            metric.setTimestamp(START.plusSeconds(i * 10L));
+            metrics.add(metric);
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,39 @@
+package com.pulsewatch.uptime.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ProbeClientConfig {
+
+    @Value("${uptime.monitoring.timeout-ms:5000}")
+    private int timeoutMs;
+
+    @Value("${uptime.monitoring.worker-threads:8}")
+    private int workerThreads;
+
+    /**
+     * Shared non-blocking client for health probes. Connections are pooled and kept alive
+     * between sweeps; the executor only runs completion callbacks, socket I/O happens on
+     * the client's own selector thread.
+     */
+    @Bean
+    public HttpClient probeHttpClient() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newFixedThreadPool(workerThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "uptime-probe-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+}
@@ -1,19 +1,31 @@
 package com.pulsewatch.uptime.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pulsewatch.uptime.dto.CursorPage;
+import com.pulsewatch.uptime.dto.IncidentResponse;
 import com.pulsewatch.uptime.dto.RegisterServiceRequest;
 import com.pulsewatch.uptime.dto.ServiceStatusResponse;
+import com.pulsewatch.uptime.dto.SlaReportResponse;
 import com.pulsewatch.uptime.model.MonitoredService;
 import com.pulsewatch.uptime.service.UptimeMonitorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,13 +37,15 @@ public class UptimeController {
     private static final Logger log = LoggerFactory.getLogger(UptimeController.class);
     
     private final UptimeMonitorService uptimeMonitorService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/register")
     public ResponseEntity<ServiceStatusResponse> registerService(@Valid @RequestBody RegisterServiceRequest request) {
         log.info("Received service registration request: {} at {}", request.getName(), request.getUrl());
         
         try {
-            MonitoredService service = uptimeMonitorService.registerService(request.getName(), request.getUrl());
+            MonitoredService service = uptimeMonitorService.registerService(request.getName(), request.getUrl(),
+                    request.getCheckIntervalMs(), request.getTimeoutMs());
             ServiceStatusResponse response = ServiceStatusResponse.from(service);
             
             log.info("Service registered successfully with ID: {}", service.getId());
@@ -87,6 +101,85 @@ public class UptimeController {
         }
     }
 
+    @GetMapping(value = "/services/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllServices() {
+        log.info("Streaming all monitored services");
+        
+        StreamingResponseBody body = out -> uptimeMonitorService.streamAllServices(
+                service -> writeLine(out, ServiceStatusResponse.from(service)));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/services/page")
+    public ResponseEntity<CursorPage<ServiceStatusResponse>> getServicesPage(
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "100") int limit) {
+        
+        try {
+            CursorPage<MonitoredService> page = uptimeMonitorService.getServicesPage(pageToken, limit);
+            List<ServiceStatusResponse> responses = page.getItems().stream()
+                    .map(ServiceStatusResponse::from)
+                    .collect(Collectors.toList());
+            
+            return ResponseEntity.ok(new CursorPage<>(responses, page.getNextPageToken()));
+            
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid page token: {}", pageToken);
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error retrieving services page: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/services/{serviceId}/sla")
+    public ResponseEntity<SlaReportResponse> getSlaReport(
+            @PathVariable String serviceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        
+        log.info("Requesting SLA report for service ID: {} from {} to {}", serviceId, from, to);
+        
+        try {
+            UUID uuid = UUID.fromString(serviceId);
+            return ResponseEntity.ok(uptimeMonitorService.getSlaReport(uuid, from, to));
+            
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid SLA report request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            log.error("Service not found with ID: {}", serviceId);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error building SLA report: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/services/{serviceId}/incidents")
+    public ResponseEntity<List<IncidentResponse>> getIncidents(
+            @PathVariable String serviceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        
+        log.info("Requesting incidents for service ID: {} from {} to {}", serviceId, from, to);
+        
+        try {
+            UUID uuid = UUID.fromString(serviceId);
+            return ResponseEntity.ok(uptimeMonitorService.getIncidents(uuid, from, to));
+            
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid incidents request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            log.error("Service not found with ID: {}", serviceId);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error retrieving incidents: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @DeleteMapping("/services/{serviceId}")
     public ResponseEntity<Void> deleteService(@PathVariable String serviceId) {
         log.info("Requesting deletion of service ID: {}", serviceId);
@@ -108,29 +201,33 @@ public class UptimeController {
     }
 
     @PostMapping("/check/{serviceId}")
-    public ResponseEntity<ServiceStatusResponse> checkServiceNow(@PathVariable String serviceId) {
+    public CompletableFuture<ResponseEntity<ServiceStatusResponse>> checkServiceNow(@PathVariable String serviceId) {
         log.info("Manual health check requested for service ID: {}", serviceId);
         
         try {
             UUID uuid = UUID.fromString(serviceId);
-            MonitoredService service = uptimeMonitorService.getServiceStatus(uuid);
-            
-            // Perform immediate health check
-            // This would require adding a method to check a single service
-            // For now, we'll return the current status
-            
-            ServiceStatusResponse response = ServiceStatusResponse.from(service);
-            return ResponseEntity.ok(response);
+            return uptimeMonitorService.checkServiceNow(uuid)
+                    .thenApply(service -> ResponseEntity.ok(ServiceStatusResponse.from(service)))
+                    .exceptionally(e -> {
+                        log.error("Error performing manual health check: {}", e.getMessage());
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                    });
             
         } catch (IllegalArgumentException e) {
             log.error("Invalid service ID format: {}", serviceId);
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         } catch (RuntimeException e) {
             log.error("Service not found with ID: {}", serviceId);
-            return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            log.error("Error performing manual health check: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.pulsewatch.uptime.dto;
+
+import com.pulsewatch.uptime.history.Incident;
+import lombok.Data;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Data
+public class IncidentResponse {
+    
+    private Instant start;
+    private Instant end;  // null while the service is still down
+    private long durationMs;
+    
+    public static IncidentResponse from(Incident incident) {
+        IncidentResponse response = new IncidentResponse();
+        response.setStart(incident.start());
+        response.setEnd(incident.end());
+        Instant end = incident.end() != null ? incident.end() : Instant.now();
+        response.setDurationMs(Duration.between(incident.start(), end).toMillis());
+        return response;
+    }
+}
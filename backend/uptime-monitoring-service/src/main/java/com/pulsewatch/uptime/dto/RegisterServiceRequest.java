@@ -1,5 +1,6 @@
 package com.pulsewatch.uptime.dto;
 
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
@@ -11,4 +12,10 @@ public class RegisterServiceRequest {
     
     @NotBlank(message = "Service URL is required")
     private String url;  // Treat as plain string - validate in service layer if needed
+    
+    @Min(value = 1000, message = "Check interval must be at least 1000 ms")
+    private Long checkIntervalMs;  // Optional, defaults to uptime.monitoring.interval-ms
+    
+    @Min(value = 100, message = "Timeout must be at least 100 ms")
+    private Long timeoutMs;  // Optional, defaults to uptime.monitoring.timeout-ms
 } 
\ No newline at end of file
@@ -11,6 +11,8 @@ public class ServiceStatusResponse {
     private String id;
     private String name;
     private String url;
+    private Long checkIntervalMs;
+    private Long timeoutMs;
     private String status;
     private Instant lastChecked;
     private Long responseTimeMs;
@@ -23,6 +25,8 @@ public class ServiceStatusResponse {
         response.setId(service.getId().toString());
         response.setName(service.getName());
         response.setUrl(service.getUrl());
+        response.setCheckIntervalMs(service.getCheckIntervalMs());
+        response.setTimeoutMs(service.getTimeoutMs());
         response.setStatus(service.getStatus().name());
         response.setLastChecked(service.getLastChecked());
         response.setResponseTimeMs(service.getResponseTimeMs());
@@ -0,0 +1,21 @@
+package com.pulsewatch.uptime.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class SlaReportResponse {
+    
+    private String serviceId;
+    private Instant from;
+    private Instant to;
+    private long totalChecks;
+    private long successfulChecks;
+    private Double availabilityPercent;  // null when no checks ran in the range
+    private Long p50LatencyMs;
+    private Long p95LatencyMs;
+    private Long p99LatencyMs;
+    private List<IncidentResponse> incidents;
+}
@@ -0,0 +1,31 @@
+package com.pulsewatch.uptime.history;
+
+/**
+ * Probe counts and latency distribution of one target over a time range.
+ */
+public record HistorySummary(long probes, long upProbes, LatencyHistogram latency) {
+
+    static final class Builder {
+        private long probes;
+        private long upProbes;
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        void add(boolean up, int latencyMs) {
+            probes++;
+            if (up) {
+                upProbes++;
+                latency.record(latencyMs);
+            }
+        }
+
+        void add(long probes, long upProbes, LatencyHistogram latency) {
+            this.probes += probes;
+            this.upProbes += upProbes;
+            this.latency.add(latency);
+        }
+
+        HistorySummary build() {
+            return new HistorySummary(probes, upProbes, latency);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.pulsewatch.uptime.history;
+
+import java.time.Instant;
+
+/**
+ * A period during which every probe of a target failed. {@code end} is the time of the first
+ * successful probe afterwards, or {@code null} while the target is still down.
+ */
+public record Incident(Instant start, Instant end) {
+}
@@ -0,0 +1,124 @@
+package com.pulsewatch.uptime.history;
+
+import com.pulsewatch.uptime.probe.ProbeResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only probe history per monitored service, with hourly pre-aggregated summaries for
+ * availability and latency percentile queries. Each service gets a directory named after its
+ * id under {@code uptime.history.data-dir}; see {@link TargetHistory} for the file layout.
+ * Probes are buffered in memory and written every {@code flush-interval-ms}.
+ */
+@Component
+public class ProbeHistoryStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ProbeHistoryStore.class);
+
+    private final Path dataDirectory;
+    private final Map<UUID, TargetHistory> histories = new ConcurrentHashMap<>();
+
+    public ProbeHistoryStore(@Value("${uptime.history.data-dir:data/probe-history}") String dataDirectory) {
+        this.dataDirectory = Paths.get(dataDirectory);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(dataDirectory);
+        log.info("Probe history store opened at {}", dataDirectory.toAbsolutePath());
+    }
+
+    public void append(UUID serviceId, ProbeResult result) {
+        int latencyMs = result.responseTimeMs() != null ? (int) Math.min(result.responseTimeMs(), Integer.MAX_VALUE) : 0;
+        TargetHistory history = history(serviceId);
+        synchronized (history) {
+            history.append(result.checkedAt().getEpochSecond(), result.isUp(), latencyMs);
+        }
+    }
+
+    public HistorySummary summarize(UUID serviceId, Instant from, Instant to) {
+        TargetHistory history = history(serviceId);
+        synchronized (history) {
+            try {
+                return history.summarize(from.getEpochSecond(), to.getEpochSecond());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read probe history", e);
+            }
+        }
+    }
+
+    public List<Incident> findIncidents(UUID serviceId, Instant from, Instant to) {
+        TargetHistory history = history(serviceId);
+        synchronized (history) {
+            try {
+                return history.incidents(from.getEpochSecond(), to.getEpochSecond());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read probe history", e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${uptime.history.flush-interval-ms:10000}")
+    public void flush() {
+        histories.forEach((serviceId, history) -> {
+            synchronized (history) {
+                try {
+                    history.flush();
+                } catch (IOException e) {
+                    log.error("Failed to flush probe history of service {}: {}", serviceId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    public void delete(UUID serviceId) {
+        TargetHistory history = histories.remove(serviceId);
+        Object lock = history != null ? history : this;
+        synchronized (lock) {
+            try (Stream<Path> files = Files.walk(directoryFor(serviceId))) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to delete probe history of service {}: {}", serviceId, e.getMessage());
+            }
+        }
+    }
+
+    private TargetHistory history(UUID serviceId) {
+        return histories.computeIfAbsent(serviceId, id -> {
+            try {
+                return TargetHistory.open(directoryFor(id));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open probe history of service " + id, e);
+            }
+        });
+    }
+
+    private Path directoryFor(UUID serviceId) {
+        return dataDirectory.resolve(serviceId.toString());
+    }
+}
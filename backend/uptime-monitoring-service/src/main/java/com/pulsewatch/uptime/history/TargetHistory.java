@@ -0,0 +1,362 @@
+package com.pulsewatch.uptime.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Probe history of one target, kept in three append-only files in its own directory:
+ * <ul>
+ *   <li>{@code probes.dat} - one 8-byte record per probe: epoch second (unsigned int) and an
+ *       int holding the success flag in the top bit and the latency in ms below it</li>
+ *   <li>{@code windows.dat} - one length-prefixed {@link WindowSummary} per closed hour</li>
+ *   <li>{@code incidents.dat} - start and end epoch second of every closed incident</li>
+ * </ul>
+ * Records are buffered in memory until {@link #flush()}. Probe records are kept in time order,
+ * so a time range is located with a binary search. Torn records at the end of a file are
+ * truncated on open. Not thread-safe; the caller synchronizes on the instance.
+ */
+final class TargetHistory {
+
+    private static final int RECORD_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int INCIDENT_BYTES = Long.BYTES + Long.BYTES;
+    private static final int UP_FLAG = 0x80000000;
+    private static final int READ_BATCH = 4096;
+
+    private final Path probesFile;
+    private final Path windowsFile;
+    private final Path incidentsFile;
+
+    private ByteBuffer pendingProbes = ByteBuffer.allocate(64 * RECORD_BYTES);
+    private final List<WindowSummary> pendingWindows = new ArrayList<>();
+    private final List<long[]> pendingIncidents = new ArrayList<>();
+    private WindowSummary openWindow;
+    private Long openIncidentStart;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    private TargetHistory(Path directory) {
+        this.probesFile = directory.resolve("probes.dat");
+        this.windowsFile = directory.resolve("windows.dat");
+        this.incidentsFile = directory.resolve("incidents.dat");
+    }
+
+    static TargetHistory open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        TargetHistory history = new TargetHistory(directory);
+        history.recover();
+        return history;
+    }
+
+    void append(long epochSecond, boolean up, int latencyMs) {
+        // Keep the log sorted even if the wall clock steps back
+        long timestamp = Math.max(epochSecond, lastTimestamp);
+        lastTimestamp = timestamp;
+        if (pendingProbes.remaining() < RECORD_BYTES) {
+            ByteBuffer grown = ByteBuffer.allocate(pendingProbes.capacity() * 2);
+            grown.put(pendingProbes.flip());
+            pendingProbes = grown;
+        }
+        pendingProbes.putInt((int) timestamp).putInt(up ? UP_FLAG | latencyMs : 0);
+        accept(timestamp, up, latencyMs, true);
+    }
+
+    void flush() throws IOException {
+        // Summaries go out before the raw records they were built from; after a crash in
+        // between, recovery only ever rebuilds the open window from raw records, and does not
+        // reopen an incident whose closing probe was lost
+        if (!pendingIncidents.isEmpty()) {
+            ByteBuffer buffer = ByteBuffer.allocate(pendingIncidents.size() * INCIDENT_BYTES);
+            pendingIncidents.forEach(incident -> buffer.putLong(incident[0]).putLong(incident[1]));
+            appendTo(incidentsFile, buffer.flip());
+            pendingIncidents.clear();
+        }
+        for (WindowSummary window : pendingWindows) {
+            appendTo(windowsFile, window.encode());
+        }
+        pendingWindows.clear();
+        if (pendingProbes.position() > 0) {
+            appendTo(probesFile, pendingProbes.flip());
+            pendingProbes.clear();
+        }
+    }
+
+    /**
+     * Aggregates probes in {@code [fromSecond, toSecond)}. Whole hours come from the window
+     * summaries; raw records are only read for the partial hours at either end.
+     */
+    HistorySummary summarize(long fromSecond, long toSecond) throws IOException {
+        HistorySummary.Builder summary = new HistorySummary.Builder();
+        long firstWindow = WindowSummary.windowStartOf(fromSecond + WindowSummary.DURATION_SECONDS - 1);
+        long lastWindowEnd = WindowSummary.windowStartOf(toSecond);
+        if (firstWindow >= lastWindowEnd) {
+            scanProbes(fromSecond, toSecond, summary);
+            return summary.build();
+        }
+
+        scanProbes(fromSecond, firstWindow, summary);
+        scanProbes(lastWindowEnd, toSecond, summary);
+        forEachWindow(window -> {
+            if (window.windowStart() >= firstWindow && window.windowStart() < lastWindowEnd) {
+                window.addTo(summary);
+            }
+        });
+        return summary.build();
+    }
+
+    /**
+     * Incidents overlapping {@code [fromSecond, toSecond)}, oldest first.
+     */
+    List<Incident> incidents(long fromSecond, long toSecond) throws IOException {
+        List<Incident> incidents = new ArrayList<>();
+        Consumer<long[]> collect = incident -> {
+            if (incident[1] > fromSecond && incident[0] < toSecond) {
+                incidents.add(new Incident(Instant.ofEpochSecond(incident[0]), Instant.ofEpochSecond(incident[1])));
+            }
+        };
+
+        if (Files.exists(incidentsFile)) {
+            try (FileChannel channel = FileChannel.open(incidentsFile, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(READ_BATCH * INCIDENT_BYTES);
+                long position = 0;
+                while (readFully(channel, buffer.clear(), position) > 0) {
+                    position += buffer.flip().remaining();
+                    while (buffer.remaining() >= INCIDENT_BYTES) {
+                        collect.accept(new long[]{buffer.getLong(), buffer.getLong()});
+                    }
+                }
+            }
+        }
+        pendingIncidents.forEach(collect);
+        if (openIncidentStart != null && openIncidentStart < toSecond) {
+            incidents.add(new Incident(Instant.ofEpochSecond(openIncidentStart), null));
+        }
+        return incidents;
+    }
+
+    private void accept(long timestamp, boolean up, int latencyMs, boolean trackIncidents) {
+        long windowStart = WindowSummary.windowStartOf(timestamp);
+        if (openWindow != null && openWindow.windowStart() != windowStart) {
+            pendingWindows.add(openWindow);
+            openWindow = null;
+        }
+        if (openWindow == null) {
+            openWindow = new WindowSummary(windowStart);
+        }
+        openWindow.record(up, latencyMs);
+
+        if (!trackIncidents) {
+            return;
+        }
+        if (!up && openIncidentStart == null) {
+            openIncidentStart = timestamp;
+        } else if (up && openIncidentStart != null) {
+            pendingIncidents.add(new long[]{openIncidentStart, timestamp});
+            openIncidentStart = null;
+        }
+    }
+
+    private void forEachWindow(Consumer<WindowSummary> consumer) throws IOException {
+        if (Files.exists(windowsFile)) {
+            try (FileChannel channel = FileChannel.open(windowsFile, StandardOpenOption.READ)) {
+                readWindows(channel, consumer);
+            }
+        }
+        pendingWindows.forEach(consumer);
+        if (openWindow != null) {
+            consumer.accept(openWindow);
+        }
+    }
+
+    /**
+     * @return the end offset of the last complete window record
+     */
+    private static long readWindows(FileChannel channel, Consumer<WindowSummary> consumer) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        while (position + Integer.BYTES <= size) {
+            readFully(channel, length.clear(), position);
+            int bodySize = length.flip().getInt();
+            if (bodySize <= 0 || position + Integer.BYTES + bodySize > size) {
+                break;
+            }
+            ByteBuffer body = ByteBuffer.allocate(bodySize);
+            readFully(channel, body, position + Integer.BYTES);
+            consumer.accept(WindowSummary.decode(body.flip()));
+            position += Integer.BYTES + bodySize;
+        }
+        return position;
+    }
+
+    private void scanProbes(long fromSecond, long toSecond, HistorySummary.Builder summary) throws IOException {
+        if (fromSecond >= toSecond) {
+            return;
+        }
+        if (Files.exists(probesFile)) {
+            try (FileChannel channel = FileChannel.open(probesFile, StandardOpenOption.READ)) {
+                long count = channel.size() / RECORD_BYTES;
+                long index = lowerBound(channel, count, fromSecond);
+                ByteBuffer buffer = ByteBuffer.allocate(READ_BATCH * RECORD_BYTES);
+                while (index < count) {
+                    readFully(channel, buffer.clear(), index * RECORD_BYTES);
+                    buffer.flip();
+                    while (buffer.remaining() >= RECORD_BYTES) {
+                        long timestamp = Integer.toUnsignedLong(buffer.getInt());
+                        int value = buffer.getInt();
+                        if (timestamp >= toSecond) {
+                            return;
+                        }
+                        summary.add((value & UP_FLAG) != 0, value & ~UP_FLAG);
+                        index++;
+                    }
+                }
+            }
+        }
+        ByteBuffer pending = pendingProbes.duplicate().flip();
+        while (pending.hasRemaining()) {
+            long timestamp = Integer.toUnsignedLong(pending.getInt());
+            int value = pending.getInt();
+            if (timestamp >= fromSecond && timestamp < toSecond) {
+                summary.add((value & UP_FLAG) != 0, value & ~UP_FLAG);
+            }
+        }
+    }
+
+    private static long lowerBound(FileChannel channel, long count, long epochSecond) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES);
+        long low = 0;
+        long high = count;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            readFully(channel, record.clear(), mid * RECORD_BYTES);
+            if (Integer.toUnsignedLong(record.flip().getInt()) < epochSecond) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void recover() throws IOException {
+        truncateToMultiple(incidentsFile, INCIDENT_BYTES);
+        long[] lastIncident = lastIncident();
+        long lastClosedEnd = Long.MIN_VALUE;
+        if (Files.exists(windowsFile)) {
+            try (FileChannel channel = FileChannel.open(windowsFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long[] lastWindowStart = {Long.MIN_VALUE};
+                long validSize = readWindows(channel, window -> lastWindowStart[0] = window.windowStart());
+                if (validSize < channel.size()) {
+                    channel.truncate(validSize);
+                }
+                if (lastWindowStart[0] != Long.MIN_VALUE) {
+                    lastClosedEnd = lastWindowStart[0] + WindowSummary.DURATION_SECONDS;
+                }
+            }
+        }
+
+        truncateToMultiple(probesFile, RECORD_BYTES);
+        if (!Files.exists(probesFile)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(probesFile, StandardOpenOption.READ)) {
+            long count = channel.size() / RECORD_BYTES;
+            if (count == 0) {
+                return;
+            }
+            // Rebuild the window that was still open, and any closed after the last summary flush
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BATCH * RECORD_BYTES);
+            for (long index = lowerBound(channel, count, lastClosedEnd); index < count; ) {
+                readFully(channel, buffer.clear(), index * RECORD_BYTES);
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    long timestamp = Integer.toUnsignedLong(buffer.getInt());
+                    int value = buffer.getInt();
+                    accept(timestamp, (value & UP_FLAG) != 0, value & ~UP_FLAG, false);
+                    index++;
+                }
+            }
+            recoverOpenIncident(channel, count);
+        }
+        if (openIncidentStart != null && lastIncident != null && lastIncident[0] == openIncidentStart) {
+            // Closed and recorded, but the successful probe that closed it was not flushed
+            openIncidentStart = null;
+            lastTimestamp = Math.max(lastTimestamp, lastIncident[1]);
+        }
+    }
+
+    private long[] lastIncident() throws IOException {
+        if (!Files.exists(incidentsFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(incidentsFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < INCIDENT_BYTES) {
+                return null;
+            }
+            ByteBuffer record = ByteBuffer.allocate(INCIDENT_BYTES);
+            readFully(channel, record, size - INCIDENT_BYTES);
+            record.flip();
+            return new long[]{record.getLong(), record.getLong()};
+        }
+    }
+
+    /**
+     * A run of failed probes at the end of the log is an incident that has not ended yet;
+     * walk back to its first probe.
+     */
+    private void recoverOpenIncident(FileChannel channel, long count) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        for (long index = count - 1; index >= 0; index--) {
+            readFully(channel, record.clear(), index * RECORD_BYTES);
+            long timestamp = Integer.toUnsignedLong(record.flip().getInt());
+            if (index == count - 1) {
+                lastTimestamp = timestamp;
+            }
+            if ((record.getInt() & UP_FLAG) != 0) {
+                return;
+            }
+            openIncidentStart = timestamp;
+        }
+    }
+
+    private static void truncateToMultiple(Path file, int recordBytes) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size % recordBytes != 0) {
+                channel.truncate(size - size % recordBytes);
+            }
+        }
+    }
+
+    private static void appendTo(Path file, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+}
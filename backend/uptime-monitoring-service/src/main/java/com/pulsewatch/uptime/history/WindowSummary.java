@@ -0,0 +1,66 @@
+package com.pulsewatch.uptime.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Pre-aggregated probe results of one target over one fixed window: how many probes ran,
+ * how many succeeded, and the latency histogram of the successful ones.
+ */
+final class WindowSummary {
+
+    static final long DURATION_SECONDS = 3600;
+
+    private final long windowStart;
+    private int probes;
+    private int upProbes;
+    private final LatencyHistogram latency;
+
+    WindowSummary(long windowStart) {
+        this(windowStart, 0, 0, new LatencyHistogram());
+    }
+
+    private WindowSummary(long windowStart, int probes, int upProbes, LatencyHistogram latency) {
+        this.windowStart = windowStart;
+        this.probes = probes;
+        this.upProbes = upProbes;
+        this.latency = latency;
+    }
+
+    static long windowStartOf(long epochSecond) {
+        return epochSecond - Math.floorMod(epochSecond, DURATION_SECONDS);
+    }
+
+    long windowStart() {
+        return windowStart;
+    }
+
+    void record(boolean up, int latencyMs) {
+        probes++;
+        if (up) {
+            upProbes++;
+            latency.record(latencyMs);
+        }
+    }
+
+    void addTo(HistorySummary.Builder summary) {
+        summary.add(probes, upProbes, latency);
+    }
+
+    /**
+     * Length-prefixed record so a torn write at the end of the file can be detected.
+     */
+    ByteBuffer encode() {
+        int bodySize = Long.BYTES + Integer.BYTES + Integer.BYTES + latency.encodedSize();
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bodySize);
+        buffer.putInt(bodySize).putLong(windowStart).putInt(probes).putInt(upProbes);
+        latency.writeTo(buffer);
+        return buffer.flip();
+    }
+
+    static WindowSummary decode(ByteBuffer body) {
+        long windowStart = body.getLong();
+        int probes = body.getInt();
+        int upProbes = body.getInt();
+        return new WindowSummary(windowStart, probes, upProbes, LatencyHistogram.readFrom(body));
+    }
+}
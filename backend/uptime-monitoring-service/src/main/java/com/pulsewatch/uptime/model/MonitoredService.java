@@ -29,6 +29,12 @@ public class MonitoredService {
     @Column(name = "url", nullable = false)
     private String url;
 
+    @Column(name = "check_interval_ms")
+    private Long checkIntervalMs;
+
+    @Column(name = "timeout_ms")
+    private Long timeoutMs;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private ServiceStatus status = ServiceStatus.UNKNOWN;
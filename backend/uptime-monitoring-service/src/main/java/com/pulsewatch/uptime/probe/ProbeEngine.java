@@ -0,0 +1,197 @@
+package com.pulsewatch.uptime.probe;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs HTTP health probes on a shared non-blocking {@link HttpClient}. At most
+ * {@code max-concurrency} probes are in flight overall and at most
+ * {@code per-host-concurrency} against any single host; anything beyond that waits in a
+ * per-host queue and is started as soon as a slot frees up. No thread is held while a
+ * probe waits for its target, so a sweep takes roughly as long as its slowest probe.
+ */
+@Component
+public class ProbeEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ProbeEngine.class);
+
+    private final HttpClient httpClient;
+    private final String userAgent;
+    private final long timeoutMs;
+    private final int maxConcurrency;
+    private final int perHostConcurrency;
+
+    private final Map<String, HostLane> lanes = new HashMap<>();
+    private final Queue<HostLane> ready = new ArrayDeque<>();
+    private int active;
+
+    public ProbeEngine(HttpClient probeHttpClient,
+                       @Value("${uptime.monitoring.user-agent:PulseWatch-UptimeMonitor/1.0}") String userAgent,
+                       @Value("${uptime.monitoring.timeout-ms:5000}") long timeoutMs,
+                       @Value("${uptime.monitoring.max-concurrency:1000}") int maxConcurrency,
+                       @Value("${uptime.monitoring.per-host-concurrency:8}") int perHostConcurrency) {
+        this.httpClient = probeHttpClient;
+        this.userAgent = userAgent;
+        this.timeoutMs = timeoutMs;
+        this.maxConcurrency = maxConcurrency;
+        this.perHostConcurrency = perHostConcurrency;
+    }
+
+    public CompletableFuture<ProbeResult> probe(String url) {
+        return probe(url, timeoutMs);
+    }
+
+    /**
+     * Queues a probe of {@code url}. The returned future never completes exceptionally;
+     * failures are reported as a DOWN result.
+     */
+    public CompletableFuture<ProbeResult> probe(String url, long timeoutMs) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ProbeResult.down("Invalid URL: " + url));
+        }
+
+        PendingProbe pending = new PendingProbe(uri, timeoutMs, new CompletableFuture<>());
+        List<PendingProbe> toStart;
+        synchronized (this) {
+            HostLane lane = lanes.computeIfAbsent(hostKey(uri), key -> new HostLane());
+            lane.waiting.add(pending);
+            markReady(lane);
+            toStart = admit();
+        }
+        toStart.forEach(this::send);
+        return pending.result;
+    }
+
+    public synchronized int getActiveCount() {
+        return active;
+    }
+
+    private void send(PendingProbe pending) {
+        long startTime = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> response;
+        try {
+            // The builder rejects URIs the client cannot fetch, such as other schemes or no host
+            HttpRequest request = HttpRequest.newBuilder(pending.uri)
+                    .GET()
+                    .header("User-Agent", userAgent)
+                    .timeout(Duration.ofMillis(pending.timeoutMs))
+                    .build();
+            response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        // Backstop in case the connect and response timeouts do not cover a stalled exchange
+        response.orTimeout(pending.timeoutMs * 2, TimeUnit.MILLISECONDS)
+                .handle((resp, error) -> {
+                    long responseTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                    return error == null ? toResult(pending.uri, resp, responseTime) : toResult(pending.uri, error);
+                })
+                .whenComplete((result, ignored) -> {
+                    release(pending.uri);
+                    pending.result.complete(result);
+                });
+    }
+
+    private ProbeResult toResult(URI uri, HttpResponse<Void> response, long responseTime) {
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            log.debug("Probe of {} succeeded ({}ms)", uri, responseTime);
+            return ProbeResult.up(responseTime);
+        }
+        return ProbeResult.down("HTTP " + status);
+    }
+
+    private ProbeResult toResult(URI uri, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        log.debug("Probe of {} failed: {}", uri, cause.toString());
+        if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+            return ProbeResult.down("Connection timeout" + detail(cause));
+        }
+        if (cause instanceof ConnectException) {
+            return ProbeResult.down("Connection failed" + detail(cause));
+        }
+        return ProbeResult.down(cause.getClass().getSimpleName() + detail(cause));
+    }
+
+    private static String detail(Throwable cause) {
+        return cause.getMessage() != null ? ": " + cause.getMessage() : "";
+    }
+
+    private void release(URI uri) {
+        List<PendingProbe> toStart;
+        synchronized (this) {
+            active--;
+            String host = hostKey(uri);
+            HostLane lane = lanes.get(host);
+            lane.active--;
+            if (lane.waiting.isEmpty() && lane.active == 0) {
+                lanes.remove(host);
+            } else {
+                markReady(lane);
+            }
+            toStart = admit();
+        }
+        toStart.forEach(this::send);
+    }
+
+    /**
+     * Picks probes to start, round-robin across hosts, until either the global limit is
+     * reached or no host has both queued probes and a free slot. Caller holds the lock.
+     */
+    private List<PendingProbe> admit() {
+        List<PendingProbe> toStart = new ArrayList<>();
+        HostLane lane;
+        while (active < maxConcurrency && (lane = ready.poll()) != null) {
+            lane.ready = false;
+            toStart.add(lane.waiting.poll());
+            lane.active++;
+            active++;
+            markReady(lane);
+        }
+        return toStart;
+    }
+
+    private void markReady(HostLane lane) {
+        if (!lane.ready && !lane.waiting.isEmpty() && lane.active < perHostConcurrency) {
+            lane.ready = true;
+            ready.add(lane);
+        }
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getHost() != null ? uri.getHost().toLowerCase() + ":" + uri.getPort() : String.valueOf(uri);
+    }
+
+    private record PendingProbe(URI uri, long timeoutMs, CompletableFuture<ProbeResult> result) {
+    }
+
+    private static final class HostLane {
+        private final Queue<PendingProbe> waiting = new ArrayDeque<>();
+        private int active;
+        private boolean ready;
+    }
+}
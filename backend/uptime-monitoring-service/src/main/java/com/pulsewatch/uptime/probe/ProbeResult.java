@@ -0,0 +1,24 @@
+package com.pulsewatch.uptime.probe;
+
+import com.pulsewatch.uptime.model.MonitoredService;
+
+import java.time.Instant;
+
+/**
+ * Outcome of a single health probe. {@code responseTimeMs} is only set for successful probes.
+ */
+public record ProbeResult(MonitoredService.ServiceStatus status, Long responseTimeMs, String errorMessage,
+                          Instant checkedAt) {
+
+    public static ProbeResult up(long responseTimeMs) {
+        return new ProbeResult(MonitoredService.ServiceStatus.UP, responseTimeMs, null, Instant.now());
+    }
+
+    public static ProbeResult down(String errorMessage) {
+        return new ProbeResult(MonitoredService.ServiceStatus.DOWN, null, errorMessage, Instant.now());
+    }
+
+    public boolean isUp() {
+        return status == MonitoredService.ServiceStatus.UP;
+    }
+}
@@ -0,0 +1,257 @@
+package com.pulsewatch.uptime.probe;
+
+import com.pulsewatch.uptime.model.MonitoredService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Fires a probe for each monitored service on its own interval. Targets live in memory in a
+ * priority queue ordered by next due time, and a single dispatcher thread sleeps until the
+ * earliest one is due. Each target starts at a random offset within its first interval, so
+ * checks are spread evenly instead of all firing on the same tick. A target is skipped for a
+ * round if its previous probe has not finished yet, and on-demand checks join a running probe
+ * rather than starting a second one.
+ */
+@Component
+public class ProbeScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ProbeScheduler.class);
+
+    private static final Comparator<ScheduledTarget> DUE_ORDER = Comparator.comparingLong(target -> target.nextRunAt);
+
+    private final ProbeEngine probeEngine;
+    private final long defaultIntervalMs;
+    private final long defaultTimeoutMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<ScheduledTarget> queue = new PriorityQueue<>(DUE_ORDER);
+    private final Map<UUID, ScheduledTarget> targets = new HashMap<>();
+
+    private volatile BiConsumer<MonitoredService, ProbeResult> resultHandler;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public ProbeScheduler(ProbeEngine probeEngine,
+                          @Value("${uptime.monitoring.interval-ms:60000}") long defaultIntervalMs,
+                          @Value("${uptime.monitoring.timeout-ms:5000}") long defaultTimeoutMs) {
+        this.probeEngine = probeEngine;
+        this.defaultIntervalMs = defaultIntervalMs;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    /**
+     * Starts dispatching. {@code resultHandler} is called on a probe completion thread with
+     * the scheduled service instance and its result, only while the service is still scheduled.
+     */
+    public void start(BiConsumer<MonitoredService, ProbeResult> resultHandler) {
+        this.resultHandler = resultHandler;
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "uptime-scheduler");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Probe scheduler started: defaultIntervalMs={}, defaultTimeoutMs={}", defaultIntervalMs, defaultTimeoutMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    /**
+     * Adds a service, or replaces its schedule if already present. The first probe runs at a
+     * random point within one interval from now.
+     */
+    public void schedule(MonitoredService service) {
+        long intervalMs = service.getCheckIntervalMs() != null ? service.getCheckIntervalMs() : defaultIntervalMs;
+        long timeoutMs = service.getTimeoutMs() != null ? service.getTimeoutMs() : defaultTimeoutMs;
+        long offsetMs = ThreadLocalRandom.current().nextLong(intervalMs);
+
+        ScheduledTarget target = new ScheduledTarget(service, TimeUnit.MILLISECONDS.toNanos(intervalMs), timeoutMs,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offsetMs));
+        lock.lock();
+        try {
+            // A replaced entry stays in the queue until it is polled and recognized as stale
+            targets.put(service.getId(), target);
+            queue.add(target);
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Scheduled service {} every {}ms (timeout {}ms, first check in {}ms)",
+                service.getName(), intervalMs, timeoutMs, offsetMs);
+    }
+
+    public void unschedule(UUID serviceId) {
+        lock.lock();
+        try {
+            ScheduledTarget target = targets.remove(serviceId);
+            if (target != null) {
+                queue.remove(target);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Probes a scheduled service right away. If a probe of it is already running, scheduled or
+     * manual, the caller joins that one instead of starting another. The future completes after
+     * the result handler has run.
+     *
+     * @return {@code null} when the service is not scheduled
+     */
+    public CompletableFuture<ProbeResult> probeNow(UUID serviceId) {
+        ScheduledTarget target;
+        lock.lock();
+        try {
+            target = targets.get(serviceId);
+        } finally {
+            lock.unlock();
+        }
+        return target != null ? start(target) : null;
+    }
+
+    public boolean isScheduled(UUID serviceId) {
+        lock.lock();
+        try {
+            return targets.containsKey(serviceId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getScheduledCount() {
+        lock.lock();
+        try {
+            return targets.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        List<ScheduledTarget> due = new ArrayList<>();
+        while (running) {
+            lock.lock();
+            try {
+                ScheduledTarget head = queue.peek();
+                if (head == null) {
+                    changed.await();
+                    continue;
+                }
+                long now = System.nanoTime();
+                long waitNanos = head.nextRunAt - now;
+                if (waitNanos > 0) {
+                    changed.awaitNanos(waitNanos);
+                    continue;
+                }
+                while ((head = queue.peek()) != null && head.nextRunAt - now <= 0) {
+                    queue.poll();
+                    if (targets.get(head.service.getId()) != head) {
+                        continue;
+                    }
+                    head.nextRunAt += head.intervalNanos;
+                    if (head.nextRunAt - now <= 0) {
+                        // Fell behind by a whole interval; skip the missed rounds instead of bursting
+                        head.nextRunAt = now + head.intervalNanos;
+                    }
+                    queue.add(head);
+                    due.add(head);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            for (ScheduledTarget target : due) {
+                try {
+                    run(target);
+                } catch (RuntimeException e) {
+                    log.error("Error starting check of service {}: {}", target.service.getName(), e.getMessage());
+                }
+            }
+            due.clear();
+        }
+    }
+
+    private void run(ScheduledTarget target) {
+        if (target.inFlight.get() != null) {
+            log.debug("Skipping check of {}, previous probe still running", target.service.getName());
+            return;
+        }
+        start(target);
+    }
+
+    private CompletableFuture<ProbeResult> start(ScheduledTarget target) {
+        CompletableFuture<ProbeResult> probe = new CompletableFuture<>();
+        CompletableFuture<ProbeResult> running = target.inFlight.compareAndExchange(null, probe);
+        if (running != null) {
+            return running;
+        }
+        CompletableFuture<ProbeResult> started;
+        try {
+            started = probeEngine.probe(target.service.getUrl(), target.timeoutMs);
+        } catch (RuntimeException e) {
+            // Recorded as a failed check so the in-flight slot is cleared and callers are not left waiting
+            log.error("Could not probe service {}: {}", target.service.getName(), e.getMessage());
+            started = CompletableFuture.completedFuture(ProbeResult.down("Probe failed: " + e.getMessage()));
+        }
+        started.thenApply(result -> {
+                    BiConsumer<MonitoredService, ProbeResult> handler = resultHandler;
+                    if (handler != null && isScheduled(target.service.getId())) {
+                        handler.accept(target.service, result);
+                    }
+                    return result;
+                })
+                .whenComplete((result, error) -> {
+                    target.inFlight.set(null);
+                    if (error != null) {
+                        log.error("Error recording health check for service {}: {}",
+                                target.service.getName(), error.getMessage());
+                        probe.completeExceptionally(error);
+                    } else {
+                        probe.complete(result);
+                    }
+                });
+        return probe;
+    }
+
+    private static final class ScheduledTarget {
+        private final MonitoredService service;
+        private final long intervalNanos;
+        private final long timeoutMs;
+        private final AtomicReference<CompletableFuture<ProbeResult>> inFlight = new AtomicReference<>();
+        private long nextRunAt;
+
+        private ScheduledTarget(MonitoredService service, long intervalNanos, long timeoutMs, long nextRunAt) {
+            this.service = service;
+            this.intervalNanos = intervalNanos;
+            this.timeoutMs = timeoutMs;
+            this.nextRunAt = nextRunAt;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.pulsewatch.uptime.repository;
+
+import com.pulsewatch.uptime.model.MonitoredService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only reads of the monitored service list. Streaming runs in a read-only
+ * transaction so the PostgreSQL driver uses a server-side cursor and only holds
+ * {@code fetch-size} rows at a time; pages use a keyset predicate on id instead of OFFSET.
+ */
+@Repository
+public class MonitoredServiceCursorRepository {
+
+    private static final String COLUMNS =
+            "SELECT id, name, url, check_interval_ms, timeout_ms, status, last_checked, response_time_ms, error_message, created_at, updated_at " +
+            "FROM monitored_services";
+
+    private static final RowMapper<MonitoredService> ROW_MAPPER = (rs, rowNum) -> new MonitoredService(
+            rs.getObject("id", UUID.class),
+            rs.getString("name"),
+            rs.getString("url"),
+            rs.getObject("check_interval_ms", Long.class),
+            rs.getObject("timeout_ms", Long.class),
+            MonitoredService.ServiceStatus.valueOf(rs.getString("status")),
+            toInstant(rs.getTimestamp("last_checked")),
+            rs.getObject("response_time_ms", Long.class),
+            rs.getString("error_message"),
+            toInstant(rs.getTimestamp("created_at")),
+            toInstant(rs.getTimestamp("updated_at")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MonitoredServiceCursorRepository(DataSource dataSource,
+                                            @Value("${uptime.query.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Transactional(readOnly = true)
+    public void forEach(Consumer<MonitoredService> consumer) {
+        RowCallbackHandler handler = rs -> consumer.accept(ROW_MAPPER.mapRow(rs, rs.getRow()));
+        jdbcTemplate.query(COLUMNS + " ORDER BY id", handler);
+    }
+
+    public List<MonitoredService> findPage(ServiceCursor after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query(COLUMNS + " ORDER BY id LIMIT ?", ROW_MAPPER, limit);
+        }
+        return jdbcTemplate.query(COLUMNS + " WHERE id > ? ORDER BY id LIMIT ?", ROW_MAPPER, after.id(), limit);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
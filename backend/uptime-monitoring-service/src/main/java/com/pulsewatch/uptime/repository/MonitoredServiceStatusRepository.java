@@ -0,0 +1,71 @@
+package com.pulsewatch.uptime.repository;
+
+import com.pulsewatch.uptime.status.ServiceStatusSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Plain JDBC writer for probe results. Bypasses JPA so heartbeat updates neither load the
+ * entity nor touch {@code updated_at}, and so many of them can go out as one batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MonitoredServiceStatusRepository {
+
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE monitored_services SET status = ?, last_checked = ?, response_time_ms = ?, error_message = ?, " +
+            "updated_at = ? WHERE id = ?";
+
+    private static final String UPDATE_HEARTBEAT_SQL =
+            "UPDATE monitored_services SET last_checked = ?, response_time_ms = ?, error_message = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes a status transition, bumping {@code updated_at}.
+     */
+    public void updateStatus(ServiceStatusSnapshot snapshot) {
+        jdbcTemplate.update(UPDATE_STATUS_SQL, ps -> {
+            ps.setString(1, snapshot.status().name());
+            setHeartbeat(ps, 2, snapshot);
+            ps.setTimestamp(5, Timestamp.from(Instant.now()));
+            ps.setObject(6, snapshot.serviceId());
+        });
+    }
+
+    /**
+     * Writes the latest check time, latency and error of each service in one batch.
+     */
+    public int updateHeartbeats(List<ServiceStatusSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_HEARTBEAT_SQL, snapshots, snapshots.size(), (ps, snapshot) -> {
+            setHeartbeat(ps, 1, snapshot);
+            ps.setObject(4, snapshot.serviceId());
+        });
+        return snapshots.size();
+    }
+
+    private static void setHeartbeat(PreparedStatement ps, int index, ServiceStatusSnapshot snapshot) throws SQLException {
+        ps.setTimestamp(index, Timestamp.from(snapshot.lastChecked()));
+        if (snapshot.responseTimeMs() != null) {
+            ps.setLong(index + 1, snapshot.responseTimeMs());
+        } else {
+            ps.setNull(index + 1, Types.BIGINT);
+        }
+        if (snapshot.errorMessage() != null) {
+            ps.setString(index + 2, snapshot.errorMessage());
+        } else {
+            ps.setNull(index + 2, Types.VARCHAR);
+        }
+    }
+}
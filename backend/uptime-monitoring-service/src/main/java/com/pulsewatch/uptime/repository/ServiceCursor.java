@@ -0,0 +1,31 @@
+package com.pulsewatch.uptime.repository;
+
+import com.pulsewatch.uptime.model.MonitoredService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the monitored service list, which is ordered by id.
+ * Serialized as an opaque page token.
+ */
+public record ServiceCursor(UUID id) {
+
+    public static ServiceCursor of(MonitoredService service) {
+        return new ServiceCursor(service.getId());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ServiceCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new ServiceCursor(UUID.fromString(raw));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page token");
+        }
+    }
+}
@@ -1,23 +1,32 @@
 package com.pulsewatch.uptime.service;
 
+import com.pulsewatch.uptime.dto.CursorPage;
+import com.pulsewatch.uptime.dto.IncidentResponse;
+import com.pulsewatch.uptime.dto.SlaReportResponse;
+import com.pulsewatch.uptime.history.HistorySummary;
+import com.pulsewatch.uptime.history.ProbeHistoryStore;
 import com.pulsewatch.uptime.model.MonitoredService;
+import com.pulsewatch.uptime.probe.ProbeResult;
+import com.pulsewatch.uptime.probe.ProbeScheduler;
+import com.pulsewatch.uptime.repository.MonitoredServiceCursorRepository;
 import com.pulsewatch.uptime.repository.MonitoredServiceRepository;
+import com.pulsewatch.uptime.repository.ServiceCursor;
+import com.pulsewatch.uptime.status.ServiceStatusTable;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.ResourceAccessException;
-import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,93 +35,53 @@ public class UptimeMonitorService {
     private static final Logger log = LoggerFactory.getLogger(UptimeMonitorService.class);
     
     private final MonitoredServiceRepository repository;
-    private final RestTemplate restTemplate;
+    private final MonitoredServiceCursorRepository cursorRepository;
+    private final ProbeScheduler probeScheduler;
+    private final ServiceStatusTable statusTable;
+    private final ProbeHistoryStore historyStore;
+    
+    @Value("${uptime.monitoring.interval-ms:60000}")
+    private long defaultIntervalMs;
     
     @Value("${uptime.monitoring.timeout-ms:5000}")
-    private int timeoutMs;
+    private long defaultTimeoutMs;
+    
+    @Value("${uptime.monitoring.manual-check-freshness-ms:5000}")
+    private long manualCheckFreshnessMs;
+    
+    @Value("${uptime.query.max-page-size:1000}")
+    private int maxPageSize;
     
-    @Value("${uptime.monitoring.user-agent:PulseWatch-UptimeMonitor/1.0}")
-    private String userAgent;
+    @Value("${uptime.history.default-range-days:30}")
+    private int defaultRangeDays;
 
-    @Scheduled(fixedRateString = "${uptime.monitoring.interval-ms:60000}")
-    public void checkAllServices() {
-        log.info("Starting scheduled health check for all monitored services");
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMonitoring() {
+        probeScheduler.start(this::applyResult);
         
         List<MonitoredService> services = repository.findAll();
-        
-        if (services.isEmpty()) {
-            log.info("No services to monitor");
-            return;
-        }
-        
-        log.info("Checking {} services", services.size());
-        
         for (MonitoredService service : services) {
-            try {
-                checkServiceHealth(service);
-            } catch (Exception e) {
-                log.error("Error checking service {}: {}", service.getName(), e.getMessage());
-                markServiceAsDown(service, e.getMessage());
-            }
+            statusTable.track(service);
+            probeScheduler.schedule(service);
         }
-        
-        log.info("Completed health check for {} services", services.size());
+        log.info("Scheduled health checks for {} services", services.size());
     }
 
-    private void checkServiceHealth(MonitoredService service) {
-        long startTime = System.currentTimeMillis();
-        
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", userAgent);
-            
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<String> response = restTemplate.exchange(
-                service.getUrl(),
-                HttpMethod.GET,
-                entity,
-                String.class
-            );
-            
-            long responseTime = System.currentTimeMillis() - startTime;
-            
-            if (response.getStatusCode().is2xxSuccessful()) {
-                markServiceAsUp(service, responseTime);
-                log.debug("Service {} is UP ({}ms)", service.getName(), responseTime);
-            } else {
-                markServiceAsDown(service, "HTTP " + response.getStatusCode().value());
-                log.warn("Service {} is DOWN - HTTP {}", service.getName(), response.getStatusCode().value());
-            }
-            
-        } catch (ResourceAccessException e) {
-            long responseTime = System.currentTimeMillis() - startTime;
-            markServiceAsDown(service, "Connection timeout: " + e.getMessage());
-            log.warn("Service {} is DOWN - Connection timeout", service.getName());
-        } catch (Exception e) {
-            long responseTime = System.currentTimeMillis() - startTime;
-            markServiceAsDown(service, e.getMessage());
-            log.warn("Service {} is DOWN - {}", service.getName(), e.getMessage());
+    private void applyResult(MonitoredService service, ProbeResult result) {
+        statusTable.record(service.getId(), result);
+        historyStore.append(service.getId(), result);
+        if (result.isUp()) {
+            log.debug("Service {} is UP ({}ms)", service.getName(), result.responseTimeMs());
+        } else {
+            log.warn("Service {} is DOWN - {}", service.getName(), result.errorMessage());
         }
     }
 
-    private void markServiceAsUp(MonitoredService service, long responseTime) {
-        service.setStatus(MonitoredService.ServiceStatus.UP);
-        service.setLastChecked(Instant.now());
-        service.setResponseTimeMs(responseTime);
-        service.setErrorMessage(null);
-        repository.save(service);
-    }
-
-    private void markServiceAsDown(MonitoredService service, String errorMessage) {
-        service.setStatus(MonitoredService.ServiceStatus.DOWN);
-        service.setLastChecked(Instant.now());
-        service.setResponseTimeMs(null);
-        service.setErrorMessage(errorMessage);
-        repository.save(service);
+    public MonitoredService registerService(String name, String url) {
+        return registerService(name, url, null, null);
     }
 
-    public MonitoredService registerService(String name, String url) {
+    public MonitoredService registerService(String name, String url, Long checkIntervalMs, Long timeoutMs) {
         log.info("Registering new service: {} at {}", name, url);
         
         // Validate URL format in service layer
@@ -121,36 +90,129 @@ public class UptimeMonitorService {
         MonitoredService service = new MonitoredService();
         service.setName(name);
         service.setUrl(url);
+        service.setCheckIntervalMs(checkIntervalMs != null ? checkIntervalMs : defaultIntervalMs);
+        service.setTimeoutMs(timeoutMs != null ? timeoutMs : defaultTimeoutMs);
         service.setStatus(MonitoredService.ServiceStatus.UNKNOWN);
         service.setCreatedAt(Instant.now());
         service.setUpdatedAt(Instant.now());
         
         MonitoredService savedService = repository.save(service);
+        statusTable.track(savedService);
+        probeScheduler.schedule(savedService);
         log.info("Service registered with ID: {}", savedService.getId());
         
         return savedService;
     }
     
     private void validateUrl(String url) {
+        java.net.URI uri;
         try {
-            new java.net.URL(url).toURI();
+            uri = new java.net.URL(url).toURI();
         } catch (Exception e) {
             log.error("Invalid URL format: {}", url);
             throw new IllegalArgumentException("Invalid URL format: " + url);
         }
+        // Only what the probe's HTTP client can fetch
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "";
+        if (!(scheme.equals("http") || scheme.equals("https")) || uri.getHost() == null) {
+            log.error("Unsupported URL: {}", url);
+            throw new IllegalArgumentException("URL must be http or https with a host: " + url);
+        }
     }
 
     public MonitoredService getServiceStatus(UUID serviceId) {
         return repository.findById(serviceId)
+                .map(statusTable::applyTo)
                 .orElseThrow(() -> new RuntimeException("Service not found with ID: " + serviceId));
     }
 
+    /**
+     * Probes a service on demand. A result younger than the freshness window is returned as is,
+     * and concurrent requests for the same service share one in-flight probe.
+     */
+    public CompletableFuture<MonitoredService> checkServiceNow(UUID serviceId) {
+        MonitoredService service = getServiceStatus(serviceId);
+        Instant lastChecked = service.getLastChecked();
+        if (lastChecked != null && lastChecked.isAfter(Instant.now().minusMillis(manualCheckFreshnessMs))) {
+            log.debug("Returning fresh result for service {} checked at {}", service.getName(), lastChecked);
+            return CompletableFuture.completedFuture(service);
+        }
+        
+        CompletableFuture<ProbeResult> probe = probeScheduler.probeNow(serviceId);
+        if (probe == null) {
+            log.warn("Service {} is not scheduled yet, returning stored status", service.getName());
+            return CompletableFuture.completedFuture(service);
+        }
+        return probe.thenApply(result -> statusTable.applyTo(service));
+    }
+
     public List<MonitoredService> getAllServices() {
-        return repository.findAll();
+        List<MonitoredService> services = repository.findAll();
+        services.forEach(statusTable::applyTo);
+        return services;
+    }
+
+    public void streamAllServices(Consumer<MonitoredService> consumer) {
+        cursorRepository.forEach(service -> consumer.accept(statusTable.applyTo(service)));
+    }
+
+    public CursorPage<MonitoredService> getServicesPage(String pageToken, int limit) {
+        ServiceCursor after = pageToken != null ? ServiceCursor.decode(pageToken) : null;
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        
+        List<MonitoredService> services = cursorRepository.findPage(after, pageSize);
+        services.forEach(statusTable::applyTo);
+        String nextPageToken = services.size() == pageSize
+                ? ServiceCursor.of(services.get(services.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(services, nextPageToken);
+    }
+
+    public SlaReportResponse getSlaReport(UUID serviceId, Instant from, Instant to) {
+        getServiceStatus(serviceId);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = resolveStart(from, end);
+        
+        HistorySummary summary = historyStore.summarize(serviceId, start, end);
+        SlaReportResponse report = new SlaReportResponse();
+        report.setServiceId(serviceId.toString());
+        report.setFrom(start);
+        report.setTo(end);
+        report.setTotalChecks(summary.probes());
+        report.setSuccessfulChecks(summary.upProbes());
+        if (summary.probes() > 0) {
+            report.setAvailabilityPercent(summary.upProbes() * 100.0 / summary.probes());
+        }
+        report.setP50LatencyMs(summary.latency().getValueAtPercentile(50));
+        report.setP95LatencyMs(summary.latency().getValueAtPercentile(95));
+        report.setP99LatencyMs(summary.latency().getValueAtPercentile(99));
+        report.setIncidents(getIncidents(serviceId, start, end));
+        return report;
+    }
+
+    public List<IncidentResponse> getIncidents(UUID serviceId, Instant from, Instant to) {
+        getServiceStatus(serviceId);
+        Instant end = to != null ? to : Instant.now();
+        Instant start = resolveStart(from, end);
+        
+        return historyStore.findIncidents(serviceId, start, end).stream()
+                .map(IncidentResponse::from)
+                .collect(Collectors.toList());
+    }
+
+    private Instant resolveStart(Instant from, Instant end) {
+        Instant start = from != null ? from : end.minus(Duration.ofDays(defaultRangeDays));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        return start;
     }
 
     public void deleteService(UUID serviceId) {
         log.info("Deleting service with ID: {}", serviceId);
+        probeScheduler.unschedule(serviceId);
+        statusTable.untrack(serviceId);
         repository.deleteById(serviceId);
+        historyStore.delete(serviceId);
     }
 } 
\ No newline at end of file
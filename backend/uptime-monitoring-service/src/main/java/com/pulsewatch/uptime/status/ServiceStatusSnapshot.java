@@ -0,0 +1,20 @@
+package com.pulsewatch.uptime.status;
+
+import com.pulsewatch.uptime.model.MonitoredService;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Latest known probe outcome for one service.
+ */
+public record ServiceStatusSnapshot(UUID serviceId, MonitoredService.ServiceStatus status, Instant lastChecked,
+                                    Long responseTimeMs, String errorMessage) {
+
+    public void applyTo(MonitoredService service) {
+        service.setStatus(status);
+        service.setLastChecked(lastChecked);
+        service.setResponseTimeMs(responseTimeMs);
+        service.setErrorMessage(errorMessage);
+    }
+}
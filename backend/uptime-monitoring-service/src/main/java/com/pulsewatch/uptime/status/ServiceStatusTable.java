@@ -0,0 +1,151 @@
+package com.pulsewatch.uptime.status;
+
+import com.pulsewatch.uptime.model.MonitoredService;
+import com.pulsewatch.uptime.probe.ProbeResult;
+import com.pulsewatch.uptime.repository.MonitoredServiceStatusRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the latest probe result per service, which the API reads instead of the
+ * database. Status transitions (UP to DOWN and back) are written through immediately; the
+ * routine heartbeat fields (last check time, latency, error text) are only marked dirty and
+ * written periodically in a single JDBC batch.
+ */
+@Component
+public class ServiceStatusTable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceStatusTable.class);
+
+    private final MonitoredServiceStatusRepository statusRepository;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    public ServiceStatusTable(MonitoredServiceStatusRepository statusRepository) {
+        this.statusRepository = statusRepository;
+    }
+
+    /**
+     * Starts tracking a service from its persisted state.
+     */
+    public void track(MonitoredService service) {
+        entries.put(service.getId(), new Entry(new ServiceStatusSnapshot(service.getId(), service.getStatus(),
+                service.getLastChecked(), service.getResponseTimeMs(), service.getErrorMessage())));
+    }
+
+    public void untrack(UUID serviceId) {
+        entries.remove(serviceId);
+    }
+
+    public void record(UUID serviceId, ProbeResult result) {
+        Entry entry = entries.get(serviceId);
+        if (entry == null) {
+            return;
+        }
+        ServiceStatusSnapshot snapshot = new ServiceStatusSnapshot(serviceId, result.status(), result.checkedAt(),
+                result.responseTimeMs(), result.errorMessage());
+
+        boolean transition;
+        synchronized (entry) {
+            transition = entry.current.status() != snapshot.status();
+            entry.current = snapshot;
+            // A transition write carries the heartbeat fields too
+            entry.dirty = !transition;
+            entry.statusDirty &= !transition;
+        }
+        if (transition) {
+            try {
+                statusRepository.updateStatus(snapshot);
+                log.info("Service {} changed status to {}", serviceId, snapshot.status());
+            } catch (Exception e) {
+                // Retried with the next heartbeat flush
+                log.error("Failed to persist status change of service {}: {}", serviceId, e.getMessage());
+                synchronized (entry) {
+                    entry.dirty = true;
+                    entry.statusDirty = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Overlays the live status onto a service loaded from the database.
+     */
+    public MonitoredService applyTo(MonitoredService service) {
+        Entry entry = entries.get(service.getId());
+        if (entry != null) {
+            snapshot(entry).applyTo(service);
+        }
+        return service;
+    }
+
+    @Scheduled(fixedDelayString = "${uptime.monitoring.heartbeat-flush-interval-ms:600000}")
+    public void flush() {
+        List<ServiceStatusSnapshot> heartbeats = new ArrayList<>();
+        List<ServiceStatusSnapshot> statusChanges = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            synchronized (entry) {
+                if (!entry.dirty) {
+                    continue;
+                }
+                (entry.statusDirty ? statusChanges : heartbeats).add(entry.current);
+                entry.dirty = false;
+                entry.statusDirty = false;
+            }
+        }
+        if (heartbeats.isEmpty() && statusChanges.isEmpty()) {
+            return;
+        }
+
+        try {
+            statusChanges.forEach(statusRepository::updateStatus);
+            statusRepository.updateHeartbeats(heartbeats);
+            log.debug("Flushed {} heartbeats and {} status changes", heartbeats.size(), statusChanges.size());
+        } catch (Exception e) {
+            log.error("Failed to flush {} service heartbeats: {}", heartbeats.size() + statusChanges.size(),
+                    e.getMessage());
+            statusChanges.forEach(snapshot -> markDirty(snapshot, true));
+            heartbeats.forEach(snapshot -> markDirty(snapshot, false));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    private void markDirty(ServiceStatusSnapshot snapshot, boolean statusDirty) {
+        Entry entry = entries.get(snapshot.serviceId());
+        if (entry == null) {
+            return;
+        }
+        synchronized (entry) {
+            entry.dirty = true;
+            entry.statusDirty |= statusDirty;
+        }
+    }
+
+    private static ServiceStatusSnapshot snapshot(Entry entry) {
+        synchronized (entry) {
+            return entry.current;
+        }
+    }
+
+    private static final class Entry {
+        private ServiceStatusSnapshot current;
+        private boolean dirty;
+        private boolean statusDirty;
+
+        private Entry(ServiceStatusSnapshot current) {
+            this.current = current;
+        }
+    }
+}
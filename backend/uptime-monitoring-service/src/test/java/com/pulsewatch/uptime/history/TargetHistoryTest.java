@@ -0,0 +1,137 @@
+package com.pulsewatch.uptime.history;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TargetHistoryTest {
+
+    // 2024-01-15T09:00:00Z, on an hour boundary
+    private static final long HOUR = 1_705_309_200L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testTornRecordsAreTruncatedOnOpen() throws Exception {
+        TargetHistory history = TargetHistory.open(directory);
+        history.append(HOUR + 10, true, 40);
+        history.append(HOUR + 20, true, 50);
+        history.append(HOUR + 3600, true, 60);
+        history.flush();
+
+        long probesSize = Files.size(directory.resolve("probes.dat"));
+        long windowsSize = Files.size(directory.resolve("windows.dat"));
+        Files.write(directory.resolve("probes.dat"), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+        Files.write(directory.resolve("windows.dat"), new byte[]{0, 0, 0, 99, 1}, StandardOpenOption.APPEND);
+
+        TargetHistory reopened = TargetHistory.open(directory);
+        assertEquals(probesSize, Files.size(directory.resolve("probes.dat")));
+        assertEquals(windowsSize, Files.size(directory.resolve("windows.dat")));
+
+        reopened.append(HOUR + 3610, false, 0);
+        reopened.flush();
+        HistorySummary summary = reopened.summarize(HOUR, HOUR + 7200);
+        assertEquals(4, summary.probes());
+        assertEquals(3, summary.upProbes());
+    }
+
+    @Test
+    void testOpenWindowIsRebuiltFromProbes() throws Exception {
+        TargetHistory history = TargetHistory.open(directory);
+        history.append(HOUR + 100, true, 10);
+        history.append(HOUR + 200, false, 0);
+        history.append(HOUR + 300, true, 30);
+        history.flush();
+        assertFalse(Files.exists(directory.resolve("windows.dat")));
+
+        TargetHistory reopened = TargetHistory.open(directory);
+        reopened.append(HOUR + 3700, true, 20);
+        reopened.flush();
+
+        // The rebuilt hour is summarized once, from its window and not again from raw probes
+        HistorySummary whole = reopened.summarize(HOUR, HOUR + 7200);
+        assertEquals(4, whole.probes());
+        assertEquals(3, whole.upProbes());
+        HistorySummary firstHour = reopened.summarize(HOUR, HOUR + 3600);
+        assertEquals(3, firstHour.probes());
+        assertEquals(2, firstHour.upProbes());
+    }
+
+    @Test
+    void testOpenIncidentIsRecovered() throws Exception {
+        TargetHistory history = TargetHistory.open(directory);
+        history.append(HOUR, true, 10);
+        history.append(HOUR + 30, false, 0);
+        history.append(HOUR + 60, false, 0);
+        history.flush();
+
+        TargetHistory reopened = TargetHistory.open(directory);
+        assertEquals(List.of(new Incident(Instant.ofEpochSecond(HOUR + 30), null)),
+                reopened.incidents(HOUR, HOUR + 3600));
+
+        reopened.append(HOUR + 90, true, 10);
+        reopened.flush();
+        assertEquals(List.of(new Incident(Instant.ofEpochSecond(HOUR + 30), Instant.ofEpochSecond(HOUR + 90))),
+                TargetHistory.open(directory).incidents(HOUR, HOUR + 3600));
+    }
+
+    @Test
+    void testRecordedIncidentIsNotReopenedWhenItsClosingProbeWasLost() throws Exception {
+        TargetHistory history = TargetHistory.open(directory);
+        history.append(HOUR, true, 10);
+        history.append(HOUR + 30, false, 0);
+        history.flush();
+
+        // Crash after the incident was written but before the probe that closed it
+        ByteBuffer incident = ByteBuffer.allocate(2 * Long.BYTES).putLong(HOUR + 30).putLong(HOUR + 60);
+        Files.write(directory.resolve("incidents.dat"), incident.array());
+
+        TargetHistory reopened = TargetHistory.open(directory);
+        reopened.append(HOUR + 90, true, 10);
+        reopened.append(HOUR + 120, false, 0);
+        reopened.append(HOUR + 150, true, 10);
+        reopened.flush();
+
+        assertEquals(List.of(
+                        new Incident(Instant.ofEpochSecond(HOUR + 30), Instant.ofEpochSecond(HOUR + 60)),
+                        new Incident(Instant.ofEpochSecond(HOUR + 120), Instant.ofEpochSecond(HOUR + 150))),
+                TargetHistory.open(directory).incidents(HOUR, HOUR + 3600));
+    }
+
+    @Test
+    void testSummarizeCombinesPartialAndWholeHours() throws Exception {
+        TargetHistory history = TargetHistory.open(directory);
+        history.append(HOUR + 500, true, 10);
+        history.append(HOUR + 1800, true, 10);
+        history.append(HOUR + 3610, false, 0);
+        history.append(HOUR + 7205, true, 20);
+        history.flush();
+        // Still buffered: a closed hour and probes in the open one
+        history.append(HOUR + 10_900, true, 30);
+        history.append(HOUR + 11_500, true, 30);
+
+        HistorySummary range = history.summarize(HOUR + 1000, HOUR + 11_000);
+        assertEquals(4, range.probes());
+        assertEquals(3, range.upProbes());
+
+        HistorySummary withinHour = history.summarize(HOUR + 1000, HOUR + 2000);
+        assertEquals(1, withinHour.probes());
+
+        HistorySummary wholeHours = history.summarize(HOUR + 3600, HOUR + 10_800);
+        assertEquals(2, wholeHours.probes());
+        assertEquals(1, wholeHours.upProbes());
+
+        HistorySummary all = history.summarize(HOUR, HOUR + 14_400);
+        assertEquals(6, all.probes());
+        assertEquals(5, all.upProbes());
+    }
+}
@@ -0,0 +1,229 @@
+package com.pulsewatch.uptime.probe;
+
+import com.pulsewatch.uptime.model.MonitoredService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link ProbeEngine} against a local stand-in for monitored services.
+ */
+class ProbeEngineTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    private final Queue<String> userAgents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/health", exchange -> respond(exchange, 200));
+        server.createContext("/broken", exchange -> respond(exchange, 503));
+        server.createContext("/slow", exchange -> {
+            await(released);
+            respond(exchange, 200);
+        });
+        server.createContext("/held", exchange -> {
+            int now = concurrent.incrementAndGet();
+            maxConcurrent.accumulateAndGet(now, Math::max);
+            await(released);
+            concurrent.decrementAndGet();
+            respond(exchange, 200);
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        released.countDown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testSuccessfulProbeIsUpWithResponseTime() throws Exception {
+        // When
+        ProbeResult result = engine(10, 10).probe(baseUrl + "/health").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(MonitoredService.ServiceStatus.UP, result.status());
+        assertNotNull(result.responseTimeMs());
+        assertNull(result.errorMessage());
+        assertEquals(List.of("PulseWatch-Test/1.0"), new ArrayList<>(userAgents));
+    }
+
+    @Test
+    void testErrorStatusIsDown() throws Exception {
+        // When
+        ProbeResult result = engine(10, 10).probe(baseUrl + "/broken").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(result.isUp());
+        assertEquals("HTTP 503", result.errorMessage());
+        assertNull(result.responseTimeMs());
+    }
+
+    @Test
+    void testSlowTargetTimesOut() throws Exception {
+        // When
+        ProbeResult result = engine(10, 10).probe(baseUrl + "/slow", 200).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(result.isUp());
+        assertTrue(result.errorMessage().startsWith("Connection timeout"), result.errorMessage());
+    }
+
+    @Test
+    void testUnreachableTargetIsDown() throws Exception {
+        // Given
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+
+        // When
+        ProbeResult result = engine(10, 10).probe("http://127.0.0.1:" + closedPort + "/health")
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(result.isUp());
+        assertTrue(result.errorMessage().startsWith("Connection failed"), result.errorMessage());
+    }
+
+    @Test
+    void testInvalidUrlIsDownWithoutRequest() throws Exception {
+        // When
+        ProbeResult result = engine(10, 10).probe("http://bad host/health").get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals("Invalid URL: http://bad host/health", result.errorMessage());
+        assertTrue(userAgents.isEmpty());
+    }
+
+    @Test
+    void testUnsupportedUrlIsDownAndReleasesItsSlot() throws Exception {
+        // Given: a single slot, so a leaked one would stall the probe queued behind it
+        ProbeEngine engine = engine(1, 1);
+
+        // When
+        CompletableFuture<ProbeResult> ftp = engine.probe("ftp://127.0.0.1/x");
+        CompletableFuture<ProbeResult> noHost = engine.probe("http:/nohost");
+        CompletableFuture<ProbeResult> healthy = engine.probe(baseUrl + "/health");
+
+        // Then
+        assertFalse(ftp.get(5, TimeUnit.SECONDS).isUp());
+        assertTrue(ftp.get().errorMessage().startsWith("IllegalArgumentException"), ftp.get().errorMessage());
+        assertFalse(noHost.get(5, TimeUnit.SECONDS).isUp());
+        assertTrue(healthy.get(5, TimeUnit.SECONDS).isUp());
+        assertEquals(0, engine.getActiveCount());
+    }
+
+    @Test
+    void testProbesOfOneHostAreLimitedAndQueued() throws Exception {
+        // Given
+        ProbeEngine engine = engine(100, 2);
+
+        // When
+        List<CompletableFuture<ProbeResult>> probes = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            probes.add(engine.probe(baseUrl + "/held"));
+        }
+        waitFor(() -> concurrent.get() == 2);
+        Thread.sleep(100);
+
+        // Then
+        assertEquals(2, engine.getActiveCount());
+        assertEquals(2, maxConcurrent.get());
+        released.countDown();
+        for (CompletableFuture<ProbeResult> probe : probes) {
+            assertTrue(probe.get(5, TimeUnit.SECONDS).isUp());
+        }
+        assertEquals(2, maxConcurrent.get());
+        assertEquals(0, engine.getActiveCount());
+    }
+
+    @Test
+    void testGlobalLimitIsSharedAcrossHosts() throws Exception {
+        // Given: two host keys for the same stand-in
+        ProbeEngine engine = engine(3, 2);
+        String otherHost = "http://localhost:" + server.getAddress().getPort();
+
+        // When
+        List<CompletableFuture<ProbeResult>> probes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            probes.add(engine.probe(baseUrl + "/held"));
+            probes.add(engine.probe(otherHost + "/held"));
+        }
+        waitFor(() -> concurrent.get() == 3);
+        Thread.sleep(100);
+
+        // Then
+        assertEquals(3, engine.getActiveCount());
+        assertEquals(3, maxConcurrent.get());
+        released.countDown();
+        for (CompletableFuture<ProbeResult> probe : probes) {
+            assertTrue(probe.get(5, TimeUnit.SECONDS).isUp());
+        }
+    }
+
+    private ProbeEngine engine(int maxConcurrency, int perHostConcurrency) {
+        return new ProbeEngine(httpClient, "PulseWatch-Test/1.0", 2000, maxConcurrency, perHostConcurrency);
+    }
+
+    private void respond(HttpExchange exchange, int status) throws IOException {
+        userAgents.add(exchange.getRequestHeaders().getFirst("User-Agent"));
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.pulsewatch.uptime.probe;
+
+import com.pulsewatch.uptime.history.ProbeHistoryStore;
+import com.pulsewatch.uptime.model.MonitoredService;
+import com.pulsewatch.uptime.repository.MonitoredServiceCursorRepository;
+import com.pulsewatch.uptime.repository.MonitoredServiceRepository;
+import com.pulsewatch.uptime.repository.MonitoredServiceStatusRepository;
+import com.pulsewatch.uptime.service.UptimeMonitorService;
+import com.pulsewatch.uptime.status.ServiceStatusTable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProbeSchedulerTest {
+
+    private final Queue<Probe> probes = new ConcurrentLinkedQueue<>();
+    private final Queue<String> handled = new ConcurrentLinkedQueue<>();
+    private volatile Function<String, CompletableFuture<ProbeResult>> responder =
+            url -> CompletableFuture.completedFuture(ProbeResult.up(5));
+    private final ProbeEngine engine = new ProbeEngine(null, "PulseWatch-Test/1.0", 1000, 10, 10) {
+        @Override
+        public CompletableFuture<ProbeResult> probe(String url, long timeoutMs) {
+            probes.add(new Probe(url, timeoutMs, System.nanoTime()));
+            return responder.apply(url);
+        }
+    };
+    private ProbeScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    void testEachServiceIsProbedOnItsOwnInterval() throws Exception {
+        // Given
+        scheduler = new ProbeScheduler(engine, 300, 2000);
+        scheduler.start((service, result) -> handled.add(service.getUrl()));
+
+        // When
+        scheduler.schedule(service("http://fast", 100L, 500L));
+        scheduler.schedule(service("http://slow", null, null));
+        Thread.sleep(1000);
+        scheduler.stop();
+
+        // Then
+        List<Probe> fast = probesOf("http://fast");
+        List<Probe> slow = probesOf("http://slow");
+        assertTrue(fast.size() >= 8 && fast.size() <= 11, "fast probed " + fast.size() + " times");
+        assertTrue(slow.size() >= 3 && slow.size() <= 4, "slow probed " + slow.size() + " times");
+        assertTrue(fast.stream().allMatch(probe -> probe.timeoutMs() == 500));
+        assertTrue(slow.stream().allMatch(probe -> probe.timeoutMs() == 2000));
+        assertSpacedBy(fast, 100);
+        assertSpacedBy(slow, 300);
+        assertEquals(fast.size() + slow.size(), handled.size());
+    }
+
+    @Test
+    void testFirstProbesAreSpreadOverFirstInterval() throws Exception {
+        // Given
+        scheduler = new ProbeScheduler(engine, 400, 2000);
+        scheduler.start((service, result) -> { });
+        long start = System.nanoTime();
+
+        // When
+        for (int i = 0; i < 40; i++) {
+            scheduler.schedule(service("http://target-" + i, null, null));
+        }
+        Thread.sleep(450);
+
+        // Then
+        Map<String, Long> firstProbe = new ConcurrentHashMap<>();
+        probes.forEach(probe -> firstProbe.putIfAbsent(probe.url(), probe.at()));
+        assertEquals(40, firstProbe.size());
+        long early = firstProbe.values().stream()
+                .filter(at -> TimeUnit.NANOSECONDS.toMillis(at - start) < 200)
+                .count();
+        assertTrue(early > 5 && early < 35, early + " of 40 first probes in the first half");
+    }
+
+    @Test
+    void testRoundIsSkippedWhileProbeIsRunning() throws Exception {
+        // Given
+        CompletableFuture<ProbeResult> hanging = new CompletableFuture<>();
+        responder = url -> hanging;
+        scheduler = new ProbeScheduler(engine, 50, 2000);
+        scheduler.start((service, result) -> handled.add(service.getUrl()));
+
+        // When
+        scheduler.schedule(service("http://hanging", null, null));
+        Thread.sleep(400);
+
+        // Then
+        assertEquals(1, probes.size());
+        hanging.complete(ProbeResult.up(5));
+        assertEquals(List.of("http://hanging"), new ArrayList<>(handled));
+    }
+
+    @Test
+    void testProbeNowJoinsRunningProbe() throws Exception {
+        // Given
+        CompletableFuture<ProbeResult> pending = new CompletableFuture<>();
+        responder = url -> pending;
+        scheduler = new ProbeScheduler(engine, 60000, 2000);
+        scheduler.start((service, result) -> handled.add(service.getUrl()));
+        MonitoredService service = service("http://manual", null, null);
+        scheduler.schedule(service);
+
+        // When
+        CompletableFuture<ProbeResult> first = scheduler.probeNow(service.getId());
+        CompletableFuture<ProbeResult> second = scheduler.probeNow(service.getId());
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, probes.size());
+        pending.complete(ProbeResult.down("HTTP 503"));
+        assertEquals("HTTP 503", first.get(5, TimeUnit.SECONDS).errorMessage());
+        assertEquals(List.of("http://manual"), new ArrayList<>(handled));
+        assertNull(scheduler.probeNow(UUID.randomUUID()));
+    }
+
+    @Test
+    void testConcurrentProbeNowRequestsShareOneProbe() throws Exception {
+        // Given
+        CompletableFuture<ProbeResult> pending = new CompletableFuture<>();
+        responder = url -> pending;
+        scheduler = new ProbeScheduler(engine, 60000, 2000);
+        scheduler.start((service, result) -> handled.add(service.getUrl()));
+        MonitoredService service = service("http://contended", 3_600_000L, null);
+        scheduler.schedule(service);
+
+        // When
+        int callers = 8;
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<CompletableFuture<ProbeResult>>> calls = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            calls.add(executor.submit(() -> {
+                go.await();
+                return scheduler.probeNow(service.getId());
+            }));
+        }
+        go.countDown();
+        Set<CompletableFuture<ProbeResult>> joined = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<CompletableFuture<ProbeResult>> call : calls) {
+            joined.add(call.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, joined.size());
+        assertEquals(1, probes.size());
+        pending.complete(ProbeResult.up(12));
+        assertTrue(joined.iterator().next().get(5, TimeUnit.SECONDS).isUp());
+        assertEquals(List.of("http://contended"), new ArrayList<>(handled));
+
+        // Once settled, the next request starts a new probe
+        responder = url -> CompletableFuture.completedFuture(ProbeResult.up(8));
+        assertEquals(Long.valueOf(8), scheduler.probeNow(service.getId()).get(5, TimeUnit.SECONDS).responseTimeMs());
+        assertEquals(2, probes.size());
+    }
+
+    @Test
+    void testFreshResultIsReturnedWithoutProbing() throws Exception {
+        // Given
+        responder = url -> CompletableFuture.completedFuture(ProbeResult.down("HTTP 503"));
+        scheduler = new ProbeScheduler(engine, 60000, 2000);
+        MonitoredServiceRepository repository = mock(MonitoredServiceRepository.class);
+        UptimeMonitorService uptimeMonitor = new UptimeMonitorService(repository,
+                mock(MonitoredServiceCursorRepository.class), scheduler,
+                new ServiceStatusTable(mock(MonitoredServiceStatusRepository.class)), mock(ProbeHistoryStore.class));
+        ReflectionTestUtils.setField(uptimeMonitor, "manualCheckFreshnessMs", 5000L);
+        MonitoredService fresh = checkedService("http://fresh", Instant.now().minusSeconds(1));
+        MonitoredService stale = checkedService("http://stale", Instant.now().minusSeconds(60));
+        when(repository.findAll()).thenReturn(List.of(fresh, stale));
+        when(repository.findById(fresh.getId())).thenReturn(Optional.of(fresh));
+        when(repository.findById(stale.getId())).thenReturn(Optional.of(stale));
+        uptimeMonitor.startMonitoring();
+
+        // When
+        MonitoredService freshResult = uptimeMonitor.checkServiceNow(fresh.getId()).get(5, TimeUnit.SECONDS);
+        MonitoredService staleResult = uptimeMonitor.checkServiceNow(stale.getId()).get(5, TimeUnit.SECONDS);
+
+        // Then: only the result older than the window is probed again
+        assertEquals(MonitoredService.ServiceStatus.UP, freshResult.getStatus());
+        assertEquals(List.of("http://stale"), probes.stream().map(Probe::url).toList());
+        assertEquals(MonitoredService.ServiceStatus.DOWN, staleResult.getStatus());
+        assertEquals("HTTP 503", staleResult.getErrorMessage());
+    }
+
+    @Test
+    void testProbeThatFailsToStartIsDownAndKeepsDispatcherRunning() throws Exception {
+        // Given: an engine that throws instead of returning a future for an unsupported scheme
+        responder = url -> {
+            if (url.startsWith("ftp:")) {
+                throw new IllegalArgumentException("invalid URI scheme ftp");
+            }
+            return CompletableFuture.completedFuture(ProbeResult.up(5));
+        };
+        scheduler = new ProbeScheduler(engine, 60000, 2000);
+        scheduler.start((service, result) -> handled.add(service.getUrl() + " " + result.isUp()));
+        MonitoredService unsupported = service("ftp://files/x", 50L, null);
+        scheduler.schedule(unsupported);
+        scheduler.schedule(service("http://healthy", 50L, null));
+
+        // When
+        Thread.sleep(400);
+        ProbeResult manual = scheduler.probeNow(unsupported.getId()).get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertFalse(manual.isUp());
+        assertEquals("Probe failed: invalid URI scheme ftp", manual.errorMessage());
+        assertTrue(probesOf("ftp://files/x").size() >= 4, "unsupported probed " + probesOf("ftp://files/x").size() + " times");
+        assertTrue(probesOf("http://healthy").size() >= 4, "healthy probed " + probesOf("http://healthy").size() + " times");
+        assertTrue(handled.contains("ftp://files/x false"));
+    }
+
+    @Test
+    void testUnscheduledServiceIsNoLongerProbedOrReported() throws Exception {
+        // Given
+        CompletableFuture<ProbeResult> pending = new CompletableFuture<>();
+        responder = url -> pending;
+        scheduler = new ProbeScheduler(engine, 60000, 2000);
+        scheduler.start((service, result) -> handled.add(service.getUrl()));
+        MonitoredService service = service("http://removed", 50L, null);
+        scheduler.schedule(service);
+        CompletableFuture<ProbeResult> running = scheduler.probeNow(service.getId());
+
+        // When
+        scheduler.unschedule(service.getId());
+        pending.complete(ProbeResult.up(5));
+        Thread.sleep(200);
+
+        // Then
+        assertTrue(running.get(5, TimeUnit.SECONDS).isUp());
+        assertTrue(handled.isEmpty());
+        assertEquals(1, probes.size());
+        assertFalse(scheduler.isScheduled(service.getId()));
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    void testRescheduleReplacesPreviousInterval() throws Exception {
+        // Given
+        scheduler = new ProbeScheduler(engine, 60000, 2000);
+        scheduler.start((service, result) -> { });
+        MonitoredService service = service("http://changed", 50L, null);
+        scheduler.schedule(service);
+
+        // When
+        service.setCheckIntervalMs(200L);
+        scheduler.schedule(service);
+        Thread.sleep(1000);
+
+        // Then: the stale 50ms entry is dropped rather than probed alongside the new one
+        List<Probe> changed = probesOf("http://changed");
+        assertTrue(changed.size() >= 4 && changed.size() <= 6, "probed " + changed.size() + " times");
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    private List<Probe> probesOf(String url) {
+        return probes.stream().filter(probe -> probe.url().equals(url)).toList();
+    }
+
+    private static void assertSpacedBy(List<Probe> probes, long intervalMs) {
+        for (int i = 1; i < probes.size(); i++) {
+            long gapMs = TimeUnit.NANOSECONDS.toMillis(probes.get(i).at() - probes.get(i - 1).at());
+            assertTrue(gapMs >= intervalMs - 5, "probes " + gapMs + "ms apart, interval " + intervalMs + "ms");
+        }
+    }
+
+    private static MonitoredService service(String url, Long checkIntervalMs, Long timeoutMs) {
+        MonitoredService service = new MonitoredService();
+        service.setId(UUID.randomUUID());
+        service.setName(url);
+        service.setUrl(url);
+        service.setCheckIntervalMs(checkIntervalMs);
+        service.setTimeoutMs(timeoutMs);
+        return service;
+    }
+
+    private static MonitoredService checkedService(String url, Instant lastChecked) {
+        MonitoredService service = service(url, 3_600_000L, null);
+        service.setStatus(MonitoredService.ServiceStatus.UP);
+        service.setLastChecked(lastChecked);
+        service.setResponseTimeMs(20L);
+        return service;
+    }
+
+    private record Probe(String url, long timeoutMs, long at) {
+    }
+}
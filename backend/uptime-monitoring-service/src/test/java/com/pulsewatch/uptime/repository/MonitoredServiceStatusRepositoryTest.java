@@ -0,0 +1,76 @@
+package com.pulsewatch.uptime.repository;
+
+import com.pulsewatch.uptime.model.MonitoredService;
+import com.pulsewatch.uptime.status.ServiceStatusSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MonitoredServiceStatusRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private MonitoredServiceStatusRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        repository = new MonitoredServiceStatusRepository(jdbcTemplate);
+    }
+
+    @Test
+    void testHeartbeatsAreWrittenAsOneBatch() throws Exception {
+        // Given
+        Instant checkedAt = Instant.parse("2024-01-15T09:30:00Z");
+        ServiceStatusSnapshot up = new ServiceStatusSnapshot(UUID.randomUUID(), MonitoredService.ServiceStatus.UP,
+                checkedAt, 42L, null);
+        ServiceStatusSnapshot down = new ServiceStatusSnapshot(UUID.randomUUID(), MonitoredService.ServiceStatus.DOWN,
+                checkedAt, null, "HTTP 503");
+
+        // When
+        int written = repository.updateHeartbeats(List.of(up, down));
+
+        // Then
+        assertEquals(2, written);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ParameterizedPreparedStatementSetter<ServiceStatusSnapshot>> setter =
+                ArgumentCaptor.forClass(ParameterizedPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(eq("UPDATE monitored_services SET last_checked = ?, response_time_ms = ?, "
+                + "error_message = ? WHERE id = ?"), eq(List.of(up, down)), eq(2), setter.capture());
+
+        PreparedStatement upStatement = mock(PreparedStatement.class);
+        setter.getValue().setValues(upStatement, up);
+        verify(upStatement).setTimestamp(1, Timestamp.from(checkedAt));
+        verify(upStatement).setLong(2, 42L);
+        verify(upStatement).setNull(3, Types.VARCHAR);
+        verify(upStatement).setObject(4, up.serviceId());
+
+        PreparedStatement downStatement = mock(PreparedStatement.class);
+        setter.getValue().setValues(downStatement, down);
+        verify(downStatement).setNull(2, Types.BIGINT);
+        verify(downStatement).setString(3, "HTTP 503");
+        verify(downStatement).setObject(4, down.serviceId());
+    }
+
+    @Test
+    void testNoHeartbeatsSkipTheDatabase() {
+        // When
+        int written = repository.updateHeartbeats(List.of());
+
+        // Then
+        assertEquals(0, written);
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
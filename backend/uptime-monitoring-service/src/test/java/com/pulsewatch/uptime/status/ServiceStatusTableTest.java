@@ -0,0 +1,149 @@
+package com.pulsewatch.uptime.status;
+
+import com.pulsewatch.uptime.model.MonitoredService;
+import com.pulsewatch.uptime.probe.ProbeResult;
+import com.pulsewatch.uptime.repository.MonitoredServiceStatusRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ServiceStatusTableTest {
+
+    private MonitoredServiceStatusRepository statusRepository;
+    private ServiceStatusTable table;
+
+    @BeforeEach
+    void setUp() {
+        statusRepository = mock(MonitoredServiceStatusRepository.class);
+        table = new ServiceStatusTable(statusRepository);
+    }
+
+    @Test
+    void testTransitionIsWrittenImmediately() {
+        // Given
+        MonitoredService service = service(MonitoredService.ServiceStatus.UP);
+        table.track(service);
+
+        // When
+        ProbeResult down = ProbeResult.down("HTTP 503");
+        table.record(service.getId(), down);
+        table.flush();
+
+        // Then: the transition write carried the heartbeat fields, so nothing is left to flush
+        verify(statusRepository).updateStatus(new ServiceStatusSnapshot(service.getId(),
+                MonitoredService.ServiceStatus.DOWN, down.checkedAt(), null, "HTTP 503"));
+        verify(statusRepository, never()).updateHeartbeats(anyList());
+    }
+
+    @Test
+    void testHeartbeatsAreWrittenTogetherOnFlush() {
+        // Given
+        MonitoredService first = service(MonitoredService.ServiceStatus.UP);
+        MonitoredService second = service(MonitoredService.ServiceStatus.UP);
+        table.track(first);
+        table.track(second);
+
+        // When
+        table.record(first.getId(), ProbeResult.up(40));
+        table.record(first.getId(), ProbeResult.up(45));
+        table.record(second.getId(), ProbeResult.up(60));
+        verifyNoInteractions(statusRepository);
+        table.flush();
+        table.flush();
+
+        // Then
+        List<ServiceStatusSnapshot> heartbeats = heartbeats(1).get(0);
+        assertEquals(Set.of(first.getId(), second.getId()),
+                heartbeats.stream().map(ServiceStatusSnapshot::serviceId).collect(Collectors.toSet()));
+        assertTrue(heartbeats.stream().anyMatch(snapshot -> Long.valueOf(45).equals(snapshot.responseTimeMs())));
+        verify(statusRepository, never()).updateStatus(any());
+    }
+
+    @Test
+    void testFailedFlushIsRetriedOnNextFlush() {
+        // Given
+        MonitoredService service = service(MonitoredService.ServiceStatus.UP);
+        table.track(service);
+        table.record(service.getId(), ProbeResult.up(40));
+        when(statusRepository.updateHeartbeats(anyList())).thenThrow(new RuntimeException("connection refused"))
+                .thenReturn(1);
+
+        // When
+        table.flush();
+        table.flush();
+        table.flush();
+
+        // Then
+        List<List<ServiceStatusSnapshot>> attempts = heartbeats(2);
+        assertEquals(attempts.get(0), attempts.get(1));
+    }
+
+    @Test
+    void testFailedTransitionIsWrittenAsStatusChangeOnFlush() {
+        // Given
+        MonitoredService service = service(MonitoredService.ServiceStatus.UP);
+        table.track(service);
+        doThrow(new RuntimeException("connection refused")).doNothing().when(statusRepository).updateStatus(any());
+
+        // When
+        table.record(service.getId(), ProbeResult.down("HTTP 503"));
+        table.flush();
+
+        // Then
+        ArgumentCaptor<ServiceStatusSnapshot> captor = ArgumentCaptor.forClass(ServiceStatusSnapshot.class);
+        verify(statusRepository, times(2)).updateStatus(captor.capture());
+        assertEquals(MonitoredService.ServiceStatus.DOWN, captor.getAllValues().get(1).status());
+        assertEquals(List.of(List.of()), heartbeats(1));
+    }
+
+    @Test
+    void testApplyToOverlaysLiveStatus() {
+        // Given
+        MonitoredService tracked = service(MonitoredService.ServiceStatus.UP);
+        table.track(tracked);
+        table.record(tracked.getId(), ProbeResult.down("Connection timeout"));
+        MonitoredService untracked = service(MonitoredService.ServiceStatus.UP);
+
+        // When
+        MonitoredService loaded = service(MonitoredService.ServiceStatus.UP);
+        loaded.setId(tracked.getId());
+        table.applyTo(loaded);
+        table.applyTo(untracked);
+
+        // Then
+        assertEquals(MonitoredService.ServiceStatus.DOWN, loaded.getStatus());
+        assertEquals("Connection timeout", loaded.getErrorMessage());
+        assertNull(loaded.getResponseTimeMs());
+        assertEquals(MonitoredService.ServiceStatus.UP, untracked.getStatus());
+        assertEquals(Long.valueOf(30), untracked.getResponseTimeMs());
+    }
+
+    private List<List<ServiceStatusSnapshot>> heartbeats(int times) {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ServiceStatusSnapshot>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statusRepository, times(times)).updateHeartbeats(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static MonitoredService service(MonitoredService.ServiceStatus status) {
+        MonitoredService service = new MonitoredService();
+        service.setId(UUID.randomUUID());
+        service.setName("checkout");
+        service.setUrl("http://checkout.internal/health");
+        service.setStatus(status);
+        service.setLastChecked(Instant.now().minusSeconds(60));
+        service.setResponseTimeMs(30L);
+        return service;
+    }
+}